@@ -0,0 +1,91 @@
+package com.licc.btc.chbtcapi;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import com.licc.btc.chbtcapi.enums.ETradeCurrency;
+import com.licc.btc.chbtcapi.req.CancelOrderReq;
+import com.licc.btc.chbtcapi.req.GetOrderReq;
+import com.licc.btc.chbtcapi.req.GetOrdersNewReq;
+import com.licc.btc.chbtcapi.req.GetUnfinishedOrdersReq;
+import com.licc.btc.chbtcapi.req.OrderReq;
+import com.licc.btc.chbtcapi.res.order.CancelOrderRes;
+import com.licc.btc.chbtcapi.res.order.GetOrderRes;
+import com.licc.btc.chbtcapi.res.order.GetOrdersRes;
+import com.licc.btc.chbtcapi.res.order.OrderRes;
+import com.licc.btc.chbtcapi.res.ticker.TickerApiRes;
+
+/**
+ * 中国比特币交易网 API 非阻塞版本
+ * <p>
+ * 与{@link ChbtcApi}的接口一一对应，请求通过OkHttp的异步线程发出，调用线程不等待网络返回。
+ * 静态方法委托给{@link ChbtcClient#getDefault()}。
+ * 请求失败或者http状态码不是2xx时返回的future以异常结束；取消future会同时取消http请求。
+ *
+ * @author lichangchao
+ * @version 1.0.0
+ * @date 2018/3/5 10:36
+ * @see ChbtcApi
+ */
+public class ChbtcAsyncApi {
+
+    /**
+     * 获取行情数据
+     *
+     * @param tradeCurrency
+     * @return
+     */
+    public static CompletableFuture<TickerApiRes> ticker(ETradeCurrency tradeCurrency) {
+        return ChbtcClient.getDefault().tickerAsync(tradeCurrency);
+    }
+
+    /**
+     * 委托买卖订单
+     *
+     * @param orderReq
+     * @return
+     */
+    public static CompletableFuture<OrderRes> order(OrderReq orderReq) {
+        return ChbtcClient.getDefault().orderAsync(orderReq);
+    }
+
+    /**
+     * 取消委托订单
+     *
+     * @param cancelOrderReq
+     * @return
+     */
+    public static CompletableFuture<CancelOrderRes> cancelOrder(CancelOrderReq cancelOrderReq) {
+        return ChbtcClient.getDefault().cancelOrderAsync(cancelOrderReq);
+    }
+
+    /**
+     * 获取订单信息
+     *
+     * @param getOrderReq
+     * @return
+     */
+    public static CompletableFuture<GetOrderRes> getOrder(GetOrderReq getOrderReq) {
+        return ChbtcClient.getDefault().getOrderAsync(getOrderReq);
+    }
+
+    /**
+     * 获取未成交或部份成交的买单和卖单
+     *
+     * @param req
+     * @return
+     */
+    public static CompletableFuture<List<GetOrdersRes>> getUnfinishedOrdersIgnoreTradeType(GetUnfinishedOrdersReq req) {
+        return ChbtcClient.getDefault().getUnfinishedOrdersIgnoreTradeTypeAsync(req);
+    }
+
+    /**
+     * (新)获取多个委托买单或卖单
+     *
+     * @param req
+     * @return
+     */
+    public static CompletableFuture<List<GetOrdersRes>> getOrdersNew(GetOrdersNewReq req) {
+        return ChbtcClient.getDefault().getOrdersNewAsync(req);
+    }
+}
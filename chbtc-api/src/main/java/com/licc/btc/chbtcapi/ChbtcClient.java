@@ -0,0 +1,661 @@
+package com.licc.btc.chbtcapi;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import com.licc.btc.chbtcapi.breaker.CircuitBreaker;
+import com.licc.btc.chbtcapi.breaker.CircuitBreakerOpenException;
+import com.licc.btc.chbtcapi.breaker.CircuitBreakerRegistry;
+import com.licc.btc.chbtcapi.enums.ERequestPriority;
+import com.licc.btc.chbtcapi.enums.ETradeCurrency;
+import com.licc.btc.chbtcapi.enums.ETradeOrderType;
+import com.licc.btc.chbtcapi.enums.ETradeResStatus;
+import com.licc.btc.chbtcapi.hedge.HedgeStats;
+import com.licc.btc.chbtcapi.hedge.HedgedRequest;
+import com.licc.btc.chbtcapi.limit.RateLimitScheduler;
+import com.licc.btc.chbtcapi.req.CancelOrderReq;
+import com.licc.btc.chbtcapi.req.GetOrderReq;
+import com.licc.btc.chbtcapi.req.GetOrdersNewReq;
+import com.licc.btc.chbtcapi.req.GetUnfinishedOrdersReq;
+import com.licc.btc.chbtcapi.req.OrderReq;
+import com.licc.btc.chbtcapi.res.order.CancelOrderRes;
+import com.licc.btc.chbtcapi.res.order.GetOrderRes;
+import com.licc.btc.chbtcapi.res.order.GetOrdersRes;
+import com.licc.btc.chbtcapi.res.order.OrderRes;
+import com.licc.btc.chbtcapi.res.ticker.TickerApiRes;
+import com.licc.btc.chbtcapi.transport.ChbtcTransport;
+import com.licc.btc.chbtcapi.transport.TransportFactory;
+import com.licc.btc.chbtcapi.transport.TransportResponse;
+import com.licc.btc.chbtcapi.util.ChbtcSigner;
+import com.licc.btc.chbtcapi.util.OkHttpUtils;
+
+import okhttp3.HttpUrl;
+
+/**
+ * 中国比特币交易网 API 客户端
+ * <p>
+ * 交易接口和行情接口各自使用独立的连接池和调度器，参数见{@link ChbtcHostConfig}；
+ * 请求通过{@link ChbtcTransport}发出，可以替换为录制或回放，见{@link TransportFactory}。
+ * 同步方法出错时与{@link ChbtcApi}一致返回null或空列表，异步方法返回的future以异常结束；
+ * 请求没有发出时异常为{@link RequestNotSentException}，下单需要区分时用{@link #submitOrder}。
+ * 签名请求经过按accessKey限流的{@link RateLimitScheduler}，优先级见{@link ERequestPriority}。
+ * 行情请求有截止时间，慢请求由{@link HedgedRequest}发出对冲请求。
+ * 每个域名下的每个接口有独立的{@link CircuitBreaker}，打开期间调用直接失败。
+ * 无参构造和{@link #getDefault()}使用{@link ChbtcHostConfig#legacy()}，不限流、不熔断、不对冲，需要时通过配置创建客户端。
+ *
+ * @author lichangchao
+ * @version 1.0.0
+ * @date 2018/3/7 14:20
+ * @see ChbtcHostConfig
+ */
+public class ChbtcClient {
+    static final ObjectMapper                      mapper        = new ObjectMapper();
+    static final TypeReference<List<GetOrdersRes>> ORDERS_TYPE   = new TypeReference<List<GetOrdersRes>>() {
+    };
+    static final int                               MAX_PAGE_SIZE = 100; // 分页接口每页最多100条
+
+    private final HttpHost                          trade;
+    private final HttpHost                          data;
+    private final ScheduledExecutorService          timer;
+    private final TransportFactory                  transportFactory;
+    private final RateLimitScheduler                limiter;
+    private final long                              maxPermitWaitMillis;
+    private final HedgedRequest                     tickerHedge; // 为null时行情请求不对冲、不限制截止时间
+    private final ConcurrentMap<String, ChbtcSigner> signers = new ConcurrentHashMap<>();
+
+    public ChbtcClient() {
+        this(ChbtcHostConfig.trade().legacy(), ChbtcHostConfig.data().legacy());
+    }
+
+    public ChbtcClient(ChbtcHostConfig tradeConfig, ChbtcHostConfig dataConfig) {
+        this(tradeConfig, dataConfig, TransportFactory.live());
+    }
+
+    /**
+     * @param transportFactory 传输层，可以替换为录制或回放
+     */
+    public ChbtcClient(ChbtcHostConfig tradeConfig, ChbtcHostConfig dataConfig, TransportFactory transportFactory) {
+        ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, r -> {
+            Thread thread = new Thread(r, "chbtc-client-timer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.setRemoveOnCancelPolicy(true);
+        this.timer = executor;
+        this.transportFactory = transportFactory;
+        this.trade = new HttpHost(tradeConfig, transportFactory.create(tradeConfig, timer));
+        this.data = new HttpHost(dataConfig, transportFactory.create(dataConfig, timer));
+        this.limiter = tradeConfig.getRateLimitPerSecond() > 0
+                ? new RateLimitScheduler(tradeConfig.getRateLimitPerSecond(), tradeConfig.getRateLimitBurst(), timer) : null;
+        this.maxPermitWaitMillis = tradeConfig.getRateLimitMaxWaitMillis();
+        this.tickerHedge = dataConfig.getDeadlineMillis() > 0 ? new HedgedRequest(timer, dataConfig.getHedgePercentile(),
+                dataConfig.getHedgeMinDelayMillis(), dataConfig.getDeadlineMillis()) : null;
+    }
+
+    /**
+     * 静态API使用的默认客户端
+     */
+    public static ChbtcClient getDefault() {
+        return DefaultHolder.INSTANCE;
+    }
+
+    /**
+     * 获取行情数据
+     *
+     * @param tradeCurrency
+     * @return
+     */
+    public TickerApiRes ticker(ETradeCurrency tradeCurrency) {
+        try {
+            return tickerAsync(tradeCurrency).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (ExecutionException e) {
+            e.getCause().printStackTrace();
+            return null;
+        }
+    }
+
+    /**
+     * 获取行情数据，超过截止时间时future以TimeoutException结束
+     */
+    public CompletableFuture<TickerApiRes> tickerAsync(ETradeCurrency tradeCurrency) {
+        String url = tickerUrl(tradeCurrency);
+        if (tickerHedge == null) {
+            return data.enqueue(Consts.Chbtc_Data_Tticker, url, readObject(TickerApiRes.class));
+        }
+        return tickerHedge.execute(() -> data.enqueue(Consts.Chbtc_Data_Tticker, url, readObject(TickerApiRes.class)));
+    }
+
+    /**
+     * 行情请求的对冲统计
+     */
+    public HedgeStats tickerHedgeStats() {
+        return tickerHedge == null ? new HedgeStats(0, 0, 0, 0, 0, 0, 0, 0) : tickerHedge.stats();
+    }
+
+    /**
+     * 委托买卖订单
+     *
+     * @param orderReq
+     * @return
+     */
+    public OrderRes order(OrderReq orderReq) {
+        try {
+            return submitOrder(orderReq);
+        } catch (RequestNotSentException e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    /**
+     * 委托买卖订单，区分请求没有发出和发出后结果未知
+     *
+     * @return 发出后失败或没有响应时返回null，此时交易所可能已经受理
+     * @throws RequestNotSentException 熔断或等待请求配额超时，请求没有发出
+     */
+    public OrderRes submitOrder(OrderReq orderReq) throws RequestNotSentException {
+        try {
+            return executeSigned(orderReq.getAccessKey(), priority(orderReq), Consts.Chbtc_Trade_Order, () -> orderUrl(orderReq),
+                    readObject(OrderRes.class));
+        } catch (RequestNotSentException e) {
+            throw e;
+        } catch (IOException e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    public CompletableFuture<OrderRes> orderAsync(OrderReq orderReq) {
+        return enqueueSigned(orderReq.getAccessKey(), priority(orderReq), Consts.Chbtc_Trade_Order, () -> orderUrl(orderReq), readObject(OrderRes.class));
+    }
+
+    /**
+     * 取消委托订单
+     *
+     * @param cancelOrderReq
+     * @return
+     */
+    public CancelOrderRes cancelOrder(CancelOrderReq cancelOrderReq) {
+        try {
+            return executeSigned(cancelOrderReq.getAccessKey(), ERequestPriority.CANCEL, Consts.Chbtc_Trade_CancelOrder,
+                    () -> cancelOrderUrl(cancelOrderReq), readObject(CancelOrderRes.class));
+        } catch (IOException e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    public CompletableFuture<CancelOrderRes> cancelOrderAsync(CancelOrderReq cancelOrderReq) {
+        return enqueueSigned(cancelOrderReq.getAccessKey(), ERequestPriority.CANCEL, Consts.Chbtc_Trade_CancelOrder,
+                () -> cancelOrderUrl(cancelOrderReq), readObject(CancelOrderRes.class));
+    }
+
+    /**
+     * 获取订单信息
+     *
+     * @param getOrderReq
+     * @return
+     */
+    public GetOrderRes getOrder(GetOrderReq getOrderReq) {
+        try {
+            return executeSigned(getOrderReq.getAccessKey(), ERequestPriority.QUERY, Consts.Chbtc_Trade_GetOrder,
+                    () -> getOrderUrl(getOrderReq), readObject(GetOrderRes.class));
+        } catch (IOException e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    public CompletableFuture<GetOrderRes> getOrderAsync(GetOrderReq getOrderReq) {
+        return enqueueSigned(getOrderReq.getAccessKey(), ERequestPriority.QUERY, Consts.Chbtc_Trade_GetOrder,
+                () -> getOrderUrl(getOrderReq), readObject(GetOrderRes.class));
+    }
+
+    /**
+     * 获取未成交或部份成交的买单和卖单
+     *
+     * @param req
+     * @return
+     */
+    public List<GetOrdersRes> getUnfinishedOrdersIgnoreTradeType(GetUnfinishedOrdersReq req) {
+        try {
+            return executeSigned(req.getAccessKey(), ERequestPriority.QUERY, Consts.Chbtc_Unfinished_Orders,
+                    () -> unfinishedOrdersUrl(req), ChbtcClient::readOrders);
+        } catch (Exception e) {
+            e.printStackTrace();
+            return Collections.emptyList();
+        }
+    }
+
+    public CompletableFuture<List<GetOrdersRes>> getUnfinishedOrdersIgnoreTradeTypeAsync(GetUnfinishedOrdersReq req) {
+        return enqueueSigned(req.getAccessKey(), ERequestPriority.QUERY, Consts.Chbtc_Unfinished_Orders,
+                () -> unfinishedOrdersUrl(req), ChbtcClient::readOrders);
+    }
+
+    /**
+     * (新)获取多个委托买单或卖单
+     *
+     * @param req
+     * @return
+     */
+    public List<GetOrdersRes> getOrdersNew(GetOrdersNewReq req) {
+        try {
+            return executeSigned(req.getAccessKey(), ERequestPriority.QUERY, Consts.Chbtc_Get_Orders_New,
+                    () -> ordersNewUrl(req), ChbtcClient::readOrders);
+        } catch (Exception e) {
+            e.printStackTrace();
+            return Collections.emptyList();
+        }
+    }
+
+    public CompletableFuture<List<GetOrdersRes>> getOrdersNewAsync(GetOrdersNewReq req) {
+        return enqueueSigned(req.getAccessKey(), ERequestPriority.QUERY, Consts.Chbtc_Get_Orders_New,
+                () -> ordersNewUrl(req), ChbtcClient::readOrders);
+    }
+
+    /**
+     * 从req的页码开始逐页获取未成交或部份成交的订单，遍历到哪页才请求到哪页，并预取下一页
+     * <p>
+     * 请求失败时遍历抛出{@link java.io.UncheckedIOException}；提前结束遍历时应关闭流以取消预取的请求。
+     *
+     * @param req 页码为空时从第1页开始，pageSize为空或大于100时按100
+     * @return
+     */
+    public Stream<GetOrdersRes> streamUnfinishedOrders(GetUnfinishedOrdersReq req) {
+        int pageSize = pageSize(req.getPageSize());
+        return pageStream(pageIndex(req.getPageIndex()), pageSize, pageIndex -> {
+            GetUnfinishedOrdersReq page = new GetUnfinishedOrdersReq();
+            page.setAccessKey(req.getAccessKey());
+            page.setSecretKey(req.getSecretKey());
+            page.setCurrency(req.getCurrency());
+            page.setPageIndex(pageIndex);
+            page.setPageSize(pageSize);
+            return getUnfinishedOrdersIgnoreTradeTypeAsync(page);
+        });
+    }
+
+    /**
+     * 从req的页码开始逐页获取委托买单或卖单，遍历方式同{@link #streamUnfinishedOrders}
+     *
+     * @param req
+     * @return
+     */
+    public Stream<GetOrdersRes> streamOrdersNew(GetOrdersNewReq req) {
+        int pageSize = pageSize(req.getPageSize());
+        return pageStream(pageIndex(req.getPageIndex()), pageSize, pageIndex -> {
+            GetOrdersNewReq page = new GetOrdersNewReq();
+            page.setAccessKey(req.getAccessKey());
+            page.setSecretKey(req.getSecretKey());
+            page.setCurrency(req.getCurrency());
+            page.setOrderType(req.getOrderType());
+            page.setPageIndex(pageIndex);
+            page.setPageSize(pageSize);
+            return getOrdersNewAsync(page);
+        });
+    }
+
+    private static <T> Stream<T> pageStream(int firstPageIndex, int pageSize, IntFunction<CompletableFuture<List<T>>> fetcher) {
+        PageSpliterator<T> spliterator = new PageSpliterator<>(fetcher, firstPageIndex, pageSize);
+        return StreamSupport.stream(spliterator, false).onClose(spliterator::close);
+    }
+
+    private static int pageIndex(Integer pageIndex) {
+        return pageIndex == null || pageIndex < 1 ? 1 : pageIndex;
+    }
+
+    private static int pageSize(Integer pageSize) {
+        return pageSize == null || pageSize < 1 || pageSize > MAX_PAGE_SIZE ? MAX_PAGE_SIZE : pageSize;
+    }
+
+    /**
+     * accessKey剩余的请求配额，不限流时返回{@link Double#MAX_VALUE}
+     */
+    public double remainingBudget(String accessKey) {
+        return limiter == null ? Double.MAX_VALUE : limiter.remaining(accessKey);
+    }
+
+    /**
+     * accessKey的剩余配额是否足够执行该优先级的请求，配额紧张时调用方应跳过低优先级的工作
+     */
+    public boolean hasBudget(String accessKey, ERequestPriority priority) {
+        return limiter == null || limiter.hasBudget(accessKey, priority);
+    }
+
+    /**
+     * 接口的熔断器是否打开，打开时调用直接失败，调用方可以跳过依赖该接口的工作
+     *
+     * @param endpoint 接口方法，见{@link Consts}
+     */
+    public boolean isCircuitOpen(String endpoint) {
+        return (Consts.Chbtc_Data_Tticker.equals(endpoint) ? data : trade).isOpen(endpoint);
+    }
+
+    /**
+     * 所有熔断器的当前状态
+     */
+    public Map<String, CircuitBreaker.State> circuitStates() {
+        Map<String, CircuitBreaker.State> states = new TreeMap<>();
+        states.putAll(trade.breakers.states());
+        states.putAll(data.breakers.states());
+        return states;
+    }
+
+    /**
+     * 拿到令牌后再签名，避免排队期间reqTime过期
+     */
+    private <T> T executeSigned(String accessKey, ERequestPriority priority, String endpoint, Supplier<String> url,
+            ResponseFuture.Decoder<T> decoder) throws IOException {
+        if (trade.isOpen(endpoint)) {
+            // 熔断时不占用请求配额
+            throw new CircuitBreakerOpenException(trade.breakerName(endpoint));
+        }
+        if (limiter != null) {
+            CompletableFuture<Void> permit = limiter.acquire(accessKey, priority);
+            try {
+                permit.get(maxPermitWaitMillis, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                permit.cancel(false);
+                throw new RequestNotSentException("等待请求配额超时: " + priority);
+            } catch (InterruptedException e) {
+                permit.cancel(false);
+                Thread.currentThread().interrupt();
+                throw new RequestNotSentException("等待请求配额被中断: " + priority);
+            } catch (Exception e) {
+                throw new RequestNotSentException("等待请求配额失败: " + e);
+            }
+        }
+        return trade.execute(endpoint, url.get(), decoder);
+    }
+
+    private <T> CompletableFuture<T> enqueueSigned(String accessKey, ERequestPriority priority, String endpoint, Supplier<String> url,
+            ResponseFuture.Decoder<T> decoder) {
+        if (trade.isOpen(endpoint)) {
+            CompletableFuture<T> future = new CompletableFuture<>();
+            future.completeExceptionally(new CircuitBreakerOpenException(trade.breakerName(endpoint)));
+            return future;
+        }
+        if (limiter == null) {
+            return trade.enqueue(endpoint, url.get(), decoder);
+        }
+        return new SignedFuture<>(limiter.acquire(accessKey, priority), () -> trade.enqueue(endpoint, url.get(), decoder), timer,
+                maxPermitWaitMillis, "等待请求配额超时: " + priority);
+    }
+
+    private static ERequestPriority priority(OrderReq orderReq) {
+        return orderReq.getTradeOrderType() == ETradeOrderType.ORDER_SELL ? ERequestPriority.SELL : ERequestPriority.BUY;
+    }
+
+    /**
+     * 关闭连接池和调度线程
+     */
+    public void shutdown() {
+        trade.shutdown();
+        data.shutdown();
+        timer.shutdownNow();
+        try {
+            transportFactory.close();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    String tickerUrl(ETradeCurrency tradeCurrency) {
+        return OkHttpUtils.attachHttpGetParam(data.baseUrl + Consts.Chbtc_Data_Tticker, "market", tradeCurrency.getValue());
+    }
+
+    String orderUrl(OrderReq orderReq) {
+        String params = "method=" + Consts.Chbtc_Trade_Order + "&accesskey=" + orderReq.getAccessKey() + "&price=" + orderReq.getPrice()
+                + "&amount=" + orderReq.getAmount() + "&tradeType=" + orderReq.getTradeOrderType().getValue() + "&currency="
+                + orderReq.getTradeCurrency().getValue();
+        return signedUrl(Consts.Chbtc_Trade_Order, params, orderReq.getSecretKey());
+    }
+
+    String cancelOrderUrl(CancelOrderReq cancelOrderReq) {
+        String params = "method=" + Consts.Chbtc_Trade_CancelOrder + "&accesskey=" + cancelOrderReq.getAccessKey() + "&id="
+                + cancelOrderReq.getId() + "&currency=" + cancelOrderReq.getTradeCurrency().getValue();
+        return signedUrl(Consts.Chbtc_Trade_CancelOrder, params, cancelOrderReq.getSecretKey());
+    }
+
+    String getOrderUrl(GetOrderReq getOrderReq) {
+        String params = "method=" + Consts.Chbtc_Trade_GetOrder + "&accesskey=" + getOrderReq.getAccessKey() + "&id=" + getOrderReq.getId()
+                + "&currency=" + getOrderReq.getTradeCurrency().getValue();
+        return signedUrl(Consts.Chbtc_Trade_GetOrder, params, getOrderReq.getSecretKey());
+    }
+
+    String unfinishedOrdersUrl(GetUnfinishedOrdersReq req) {
+        String params = "method=" + Consts.Chbtc_Unfinished_Orders + "&accesskey=" + req.getAccessKey() + "&currency="
+                + req.getCurrency().getValue() + "&pageIndex=" + req.getPageIndex() + "&pageSize=" + req.getPageSize();
+        return signedUrl(Consts.Chbtc_Unfinished_Orders, params, req.getSecretKey());
+    }
+
+    String ordersNewUrl(GetOrdersNewReq req) {
+        String params = "method=" + Consts.Chbtc_Get_Orders_New + "&accesskey=" + req.getAccessKey() + "&tradeType="
+                + req.getOrderType().getValue() + "&currency=" + req.getCurrency().getValue() + "&pageIndex=" + req.getPageIndex()
+                + "&pageSize=" + req.getPageSize();
+        return signedUrl(Consts.Chbtc_Get_Orders_New, params, req.getSecretKey());
+    }
+
+    /**
+     * 签名并拼接交易接口地址
+     *
+     * @param method 接口方法
+     * @param params 待签名参数
+     * @param secretKey 用户私钥
+     * @return
+     */
+    String signedUrl(String method, String params, String secretKey) {
+        String hash = signer(secretKey).sign(params);
+        return trade.baseUrl + method + "?" + params + "&sign=" + hash + "&reqTime=" + System.currentTimeMillis();
+    }
+
+    /**
+     * 每个私钥只计算一次签名密钥
+     */
+    ChbtcSigner signer(String secretKey) {
+        ChbtcSigner signer = signers.get(secretKey);
+        if (signer == null) {
+            signer = signers.computeIfAbsent(secretKey, ChbtcSigner::new);
+        }
+        return signer;
+    }
+
+    /**
+     * 解析订单列表，没有记录时接口返回的是错误对象而不是数组
+     *
+     * @param in 响应流
+     * @return
+     * @throws IOException
+     */
+    static List<GetOrdersRes> readOrders(InputStream in) throws IOException {
+        JsonParser parser = mapper.getFactory().createParser(in);
+        JsonToken token = parser.nextToken();
+        if (token != JsonToken.START_ARRAY) {
+            if (token == JsonToken.START_OBJECT) {
+                checkMaintenance(mapper.readTree(parser));
+            }
+            return Collections.emptyList();
+        }
+        return mapper.readValue(parser, ORDERS_TYPE);
+    }
+
+    /**
+     * 解析单个对象，接口维护中时抛出异常
+     * <p>
+     * 边读边看顶层的code和message，读过的内容缓存成token再绑定到目标类型，不建JsonNode树。
+     */
+    static <T> ResponseFuture.Decoder<T> readObject(Class<T> type) {
+        return in -> {
+            JsonParser parser = mapper.getFactory().createParser(in);
+            JsonToken token = parser.nextToken();
+            if (token == null) {
+                throw new IOException("响应为空");
+            }
+            if (token != JsonToken.START_OBJECT) {
+                throw new IOException("响应不是对象: " + token);
+            }
+            TokenBuffer buffer = new TokenBuffer(parser);
+            buffer.writeStartObject();
+            String code = null;
+            String message = null;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                buffer.writeFieldName(field);
+                if (parser.nextToken().isScalarValue()) {
+                    if ("code".equals(field)) {
+                        code = parser.getText();
+                    } else if ("message".equals(field)) {
+                        message = parser.getText();
+                    }
+                }
+                buffer.copyCurrentStructure(parser);
+            }
+            buffer.writeEndObject();
+            checkMaintenance(code, message);
+            return mapper.readValue(buffer.asParser(), type);
+        };
+    }
+
+    static void checkMaintenance(JsonNode node) throws ChbtcResponseException {
+        checkMaintenance(node.path("code").asText(), node.path("message").asText(null));
+    }
+
+    static void checkMaintenance(String code, String message) throws ChbtcResponseException {
+        if (ETradeResStatus.API_IN_MAINTENANCE.getKey().equals(code)) {
+            throw new ChbtcResponseException(200, code, message == null ? ETradeResStatus.API_IN_MAINTENANCE.getValue() : message);
+        }
+    }
+
+    /**
+     * 单个域名的连接池、调度器和超时设置
+     */
+    static class HttpHost {
+        final String                 baseUrl;
+        final String                 host;
+        final ChbtcTransport         transport;
+        final CircuitBreakerRegistry breakers;
+
+        HttpHost(ChbtcHostConfig config, ChbtcTransport transport) {
+            this.baseUrl = config.getBaseUrl();
+            this.host = HttpUrl.parse(baseUrl).host();
+            this.transport = transport;
+            this.breakers = config.isBreakerEnabled() ? new CircuitBreakerRegistry(config.getBreakerFailureRate(),
+                    config.getBreakerMinimumCalls(), config.getBreakerWindowMillis(), config.getBreakerOpenMillis(),
+                    config.getBreakerHalfOpenCalls()) : null;
+        }
+
+        <T> T execute(String endpoint, String url, ResponseFuture.Decoder<T> decoder) throws IOException {
+            CircuitBreaker breaker = acquire(endpoint);
+            try {
+                T result;
+                try (TransportResponse response = transport.execute(url)) {
+                    result = ResponseFuture.decode(response, decoder);
+                }
+                record(breaker, null);
+                return result;
+            } catch (IOException | RuntimeException e) {
+                record(breaker, e);
+                throw e;
+            }
+        }
+
+        <T> CompletableFuture<T> enqueue(String endpoint, String url, ResponseFuture.Decoder<T> decoder) {
+            CircuitBreaker breaker;
+            try {
+                breaker = acquire(endpoint);
+            } catch (CircuitBreakerOpenException e) {
+                CompletableFuture<T> future = new CompletableFuture<>();
+                future.completeExceptionally(e);
+                return future;
+            }
+            ResponseFuture<T> future = new ResponseFuture<>(decoder);
+            future.whenComplete((res, e) -> {
+                if (future.isCancelled()) {
+                    // 调用方取消(例如对冲请求中输给另一个请求的)，不代表服务端故障；
+                    // 超过截止时间的请求以TimeoutException结束，不走这里，计为失败
+                    if (breaker != null) {
+                        breaker.onIgnored();
+                    }
+                } else {
+                    record(breaker, e);
+                }
+            });
+            future.bind(transport.enqueue(url));
+            return future;
+        }
+
+        String breakerName(String endpoint) {
+            return host + "/" + endpoint;
+        }
+
+        boolean isOpen(String endpoint) {
+            return breakers != null && breakers.get(breakerName(endpoint)).getState() == CircuitBreaker.State.OPEN;
+        }
+
+        private CircuitBreaker acquire(String endpoint) throws CircuitBreakerOpenException {
+            if (breakers == null) {
+                return null;
+            }
+            CircuitBreaker breaker = breakers.get(breakerName(endpoint));
+            if (!breaker.tryAcquire()) {
+                throw new CircuitBreakerOpenException(breaker.getName());
+            }
+            return breaker;
+        }
+
+        /**
+         * 网络错误、超时、5xx和接口维护中计为失败，其它错误说明服务端正常处理了请求
+         */
+        private static void record(CircuitBreaker breaker, Throwable error) {
+            if (breaker == null) {
+                return;
+            }
+            if (error instanceof CompletionException && error.getCause() != null) {
+                error = error.getCause();
+            }
+            if (error == null) {
+                breaker.onSuccess();
+            } else if (error instanceof ChbtcResponseException && !((ChbtcResponseException) error).isServerFault()) {
+                breaker.onSuccess();
+            } else if (error instanceof IOException || error instanceof TimeoutException) {
+                breaker.onFailure();
+            } else {
+                // 客户端的运行时异常
+                breaker.onIgnored();
+            }
+        }
+
+        void shutdown() {
+            transport.shutdown();
+        }
+    }
+
+    private static class DefaultHolder {
+        static final ChbtcClient INSTANCE = new ChbtcClient();
+    }
+}
@@ -0,0 +1,247 @@
+package com.licc.btc.chbtcapi;
+
+/**
+ * 单个接口域名的http连接配置，trade.zb.com 和 api.zb.com 各自一份
+ *
+ * @author lichangchao
+ * @version 1.0.0
+ * @date 2018/3/7 14:02
+ * @see ChbtcClient
+ */
+public class ChbtcHostConfig {
+    private String  baseUrl;
+    private int     maxIdleConnections     = 8;      // 连接池最大空闲连接数
+    private long    keepAliveMillis        = 300000; // 空闲连接保活时间
+    private int     maxRequests            = 128;    // 同时进行的最大请求数
+    private int     maxRequestsPerHost     = 64;     // 单个域名同时进行的最大请求数
+    private boolean http2                  = true;   // 是否启用HTTP/2(仅https且服务端支持时生效)
+    private long    connectTimeoutMillis   = 5000;
+    private long    readTimeoutMillis      = 10000;
+    private long    writeTimeoutMillis     = 10000;
+    private long    callTimeoutMillis      = 15000;  // 整个调用的超时时间，0表示不限制
+    // 签名请求按accessKey限流，只对交易接口生效；每秒令牌数为0表示不限流
+    private double  rateLimitPerSecond     = 10;
+    private int     rateLimitBurst         = 10;
+    private long    rateLimitMaxWaitMillis = 2000;   // 排队等待令牌的最长时间，同步和异步请求相同
+    // 行情请求超过最近延迟的分位数仍未返回时发出对冲请求，只对行情接口生效；分位数为0表示不对冲
+    private double  hedgePercentile        = 95;
+    private long    hedgeMinDelayMillis    = 20;
+    private long    deadlineMillis         = 2000;   // 行情请求的截止时间，包括对冲请求，0表示不限制也不对冲
+    // 每个接口一个熔断器，滚动窗口内失败率达到阈值时打开，打开期间调用直接失败
+    private boolean breakerEnabled         = true;
+    private int     breakerFailureRate     = 50;     // 失败率阈值，百分比
+    private int     breakerMinimumCalls    = 10;     // 窗口内调用数达到后才计算失败率
+    private long    breakerWindowMillis    = 10000;
+    private long    breakerOpenMillis      = 5000;   // 打开多久后进入半开状态
+    private int     breakerHalfOpenCalls   = 1;      // 半开状态放行的探测调用数
+
+    public ChbtcHostConfig() {
+    }
+
+    public ChbtcHostConfig(String baseUrl) {
+        this.baseUrl = baseUrl;
+    }
+
+    /**
+     * 交易接口默认配置
+     */
+    public static ChbtcHostConfig trade() {
+        return new ChbtcHostConfig(Consts.Chbtc_Trade);
+    }
+
+    /**
+     * 行情接口默认配置
+     */
+    public static ChbtcHostConfig data() {
+        return new ChbtcHostConfig(Consts.Chbtc_Data);
+    }
+
+    /**
+     * 关闭限流、熔断、对冲和截止时间，静态API的默认客户端使用，保持原来的行为
+     *
+     * @return this
+     */
+    public ChbtcHostConfig legacy() {
+        this.rateLimitPerSecond = 0;
+        this.breakerEnabled = false;
+        this.hedgePercentile = 0;
+        this.deadlineMillis = 0;
+        return this;
+    }
+
+    public String getBaseUrl() {
+        return baseUrl;
+    }
+
+    public void setBaseUrl(String baseUrl) {
+        this.baseUrl = baseUrl;
+    }
+
+    public int getMaxIdleConnections() {
+        return maxIdleConnections;
+    }
+
+    public void setMaxIdleConnections(int maxIdleConnections) {
+        this.maxIdleConnections = maxIdleConnections;
+    }
+
+    public long getKeepAliveMillis() {
+        return keepAliveMillis;
+    }
+
+    public void setKeepAliveMillis(long keepAliveMillis) {
+        this.keepAliveMillis = keepAliveMillis;
+    }
+
+    public int getMaxRequests() {
+        return maxRequests;
+    }
+
+    public void setMaxRequests(int maxRequests) {
+        this.maxRequests = maxRequests;
+    }
+
+    public int getMaxRequestsPerHost() {
+        return maxRequestsPerHost;
+    }
+
+    public void setMaxRequestsPerHost(int maxRequestsPerHost) {
+        this.maxRequestsPerHost = maxRequestsPerHost;
+    }
+
+    public boolean isHttp2() {
+        return http2;
+    }
+
+    public void setHttp2(boolean http2) {
+        this.http2 = http2;
+    }
+
+    public long getConnectTimeoutMillis() {
+        return connectTimeoutMillis;
+    }
+
+    public void setConnectTimeoutMillis(long connectTimeoutMillis) {
+        this.connectTimeoutMillis = connectTimeoutMillis;
+    }
+
+    public long getReadTimeoutMillis() {
+        return readTimeoutMillis;
+    }
+
+    public void setReadTimeoutMillis(long readTimeoutMillis) {
+        this.readTimeoutMillis = readTimeoutMillis;
+    }
+
+    public long getWriteTimeoutMillis() {
+        return writeTimeoutMillis;
+    }
+
+    public void setWriteTimeoutMillis(long writeTimeoutMillis) {
+        this.writeTimeoutMillis = writeTimeoutMillis;
+    }
+
+    public double getRateLimitPerSecond() {
+        return rateLimitPerSecond;
+    }
+
+    public void setRateLimitPerSecond(double rateLimitPerSecond) {
+        this.rateLimitPerSecond = rateLimitPerSecond;
+    }
+
+    public int getRateLimitBurst() {
+        return rateLimitBurst;
+    }
+
+    public void setRateLimitBurst(int rateLimitBurst) {
+        this.rateLimitBurst = rateLimitBurst;
+    }
+
+    public long getRateLimitMaxWaitMillis() {
+        return rateLimitMaxWaitMillis;
+    }
+
+    public void setRateLimitMaxWaitMillis(long rateLimitMaxWaitMillis) {
+        this.rateLimitMaxWaitMillis = rateLimitMaxWaitMillis;
+    }
+
+    public double getHedgePercentile() {
+        return hedgePercentile;
+    }
+
+    public void setHedgePercentile(double hedgePercentile) {
+        this.hedgePercentile = hedgePercentile;
+    }
+
+    public long getHedgeMinDelayMillis() {
+        return hedgeMinDelayMillis;
+    }
+
+    public void setHedgeMinDelayMillis(long hedgeMinDelayMillis) {
+        this.hedgeMinDelayMillis = hedgeMinDelayMillis;
+    }
+
+    public long getDeadlineMillis() {
+        return deadlineMillis;
+    }
+
+    public void setDeadlineMillis(long deadlineMillis) {
+        this.deadlineMillis = deadlineMillis;
+    }
+
+    public boolean isBreakerEnabled() {
+        return breakerEnabled;
+    }
+
+    public void setBreakerEnabled(boolean breakerEnabled) {
+        this.breakerEnabled = breakerEnabled;
+    }
+
+    public int getBreakerFailureRate() {
+        return breakerFailureRate;
+    }
+
+    public void setBreakerFailureRate(int breakerFailureRate) {
+        this.breakerFailureRate = breakerFailureRate;
+    }
+
+    public int getBreakerMinimumCalls() {
+        return breakerMinimumCalls;
+    }
+
+    public void setBreakerMinimumCalls(int breakerMinimumCalls) {
+        this.breakerMinimumCalls = breakerMinimumCalls;
+    }
+
+    public long getBreakerWindowMillis() {
+        return breakerWindowMillis;
+    }
+
+    public void setBreakerWindowMillis(long breakerWindowMillis) {
+        this.breakerWindowMillis = breakerWindowMillis;
+    }
+
+    public long getBreakerOpenMillis() {
+        return breakerOpenMillis;
+    }
+
+    public void setBreakerOpenMillis(long breakerOpenMillis) {
+        this.breakerOpenMillis = breakerOpenMillis;
+    }
+
+    public int getBreakerHalfOpenCalls() {
+        return breakerHalfOpenCalls;
+    }
+
+    public void setBreakerHalfOpenCalls(int breakerHalfOpenCalls) {
+        this.breakerHalfOpenCalls = breakerHalfOpenCalls;
+    }
+
+    public long getCallTimeoutMillis() {
+        return callTimeoutMillis;
+    }
+
+    public void setCallTimeoutMillis(long callTimeoutMillis) {
+        this.callTimeoutMillis = callTimeoutMillis;
+    }
+}
@@ -0,0 +1,39 @@
+package com.licc.btc.chbtcapi;
+
+import java.io.IOException;
+
+import com.licc.btc.chbtcapi.enums.ETradeResStatus;
+
+/**
+ * 交易所返回了错误的http状态码或者接口维护中
+ *
+ * @author lichangchao
+ * @version 1.0.0
+ * @date 2018/3/19 10:40
+ * @see
+ */
+public class ChbtcResponseException extends IOException {
+    private final int    httpCode; // 接口返回错误码时为200
+    private final String apiCode;  // http状态码错误时为null
+
+    public ChbtcResponseException(int httpCode, String apiCode, String message) {
+        super(message);
+        this.httpCode = httpCode;
+        this.apiCode = apiCode;
+    }
+
+    public int getHttpCode() {
+        return httpCode;
+    }
+
+    public String getApiCode() {
+        return apiCode;
+    }
+
+    /**
+     * 服务端故障，5xx或者接口维护中，计入熔断器的失败
+     */
+    public boolean isServerFault() {
+        return httpCode >= 500 || ETradeResStatus.API_IN_MAINTENANCE.getKey().equals(apiCode);
+    }
+}
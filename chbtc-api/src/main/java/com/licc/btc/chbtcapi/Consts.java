@@ -4,6 +4,7 @@ public class Consts {
 
     public static final String Chbtc_Trade             = "https://trade.zb.com/api/";
     public static final String Chbtc_Data            = "http://api.zb.com/data/v1/";
+    public static final String Chbtc_WebSocket       = "wss://api.zb.com:9999/websocket"; // 行情推送
 
     /*************************** 接口方法 *******************/
     public static final String Chbtc_Data_Tticker       = "ticker";                        //行情
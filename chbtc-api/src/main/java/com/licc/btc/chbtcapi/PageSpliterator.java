@@ -0,0 +1,110 @@
+package com.licc.btc.chbtcapi;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+
+/**
+ * 分页接口的惰性遍历
+ * <p>
+ * 第一次遍历时才请求第一页；取到第N页后立即异步请求第N+1页，和第N页的处理重叠。
+ * 某一页的记录数小于pageSize时认为是最后一页。任何时刻最多持有两页数据。
+ *
+ * @author lichangchao
+ * @version 1.0.0
+ * @date 2018/3/12 10:12
+ * @see ChbtcClient#streamOrdersNew
+ */
+class PageSpliterator<T> implements Spliterator<T> {
+    private final IntFunction<CompletableFuture<List<T>>> fetcher;
+    private final int                                     pageSize;
+    private int                                           nextPageIndex;
+    private Iterator<T>                                   current = Collections.emptyIterator();
+    private CompletableFuture<List<T>>                    prefetch;
+    private boolean                                       lastPage;
+
+    /**
+     * @param fetcher 根据页码请求一页数据
+     * @param firstPageIndex 起始页码
+     * @param pageSize 每页记录数
+     */
+    PageSpliterator(IntFunction<CompletableFuture<List<T>>> fetcher, int firstPageIndex, int pageSize) {
+        this.fetcher = fetcher;
+        this.nextPageIndex = firstPageIndex;
+        this.pageSize = pageSize;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super T> action) {
+        while (!current.hasNext()) {
+            if (!nextPage()) {
+                return false;
+            }
+        }
+        action.accept(current.next());
+        return true;
+    }
+
+    private boolean nextPage() {
+        if (lastPage) {
+            return false;
+        }
+        if (prefetch == null) {
+            prefetch = fetcher.apply(nextPageIndex++);
+        }
+        List<T> page = join(prefetch);
+        prefetch = null;
+        if (page.size() < pageSize) {
+            lastPage = true;
+        } else {
+            prefetch = fetcher.apply(nextPageIndex++);
+        }
+        current = page.iterator();
+        return true;
+    }
+
+    private List<T> join(CompletableFuture<List<T>> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            lastPage = true;
+            if (e.getCause() instanceof IOException) {
+                throw new UncheckedIOException((IOException) e.getCause());
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * 流关闭时取消预取的请求
+     */
+    void close() {
+        lastPage = true;
+        if (prefetch != null) {
+            prefetch.cancel(true);
+            prefetch = null;
+        }
+    }
+
+    @Override
+    public Spliterator<T> trySplit() {
+        return null;
+    }
+
+    @Override
+    public long estimateSize() {
+        return Long.MAX_VALUE;
+    }
+
+    @Override
+    public int characteristics() {
+        return ORDERED | NONNULL;
+    }
+}
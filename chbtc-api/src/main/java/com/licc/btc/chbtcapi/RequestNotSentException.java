@@ -0,0 +1,20 @@
+package com.licc.btc.chbtcapi;
+
+import java.io.IOException;
+
+/**
+ * 请求没有发出：熔断器打开、等待请求配额超时或被中断
+ * <p>
+ * 与发出后失败或没有响应不同，交易所肯定没有收到请求，调用方可以直接按失败处理。
+ *
+ * @author lichangchao
+ * @version 1.0.0
+ * @date 2018/4/2 10:20
+ * @see ChbtcClient#submitOrder
+ */
+public class RequestNotSentException extends IOException {
+
+    public RequestNotSentException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,82 @@
+package com.licc.btc.chbtcapi;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import com.licc.btc.chbtcapi.transport.TransportResponse;
+
+/**
+ * 在传输层的响应到达后解析，响应体直接从流中解析；取消时同时取消传输层的请求
+ *
+ * @author lichangchao
+ * @version 1.0.0
+ * @date 2018/3/5 10:21
+ * @see
+ */
+class ResponseFuture<T> extends CompletableFuture<T> {
+
+    /**
+     * 响应解析
+     */
+    interface Decoder<T> {
+        T decode(InputStream in) throws IOException;
+    }
+
+    private final Decoder<T>                              decoder;
+    private volatile CompletableFuture<TransportResponse> source;
+
+    ResponseFuture(Decoder<T> decoder) {
+        this.decoder = decoder;
+    }
+
+    void bind(CompletableFuture<TransportResponse> source) {
+        this.source = source;
+        source.whenComplete(this::onResponse);
+    }
+
+    private void onResponse(TransportResponse response, Throwable error) {
+        if (error != null) {
+            completeExceptionally(error instanceof CompletionException && error.getCause() != null ? error.getCause() : error);
+            return;
+        }
+        try (TransportResponse r = response) {
+            complete(decode(r, decoder));
+        } catch (IOException | RuntimeException e) {
+            completeExceptionally(e);
+        }
+    }
+
+    static <T> T decode(TransportResponse response, Decoder<T> decoder) throws IOException {
+        if (!response.isSuccessful()) {
+            throw new ChbtcResponseException(response.code(), null, "Unexpected code " + response.code());
+        }
+        return decoder.decode(response.body());
+    }
+
+    /**
+     * 被调用方以异常结束时(例如对冲请求超过截止时间)同时取消底层的http请求
+     */
+    @Override
+    public boolean completeExceptionally(Throwable ex) {
+        boolean completed = super.completeExceptionally(ex);
+        CompletableFuture<TransportResponse> s = source;
+        if (completed && s != null && !s.isDone()) {
+            s.cancel(false);
+        }
+        return completed;
+    }
+
+    /**
+     * 取消时同时取消底层的http请求
+     */
+    @Override
+    public boolean cancel(boolean mayInterruptIfRunning) {
+        CompletableFuture<TransportResponse> s = source;
+        if (s != null) {
+            s.cancel(mayInterruptIfRunning);
+        }
+        return super.cancel(mayInterruptIfRunning);
+    }
+}
@@ -0,0 +1,84 @@
+package com.licc.btc.chbtcapi;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * 先排队拿令牌再发出请求的签名调用
+ * <p>
+ * 取消时同时放弃排队和取消已经发出的请求；等待令牌超过最长时间时放弃排队并以{@link RequestNotSentException}结束，与同步调用一致。
+ *
+ * @author lichangchao
+ * @version 1.0.0
+ * @date 2018/3/14 15:30
+ * @see com.licc.btc.chbtcapi.limit.RateLimitScheduler
+ */
+class SignedFuture<T> extends CompletableFuture<T> {
+    private final CompletableFuture<Void>  permit;
+    private volatile CompletableFuture<T> call;
+
+    /**
+     * @param permit 令牌
+     * @param request 拿到令牌后发出请求，此时才签名
+     * @param timeoutMessage 等待令牌超时的异常信息
+     */
+    SignedFuture(CompletableFuture<Void> permit, Supplier<CompletableFuture<T>> request, ScheduledExecutorService timer,
+            long maxWaitMillis, String timeoutMessage) {
+        this.permit = permit;
+        Future<?> timeout = permit.isDone() ? null : timer.schedule(() -> {
+            if (permit.cancel(false)) {
+                completeExceptionally(new RequestNotSentException(timeoutMessage));
+            }
+        }, maxWaitMillis, TimeUnit.MILLISECONDS);
+        permit.whenComplete((granted, error) -> {
+            if (timeout != null) {
+                timeout.cancel(false);
+            }
+            if (permit.isCancelled() || isDone()) {
+                // 调用方取消或等待超时，令牌已经拿到时也不再发出请求
+                return;
+            }
+            if (error != null) {
+                completeExceptionally(error);
+                return;
+            }
+            CompletableFuture<T> c;
+            try {
+                c = request.get();
+            } catch (RuntimeException e) {
+                completeExceptionally(e);
+                return;
+            }
+            call = c;
+            if (isCancelled()) {
+                c.cancel(false);
+                return;
+            }
+            c.whenComplete((res, e) -> {
+                if (e == null) {
+                    complete(res);
+                } else {
+                    completeExceptionally(e instanceof CompletionException && e.getCause() != null ? e.getCause() : e);
+                }
+            });
+        });
+    }
+
+    /**
+     * 取消时放弃排队，已经发出的请求一并取消
+     */
+    @Override
+    public boolean cancel(boolean mayInterruptIfRunning) {
+        boolean cancelled = super.cancel(mayInterruptIfRunning);
+        permit.cancel(false);
+        CompletableFuture<T> c = call;
+        if (c != null) {
+            c.cancel(mayInterruptIfRunning);
+        }
+        return cancelled;
+    }
+}
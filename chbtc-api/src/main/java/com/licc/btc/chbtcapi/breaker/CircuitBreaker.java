@@ -0,0 +1,165 @@
+package com.licc.btc.chbtcapi.breaker;
+
+import java.util.function.LongSupplier;
+
+/**
+ * 熔断器
+ * <p>
+ * 关闭状态下按滚动时间窗统计调用结果，窗口内调用数达到{@code minimumCalls}且失败率达到阈值时打开；
+ * 打开状态下调用直接失败，{@code openMillis}后进入半开状态，放行{@code halfOpenCalls}个探测调用，
+ * 全部成功则关闭，任何一个失败则重新打开。
+ *
+ * @author lichangchao
+ * @version 1.0.0
+ * @date 2018/3/19 10:20
+ * @see CircuitBreakerRegistry
+ */
+public class CircuitBreaker {
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final String       name;
+    private final int          failureRateThreshold; // 百分比
+    private final int          minimumCalls;
+    private final long         bucketMillis;
+    private final long         openMillis;
+    private final int          halfOpenCalls;
+    private final LongSupplier clock;
+
+    // 滚动窗口，每个桶统计bucketMillis内的调用
+    private final long[]       bucketStart;
+    private final int[]        successes;
+    private final int[]        failures;
+
+    private State              state = State.CLOSED;
+    private long               openedAt;
+    private int                halfOpenPermits;
+    private int                halfOpenSuccesses;
+
+    public CircuitBreaker(String name, int failureRateThreshold, int minimumCalls, long windowMillis, long openMillis,
+            int halfOpenCalls) {
+        this(name, failureRateThreshold, minimumCalls, windowMillis, openMillis, halfOpenCalls, System::currentTimeMillis);
+    }
+
+    CircuitBreaker(String name, int failureRateThreshold, int minimumCalls, long windowMillis, long openMillis, int halfOpenCalls,
+            LongSupplier clock) {
+        if (failureRateThreshold <= 0 || failureRateThreshold > 100 || minimumCalls < 1 || windowMillis < 1 || halfOpenCalls < 1) {
+            throw new IllegalArgumentException("熔断器参数错误: " + name);
+        }
+        int buckets = (int) Math.min(10, windowMillis);
+        this.name = name;
+        this.failureRateThreshold = failureRateThreshold;
+        this.minimumCalls = minimumCalls;
+        this.bucketMillis = windowMillis / buckets;
+        this.openMillis = openMillis;
+        this.halfOpenCalls = halfOpenCalls;
+        this.clock = clock;
+        this.bucketStart = new long[buckets];
+        this.successes = new int[buckets];
+        this.failures = new int[buckets];
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public synchronized State getState() {
+        if (state == State.OPEN && clock.getAsLong() - openedAt >= openMillis) {
+            return State.HALF_OPEN;
+        }
+        return state;
+    }
+
+    /**
+     * 申请执行一次调用，返回false时调用方应直接失败。返回true时必须调用
+     * {@link #onSuccess()}、{@link #onFailure()}或{@link #onIgnored()}之一
+     */
+    public synchronized boolean tryAcquire() {
+        if (state == State.OPEN) {
+            if (clock.getAsLong() - openedAt < openMillis) {
+                return false;
+            }
+            state = State.HALF_OPEN;
+            halfOpenPermits = halfOpenCalls;
+            halfOpenSuccesses = 0;
+        }
+        if (state == State.HALF_OPEN) {
+            if (halfOpenPermits == 0) {
+                return false;
+            }
+            halfOpenPermits--;
+        }
+        return true;
+    }
+
+    public synchronized void onSuccess() {
+        if (state == State.HALF_OPEN) {
+            if (++halfOpenSuccesses >= halfOpenCalls) {
+                close();
+            }
+            return;
+        }
+        if (state == State.CLOSED) {
+            successes[bucket(clock.getAsLong())]++;
+        }
+    }
+
+    public synchronized void onFailure() {
+        long now = clock.getAsLong();
+        if (state == State.HALF_OPEN) {
+            open(now);
+            return;
+        }
+        if (state != State.CLOSED) {
+            return;
+        }
+        failures[bucket(now)]++;
+        int failed = 0;
+        int total = 0;
+        for (int i = 0; i < bucketStart.length; i++) {
+            if (now - bucketStart[i] < bucketMillis * bucketStart.length) {
+                failed += failures[i];
+                total += successes[i] + failures[i];
+            }
+        }
+        if (total >= minimumCalls && failed * 100 >= failureRateThreshold * total) {
+            open(now);
+        }
+    }
+
+    /**
+     * 调用被取消等与服务端状态无关的结束，只归还半开状态的探测名额
+     */
+    public synchronized void onIgnored() {
+        if (state == State.HALF_OPEN && halfOpenPermits < halfOpenCalls - halfOpenSuccesses) {
+            halfOpenPermits++;
+        }
+    }
+
+    private int bucket(long now) {
+        long start = now - now % bucketMillis;
+        int index = (int) ((now / bucketMillis) % bucketStart.length);
+        if (bucketStart[index] != start) {
+            bucketStart[index] = start;
+            successes[index] = 0;
+            failures[index] = 0;
+        }
+        return index;
+    }
+
+    private void open(long now) {
+        state = State.OPEN;
+        openedAt = now;
+    }
+
+    private void close() {
+        state = State.CLOSED;
+        for (int i = 0; i < bucketStart.length; i++) {
+            bucketStart[i] = 0;
+            successes[i] = 0;
+            failures[i] = 0;
+        }
+    }
+}
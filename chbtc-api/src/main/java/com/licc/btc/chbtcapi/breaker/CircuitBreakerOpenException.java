@@ -0,0 +1,18 @@
+package com.licc.btc.chbtcapi.breaker;
+
+import com.licc.btc.chbtcapi.RequestNotSentException;
+
+/**
+ * 熔断器打开，调用没有发出
+ *
+ * @author lichangchao
+ * @version 1.0.0
+ * @date 2018/3/19 10:20
+ * @see CircuitBreaker
+ */
+public class CircuitBreakerOpenException extends RequestNotSentException {
+
+    public CircuitBreakerOpenException(String name) {
+        super("熔断器已打开: " + name);
+    }
+}
@@ -0,0 +1,49 @@
+package com.licc.btc.chbtcapi.breaker;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * 按名称(域名+接口)创建和查找熔断器，同一域名下的熔断器使用相同的参数
+ *
+ * @author lichangchao
+ * @version 1.0.0
+ * @date 2018/3/19 10:20
+ * @see CircuitBreaker
+ */
+public class CircuitBreakerRegistry {
+    private final int                                  failureRateThreshold;
+    private final int                                  minimumCalls;
+    private final long                                 windowMillis;
+    private final long                                 openMillis;
+    private final int                                  halfOpenCalls;
+    private final ConcurrentMap<String, CircuitBreaker> breakers = new ConcurrentHashMap<>();
+
+    public CircuitBreakerRegistry(int failureRateThreshold, int minimumCalls, long windowMillis, long openMillis, int halfOpenCalls) {
+        this.failureRateThreshold = failureRateThreshold;
+        this.minimumCalls = minimumCalls;
+        this.windowMillis = windowMillis;
+        this.openMillis = openMillis;
+        this.halfOpenCalls = halfOpenCalls;
+    }
+
+    public CircuitBreaker get(String name) {
+        CircuitBreaker breaker = breakers.get(name);
+        if (breaker == null) {
+            breaker = breakers.computeIfAbsent(name,
+                    key -> new CircuitBreaker(key, failureRateThreshold, minimumCalls, windowMillis, openMillis, halfOpenCalls));
+        }
+        return breaker;
+    }
+
+    /**
+     * 所有熔断器的当前状态
+     */
+    public Map<String, CircuitBreaker.State> states() {
+        Map<String, CircuitBreaker.State> states = new TreeMap<>();
+        breakers.forEach((name, breaker) -> states.put(name, breaker.getState()));
+        return states;
+    }
+}
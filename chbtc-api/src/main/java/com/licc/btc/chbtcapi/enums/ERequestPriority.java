@@ -0,0 +1,29 @@
+package com.licc.btc.chbtcapi.enums;
+
+/**
+ * 签名请求的优先级，数值越小越优先
+ * <p>
+ * reserve为该优先级需要给更高优先级保留的令牌比例：令牌紧张时低优先级的请求先让路。
+ */
+public enum ERequestPriority {
+    CANCEL(0, 0.0), // 取消委托
+    SELL(1, 0.1),   // 委托卖单
+    BUY(2, 0.3),    // 委托买单
+    QUERY(3, 0.5);  // 订单状态查询
+
+    private int    level;
+    private double reserve;
+
+    ERequestPriority(int level, double reserve) {
+        this.level = level;
+        this.reserve = reserve;
+    }
+
+    public int getLevel() {
+        return level;
+    }
+
+    public double getReserve() {
+        return reserve;
+    }
+}
@@ -1,11 +1,30 @@
 package com.licc.btc.chbtcapi.enums;
 
 public enum ETradeCurrency {
-    ZB_QC("zb_qc"), ZB_USDT("zb_usdt"), ZB_BTC("zb_btc"), BTC_QC("btc_qc"),BTC_USDT("btc_usdt"),BCC_USDT("bcc_usdt");
+    ZB_QC("zb_qc", 4, 2), ZB_USDT("zb_usdt", 4, 2), ZB_BTC("zb_btc", 8, 2), BTC_QC("btc_qc", 2, 4), BTC_USDT("btc_usdt", 2, 4),
+    BCC_USDT("bcc_usdt", 2, 3);
+    private static final ETradeCurrency[] VALUES = values();
+
     private String value;
+    private int    priceScale;  // 价格小数位数
+    private int    amountScale; // 数量小数位数
 
-    ETradeCurrency(String value) {
+    ETradeCurrency(String value, int priceScale, int amountScale) {
         this.value = value;
+        this.priceScale = priceScale;
+        this.amountScale = amountScale;
+    }
+
+    /**
+     * 按市场名查找，不存在时返回null
+     */
+    public static ETradeCurrency of(String value) {
+        for (ETradeCurrency currency : VALUES) {
+            if (currency.value.equals(value)) {
+                return currency;
+            }
+        }
+        return null;
     }
 
     public String getValue() {
@@ -15,4 +34,12 @@ public enum ETradeCurrency {
     public void setValue(String value) {
         this.value = value;
     }
+
+    public int getPriceScale() {
+        return priceScale;
+    }
+
+    public int getAmountScale() {
+        return amountScale;
+    }
 }
\ No newline at end of file
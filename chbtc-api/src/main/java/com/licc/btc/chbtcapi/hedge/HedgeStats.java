@@ -0,0 +1,78 @@
+package com.licc.btc.chbtcapi.hedge;
+
+/**
+ * 对冲请求的统计快照
+ *
+ * @author lichangchao
+ * @version 1.0.0
+ * @date 2018/3/15 10:30
+ * @see HedgedRequest
+ */
+public class HedgeStats {
+    private final long requests;         // 调用次数
+    private final long hedged;           // 发出对冲请求的次数
+    private final long hedgeWins;        // 对冲请求先返回的次数
+    private final long deadlineExceeded; // 超过截止时间的次数
+    private final long failures;         // 所有请求都失败的次数
+    private final long hedgeDelayMillis; // 当前的对冲延迟
+    private final long p50Millis;
+    private final long p99Millis;
+
+    public HedgeStats(long requests, long hedged, long hedgeWins, long deadlineExceeded, long failures, long hedgeDelayMillis,
+            long p50Millis, long p99Millis) {
+        this.requests = requests;
+        this.hedged = hedged;
+        this.hedgeWins = hedgeWins;
+        this.deadlineExceeded = deadlineExceeded;
+        this.failures = failures;
+        this.hedgeDelayMillis = hedgeDelayMillis;
+        this.p50Millis = p50Millis;
+        this.p99Millis = p99Millis;
+    }
+
+    public long getRequests() {
+        return requests;
+    }
+
+    public long getHedged() {
+        return hedged;
+    }
+
+    public long getHedgeWins() {
+        return hedgeWins;
+    }
+
+    public long getDeadlineExceeded() {
+        return deadlineExceeded;
+    }
+
+    public long getFailures() {
+        return failures;
+    }
+
+    public long getHedgeDelayMillis() {
+        return hedgeDelayMillis;
+    }
+
+    public long getP50Millis() {
+        return p50Millis;
+    }
+
+    public long getP99Millis() {
+        return p99Millis;
+    }
+
+    /**
+     * 对冲请求占调用次数的比例
+     */
+    public double getHedgeRate() {
+        return requests == 0 ? 0 : (double) hedged / requests;
+    }
+
+    @Override
+    public String toString() {
+        return "requests=" + requests + ", hedged=" + hedged + String.format("(%.2f%%)", getHedgeRate() * 100) + ", hedgeWins="
+                + hedgeWins + ", deadlineExceeded=" + deadlineExceeded + ", failures=" + failures + ", hedgeDelay=" + hedgeDelayMillis
+                + "ms, p50=" + p50Millis + "ms, p99=" + p99Millis + "ms";
+    }
+}
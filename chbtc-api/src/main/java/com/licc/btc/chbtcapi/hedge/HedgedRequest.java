@@ -0,0 +1,226 @@
+package com.licc.btc.chbtcapi.hedge;
+
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * 对冲请求
+ * <p>
+ * 先发出一个请求，超过最近延迟的指定分位数仍未返回时再发出一个相同的请求，取先返回的结果并取消另一个；
+ * 第一个请求失败时立即发出对冲请求。整个调用在截止时间到达后以{@link TimeoutException}结束，
+ * 未返回的请求也以同一个异常结束而不是取消，调用方可以把超时和输给另一个请求被取消区分开。
+ * 对冲延迟根据最近{@value #WINDOW}次成功请求的延迟计算，样本不足时使用截止时间的一半。
+ *
+ * @author lichangchao
+ * @version 1.0.0
+ * @date 2018/3/15 10:30
+ * @see HedgeStats
+ */
+public class HedgedRequest {
+    private static final int WINDOW        = 1024; // 延迟样本窗口
+    private static final int MIN_SAMPLES   = 32;   // 样本数达到后才按分位数计算对冲延迟
+    private static final int RECOMPUTE_GAP = 64;   // 每新增多少个样本重新计算一次分位数
+
+    private final ScheduledExecutorService timer;
+    private final double                   percentile;
+    private final long                     minHedgeDelayNanos;
+    private final long                     deadlineNanos;
+
+    private final long[]                   samples = new long[WINDOW];
+    private int                            sampleCount;
+    private int                            sampleNext;
+    private volatile long                  hedgeDelayNanos;
+    private volatile long                  p50Nanos;
+    private volatile long                  p99Nanos;
+
+    private final LongAdder                requests         = new LongAdder();
+    private final LongAdder                hedged           = new LongAdder();
+    private final LongAdder                hedgeWins        = new LongAdder();
+    private final LongAdder                deadlineExceeded = new LongAdder();
+    private final LongAdder                failures         = new LongAdder();
+
+    /**
+     * @param timer 触发对冲和截止时间的调度线程
+     * @param percentile 对冲延迟取最近延迟的分位数(0-100)，0表示不对冲
+     * @param minHedgeDelayMillis 对冲延迟的下限，避免延迟很稳定时每个请求都被对冲
+     * @param deadlineMillis 整个调用的截止时间
+     */
+    public HedgedRequest(ScheduledExecutorService timer, double percentile, long minHedgeDelayMillis, long deadlineMillis) {
+        if (percentile < 0 || percentile >= 100 || deadlineMillis <= 0) {
+            throw new IllegalArgumentException("percentile必须在[0,100)之间，deadlineMillis必须大于0");
+        }
+        this.timer = timer;
+        this.percentile = percentile;
+        this.minHedgeDelayNanos = TimeUnit.MILLISECONDS.toNanos(minHedgeDelayMillis);
+        this.deadlineNanos = TimeUnit.MILLISECONDS.toNanos(deadlineMillis);
+        this.hedgeDelayNanos = Math.max(minHedgeDelayNanos, deadlineNanos / 2);
+    }
+
+    /**
+     * 执行对冲请求
+     *
+     * @param attempt 每次调用发出一个新的请求，取消返回的future时应取消对应的请求
+     * @return 先成功的请求结果；两个请求都失败时以最后一个异常结束，超过截止时间时以TimeoutException结束
+     */
+    public <T> CompletableFuture<T> execute(Supplier<CompletableFuture<T>> attempt) {
+        requests.increment();
+        Call<T> call = new Call<>(attempt);
+        call.deadline = timer.schedule(call::expire, deadlineNanos, TimeUnit.NANOSECONDS);
+        if (percentile > 0) {
+            call.hedge = timer.schedule(call::launchHedge, hedgeDelayNanos, TimeUnit.NANOSECONDS);
+        }
+        call.launch(false);
+        return call.result;
+    }
+
+    /**
+     * 当前的统计数据
+     */
+    public HedgeStats stats() {
+        return new HedgeStats(requests.sum(), hedged.sum(), hedgeWins.sum(), deadlineExceeded.sum(), failures.sum(),
+                TimeUnit.NANOSECONDS.toMillis(hedgeDelayNanos), TimeUnit.NANOSECONDS.toMillis(p50Nanos),
+                TimeUnit.NANOSECONDS.toMillis(p99Nanos));
+    }
+
+    private void record(long latencyNanos) {
+        long[] sorted;
+        synchronized (samples) {
+            samples[sampleNext] = latencyNanos;
+            sampleNext = (sampleNext + 1) % WINDOW;
+            sampleCount++;
+            if (sampleCount < MIN_SAMPLES || (sampleCount % RECOMPUTE_GAP != 0 && sampleCount != MIN_SAMPLES)) {
+                return;
+            }
+            sorted = Arrays.copyOf(samples, Math.min(sampleCount, WINDOW));
+        }
+        Arrays.sort(sorted);
+        p50Nanos = quantile(sorted, 50);
+        p99Nanos = quantile(sorted, 99);
+        if (percentile > 0) {
+            hedgeDelayNanos = Math.min(deadlineNanos, Math.max(minHedgeDelayNanos, quantile(sorted, percentile)));
+        }
+    }
+
+    private static long quantile(long[] sorted, double percentile) {
+        int index = (int) Math.ceil(percentile / 100 * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+    }
+
+    /**
+     * 一次对冲调用的状态
+     */
+    private class Call<T> {
+        final Supplier<CompletableFuture<T>> attempt;
+        final CompletableFuture<T>           result  = new CompletableFuture<>();
+        final AtomicInteger                  pending = new AtomicInteger();
+        final AtomicBoolean                  done    = new AtomicBoolean();
+        volatile CompletableFuture<T>        primary;
+        volatile CompletableFuture<T>        secondary;
+        volatile ScheduledFuture<?>          hedge;
+        volatile ScheduledFuture<?>          deadline;
+
+        Call(Supplier<CompletableFuture<T>> attempt) {
+            this.attempt = attempt;
+            // 调用方取消时也要取消请求
+            result.whenComplete((value, error) -> cleanup());
+        }
+
+        void launch(boolean isHedge) {
+            if (done.get() || result.isDone()) {
+                return;
+            }
+            pending.incrementAndGet();
+            long start = System.nanoTime();
+            CompletableFuture<T> future;
+            try {
+                future = attempt.get();
+            } catch (RuntimeException e) {
+                future = new CompletableFuture<>();
+                future.completeExceptionally(e);
+            }
+            if (isHedge) {
+                secondary = future;
+            } else {
+                primary = future;
+            }
+            future.whenComplete((value, error) -> {
+                if (error == null) {
+                    if (finish()) {
+                        record(System.nanoTime() - start);
+                        if (isHedge) {
+                            hedgeWins.increment();
+                        }
+                        result.complete(value);
+                    }
+                } else if (pending.decrementAndGet() == 0) {
+                    if (!isHedge && hedge != null && hedge.cancel(false)) {
+                        // 第一个请求失败，不再等对冲延迟
+                        launchHedge();
+                    } else if (finish()) {
+                        failures.increment();
+                        result.completeExceptionally(error);
+                    }
+                }
+            });
+        }
+
+        void launchHedge() {
+            if (!result.isDone()) {
+                hedged.increment();
+                launch(true);
+            }
+        }
+
+        void expire() {
+            if (result.isDone() || !done.compareAndSet(false, true)) {
+                return;
+            }
+            cancel(hedge);
+            TimeoutException timeout = new TimeoutException("请求超过截止时间" + TimeUnit.NANOSECONDS.toMillis(deadlineNanos) + "ms");
+            // 超时的请求计为失败，只有输给另一个请求的才取消
+            fail(primary, timeout);
+            fail(secondary, timeout);
+            deadlineExceeded.increment();
+            result.completeExceptionally(timeout);
+        }
+
+        /**
+         * 只有一个结果能结束调用，先记录统计并取消其它请求再通知调用方
+         */
+        boolean finish() {
+            if (result.isDone() || !done.compareAndSet(false, true)) {
+                return false;
+            }
+            cleanup();
+            return true;
+        }
+
+        void cleanup() {
+            cancel(hedge);
+            cancel(deadline);
+            cancel(primary);
+            cancel(secondary);
+        }
+
+        private void fail(CompletableFuture<T> future, Throwable error) {
+            if (future != null && !future.isDone()) {
+                future.completeExceptionally(error);
+            }
+        }
+
+        private void cancel(Future<?> future) {
+            if (future != null && !future.isDone()) {
+                future.cancel(false);
+            }
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package com.licc.btc.chbtcapi.limit;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import com.licc.btc.chbtcapi.enums.ERequestPriority;
+
+/**
+ * 按accessKey限流的令牌桶调度器
+ * <p>
+ * 每个accessKey一个令牌桶，令牌足够时请求直接放行；令牌不足时请求进入等待队列，
+ * 令牌补充后按优先级(取消 &gt; 卖 &gt; 买 &gt; 查询)、同优先级按先后顺序放行。
+ *
+ * @author lichangchao
+ * @version 1.0.0
+ * @date 2018/3/14 10:05
+ * @see ERequestPriority
+ */
+public class RateLimitScheduler {
+    private static final CompletableFuture<Void> GRANTED = CompletableFuture.completedFuture(null);
+
+    private final double                        permitsPerNano;
+    private final double                        capacity;
+    private final ScheduledExecutorService      timer;
+    private final ConcurrentMap<String, Bucket> buckets = new ConcurrentHashMap<>();
+
+    /**
+     * @param permitsPerSecond 每秒补充的令牌数
+     * @param burst 桶容量，允许的突发请求数
+     * @param timer 补充令牌后唤醒等待请求的调度线程
+     */
+    public RateLimitScheduler(double permitsPerSecond, int burst, ScheduledExecutorService timer) {
+        if (permitsPerSecond <= 0 || burst < 1) {
+            throw new IllegalArgumentException("permitsPerSecond和burst必须大于0");
+        }
+        this.permitsPerNano = permitsPerSecond / TimeUnit.SECONDS.toNanos(1);
+        this.capacity = burst;
+        this.timer = timer;
+    }
+
+    /**
+     * 申请一个令牌
+     *
+     * @param accessKey
+     * @param priority
+     * @return 拿到令牌时完成的future；取消future即放弃排队
+     */
+    public CompletableFuture<Void> acquire(String accessKey, ERequestPriority priority) {
+        Bucket bucket = bucket(accessKey);
+        synchronized (bucket) {
+            bucket.refill(System.nanoTime());
+            if (bucket.waiters.isEmpty() && bucket.tokens >= 1) {
+                bucket.tokens -= 1;
+                return GRANTED;
+            }
+            Waiter waiter = new Waiter(priority.getLevel(), bucket.sequence++);
+            bucket.waiters.add(waiter);
+            scheduleDrain(bucket);
+            return waiter.future;
+        }
+    }
+
+    /**
+     * 当前剩余的令牌数，已经排队的请求会预先扣除，可能为负数
+     */
+    public double remaining(String accessKey) {
+        Bucket bucket = bucket(accessKey);
+        synchronized (bucket) {
+            bucket.refill(System.nanoTime());
+            return bucket.tokens - bucket.waiters.size();
+        }
+    }
+
+    /**
+     * 剩余令牌是否足够执行该优先级的工作，不足时调用方应跳过低优先级的请求
+     */
+    public boolean hasBudget(String accessKey, ERequestPriority priority) {
+        return remaining(accessKey) >= Math.max(1, capacity * priority.getReserve());
+    }
+
+    private Bucket bucket(String accessKey) {
+        Bucket bucket = buckets.get(accessKey);
+        if (bucket == null) {
+            bucket = buckets.computeIfAbsent(accessKey, key -> new Bucket(capacity));
+        }
+        return bucket;
+    }
+
+    private void scheduleDrain(Bucket bucket) {
+        if (bucket.drainScheduled) {
+            return;
+        }
+        long delay = bucket.tokens >= 1 ? 0 : (long) Math.ceil((1 - bucket.tokens) / permitsPerNano);
+        timer.schedule(() -> drain(bucket), delay, TimeUnit.NANOSECONDS);
+        bucket.drainScheduled = true;
+    }
+
+    private void drain(Bucket bucket) {
+        List<Waiter> granted = new ArrayList<>();
+        synchronized (bucket) {
+            bucket.drainScheduled = false;
+            bucket.refill(System.nanoTime());
+            while (!bucket.waiters.isEmpty() && bucket.tokens >= 1) {
+                Waiter waiter = bucket.waiters.poll();
+                if (waiter.future.isDone()) {
+                    continue; // 已经放弃排队
+                }
+                bucket.tokens -= 1;
+                granted.add(waiter);
+            }
+            if (!bucket.waiters.isEmpty()) {
+                scheduleDrain(bucket);
+            }
+        }
+        // 在锁外唤醒，避免回调里再次申请令牌时阻塞
+        granted.forEach(waiter -> waiter.future.complete(null));
+    }
+
+    private class Bucket {
+        final PriorityQueue<Waiter> waiters = new PriorityQueue<>();
+        double                      tokens;
+        long                        lastNanos;
+        long                        sequence;
+        boolean                     drainScheduled;
+
+        Bucket(double tokens) {
+            this.tokens = tokens;
+            this.lastNanos = System.nanoTime();
+        }
+
+        void refill(long now) {
+            tokens = Math.min(capacity, tokens + (now - lastNanos) * permitsPerNano);
+            lastNanos = now;
+        }
+    }
+
+    private static class Waiter implements Comparable<Waiter> {
+        final int                     level;
+        final long                    sequence;
+        final CompletableFuture<Void> future = new CompletableFuture<>();
+
+        Waiter(int level, long sequence) {
+            this.level = level;
+            this.sequence = sequence;
+        }
+
+        @Override
+        public int compareTo(Waiter o) {
+            if (level != o.level) {
+                return Integer.compare(level, o.level);
+            }
+            return Long.compare(sequence, o.sequence);
+        }
+    }
+}
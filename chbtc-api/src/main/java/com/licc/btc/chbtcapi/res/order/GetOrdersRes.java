@@ -1,5 +1,7 @@
 package com.licc.btc.chbtcapi.res.order;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
 /**
  *
  * @author lichangchao
@@ -7,6 +9,7 @@ package com.licc.btc.chbtcapi.res.order;
  * @date 2017/5/24 10:37
  * @see
  */
+@JsonIgnoreProperties(ignoreUnknown = true)
 public class GetOrdersRes {
     private String  currency;
     private String  id;
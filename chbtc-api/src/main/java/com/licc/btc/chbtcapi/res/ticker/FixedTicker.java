@@ -0,0 +1,88 @@
+package com.licc.btc.chbtcapi.res.ticker;
+
+import com.licc.btc.chbtcapi.enums.ETradeCurrency;
+import com.licc.btc.chbtcapi.util.FixedPoint;
+
+/**
+ * 解析成定点小数的行情，价格的小数位数为市场的priceScale
+ * <p>
+ * 每个行情只解析一次，同一行情驱动的所有用户共用，策略判断中不再解析字符串。
+ *
+ * @author lichangchao
+ * @version 1.0.0
+ * @date 2018/3/23 14:30
+ * @see FixedPoint
+ */
+public class FixedTicker {
+    private final ETradeCurrency currency;
+    private final long           buy;
+    private final long           sell;
+    private final long           high;
+    private final long           low;
+    private final long           last;
+
+    public FixedTicker(ETradeCurrency currency, long buy, long sell, long high, long low, long last) {
+        this.currency = currency;
+        this.buy = buy;
+        this.sell = sell;
+        this.high = high;
+        this.low = low;
+        this.last = last;
+    }
+
+    /**
+     * 解析行情接口或推送的数据
+     *
+     * @return 缺少行情或价格格式错误时返回null
+     */
+    public static FixedTicker of(ETradeCurrency currency, TickerApiRes tickerApiRes) {
+        TickerRes ticker = tickerApiRes == null ? null : tickerApiRes.getTicker();
+        if (ticker == null) {
+            return null;
+        }
+        int scale = currency.getPriceScale();
+        try {
+            return new FixedTicker(currency, FixedPoint.parse(ticker.getBuy(), scale), FixedPoint.parse(ticker.getSell(), scale),
+                    FixedPoint.parse(ticker.getHigh(), scale), FixedPoint.parse(ticker.getLow(), scale),
+                    FixedPoint.parse(ticker.getLast(), scale));
+        } catch (NumberFormatException e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    /**
+     * 输出价格，用于日志和下单
+     */
+    public String format(long price) {
+        return FixedPoint.format(price, currency.getPriceScale());
+    }
+
+    public ETradeCurrency getCurrency() {
+        return currency;
+    }
+
+    public int getScale() {
+        return currency.getPriceScale();
+    }
+
+    public long getBuy() {
+        return buy;
+    }
+
+    public long getSell() {
+        return sell;
+    }
+
+    public long getHigh() {
+        return high;
+    }
+
+    public long getLow() {
+        return low;
+    }
+
+    public long getLast() {
+        return last;
+    }
+}
@@ -0,0 +1,40 @@
+package com.licc.btc.chbtcapi.transport;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+
+/**
+ * 响应体已经读入内存的响应，录制和回放时使用
+ *
+ * @author lichangchao
+ * @version 1.0.0
+ * @date 2018/3/20 10:05
+ * @see
+ */
+public class BufferedResponse implements TransportResponse {
+    private final int    code;
+    private final byte[] body;
+
+    public BufferedResponse(int code, byte[] body) {
+        this.code = code;
+        this.body = body;
+    }
+
+    @Override
+    public int code() {
+        return code;
+    }
+
+    @Override
+    public InputStream body() {
+        return new ByteArrayInputStream(body);
+    }
+
+    public byte[] bytes() {
+        return body;
+    }
+
+    @Override
+    public void close() {
+    }
+}
@@ -0,0 +1,33 @@
+package com.licc.btc.chbtcapi.transport;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 交易所http请求的传输层
+ * <p>
+ * {@link com.licc.btc.chbtcapi.ChbtcClient}的每个域名使用一个实例，只负责发出GET请求并返回响应，
+ * 熔断、限流和解析都在传输层之上。实现见{@link OkHttpTransport}、{@link RecordingTransport}和{@link ReplayTransport}。
+ *
+ * @author lichangchao
+ * @version 1.0.0
+ * @date 2018/3/20 10:05
+ * @see TransportFactory
+ */
+public interface ChbtcTransport {
+
+    /**
+     * 同步请求，调用方负责关闭返回的响应
+     */
+    TransportResponse execute(String url) throws IOException;
+
+    /**
+     * 异步请求，取消返回的future时取消请求；调用方负责关闭返回的响应
+     */
+    CompletableFuture<TransportResponse> enqueue(String url);
+
+    /**
+     * 释放连接和线程
+     */
+    void shutdown();
+}
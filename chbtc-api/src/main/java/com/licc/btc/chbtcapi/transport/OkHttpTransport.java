@@ -0,0 +1,162 @@
+package com.licc.btc.chbtcapi.transport;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import com.licc.btc.chbtcapi.ChbtcHostConfig;
+
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * 直接访问交易所的传输层，每个域名独立的连接池和调度器
+ *
+ * @author lichangchao
+ * @version 1.0.0
+ * @date 2018/3/20 10:05
+ * @see ChbtcHostConfig
+ */
+public class OkHttpTransport implements ChbtcTransport {
+    private final OkHttpClient             client;
+    private final long                     callTimeoutMillis;
+    private final ScheduledExecutorService timer;
+
+    public OkHttpTransport(ChbtcHostConfig config, ScheduledExecutorService timer) {
+        Dispatcher dispatcher = new Dispatcher();
+        dispatcher.setMaxRequests(config.getMaxRequests());
+        dispatcher.setMaxRequestsPerHost(config.getMaxRequestsPerHost());
+        List<Protocol> protocols = config.isHttp2() ? Arrays.asList(Protocol.HTTP_2, Protocol.HTTP_1_1)
+                : Collections.singletonList(Protocol.HTTP_1_1);
+        this.client = new OkHttpClient.Builder()
+                .connectionPool(new ConnectionPool(config.getMaxIdleConnections(), config.getKeepAliveMillis(), TimeUnit.MILLISECONDS))
+                .dispatcher(dispatcher)
+                .protocols(protocols)
+                .connectTimeout(config.getConnectTimeoutMillis(), TimeUnit.MILLISECONDS)
+                .readTimeout(config.getReadTimeoutMillis(), TimeUnit.MILLISECONDS)
+                .writeTimeout(config.getWriteTimeoutMillis(), TimeUnit.MILLISECONDS)
+                .build();
+        this.callTimeoutMillis = config.getCallTimeoutMillis();
+        this.timer = timer;
+    }
+
+    @Override
+    public TransportResponse execute(String url) throws IOException {
+        Call call = client.newCall(new Request.Builder().url(url).build());
+        ScheduledFuture<?> watchdog = watch(call);
+        try {
+            return new OkHttpResponse(call.execute(), watchdog);
+        } catch (IOException | RuntimeException e) {
+            if (watchdog != null) {
+                watchdog.cancel(false);
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public CompletableFuture<TransportResponse> enqueue(String url) {
+        Call call = client.newCall(new Request.Builder().url(url).build());
+        CallFuture future = new CallFuture(call, watch(call));
+        call.enqueue(future);
+        return future;
+    }
+
+    @Override
+    public void shutdown() {
+        client.dispatcher().executorService().shutdown();
+        client.connectionPool().evictAll();
+    }
+
+    /**
+     * OkHttp没有整个调用的超时，到期后直接取消请求，读取响应体的时间也包括在内
+     */
+    private ScheduledFuture<?> watch(Call call) {
+        if (callTimeoutMillis <= 0) {
+            return null;
+        }
+        return timer.schedule(call::cancel, callTimeoutMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private static class OkHttpResponse implements TransportResponse {
+        private final Response           response;
+        private final ScheduledFuture<?> watchdog;
+
+        OkHttpResponse(Response response, ScheduledFuture<?> watchdog) {
+            this.response = response;
+            this.watchdog = watchdog;
+        }
+
+        @Override
+        public int code() {
+            return response.code();
+        }
+
+        @Override
+        public InputStream body() {
+            return response.body().byteStream();
+        }
+
+        @Override
+        public void close() {
+            response.close();
+            if (watchdog != null) {
+                watchdog.cancel(false);
+            }
+        }
+    }
+
+    /**
+     * 把OkHttp的回调转换成CompletableFuture
+     */
+    private static class CallFuture extends CompletableFuture<TransportResponse> implements Callback {
+        private final Call               call;
+        private final ScheduledFuture<?> watchdog;
+
+        CallFuture(Call call, ScheduledFuture<?> watchdog) {
+            this.call = call;
+            this.watchdog = watchdog;
+        }
+
+        @Override
+        public void onFailure(Call call, IOException e) {
+            if (watchdog != null) {
+                watchdog.cancel(false);
+            }
+            completeExceptionally(e);
+        }
+
+        @Override
+        public void onResponse(Call call, Response response) {
+            OkHttpResponse okHttpResponse = new OkHttpResponse(response, watchdog);
+            if (!complete(okHttpResponse)) {
+                // 已经被取消
+                okHttpResponse.close();
+            }
+        }
+
+        /**
+         * 取消时同时取消底层的http请求
+         */
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            call.cancel();
+            if (watchdog != null) {
+                watchdog.cancel(false);
+            }
+            return super.cancel(mayInterruptIfRunning);
+        }
+    }
+}
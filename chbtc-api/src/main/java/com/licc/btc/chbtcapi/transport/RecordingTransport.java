@@ -0,0 +1,97 @@
+package com.licc.btc.chbtcapi.transport;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 录制请求的传输层，请求交给实际的传输层执行，把请求、响应和耗时追加到{@link TrafficLog}
+ * <p>
+ * 响应体会先完整读入内存再返回给调用方，录制时的耗时包括读取响应体的时间。
+ *
+ * @author lichangchao
+ * @version 1.0.0
+ * @date 2018/3/20 11:30
+ * @see ReplayTransport
+ */
+public class RecordingTransport implements ChbtcTransport {
+    private final ChbtcTransport    delegate;
+    private final TrafficLog.Writer writer;
+
+    public RecordingTransport(ChbtcTransport delegate, TrafficLog.Writer writer) {
+        this.delegate = delegate;
+        this.writer = writer;
+    }
+
+    @Override
+    public TransportResponse execute(String url) throws IOException {
+        long start = System.nanoTime();
+        try (TransportResponse response = delegate.execute(url)) {
+            return record(start, url, response);
+        } catch (IOException e) {
+            recordFailure(start, url, e);
+            throw e;
+        }
+    }
+
+    @Override
+    public CompletableFuture<TransportResponse> enqueue(String url) {
+        long start = System.nanoTime();
+        CompletableFuture<TransportResponse> source = delegate.enqueue(url);
+        CompletableFuture<TransportResponse> result = new CompletableFuture<TransportResponse>() {
+            @Override
+            public boolean cancel(boolean mayInterruptIfRunning) {
+                source.cancel(mayInterruptIfRunning);
+                return super.cancel(mayInterruptIfRunning);
+            }
+        };
+        source.whenComplete((response, error) -> {
+            if (error != null) {
+                if (!source.isCancelled()) {
+                    recordFailure(start, url, error);
+                }
+                result.completeExceptionally(error);
+                return;
+            }
+            try (TransportResponse r = response) {
+                result.complete(record(start, url, r));
+            } catch (IOException | RuntimeException e) {
+                recordFailure(start, url, e);
+                result.completeExceptionally(e);
+            }
+        });
+        return result;
+    }
+
+    @Override
+    public void shutdown() {
+        delegate.shutdown();
+    }
+
+    private BufferedResponse record(long start, String url, TransportResponse response) throws IOException {
+        byte[] body = readFully(response.body());
+        writer.append(start, System.nanoTime() - start, response.code(), url, body);
+        return new BufferedResponse(response.code(), body);
+    }
+
+    private void recordFailure(long start, String url, Throwable error) {
+        String message = String.valueOf(error.getMessage());
+        try {
+            writer.append(start, System.nanoTime() - start, TrafficLog.FAILURE, url, message.getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    private static byte[] readFully(InputStream in) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(1024);
+        byte[] buffer = new byte[4096];
+        int n;
+        while ((n = in.read(buffer)) != -1) {
+            out.write(buffer, 0, n);
+        }
+        return out.toByteArray();
+    }
+}
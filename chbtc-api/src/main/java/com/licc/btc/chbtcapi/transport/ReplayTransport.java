@@ -0,0 +1,190 @@
+package com.licc.btc.chbtcapi.transport;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 回放录制请求的传输层，不访问网络
+ * <p>
+ * 按去掉签名参数后的url匹配录制的记录，同一url按录制顺序依次返回，用完后一直返回最后一条。
+ * 回放从第一个请求开始计时，每个响应在录制时的返回时刻(请求发出时间加耗时)除以{@code speed}时返回，
+ * 请求之间的间隔和录制时一致；调用方的请求晚于录制时间时立即返回，不会再补回耗时。
+ * 重复返回最后一条时只按录制的耗时延迟。speed为1时与录制时相同，为0时不延迟。
+ * 共用同一个{@link Session}的传输层(例如同一个客户端的两个域名)按同一个起点计时。
+ * 录制时是网络错误的请求回放时同样抛出IOException。
+ *
+ * @author lichangchao
+ * @version 1.0.0
+ * @date 2018/3/20 11:30
+ * @see RecordingTransport
+ */
+public class ReplayTransport implements ChbtcTransport {
+    private final Map<String, Queue<TrafficLog.Exchange>> pending = new HashMap<>();
+    private final Map<String, TrafficLog.Exchange>        last    = new HashMap<>();
+    private final double                                  speed;
+    private final ScheduledExecutorService                timer;
+    private final Session                                 session;
+    private final LongAdder                               misses  = new LongAdder();
+
+    /**
+     * @param exchanges 录制的记录
+     * @param speed 回放速度倍数
+     * @param timer 延迟返回异步请求的调度线程
+     */
+    public ReplayTransport(List<TrafficLog.Exchange> exchanges, double speed, ScheduledExecutorService timer) {
+        this(exchanges, speed, timer, new Session());
+    }
+
+    /**
+     * @param session 回放的计时起点，多个传输层共用时按同一个起点回放
+     */
+    public ReplayTransport(List<TrafficLog.Exchange> exchanges, double speed, ScheduledExecutorService timer, Session session) {
+        if (speed < 0) {
+            throw new IllegalArgumentException("speed不能小于0");
+        }
+        for (TrafficLog.Exchange exchange : exchanges) {
+            pending.computeIfAbsent(exchange.getUrl(), key -> new ArrayDeque<>()).add(exchange);
+        }
+        this.speed = speed;
+        this.timer = timer;
+        this.session = session;
+    }
+
+    @Override
+    public TransportResponse execute(String url) throws IOException {
+        Replay replay = next(url);
+        TrafficLog.Exchange exchange = replay.exchange;
+        long delay = replay.delayNanos;
+        if (delay > 0) {
+            try {
+                TimeUnit.NANOSECONDS.sleep(delay);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException();
+            }
+        }
+        return response(exchange);
+    }
+
+    @Override
+    public CompletableFuture<TransportResponse> enqueue(String url) {
+        Replay replay;
+        try {
+            replay = next(url);
+        } catch (IOException e) {
+            CompletableFuture<TransportResponse> future = new CompletableFuture<>();
+            future.completeExceptionally(e);
+            return future;
+        }
+        ReplayFuture future = new ReplayFuture();
+        TrafficLog.Exchange exchange = replay.exchange;
+        Runnable complete = () -> {
+            try {
+                future.complete(response(exchange));
+            } catch (IOException e) {
+                future.completeExceptionally(e);
+            }
+        };
+        long delay = replay.delayNanos;
+        if (delay > 0) {
+            future.task = timer.schedule(complete, delay, TimeUnit.NANOSECONDS);
+        } else {
+            complete.run();
+        }
+        return future;
+    }
+
+    @Override
+    public void shutdown() {
+    }
+
+    /**
+     * 没有录制记录的请求数
+     */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    private synchronized Replay next(String url) throws IOException {
+        String key = TrafficLog.normalize(url);
+        Queue<TrafficLog.Exchange> queue = pending.get(key);
+        TrafficLog.Exchange exchange = queue == null ? null : queue.poll();
+        if (exchange != null) {
+            last.put(key, exchange);
+            if (speed == 0) {
+                return new Replay(exchange, 0);
+            }
+            // 录制时的返回时刻按回放起点换算
+            long now = System.nanoTime();
+            long start = session.start(now, scale(exchange.getOffsetMicros()));
+            return new Replay(exchange, Math.max(0, start + scale(exchange.getOffsetMicros() + exchange.getLatencyMicros()) - now));
+        }
+        exchange = last.get(key);
+        if (exchange == null) {
+            misses.increment();
+            throw new IOException("没有录制的请求: " + key);
+        }
+        return new Replay(exchange, speed == 0 ? 0 : scale(exchange.getLatencyMicros()));
+    }
+
+    private long scale(long micros) {
+        return (long) (TimeUnit.MICROSECONDS.toNanos(micros) / speed);
+    }
+
+    private static TransportResponse response(TrafficLog.Exchange exchange) throws IOException {
+        if (exchange.isFailure()) {
+            throw new IOException(new String(exchange.getBody(), StandardCharsets.UTF_8));
+        }
+        return new BufferedResponse(exchange.getCode(), exchange.getBody());
+    }
+
+    /**
+     * 回放的计时起点，第一个请求到达时按它录制的发出时间倒推
+     */
+    public static class Session {
+        private boolean started;
+        private long    startNanos;
+
+        synchronized long start(long nowNanos, long offsetNanos) {
+            if (!started) {
+                started = true;
+                startNanos = nowNanos - offsetNanos;
+            }
+            return startNanos;
+        }
+    }
+
+    private static class Replay {
+        final TrafficLog.Exchange exchange;
+        final long                delayNanos;
+
+        Replay(TrafficLog.Exchange exchange, long delayNanos) {
+            this.exchange = exchange;
+            this.delayNanos = delayNanos;
+        }
+    }
+
+    private static class ReplayFuture extends CompletableFuture<TransportResponse> {
+        volatile ScheduledFuture<?> task;
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            ScheduledFuture<?> t = task;
+            if (t != null) {
+                t.cancel(false);
+            }
+            return super.cancel(mayInterruptIfRunning);
+        }
+    }
+}
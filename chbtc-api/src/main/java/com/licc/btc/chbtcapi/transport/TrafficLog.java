@@ -0,0 +1,181 @@
+package com.licc.btc.chbtcapi.transport;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * 录制的交易所请求日志
+ * <p>
+ * 文件头是魔数、版本号和录制开始时间，之后是deflate压缩的记录流。每条记录依次为：
+ * 请求发出时间相对录制开始的微秒数(long)、请求耗时微秒数(int)、http状态码(short，-1表示网络错误)、
+ * 去掉签名参数的url(UTF)、响应体长度(int)和响应体(网络错误时为错误信息)。
+ * 每条记录写入后立即同步刷新，进程异常退出时只会丢失最后一条不完整的记录。
+ *
+ * @author lichangchao
+ * @version 1.0.0
+ * @date 2018/3/20 11:30
+ * @see RecordingTransport
+ * @see ReplayTransport
+ */
+public class TrafficLog {
+    private static final long MAGIC   = 0x4348425443545246L; // CHBTCTRF
+    private static final int  VERSION = 1;
+    static final int          FAILURE = -1;
+
+    private TrafficLog() {
+    }
+
+    /**
+     * 读取日志中的所有记录
+     */
+    public static List<Exchange> read(File file) throws IOException {
+        try (InputStream in = new BufferedInputStream(new FileInputStream(file))) {
+            DataInputStream header = new DataInputStream(in);
+            if (header.readLong() != MAGIC) {
+                throw new IOException("不是请求日志文件: " + file);
+            }
+            int version = header.readInt();
+            if (version != VERSION) {
+                throw new IOException("不支持的请求日志版本: " + version);
+            }
+            header.readLong(); // 录制开始时间
+            DataInputStream records = new DataInputStream(new InflaterInputStream(in));
+            List<Exchange> exchanges = new ArrayList<>();
+            while (true) {
+                try {
+                    long offsetMicros = records.readLong();
+                    int latencyMicros = records.readInt();
+                    int code = records.readShort();
+                    String url = records.readUTF();
+                    byte[] body = new byte[records.readInt()];
+                    records.readFully(body);
+                    exchanges.add(new Exchange(offsetMicros, latencyMicros, code, url, body));
+                } catch (EOFException e) {
+                    // 正常结束或最后一条记录不完整
+                    break;
+                }
+            }
+            return exchanges;
+        }
+    }
+
+    /**
+     * 去掉每次请求都不同的签名和请求时间参数，作为回放时匹配请求的键
+     */
+    public static String normalize(String url) {
+        int query = url.indexOf('?');
+        if (query < 0) {
+            return url;
+        }
+        StringBuilder normalized = new StringBuilder(url.length()).append(url, 0, query);
+        char separator = '?';
+        for (String param : url.substring(query + 1).split("&")) {
+            if (param.startsWith("sign=") || param.startsWith("reqTime=")) {
+                continue;
+            }
+            normalized.append(separator).append(param);
+            separator = '&';
+        }
+        return normalized.toString();
+    }
+
+    /**
+     * 一次请求和响应
+     */
+    public static class Exchange {
+        private final long   offsetMicros;
+        private final int    latencyMicros;
+        private final int    code;
+        private final String url;
+        private final byte[] body;
+
+        public Exchange(long offsetMicros, int latencyMicros, int code, String url, byte[] body) {
+            this.offsetMicros = offsetMicros;
+            this.latencyMicros = latencyMicros;
+            this.code = code;
+            this.url = url;
+            this.body = body;
+        }
+
+        public long getOffsetMicros() {
+            return offsetMicros;
+        }
+
+        public int getLatencyMicros() {
+            return latencyMicros;
+        }
+
+        public int getCode() {
+            return code;
+        }
+
+        public String getUrl() {
+            return url;
+        }
+
+        public byte[] getBody() {
+            return body;
+        }
+
+        public boolean isFailure() {
+            return code == FAILURE;
+        }
+    }
+
+    /**
+     * 追加写入请求日志，线程安全
+     */
+    public static class Writer implements Closeable {
+        private final DataOutputStream out;
+        private final long             startNanos;
+
+        public Writer(File file) throws IOException {
+            FileOutputStream stream = new FileOutputStream(file);
+            DataOutputStream header = new DataOutputStream(stream);
+            header.writeLong(MAGIC);
+            header.writeInt(VERSION);
+            header.writeLong(System.currentTimeMillis());
+            header.flush();
+            this.out = new DataOutputStream(
+                    new DeflaterOutputStream(new BufferedOutputStream(stream), new Deflater(Deflater.BEST_SPEED), 8192, true));
+            this.startNanos = System.nanoTime();
+        }
+
+        /**
+         * @param requestNanos 请求发出时的{@link System#nanoTime()}
+         * @param latencyNanos 请求耗时
+         * @param code http状态码，网络错误时为{@link #FAILURE}
+         * @param url 请求地址
+         * @param body 响应体或错误信息
+         */
+        public synchronized void append(long requestNanos, long latencyNanos, int code, String url, byte[] body) throws IOException {
+            out.writeLong(TimeUnit.NANOSECONDS.toMicros(requestNanos - startNanos));
+            out.writeInt((int) Math.min(Integer.MAX_VALUE, TimeUnit.NANOSECONDS.toMicros(latencyNanos)));
+            out.writeShort(code);
+            out.writeUTF(normalize(url));
+            out.writeInt(body.length);
+            out.write(body);
+            out.flush();
+        }
+
+        @Override
+        public synchronized void close() throws IOException {
+            out.close();
+        }
+    }
+}
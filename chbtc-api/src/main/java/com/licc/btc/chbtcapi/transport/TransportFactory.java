@@ -0,0 +1,66 @@
+package com.licc.btc.chbtcapi.transport;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+
+import com.licc.btc.chbtcapi.ChbtcHostConfig;
+
+/**
+ * 为每个域名创建传输层
+ *
+ * @author lichangchao
+ * @version 1.0.0
+ * @date 2018/3/20 11:30
+ * @see ChbtcTransport
+ */
+public interface TransportFactory extends Closeable {
+
+    ChbtcTransport create(ChbtcHostConfig config, ScheduledExecutorService timer);
+
+    /**
+     * 所有域名的传输层关闭后调用
+     */
+    @Override
+    default void close() throws IOException {
+    }
+
+    /**
+     * 直接访问交易所
+     */
+    static TransportFactory live() {
+        return OkHttpTransport::new;
+    }
+
+    /**
+     * 访问交易所并把所有域名的请求录制到同一个文件
+     */
+    static TransportFactory recording(File file) throws IOException {
+        TrafficLog.Writer writer = new TrafficLog.Writer(file);
+        return new TransportFactory() {
+            @Override
+            public ChbtcTransport create(ChbtcHostConfig config, ScheduledExecutorService timer) {
+                return new RecordingTransport(new OkHttpTransport(config, timer), writer);
+            }
+
+            @Override
+            public void close() throws IOException {
+                writer.close();
+            }
+        };
+    }
+
+    /**
+     * 回放录制的文件
+     *
+     * @param speed 回放速度倍数，1为原速，0为不等待
+     */
+    static TransportFactory replay(File file, double speed) throws IOException {
+        List<TrafficLog.Exchange> exchanges = TrafficLog.read(file);
+        // 所有域名按同一个起点回放，保持录制时跨域名的请求间隔
+        ReplayTransport.Session session = new ReplayTransport.Session();
+        return (config, timer) -> new ReplayTransport(exchanges, speed, timer, session);
+    }
+}
@@ -0,0 +1,32 @@
+package com.licc.btc.chbtcapi.transport;
+
+import java.io.Closeable;
+import java.io.InputStream;
+
+/**
+ * 传输层返回的响应
+ *
+ * @author lichangchao
+ * @version 1.0.0
+ * @date 2018/3/20 10:05
+ * @see ChbtcTransport
+ */
+public interface TransportResponse extends Closeable {
+
+    /**
+     * http状态码
+     */
+    int code();
+
+    /**
+     * 响应体，只能读取一次
+     */
+    InputStream body();
+
+    default boolean isSuccessful() {
+        return code() >= 200 && code() < 300;
+    }
+
+    @Override
+    void close();
+}
@@ -0,0 +1,118 @@
+package com.licc.btc.chbtcapi.util;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+
+/**
+ * 单个用户的请求签名器
+ * <p>
+ * 与{@link EncryDigestUtil#hmacSign(String, String)}结果一致，但签名密钥只在创建时计算一次，
+ * 并且预先保存了处理过ipad/opad之后的MD5中间状态，每次签名只需克隆中间状态。
+ * 十六进制编码使用线程内复用的缓冲区。实例是线程安全的，可以在多个线程间共享。
+ *
+ * @author lichangchao
+ * @version 1.0.0
+ * @date 2018/3/9 11:05
+ * @see EncryDigestUtil
+ */
+public class ChbtcSigner {
+    private static final int                 BLOCK_SIZE = 64;
+    private static final int                 MD5_LENGTH = 16;
+    private static final char[]              HEX        = "0123456789abcdef".toCharArray();
+    private static final ThreadLocal<Buffer> BUFFER     = ThreadLocal.withInitial(Buffer::new);
+
+    private final MessageDigest inner; // 已经写入 key^ipad
+    private final MessageDigest outer; // 已经写入 key^opad
+
+    /**
+     * @param secretKey 用户私钥，签名密钥为私钥的SHA摘要
+     */
+    public ChbtcSigner(String secretKey) {
+        this(EncryDigestUtil.digest(secretKey).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private ChbtcSigner(byte[] key) {
+        if (key.length > BLOCK_SIZE) {
+            throw new IllegalArgumentException("签名密钥长度不能超过" + BLOCK_SIZE);
+        }
+        byte[] ipad = new byte[BLOCK_SIZE];
+        byte[] opad = new byte[BLOCK_SIZE];
+        Arrays.fill(ipad, (byte) 0x36);
+        Arrays.fill(opad, (byte) 0x5c);
+        for (int i = 0; i < key.length; i++) {
+            ipad[i] = (byte) (key[i] ^ 0x36);
+            opad[i] = (byte) (key[i] ^ 0x5c);
+        }
+        try {
+            inner = MessageDigest.getInstance("MD5");
+            outer = MessageDigest.getInstance("MD5");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        inner.update(ipad);
+        outer.update(opad);
+    }
+
+    /**
+     * 生成签名
+     *
+     * @param value 要签名的字符串
+     * @return 32位小写十六进制签名
+     */
+    public String sign(String value) {
+        Buffer buffer = BUFFER.get();
+        try {
+            MessageDigest md = (MessageDigest) inner.clone();
+            int length = buffer.encode(value);
+            if (length >= 0) {
+                md.update(buffer.bytes, 0, length);
+            } else {
+                md.update(value.getBytes(StandardCharsets.UTF_8));
+            }
+            md.digest(buffer.digest, 0, MD5_LENGTH);
+
+            md = (MessageDigest) outer.clone();
+            md.update(buffer.digest, 0, MD5_LENGTH);
+            md.digest(buffer.digest, 0, MD5_LENGTH);
+        } catch (Exception e) {
+            // MD5 的实现都支持 clone，digest 的缓冲区长度也是固定的
+            throw new IllegalStateException(e);
+        }
+        char[] hex = buffer.hex;
+        for (int i = 0; i < MD5_LENGTH; i++) {
+            int b = buffer.digest[i] & 0xff;
+            hex[i << 1] = HEX[b >>> 4];
+            hex[(i << 1) + 1] = HEX[b & 0x0f];
+        }
+        return new String(hex);
+    }
+
+    /**
+     * 线程内复用的缓冲区
+     */
+    private static class Buffer {
+        final byte[] digest = new byte[MD5_LENGTH];
+        final char[] hex    = new char[MD5_LENGTH * 2];
+        byte[]       bytes  = new byte[256];
+
+        /**
+         * 请求参数基本都是ASCII，直接写入缓冲区；包含其它字符时返回-1，由调用方按UTF-8编码
+         */
+        int encode(String value) {
+            int length = value.length();
+            if (bytes.length < length) {
+                bytes = new byte[Math.max(length, bytes.length << 1)];
+            }
+            for (int i = 0; i < length; i++) {
+                char c = value.charAt(i);
+                if (c >= 0x80) {
+                    return -1;
+                }
+                bytes[i] = (byte) c;
+            }
+            return length;
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.licc.btc.chbtcapi.util;
+
+/**
+ * long表示的定点小数
+ * <p>
+ * 价格和数量按市场的小数位数scale保存为unscaled = value * 10^scale，比较和加减都是long运算，不创建对象。
+ * 只在json和数据库的边界处用{@link #parse(String, int)}解析、用{@link #format(long, int)}输出。
+ * 解析时超出scale的小数位向负无穷截断：对于价差阈值d和最小单位对齐的价格x，x &gt; d 等价于 x &gt; floor(d)，
+ * x &lt;= d 等价于 x &lt;= floor(d)，所以配置的阈值即使位数比市场多，比较结果也与BigDecimal一致。
+ *
+ * @author lichangchao
+ * @version 1.0.0
+ * @date 2018/3/23 14:00
+ * @see com.licc.btc.chbtcapi.enums.ETradeCurrency#getPriceScale()
+ */
+public class FixedPoint {
+    public static final int     MAX_SCALE = 18;
+    public static final long    UNPARSED  = Long.MIN_VALUE; // 实体中缓存的解析结果尚未计算
+    private static final long[] POW10     = new long[MAX_SCALE + 1];
+
+    static {
+        POW10[0] = 1;
+        for (int i = 1; i <= MAX_SCALE; i++) {
+            POW10[i] = POW10[i - 1] * 10;
+        }
+    }
+
+    private FixedPoint() {
+    }
+
+    /**
+     * 10的n次方
+     */
+    public static long pow10(int n) {
+        return POW10[n];
+    }
+
+    /**
+     * 解析十进制字符串，支持正负号和小数点，超出scale的小数位向负无穷截断
+     *
+     * @param value 如"2.3456"、"-0.01"、"15"
+     * @param scale 小数位数
+     * @return value * 10^scale
+     * @throws NumberFormatException 格式错误或超出long范围
+     */
+    public static long parse(String value, int scale) {
+        if (scale < 0 || scale > MAX_SCALE) {
+            throw new IllegalArgumentException("scale超出范围: " + scale);
+        }
+        int length = value == null ? 0 : value.length();
+        int i = 0;
+        boolean negative = false;
+        if (length > 0 && (value.charAt(0) == '-' || value.charAt(0) == '+')) {
+            negative = value.charAt(0) == '-';
+            i++;
+        }
+        long unscaled = 0;
+        int fraction = -1; // 已读的小数位数，-1表示还没有小数点
+        boolean digits = false;
+        boolean truncated = false;
+        for (; i < length; i++) {
+            char c = value.charAt(i);
+            if (c == '.' && fraction < 0) {
+                fraction = 0;
+                continue;
+            }
+            if (c < '0' || c > '9') {
+                throw new NumberFormatException("不是十进制数: " + value);
+            }
+            digits = true;
+            if (fraction >= scale) {
+                truncated |= c != '0';
+                continue;
+            }
+            if (unscaled > (Long.MAX_VALUE - (c - '0')) / 10) {
+                throw new NumberFormatException("超出范围: " + value);
+            }
+            unscaled = unscaled * 10 + (c - '0');
+            if (fraction >= 0) {
+                fraction++;
+            }
+        }
+        if (!digits) {
+            throw new NumberFormatException("不是十进制数: " + value);
+        }
+        int missing = scale - Math.max(fraction, 0);
+        if (unscaled > Long.MAX_VALUE / POW10[missing]) {
+            throw new NumberFormatException("超出范围: " + value);
+        }
+        unscaled *= POW10[missing];
+        if (negative) {
+            return truncated ? -unscaled - 1 : -unscaled;
+        }
+        return unscaled;
+    }
+
+    /**
+     * 输出为固定scale位小数的字符串，如format(23456, 4)为"2.3456"，format(-1, 2)为"-0.01"
+     */
+    public static String format(long unscaled, int scale) {
+        if (scale == 0) {
+            return Long.toString(unscaled);
+        }
+        boolean negative = unscaled < 0;
+        String digits = negative ? Long.toString(unscaled).substring(1) : Long.toString(unscaled);
+        StringBuilder sb = new StringBuilder(digits.length() + scale + 3);
+        if (negative) {
+            sb.append('-');
+        }
+        if (digits.length() <= scale) {
+            sb.append("0.");
+            for (int i = digits.length(); i < scale; i++) {
+                sb.append('0');
+            }
+            sb.append(digits);
+        } else {
+            sb.append(digits, 0, digits.length() - scale).append('.').append(digits, digits.length() - scale, digits.length());
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,265 @@
+package com.licc.btc.chbtcapi.ws;
+
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.licc.btc.chbtcapi.enums.ETradeCurrency;
+import com.licc.btc.chbtcapi.res.ticker.TickerApiRes;
+
+/**
+ * 本地行情推送服务
+ * <p>
+ * 实现了WebSocket握手和帧格式中推送用到的部分，接受与交易所相同的addChannel订阅请求，
+ * 由{@link #publish(ETradeCurrency, TickerApiRes)}向订阅了该币种的连接推送行情。
+ * 用于在没有网络的环境下测试和调试{@link MarketDataClient}。
+ *
+ * @author lichangchao
+ * @version 1.0.0
+ * @date 2018/3/16 14:40
+ * @see MarketDataClient
+ */
+public class LocalMarketDataServer implements Closeable {
+    private static final String GUID = "258EAFA5-E914-47DA-95CA-C5AB0DC85B11";
+
+    private final ServerSocket          serverSocket;
+    private final ExecutorService       executor;
+    private final Set<Connection>       connections = new CopyOnWriteArraySet<>();
+    private volatile boolean            closed;
+
+    /**
+     * 监听本机随机端口
+     */
+    public LocalMarketDataServer() throws IOException {
+        this(0);
+    }
+
+    public LocalMarketDataServer(int port) throws IOException {
+        this.serverSocket = new ServerSocket(port, 50, InetAddress.getLoopbackAddress());
+        this.executor = Executors.newCachedThreadPool(r -> {
+            Thread thread = new Thread(r, "local-market-data");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.execute(this::accept);
+    }
+
+    /**
+     * 连接地址，传给{@link MarketDataClient#MarketDataClient(String)}
+     */
+    public String getUrl() {
+        return "ws://127.0.0.1:" + serverSocket.getLocalPort() + "/websocket";
+    }
+
+    /**
+     * 向订阅了该币种的连接推送行情
+     */
+    public void publish(ETradeCurrency tradeCurrency, TickerApiRes tickerApiRes) {
+        String channel = MarketDataClient.channel(tradeCurrency);
+        ObjectNode node = MarketDataClient.mapper.valueToTree(tickerApiRes);
+        node.put("date", String.valueOf(tickerApiRes.getDate())); // 交易所推送的时间戳是字符串
+        node.put("dataType", "ticker");
+        node.put("channel", channel);
+        String text = node.toString();
+        for (Connection connection : connections) {
+            if (connection.channels.contains(channel)) {
+                connection.sendQuietly(0x1, text.getBytes(StandardCharsets.UTF_8));
+            }
+        }
+    }
+
+    /**
+     * 订阅了该币种的连接数
+     */
+    public int subscriberCount(ETradeCurrency tradeCurrency) {
+        String channel = MarketDataClient.channel(tradeCurrency);
+        return (int) connections.stream().filter(connection -> connection.channels.contains(channel)).count();
+    }
+
+    /**
+     * 不经过关闭握手直接断开所有连接，模拟网络中断
+     */
+    public void dropConnections() {
+        connections.forEach(Connection::closeQuietly);
+    }
+
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        serverSocket.close();
+        dropConnections();
+        executor.shutdownNow();
+    }
+
+    private void accept() {
+        while (!closed) {
+            try {
+                Socket socket = serverSocket.accept();
+                executor.execute(() -> new Connection(socket).run());
+            } catch (IOException e) {
+                if (!closed) {
+                    e.printStackTrace();
+                }
+            }
+        }
+    }
+
+    /**
+     * 单个客户端连接
+     */
+    private class Connection {
+        final Socket      socket;
+        final Set<String> channels = ConcurrentHashMap.newKeySet();
+        OutputStream      out;
+
+        Connection(Socket socket) {
+            this.socket = socket;
+        }
+
+        void run() {
+            try {
+                InputStream in = socket.getInputStream();
+                out = socket.getOutputStream();
+                if (!handshake(in)) {
+                    return;
+                }
+                connections.add(this);
+                DataInputStream frames = new DataInputStream(in);
+                while (!closed) {
+                    int b0 = frames.readUnsignedByte();
+                    int b1 = frames.readUnsignedByte();
+                    long length = b1 & 0x7f;
+                    if (length == 126) {
+                        length = frames.readUnsignedShort();
+                    } else if (length == 127) {
+                        length = frames.readLong();
+                    }
+                    byte[] mask = new byte[4];
+                    if ((b1 & 0x80) != 0) {
+                        frames.readFully(mask);
+                    }
+                    byte[] payload = new byte[(int) length];
+                    frames.readFully(payload);
+                    for (int i = 0; i < payload.length; i++) {
+                        payload[i] ^= mask[i & 3];
+                    }
+                    int opcode = b0 & 0x0f;
+                    if (opcode == 0x1) {
+                        onText(new String(payload, StandardCharsets.UTF_8));
+                    } else if (opcode == 0x8) {
+                        send(0x8, payload);
+                        return;
+                    } else if (opcode == 0x9) {
+                        send(0xA, payload);
+                    }
+                }
+            } catch (IOException e) {
+                // 连接断开
+            } finally {
+                closeQuietly();
+            }
+        }
+
+        boolean handshake(InputStream in) throws IOException {
+            // 逐字节读取请求头，不能多读后面的帧
+            String key = null;
+            StringBuilder line = new StringBuilder();
+            int c;
+            while ((c = in.read()) != -1) {
+                if (c != '\n') {
+                    if (c != '\r') {
+                        line.append((char) c);
+                    }
+                    continue;
+                }
+                if (line.length() == 0) {
+                    break;
+                }
+                int colon = line.indexOf(":");
+                if (colon > 0 && "Sec-WebSocket-Key".equalsIgnoreCase(line.substring(0, colon).trim())) {
+                    key = line.substring(colon + 1).trim();
+                }
+                line.setLength(0);
+            }
+            if (key == null) {
+                out.write("HTTP/1.1 400 Bad Request\r\nContent-Length: 0\r\n\r\n".getBytes(StandardCharsets.US_ASCII));
+                return false;
+            }
+            String response = "HTTP/1.1 101 Switching Protocols\r\nUpgrade: websocket\r\nConnection: Upgrade\r\n"
+                    + "Sec-WebSocket-Accept: " + accept(key) + "\r\n\r\n";
+            out.write(response.getBytes(StandardCharsets.US_ASCII));
+            out.flush();
+            return true;
+        }
+
+        void onText(String text) throws IOException {
+            JsonNode node = MarketDataClient.mapper.readTree(text);
+            if ("addChannel".equals(node.path("event").asText())) {
+                channels.add(node.path("channel").asText());
+            } else if ("removeChannel".equals(node.path("event").asText())) {
+                channels.remove(node.path("channel").asText());
+            }
+        }
+
+        synchronized void send(int opcode, byte[] payload) throws IOException {
+            out.write(0x80 | opcode);
+            if (payload.length < 126) {
+                out.write(payload.length);
+            } else if (payload.length <= 0xffff) {
+                out.write(126);
+                out.write(payload.length >>> 8);
+                out.write(payload.length & 0xff);
+            } else {
+                out.write(127);
+                for (int shift = 56; shift >= 0; shift -= 8) {
+                    out.write((int) ((long) payload.length >>> shift) & 0xff);
+                }
+            }
+            out.write(payload);
+            out.flush();
+        }
+
+        void sendQuietly(int opcode, byte[] payload) {
+            try {
+                send(opcode, payload);
+            } catch (IOException e) {
+                closeQuietly();
+            }
+        }
+
+        void closeQuietly() {
+            connections.remove(this);
+            try {
+                socket.close();
+            } catch (IOException e) {
+                // ignore
+            }
+        }
+    }
+
+    static String accept(String key) {
+        try {
+            MessageDigest sha1 = MessageDigest.getInstance("SHA-1");
+            byte[] digest = sha1.digest((key + GUID).getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,248 @@
+package com.licc.btc.chbtcapi.ws;
+
+import java.io.IOException;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.licc.btc.chbtcapi.Consts;
+import com.licc.btc.chbtcapi.enums.ETradeCurrency;
+import com.licc.btc.chbtcapi.res.ticker.TickerApiRes;
+
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.WebSocket;
+import okhttp3.WebSocketListener;
+
+/**
+ * 行情推送客户端
+ * <p>
+ * 通过交易所的WebSocket接口订阅各币种的行情频道，收到推送后通知{@link TickerListener}。
+ * 连接断开后按指数退避自动重连，重连成功后重新订阅所有频道。
+ *
+ * @author lichangchao
+ * @version 1.0.0
+ * @date 2018/3/16 10:12
+ * @see LocalMarketDataServer
+ */
+public class MarketDataClient {
+    static final ObjectMapper mapper = new ObjectMapper().configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    private static final long MIN_BACKOFF_MILLIS = 500;
+    private static final long MAX_BACKOFF_MILLIS = 30000;
+
+    private final String                       url;
+    private final OkHttpClient                 client;
+    private final ScheduledExecutorService     timer;
+    private final Set<ETradeCurrency>          channels  = EnumSet.noneOf(ETradeCurrency.class);
+    private final List<TickerListener>         listeners = new CopyOnWriteArrayList<>();
+    // 每个频道最后一次收到推送的时间
+    private final Map<ETradeCurrency, Long>    channelMessageMillis = new ConcurrentHashMap<>();
+    private WebSocket                          webSocket;
+    private long                               backoffMillis = MIN_BACKOFF_MILLIS;
+    private boolean                            started;
+    private volatile boolean                   connected;
+    private volatile long                      lastMessageMillis;
+
+    public MarketDataClient() {
+        this(Consts.Chbtc_WebSocket);
+    }
+
+    public MarketDataClient(String url) {
+        this.url = url;
+        this.client = new OkHttpClient.Builder()
+                .connectTimeout(5, TimeUnit.SECONDS)
+                .readTimeout(0, TimeUnit.MILLISECONDS) // 推送连接空闲是正常的，靠心跳检测断线
+                .pingInterval(15, TimeUnit.SECONDS)
+                .build();
+        ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, r -> {
+            Thread thread = new Thread(r, "chbtc-market-data");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.setRemoveOnCancelPolicy(true);
+        this.timer = executor;
+    }
+
+    public void addListener(TickerListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(TickerListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * 订阅币种行情，已经连接时立即发送订阅请求，否则在连接成功后发送
+     */
+    public synchronized void subscribe(ETradeCurrency... tradeCurrencies) {
+        for (ETradeCurrency tradeCurrency : tradeCurrencies) {
+            if (channels.add(tradeCurrency) && connected) {
+                webSocket.send(addChannel(tradeCurrency));
+            }
+        }
+    }
+
+    /**
+     * 建立连接
+     */
+    public synchronized void start() {
+        if (started) {
+            return;
+        }
+        started = true;
+        connect();
+    }
+
+    /**
+     * 关闭连接，不再重连
+     */
+    public synchronized void close() {
+        started = false;
+        connected = false;
+        if (webSocket != null) {
+            webSocket.close(1000, "close");
+            webSocket = null;
+        }
+        timer.shutdownNow();
+        client.dispatcher().executorService().shutdown();
+    }
+
+    /**
+     * 连接是否可用
+     */
+    public boolean isConnected() {
+        return connected;
+    }
+
+    /**
+     * 最后一次收到推送的时间，包括所有频道和心跳以外的消息
+     */
+    public long getLastMessageMillis() {
+        return lastMessageMillis;
+    }
+
+    /**
+     * 该币种频道最后一次收到行情推送的时间，其它频道的推送不算
+     *
+     * @return 还没有收到过时返回0
+     */
+    public long getLastMessageMillis(ETradeCurrency tradeCurrency) {
+        Long millis = channelMessageMillis.get(tradeCurrency);
+        return millis == null ? 0 : millis;
+    }
+
+    private synchronized void connect() {
+        if (!started) {
+            return;
+        }
+        webSocket = client.newWebSocket(new Request.Builder().url(url).build(), new Listener());
+    }
+
+    private synchronized void onOpen(WebSocket socket) {
+        if (socket != webSocket) {
+            socket.close(1000, "stale");
+            return;
+        }
+        connected = true;
+        backoffMillis = MIN_BACKOFF_MILLIS;
+        channels.forEach(tradeCurrency -> socket.send(addChannel(tradeCurrency)));
+    }
+
+    private synchronized void onDisconnect(WebSocket socket) {
+        if (socket != webSocket) {
+            return;
+        }
+        connected = false;
+        webSocket = null;
+        if (started) {
+            timer.schedule(this::connect, backoffMillis, TimeUnit.MILLISECONDS);
+            backoffMillis = Math.min(backoffMillis * 2, MAX_BACKOFF_MILLIS);
+        }
+    }
+
+    private void onMessage(String text) throws IOException {
+        long now = System.currentTimeMillis();
+        lastMessageMillis = now;
+        JsonNode node = mapper.readTree(text);
+        if (!"ticker".equals(node.path("dataType").asText())) {
+            return;
+        }
+        ETradeCurrency tradeCurrency = fromChannel(node.path("channel").asText());
+        if (tradeCurrency == null) {
+            return;
+        }
+        channelMessageMillis.put(tradeCurrency, now);
+        TickerApiRes tickerApiRes = mapper.treeToValue(node, TickerApiRes.class);
+        for (TickerListener listener : listeners) {
+            try {
+                listener.onTicker(tradeCurrency, tickerApiRes);
+            } catch (RuntimeException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    /**
+     * 行情频道名，例如 zb_qc 对应 zbqc_ticker
+     */
+    static String channel(ETradeCurrency tradeCurrency) {
+        return tradeCurrency.getValue().replace("_", "") + "_ticker";
+    }
+
+    static ETradeCurrency fromChannel(String channel) {
+        for (ETradeCurrency tradeCurrency : ETradeCurrency.values()) {
+            if (channel(tradeCurrency).equals(channel)) {
+                return tradeCurrency;
+            }
+        }
+        return null;
+    }
+
+    static String addChannel(ETradeCurrency tradeCurrency) {
+        return "{\"event\":\"addChannel\",\"channel\":\"" + channel(tradeCurrency) + "\"}";
+    }
+
+    private class Listener extends WebSocketListener {
+
+        @Override
+        public void onOpen(WebSocket webSocket, Response response) {
+            MarketDataClient.this.onOpen(webSocket);
+        }
+
+        @Override
+        public void onMessage(WebSocket webSocket, String text) {
+            try {
+                MarketDataClient.this.onMessage(text);
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+
+        @Override
+        public void onClosing(WebSocket webSocket, int code, String reason) {
+            webSocket.close(1000, null);
+            onDisconnect(webSocket);
+        }
+
+        @Override
+        public void onClosed(WebSocket webSocket, int code, String reason) {
+            onDisconnect(webSocket);
+        }
+
+        @Override
+        public void onFailure(WebSocket webSocket, Throwable t, Response response) {
+            onDisconnect(webSocket);
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.licc.btc.chbtcapi.ws;
+
+import com.licc.btc.chbtcapi.enums.ETradeCurrency;
+import com.licc.btc.chbtcapi.res.ticker.TickerApiRes;
+
+/**
+ * 行情推送监听器，在推送连接的读线程中回调，耗时的处理应交给其它线程
+ *
+ * @author lichangchao
+ * @version 1.0.0
+ * @date 2018/3/16 10:12
+ * @see MarketDataClient
+ */
+public interface TickerListener {
+
+    /**
+     * @param tradeCurrency 币种
+     * @param tickerApiRes 行情数据，格式与行情接口一致
+     */
+    void onTicker(ETradeCurrency tradeCurrency, TickerApiRes tickerApiRes);
+}
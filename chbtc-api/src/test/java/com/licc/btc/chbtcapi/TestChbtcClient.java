@@ -0,0 +1,142 @@
+package com.licc.btc.chbtcapi;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.junit.After;
+import org.junit.Test;
+
+import com.licc.btc.chbtcapi.enums.ETradeCurrency;
+import com.licc.btc.chbtcapi.enums.ETradeOrderType;
+import com.licc.btc.chbtcapi.hedge.HedgedRequest;
+import com.licc.btc.chbtcapi.req.OrderReq;
+import com.licc.btc.chbtcapi.transport.BufferedResponse;
+import com.licc.btc.chbtcapi.transport.ChbtcTransport;
+import com.licc.btc.chbtcapi.transport.TransportResponse;
+
+/**
+ *
+ * @author lichangchao
+ * @version 1.0.0
+ * @date 2018/3/19 16:10
+ * @see
+ */
+public class TestChbtcClient {
+    // 行情接口发出的请求，一直不返回
+    private final List<CompletableFuture<TransportResponse>> hanging = new CopyOnWriteArrayList<>();
+    private final ScheduledExecutorService                   timer   = Executors.newSingleThreadScheduledExecutor();
+    private ChbtcClient                                      client;
+
+    @After
+    public void shutdown() {
+        timer.shutdownNow();
+        if (client != null) {
+            client.shutdown();
+        }
+    }
+
+    /**
+     * 行情接口一直超过截止时间时熔断器按失败计数并打开，超时的请求被取消
+     */
+    @Test
+    public void testDeadlineOpensBreaker() throws Exception {
+        ChbtcHostConfig data = ChbtcHostConfig.data();
+        data.setHedgePercentile(0);
+        data.setDeadlineMillis(200);
+        data.setBreakerMinimumCalls(3);
+        client = new ChbtcClient(ChbtcHostConfig.trade(), data, (config, timer) -> new HangingTransport());
+        for (int i = 0; i < 3; i++) {
+            try {
+                client.tickerAsync(ETradeCurrency.ZB_QC).get(1, TimeUnit.SECONDS);
+                fail("请求应该超过截止时间");
+            } catch (ExecutionException e) {
+                assertTrue(e.getCause() instanceof TimeoutException);
+            }
+        }
+        assertTrue(client.isCircuitOpen(Consts.Chbtc_Data_Tticker));
+        assertEquals(3, hanging.size());
+        hanging.forEach(future -> assertTrue(future.isCancelled()));
+    }
+
+    /**
+     * 对冲请求先返回时，被取消的慢请求不计为失败
+     */
+    @Test
+    public void testHedgeLoserIgnored() throws Exception {
+        ChbtcHostConfig data = ChbtcHostConfig.data();
+        data.setBreakerMinimumCalls(2);
+        ChbtcClient.HttpHost host = new ChbtcClient.HttpHost(data, new HangingTransport() {
+            @Override
+            public CompletableFuture<TransportResponse> enqueue(String url) {
+                // 第一个请求不返回，对冲请求立即成功
+                return hanging.isEmpty() ? super.enqueue(url) : CompletableFuture.completedFuture(new BufferedResponse(200, new byte[0]));
+            }
+        });
+        HedgedRequest hedgedRequest = new HedgedRequest(timer, 95, 1, 1000);
+        for (int i = 0; i < 2; i++) {
+            hanging.clear();
+            CompletableFuture<String> result = hedgedRequest.execute(() -> host.enqueue(Consts.Chbtc_Data_Tticker, "url", in -> "ok"));
+            assertEquals("ok", result.get(1, TimeUnit.SECONDS));
+            assertTrue(hanging.get(0).isCancelled());
+        }
+        assertFalse(host.isOpen(Consts.Chbtc_Data_Tticker));
+    }
+
+    /**
+     * 发出后失败的下单返回null，熔断器打开后请求没有发出，抛出RequestNotSentException
+     */
+    @Test
+    public void testSubmitOrderNotSent() throws Exception {
+        ChbtcHostConfig trade = ChbtcHostConfig.trade();
+        trade.setBreakerMinimumCalls(2);
+        client = new ChbtcClient(trade, ChbtcHostConfig.data(), (config, timer) -> new HangingTransport());
+        OrderReq orderReq = new OrderReq();
+        orderReq.setAccessKey("access");
+        orderReq.setSecretKey("secret");
+        orderReq.setPrice("1.25");
+        orderReq.setAmount("100");
+        orderReq.setTradeCurrency(ETradeCurrency.ZB_QC);
+        orderReq.setTradeOrderType(ETradeOrderType.ORDER_BUY);
+        assertNull(client.submitOrder(orderReq));
+        assertNull(client.submitOrder(orderReq));
+        assertTrue(client.isCircuitOpen(Consts.Chbtc_Trade_Order));
+        try {
+            client.submitOrder(orderReq);
+            fail("熔断时请求不应发出");
+        } catch (RequestNotSentException e) {
+            // 熔断器打开
+        }
+        assertNull(client.order(orderReq));
+    }
+
+    private class HangingTransport implements ChbtcTransport {
+        @Override
+        public TransportResponse execute(String url) throws IOException {
+            throw new IOException("不支持同步请求");
+        }
+
+        @Override
+        public CompletableFuture<TransportResponse> enqueue(String url) {
+            CompletableFuture<TransportResponse> future = new CompletableFuture<>();
+            hanging.add(future);
+            return future;
+        }
+
+        @Override
+        public void shutdown() {
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.licc.btc.chbtcapi;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import org.junit.Test;
+
+/**
+ *
+ * @author lichangchao
+ * @version 1.0.0
+ * @date 2018/3/12 14:30
+ * @see
+ */
+public class TestPageSpliterator {
+
+    /**
+     * 250条记录每页100条，共请求3页，最后一页不足100条后停止
+     */
+    @Test
+    public void testStopOnShortPage() {
+        List<Integer> requested = new ArrayList<>();
+        PageSpliterator<Integer> spliterator = new PageSpliterator<>(pageIndex -> {
+            requested.add(pageIndex);
+            int from = (pageIndex - 1) * 100;
+            int to = Math.min(from + 100, 250);
+            List<Integer> page = from >= to ? Collections.<Integer>emptyList()
+                    : IntStream.range(from, to).boxed().collect(Collectors.toList());
+            return CompletableFuture.completedFuture(page);
+        }, 1, 100);
+        Stream<Integer> stream = StreamSupport.stream(spliterator, false);
+        assertEquals(250, stream.count());
+        assertEquals(3, requested.size());
+    }
+
+    /**
+     * 消费第1页的第一条记录时第2页已经发出请求，第3页还没有
+     */
+    @Test
+    public void testPrefetchNextPage() {
+        List<Integer> requested = new ArrayList<>();
+        PageSpliterator<Integer> spliterator = new PageSpliterator<>(pageIndex -> {
+            requested.add(pageIndex);
+            return CompletableFuture.completedFuture(IntStream.range(0, 10).boxed().collect(Collectors.toList()));
+        }, 1, 10);
+        spliterator.tryAdvance(i -> assertEquals(2, requested.size()));
+        spliterator.close();
+        assertEquals(2, requested.size());
+    }
+}
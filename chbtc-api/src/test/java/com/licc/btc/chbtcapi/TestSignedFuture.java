@@ -0,0 +1,71 @@
+package com.licc.btc.chbtcapi;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Test;
+
+/**
+ *
+ * @author lichangchao
+ * @version 1.0.0
+ * @date 2018/3/14 15:50
+ * @see
+ */
+public class TestSignedFuture {
+    private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor();
+
+    @After
+    public void shutdown() {
+        timer.shutdownNow();
+    }
+
+    /**
+     * 等待令牌超时后放弃排队，不再发出请求
+     */
+    @Test
+    public void testPermitTimeout() throws Exception {
+        CompletableFuture<Void> permit = new CompletableFuture<>();
+        AtomicInteger requests = new AtomicInteger();
+        SignedFuture<String> future = new SignedFuture<>(permit, () -> {
+            requests.incrementAndGet();
+            return CompletableFuture.completedFuture("ok");
+        }, timer, 50, "timeout");
+        try {
+            future.get(2, TimeUnit.SECONDS);
+            fail("等待令牌应该超时");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof IOException);
+        }
+        assertTrue(permit.isCancelled());
+        assertEquals(0, requests.get());
+    }
+
+    /**
+     * 取消时放弃排队；已经发出的请求一并取消
+     */
+    @Test
+    public void testCancel() {
+        CompletableFuture<Void> queued = new CompletableFuture<>();
+        SignedFuture<String> waiting = new SignedFuture<>(queued, CompletableFuture::new, timer, 10000, "timeout");
+        waiting.cancel(true);
+        assertTrue(queued.isCancelled());
+
+        CompletableFuture<String> call = new CompletableFuture<>();
+        SignedFuture<String> sent = new SignedFuture<>(CompletableFuture.completedFuture(null), () -> call, timer, 10000, "timeout");
+        assertFalse(sent.isDone());
+        sent.cancel(true);
+        assertTrue(call.isCancelled());
+    }
+}
@@ -0,0 +1,81 @@
+package com.licc.btc.chbtcapi.breaker;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Test;
+
+/**
+ *
+ * @author lichangchao
+ * @version 1.0.0
+ * @date 2018/3/19 15:30
+ * @see
+ */
+public class TestCircuitBreaker {
+    private final AtomicLong     now     = new AtomicLong(1000000);
+    private final CircuitBreaker breaker = new CircuitBreaker("trade.zb.com/order", 50, 4, 10000, 5000, 1, now::get);
+
+    /**
+     * 失败率达到阈值后打开，打开期间直接拒绝，到期后半开放行一个探测调用，成功后关闭
+     */
+    @Test
+    public void testOpenHalfOpenClose() {
+        call(true);
+        call(false);
+        call(true);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        call(false);
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertFalse(breaker.tryAcquire());
+
+        now.addAndGet(5000);
+        assertTrue(breaker.tryAcquire());
+        assertFalse(breaker.tryAcquire());
+        breaker.onSuccess();
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    /**
+     * 半开状态探测失败时重新打开
+     */
+    @Test
+    public void testHalfOpenFailure() {
+        for (int i = 0; i < 4; i++) {
+            call(false);
+        }
+        now.addAndGet(5000);
+        assertTrue(breaker.tryAcquire());
+        breaker.onFailure();
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertFalse(breaker.tryAcquire());
+    }
+
+    /**
+     * 超出滚动窗口的失败不再计入
+     */
+    @Test
+    public void testRollingWindow() {
+        call(false);
+        call(false);
+        call(false);
+        now.addAndGet(11000);
+        call(false);
+        call(true);
+        call(true);
+        call(true);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    private void call(boolean success) {
+        assertTrue(breaker.tryAcquire());
+        if (success) {
+            breaker.onSuccess();
+        } else {
+            breaker.onFailure();
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.licc.btc.chbtcapi.hedge;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Test;
+
+/**
+ *
+ * @author lichangchao
+ * @version 1.0.0
+ * @date 2018/3/15 14:10
+ * @see
+ */
+public class TestHedgedRequest {
+    private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor();
+
+    @After
+    public void shutdown() {
+        timer.shutdownNow();
+    }
+
+    /**
+     * 第一个请求一直不返回时，对冲请求的结果先返回，第一个请求被取消
+     */
+    @Test
+    public void testHedgeWins() throws Exception {
+        HedgedRequest hedgedRequest = new HedgedRequest(timer, 95, 10, 1000);
+        AtomicInteger attempts = new AtomicInteger();
+        CompletableFuture<String> stalled = new CompletableFuture<>();
+        CompletableFuture<String> result = hedgedRequest.execute(() -> attempts.getAndIncrement() == 0 ? stalled
+                : CompletableFuture.completedFuture("hedge"));
+        assertEquals("hedge", result.get(1, TimeUnit.SECONDS));
+        assertTrue(stalled.isCancelled());
+        HedgeStats stats = hedgedRequest.stats();
+        assertEquals(1, stats.getHedged());
+        assertEquals(1, stats.getHedgeWins());
+    }
+
+    /**
+     * 两个请求都不返回时在截止时间结束
+     */
+    @Test
+    public void testDeadline() throws Exception {
+        HedgedRequest hedgedRequest = new HedgedRequest(timer, 95, 10, 100);
+        CompletableFuture<String> result = hedgedRequest.execute(CompletableFuture::new);
+        try {
+            result.get(1, TimeUnit.SECONDS);
+            fail();
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof TimeoutException);
+        }
+        assertEquals(1, hedgedRequest.stats().getDeadlineExceeded());
+    }
+}
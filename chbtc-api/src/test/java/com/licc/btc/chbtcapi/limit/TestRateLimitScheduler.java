@@ -0,0 +1,69 @@
+package com.licc.btc.chbtcapi.limit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Test;
+
+import com.licc.btc.chbtcapi.enums.ERequestPriority;
+
+/**
+ *
+ * @author lichangchao
+ * @version 1.0.0
+ * @date 2018/3/14 11:20
+ * @see
+ */
+public class TestRateLimitScheduler {
+    private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor();
+
+    @After
+    public void shutdown() {
+        timer.shutdownNow();
+    }
+
+    /**
+     * 令牌用完后排队的请求按优先级放行：撤单先于卖单，卖单先于查询
+     */
+    @Test
+    public void testPriorityOrder() throws Exception {
+        RateLimitScheduler limiter = new RateLimitScheduler(20, 1, timer);
+        assertTrue(limiter.acquire("key", ERequestPriority.QUERY).isDone());
+
+        List<ERequestPriority> granted = new CopyOnWriteArrayList<>();
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[3];
+        ERequestPriority[] priorities = { ERequestPriority.QUERY, ERequestPriority.SELL, ERequestPriority.CANCEL };
+        for (int i = 0; i < priorities.length; i++) {
+            ERequestPriority priority = priorities[i];
+            futures[i] = limiter.acquire("key", priority).thenRun(() -> granted.add(priority));
+        }
+        CompletableFuture.allOf(futures).get(2, TimeUnit.SECONDS);
+        assertEquals(ERequestPriority.CANCEL, granted.get(0));
+        assertEquals(ERequestPriority.SELL, granted.get(1));
+        assertEquals(ERequestPriority.QUERY, granted.get(2));
+    }
+
+    /**
+     * 配额低于预留比例时低优先级没有配额，撤单仍然可以执行
+     */
+    @Test
+    public void testBudgetReserve() {
+        RateLimitScheduler limiter = new RateLimitScheduler(0.001, 10, timer);
+        for (int i = 0; i < 6; i++) {
+            limiter.acquire("key", ERequestPriority.SELL);
+        }
+        assertFalse(limiter.hasBudget("key", ERequestPriority.QUERY));
+        assertTrue(limiter.hasBudget("key", ERequestPriority.BUY));
+        assertTrue(limiter.hasBudget("another", ERequestPriority.QUERY));
+        assertTrue(limiter.hasBudget("key", ERequestPriority.CANCEL));
+    }
+}
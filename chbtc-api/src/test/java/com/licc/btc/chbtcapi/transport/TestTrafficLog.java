@@ -0,0 +1,135 @@
+package com.licc.btc.chbtcapi.transport;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Test;
+
+/**
+ * 录制后回放，响应和顺序与录制时一致
+ *
+ * @author lichangchao
+ * @version 1.0.0
+ * @date 2018/3/20 16:10
+ * @see
+ */
+public class TestTrafficLog {
+    private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor();
+
+    @After
+    public void shutdown() {
+        timer.shutdownNow();
+    }
+
+    @Test
+    public void testRecordAndReplay() throws Exception {
+        File file = File.createTempFile("chbtc-traffic", ".log");
+        file.deleteOnExit();
+        ChbtcTransport live = new FakeTransport();
+        try (TrafficLog.Writer writer = new TrafficLog.Writer(file)) {
+            RecordingTransport recorder = new RecordingTransport(live, writer);
+            recorder.execute("https://trade.zb.com/api/getOrder?id=1&sign=aaa&reqTime=1").close();
+            recorder.execute("https://trade.zb.com/api/getOrder?id=1&sign=bbb&reqTime=2").close();
+            recorder.enqueue("http://api.zb.com/data/v1/ticker?market=zb_qc").get(1, TimeUnit.SECONDS).close();
+            try {
+                recorder.execute("http://api.zb.com/data/v1/ticker?market=fail");
+                fail();
+            } catch (IOException e) {
+                // 网络错误也会录制
+            }
+        }
+
+        List<TrafficLog.Exchange> exchanges = TrafficLog.read(file);
+        assertEquals(4, exchanges.size());
+        assertEquals("https://trade.zb.com/api/getOrder?id=1", exchanges.get(0).getUrl());
+        assertTrue(exchanges.get(3).isFailure());
+
+        ReplayTransport replay = new ReplayTransport(exchanges, 0, timer);
+        assertEquals("1", body(replay.execute("https://trade.zb.com/api/getOrder?id=1&sign=ccc&reqTime=3")));
+        assertEquals("2", body(replay.execute("https://trade.zb.com/api/getOrder?id=1&sign=ddd&reqTime=4")));
+        // 录制的记录用完后重复最后一条
+        assertEquals("2", body(replay.execute("https://trade.zb.com/api/getOrder?id=1&sign=eee&reqTime=5")));
+        CompletableFuture<TransportResponse> ticker = replay.enqueue("http://api.zb.com/data/v1/ticker?market=zb_qc");
+        assertEquals("3", body(ticker.get(1, TimeUnit.SECONDS)));
+        try {
+            replay.execute("http://api.zb.com/data/v1/ticker?market=fail");
+            fail();
+        } catch (IOException e) {
+            assertEquals("connection reset", e.getMessage());
+        }
+        try {
+            replay.execute("http://api.zb.com/data/v1/ticker?market=btc_qc");
+            fail();
+        } catch (IOException e) {
+            assertEquals(1, replay.getMisses());
+        }
+    }
+
+    @Test
+    public void testReplayOffsets() throws Exception {
+        byte[] body = "ok".getBytes(StandardCharsets.UTF_8);
+        String url = "http://api.zb.com/data/v1/ticker?market=zb_qc";
+        List<TrafficLog.Exchange> exchanges = Arrays.asList(new TrafficLog.Exchange(100_000, 10_000, 200, url, body),
+            new TrafficLog.Exchange(500_000, 10_000, 200, url, body));
+        // 两倍速回放，第二个请求在起点之后(500+10)/2毫秒返回，与请求何时发出无关
+        ReplayTransport replay = new ReplayTransport(exchanges, 2, timer);
+        long start = System.nanoTime();
+        body(replay.execute(url));
+        long first = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        assertTrue("first " + first, first >= 4 && first < 150);
+        body(replay.enqueue(url).get(1, TimeUnit.SECONDS));
+        long second = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        assertTrue("second " + second, second >= 200 && second < 400);
+    }
+
+    private static String body(TransportResponse response) throws IOException {
+        try (TransportResponse r = response) {
+            byte[] bytes = new byte[16];
+            int n = r.body().read(bytes);
+            return new String(bytes, 0, n, StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * 按调用次数返回响应体，market=fail时抛出网络错误
+     */
+    private static class FakeTransport implements ChbtcTransport {
+        private int count;
+
+        @Override
+        public TransportResponse execute(String url) throws IOException {
+            if (url.contains("market=fail")) {
+                throw new IOException("connection reset");
+            }
+            return new BufferedResponse(200, String.valueOf(++count).getBytes(StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public CompletableFuture<TransportResponse> enqueue(String url) {
+            try {
+                return CompletableFuture.completedFuture(execute(url));
+            } catch (IOException e) {
+                CompletableFuture<TransportResponse> future = new CompletableFuture<>();
+                future.completeExceptionally(e);
+                return future;
+            }
+        }
+
+        @Override
+        public void shutdown() {
+        }
+    }
+}
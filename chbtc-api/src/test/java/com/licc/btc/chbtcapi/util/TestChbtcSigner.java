@@ -0,0 +1,31 @@
+package com.licc.btc.chbtcapi.util;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+/**
+ *
+ * @author lichangchao
+ * @version 1.0.0
+ * @date 2018/3/9 14:40
+ * @see
+ */
+public class TestChbtcSigner {
+
+    /**
+     * 与原有签名算法结果一致
+     */
+    @Test
+    public void testSameAsHmacSign() {
+        String secretKey = "8UPp0KE8sq73zVP370vko7C39403rtK1YwX40Td6irH216036H27Eb12792t";
+        ChbtcSigner signer = new ChbtcSigner(secretKey);
+        String[] values = { "method=order&accesskey=abc&price=0.5123&amount=10&tradeType=1&currency=zb_qc",
+                "method=getOrder&accesskey=abc&id=201803090001&currency=zb_qc", "", "中文参数" };
+        for (String value : values) {
+            assertEquals(EncryDigestUtil.hmacSign(value, EncryDigestUtil.digest(secretKey)), signer.sign(value));
+            // 第二次签名复用缓冲区
+            assertEquals(EncryDigestUtil.hmacSign(value, EncryDigestUtil.digest(secretKey)), signer.sign(value));
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.licc.btc.chbtcapi.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+import org.junit.Test;
+
+/**
+ *
+ * @author lichangchao
+ * @version 1.0.0
+ * @date 2018/3/23 15:00
+ * @see
+ */
+public class TestFixedPoint {
+
+    /**
+     * 解析结果与BigDecimal按scale向负无穷取整一致
+     */
+    @Test
+    public void testParse() {
+        String[] values = { "2.3456", "0", "15", "-0.01", "0.005", "-0.015", "+1.5", "123.", ".5", "0.00009", "99999999.99999999" };
+        for (int scale : new int[] { 0, 2, 4, 8 }) {
+            for (String value : values) {
+                long expected = new BigDecimal(value).setScale(scale, RoundingMode.FLOOR).unscaledValue().longValueExact();
+                assertEquals(value + "@" + scale, expected, FixedPoint.parse(value, scale));
+            }
+        }
+    }
+
+    @Test
+    public void testFormat() {
+        assertEquals("2.3456", FixedPoint.format(23456, 4));
+        assertEquals("0.0100", FixedPoint.format(100, 4));
+        assertEquals("-0.01", FixedPoint.format(-1, 2));
+        assertEquals("-12.30", FixedPoint.format(-1230, 2));
+        assertEquals("15", FixedPoint.format(15, 0));
+        assertEquals(FixedPoint.parse("2.3456", 4), FixedPoint.parse(FixedPoint.format(23456, 4), 4));
+    }
+
+    /**
+     * 阈值位数多于市场精度时比较结果不变
+     */
+    @Test
+    public void testThresholdWithExtraDigits() {
+        long high = FixedPoint.parse("2.36", 2);
+        long buy = FixedPoint.parse("2.35", 2);
+        long diff = FixedPoint.parse("0.005", 2);
+        assertTrue(high - buy > diff);
+        assertEquals(new BigDecimal("2.36").subtract(new BigDecimal("2.35")).compareTo(new BigDecimal("0.005")) > 0, high - buy > diff);
+    }
+
+    @Test
+    public void testInvalid() {
+        for (String value : new String[] { null, "", "-", ".", "1.2.3", "abc", "1e5", "99999999999999999999" }) {
+            try {
+                FixedPoint.parse(value, 2);
+                fail(value);
+            } catch (NumberFormatException e) {
+                // expected
+            }
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.licc.btc.chbtcapi.ws;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.licc.btc.chbtcapi.enums.ETradeCurrency;
+import com.licc.btc.chbtcapi.res.ticker.TickerApiRes;
+import com.licc.btc.chbtcapi.res.ticker.TickerRes;
+
+/**
+ * 使用本地行情推送服务测试订阅和断线重连
+ *
+ * @author lichangchao
+ * @version 1.0.0
+ * @date 2018/3/16 16:05
+ * @see
+ */
+public class TestMarketDataClient {
+    private LocalMarketDataServer server;
+    private MarketDataClient      client;
+
+    @Before
+    public void start() throws Exception {
+        server = new LocalMarketDataServer();
+        client = new MarketDataClient(server.getUrl());
+    }
+
+    @After
+    public void stop() throws Exception {
+        client.close();
+        server.close();
+    }
+
+    @Test
+    public void testReconnectAndResubscribe() throws Exception {
+        BlockingQueue<TickerApiRes> received = new LinkedBlockingQueue<>();
+        client.addListener((tradeCurrency, tickerApiRes) -> {
+            if (tradeCurrency == ETradeCurrency.ZB_QC) {
+                received.add(tickerApiRes);
+            }
+        });
+        client.subscribe(ETradeCurrency.ZB_QC);
+        client.start();
+        await(() -> server.subscriberCount(ETradeCurrency.ZB_QC) == 1);
+
+        server.publish(ETradeCurrency.ZB_QC, ticker(1L, "1.23"));
+        TickerApiRes first = received.poll(5, TimeUnit.SECONDS);
+        assertNotNull(first);
+        assertEquals(Long.valueOf(1L), first.getDate());
+        assertEquals("1.23", first.getTicker().getLast());
+        assertTrue(client.getLastMessageMillis(ETradeCurrency.ZB_QC) > 0);
+        assertEquals(0, client.getLastMessageMillis(ETradeCurrency.ZB_BTC));
+
+        // 断线后自动重连并重新订阅
+        server.dropConnections();
+        await(() -> !client.isConnected());
+        await(() -> server.subscriberCount(ETradeCurrency.ZB_QC) == 1);
+        server.publish(ETradeCurrency.ZB_QC, ticker(2L, "1.24"));
+        TickerApiRes second = received.poll(5, TimeUnit.SECONDS);
+        assertNotNull(second);
+        assertEquals("1.24", second.getTicker().getLast());
+    }
+
+    private static TickerApiRes ticker(Long date, String last) {
+        TickerRes tickerRes = new TickerRes();
+        tickerRes.setLast(last);
+        tickerRes.setBuy(last);
+        tickerRes.setSell(last);
+        TickerApiRes tickerApiRes = new TickerApiRes();
+        tickerApiRes.setDate(date);
+        tickerApiRes.setTicker(tickerRes);
+        return tickerApiRes;
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!condition.getAsBoolean()) {
+            assertTrue("等待超时", System.currentTimeMillis() < deadline);
+            Thread.sleep(20);
+        }
+    }
+}
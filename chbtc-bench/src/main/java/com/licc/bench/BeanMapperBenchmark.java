@@ -0,0 +1,61 @@
+package com.licc.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.licc.btc.chbtcapi.res.ticker.TickerRes;
+import com.licc.btc.chbtcapi.util.BeanMapper;
+import com.licc.trade.domain.Ticker;
+
+/**
+ * TickerService保存行情时TickerRes到Ticker的转换，copyFields为手写赋值的对照
+ *
+ * @author lichangchao
+ * @version 1.0.0
+ * @date 2018/3/23 10:40
+ * @see BeanMapper#map(Object, Class)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BeanMapperBenchmark {
+    private final TickerRes tickerRes = new TickerRes();
+
+    public BeanMapperBenchmark() {
+        tickerRes.setBuy("2.3451");
+        tickerRes.setSell("2.3470");
+        tickerRes.setLast("2.3456");
+        tickerRes.setHigh("2.4588");
+        tickerRes.setLow("2.2010");
+        tickerRes.setVol("3129430.4");
+    }
+
+    @Benchmark
+    public Ticker beanMapper() {
+        return BeanMapper.map(tickerRes, Ticker.class);
+    }
+
+    @Benchmark
+    public Ticker copyFields() {
+        Ticker ticker = new Ticker();
+        ticker.setBuy(tickerRes.getBuy());
+        ticker.setSell(tickerRes.getSell());
+        ticker.setLast(tickerRes.getLast());
+        ticker.setHigh(tickerRes.getHigh());
+        ticker.setLow(tickerRes.getLow());
+        ticker.setVol(tickerRes.getVol());
+        return ticker;
+    }
+}
@@ -0,0 +1,24 @@
+package com.licc.bench;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * 基准测试入口，参数与JMH命令行一致，总是加上GC profiler输出每次调用的分配字节数(gc.alloc.rate.norm)
+ * <p>
+ * 例如只跑签名相关的基准：java -jar chbtc-bench/target/benchmarks.jar Sign
+ *
+ * @author lichangchao
+ * @version 1.0.0
+ * @date 2018/3/23 10:00
+ * @see GCProfiler
+ */
+public class BenchmarkMain {
+    public static void main(String[] args) throws Exception {
+        Options options = new OptionsBuilder().parent(new CommandLineOptions(args)).addProfiler(GCProfiler.class).build();
+        new Runner(options).run();
+    }
+}
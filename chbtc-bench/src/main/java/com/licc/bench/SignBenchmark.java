@@ -0,0 +1,61 @@
+package com.licc.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.licc.btc.chbtcapi.util.ChbtcSigner;
+import com.licc.btc.chbtcapi.util.EncryDigestUtil;
+
+/**
+ * 请求签名
+ * <p>
+ * hmacSign为ChbtcApi原来的写法，每次都对私钥做摘要；hmacSignDigestedKey只算HmacMD5；signer为ChbtcClient使用的预计算签名器。
+ *
+ * @author lichangchao
+ * @version 1.0.0
+ * @date 2018/3/23 10:10
+ * @see EncryDigestUtil
+ * @see ChbtcSigner
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SignBenchmark {
+    private final String      secretKey   = "0b6a4e1b-2a37-4d73-9b9c-2c4e0f5d8a61";
+    private final String      params      = "method=order&accesskey=6d8f62fd-3086-46e3-a0ba-c66a929c24e2&price=2.3456&amount=15.5"
+            + "&tradeType=1&currency=zb_qc";
+    private final String      digestedKey = EncryDigestUtil.digest(secretKey);
+    private final ChbtcSigner signer      = new ChbtcSigner(secretKey);
+
+    @Benchmark
+    public String digest() {
+        return EncryDigestUtil.digest(secretKey);
+    }
+
+    @Benchmark
+    public String hmacSign() {
+        return EncryDigestUtil.hmacSign(params, EncryDigestUtil.digest(secretKey));
+    }
+
+    @Benchmark
+    public String hmacSignDigestedKey() {
+        return EncryDigestUtil.hmacSign(params, digestedKey);
+    }
+
+    @Benchmark
+    public String signer() {
+        return signer.sign(params);
+    }
+}
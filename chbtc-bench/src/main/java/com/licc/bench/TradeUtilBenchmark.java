@@ -0,0 +1,115 @@
+package com.licc.bench;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.licc.btc.chbtcapi.enums.ETradeCurrency;
+import com.licc.btc.chbtcapi.util.FixedPoint;
+import com.licc.trade.domain.OrderNumber;
+import com.licc.trade.util.OrderNumberIndex;
+import com.licc.trade.util.TradeUtil;
+
+/**
+ * 每个行情周期的买入判断：价差比较和按最高价差查下单数量
+ * <p>
+ * getBuyNumber的价差落在最后一个区间，是线性查找最慢的情况。xxxFixed为定点小数版本，对照字符串版本；findBand为编译后的区间索引二分查找。
+ *
+ * @author lichangchao
+ * @version 1.0.0
+ * @date 2018/3/23 10:50
+ * @see TradeUtil
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TradeUtilBenchmark {
+    private static final int SCALE = ETradeCurrency.ZB_QC.getPriceScale();
+
+    private String sell      = "2.4588";
+    private String buy       = "2.3451";
+    private String diff      = "0.05";
+    private long   fixedSell = FixedPoint.parse(sell, SCALE);
+    private long   fixedBuy  = FixedPoint.parse(buy, SCALE);
+    private long   fixedDiff = FixedPoint.parse(diff, SCALE);
+
+    @Benchmark
+    public boolean diffString() {
+        return TradeUtil.diffString(sell, buy, diff);
+    }
+
+    @Benchmark
+    public boolean diffFixed() {
+        return TradeUtil.diff(fixedSell, fixedBuy, fixedDiff);
+    }
+
+    @Benchmark
+    public OrderNumber getBuyNumber(Bands bands) {
+        return TradeUtil.getBuyNumber(bands.high, buy, bands.orderNumbers);
+    }
+
+    @Benchmark
+    public OrderNumber getBuyNumberFixed(Bands bands) {
+        return TradeUtil.getBuyNumber(bands.fixedHigh, fixedBuy, bands.orderNumbers);
+    }
+
+    @Benchmark
+    public OrderNumberIndex.Band findBand(Bands bands) {
+        return bands.index.find(bands.fixedHigh - fixedBuy);
+    }
+
+    @Benchmark
+    public long getBuyPriceFixed() {
+        return TradeUtil.getBuyPrice(fixedBuy, SCALE);
+    }
+
+    /**
+     * count个宽度为10的价差区间，最高价差落在最后一个区间
+     */
+    @State(Scope.Benchmark)
+    public static class Bands {
+        @Param({ "5", "50" })
+        int               count;
+        List<OrderNumber> orderNumbers;
+        String            high;
+        long              fixedHigh;
+        OrderNumberIndex  index;
+
+        @Setup
+        public void setUp() {
+            orderNumbers = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                OrderNumber orderNumber = new OrderNumber();
+                orderNumber.setCurrency(ETradeCurrency.ZB_QC.getValue());
+                orderNumber.setHightBuyStart(String.valueOf(i * 10));
+                orderNumber.setHightBuyEnd(String.valueOf(i * 10 + 10));
+                orderNumber.setOrderNumber(i + 1);
+                orderNumbers.add(orderNumber);
+            }
+            high = new BigDecimal("2.3451").add(BigDecimal.valueOf(count * 10 - 5)).toPlainString();
+            fixedHigh = FixedPoint.parse(high, SCALE);
+            // 预先解析区间，和从数据库加载后第一次使用之后的状态一致
+            for (OrderNumber orderNumber : orderNumbers) {
+                orderNumber.getFixedHightBuyStart();
+                orderNumber.getFixedHightBuyEnd();
+            }
+            index = OrderNumberIndex.compile(orderNumbers);
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.licc.btc.chbtcapi;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.licc.btc.chbtcapi.res.order.GetOrderRes;
+import com.licc.btc.chbtcapi.res.order.GetOrdersRes;
+import com.licc.btc.chbtcapi.res.ticker.TickerApiRes;
+
+/**
+ * 响应的Jackson解析
+ * <p>
+ * ticker、getOrder直接用ObjectMapper解析，decodeXxx是ChbtcClient实际使用的解码器(先检查接口维护中)；
+ * getOrdersNew按每页订单数生成响应。
+ *
+ * @author lichangchao
+ * @version 1.0.0
+ * @date 2018/3/23 10:30
+ * @see ChbtcClient#readObject(Class)
+ * @see ChbtcClient#readOrders(java.io.InputStream)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DecodeBenchmark {
+    private static final String TICKER = "{\"date\":\"1521771000123\",\"ticker\":{\"vol\":\"3129430.4\",\"last\":\"2.3456\","
+            + "\"sell\":\"2.3470\",\"buy\":\"2.3451\",\"high\":\"2.4588\",\"low\":\"2.2010\"}}";
+    private static final String ORDER  = "{\"currency\":\"zb_qc\",\"fees\":\"0.0703\",\"id\":\"2018032310200001\","
+            + "\"price\":\"2.3456\",\"status\":2,\"total_amount\":\"15.5\",\"trade_amount\":\"15.5\",\"trade_price\":\"2.3456\","
+            + "\"trade_date\":1521771000123,\"trade_money\":\"36.3568\",\"type\":\"1\"}";
+
+    private final ObjectMapper                         mapper        = new ObjectMapper();
+    private final ResponseFuture.Decoder<TickerApiRes> tickerDecoder = ChbtcClient.readObject(TickerApiRes.class);
+    private final ResponseFuture.Decoder<GetOrderRes>  orderDecoder  = ChbtcClient.readObject(GetOrderRes.class);
+    private final byte[]                               ticker        = TICKER.getBytes(StandardCharsets.UTF_8);
+    private final byte[]                               order         = ORDER.getBytes(StandardCharsets.UTF_8);
+
+    @Benchmark
+    public TickerApiRes ticker() throws IOException {
+        return mapper.readValue(ticker, TickerApiRes.class);
+    }
+
+    @Benchmark
+    public TickerApiRes decodeTicker() throws IOException {
+        return tickerDecoder.decode(new ByteArrayInputStream(ticker));
+    }
+
+    @Benchmark
+    public GetOrderRes getOrder() throws IOException {
+        return mapper.readValue(order, GetOrderRes.class);
+    }
+
+    @Benchmark
+    public GetOrderRes decodeGetOrder() throws IOException {
+        return orderDecoder.decode(new ByteArrayInputStream(order));
+    }
+
+    @Benchmark
+    public List<GetOrdersRes> decodeGetOrdersNew(OrdersPage page) throws IOException {
+        return ChbtcClient.readOrders(new ByteArrayInputStream(page.body));
+    }
+
+    /**
+     * 一页orders个订单的getOrdersNew响应
+     */
+    @State(Scope.Benchmark)
+    public static class OrdersPage {
+        @Param({ "10", "100" })
+        int    orders;
+        byte[] body;
+
+        @Setup
+        public void setUp() {
+            StringBuilder sb = new StringBuilder("[");
+            for (int i = 0; i < orders; i++) {
+                if (i > 0) {
+                    sb.append(',');
+                }
+                sb.append(ORDER.replace("\"trade_date\":1521771000123", "\"trade_date\":\"1521771000123\""));
+            }
+            body = sb.append(']').toString().getBytes(StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.licc.btc.chbtcapi;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.licc.btc.chbtcapi.enums.ETradeCurrency;
+import com.licc.btc.chbtcapi.enums.ETradeOrderType;
+import com.licc.btc.chbtcapi.req.GetOrderReq;
+import com.licc.btc.chbtcapi.req.GetOrdersNewReq;
+import com.licc.btc.chbtcapi.req.OrderReq;
+import com.licc.btc.chbtcapi.util.EncryDigestUtil;
+
+/**
+ * 拼接请求参数并签名，得到完整的请求地址，不发请求
+ * <p>
+ * 放在chbtcapi包下才能调用ChbtcClient的包内方法。legacyAccountInfoUrl是ChbtcApi.getAccountInfo里的写法。
+ *
+ * @author lichangchao
+ * @version 1.0.0
+ * @date 2018/3/23 10:20
+ * @see ChbtcClient#signedUrl(String, String, String)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RequestUrlBenchmark {
+    private static final String ACCESS_KEY = "6d8f62fd-3086-46e3-a0ba-c66a929c24e2";
+    private static final String SECRET_KEY = "0b6a4e1b-2a37-4d73-9b9c-2c4e0f5d8a61";
+
+    private ChbtcClient         client;
+    private OrderReq            orderReq;
+    private GetOrderReq         getOrderReq;
+    private GetOrdersNewReq     ordersNewReq;
+
+    @Setup
+    public void setUp() {
+        client = new ChbtcClient();
+        orderReq = new OrderReq();
+        orderReq.setAccessKey(ACCESS_KEY);
+        orderReq.setSecretKey(SECRET_KEY);
+        orderReq.setPrice("2.3456");
+        orderReq.setAmount("15.5");
+        orderReq.setTradeOrderType(ETradeOrderType.ORDER_BUY);
+        orderReq.setTradeCurrency(ETradeCurrency.ZB_QC);
+        getOrderReq = new GetOrderReq();
+        getOrderReq.setAccessKey(ACCESS_KEY);
+        getOrderReq.setSecretKey(SECRET_KEY);
+        getOrderReq.setId("2018032310200001");
+        getOrderReq.setTradeCurrency(ETradeCurrency.ZB_QC);
+        ordersNewReq = new GetOrdersNewReq();
+        ordersNewReq.setAccessKey(ACCESS_KEY);
+        ordersNewReq.setSecretKey(SECRET_KEY);
+        ordersNewReq.setOrderType(ETradeOrderType.ORDER_SELL);
+        ordersNewReq.setCurrency(ETradeCurrency.ZB_QC);
+        ordersNewReq.setPageIndex(1);
+        ordersNewReq.setPageSize(100);
+    }
+
+    @TearDown
+    public void tearDown() {
+        client.shutdown();
+    }
+
+    @Benchmark
+    public String tickerUrl() {
+        return client.tickerUrl(ETradeCurrency.ZB_QC);
+    }
+
+    @Benchmark
+    public String orderUrl() {
+        return client.orderUrl(orderReq);
+    }
+
+    @Benchmark
+    public String getOrderUrl() {
+        return client.getOrderUrl(getOrderReq);
+    }
+
+    @Benchmark
+    public String ordersNewUrl() {
+        return client.ordersNewUrl(ordersNewReq);
+    }
+
+    @Benchmark
+    public String legacyAccountInfoUrl() {
+        String params = "method=" + Consts.Chbtc_Trade_AccountInfo + "&accesskey=" + ACCESS_KEY;
+        String hash = EncryDigestUtil.hmacSign(params, EncryDigestUtil.digest(SECRET_KEY));
+        return Consts.Chbtc_Trade + Consts.Chbtc_Trade_AccountInfo + "?" + params + "&sign=" + hash + "&reqTime="
+                + System.currentTimeMillis();
+    }
+}
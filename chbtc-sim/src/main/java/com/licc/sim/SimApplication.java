@@ -0,0 +1,24 @@
+package com.licc.sim;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceTransactionManagerAutoConfiguration;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration;
+
+/**
+ * 本地模拟交易所，不需要数据库
+ *
+ * @author lichangchao
+ * @version 1.0.0
+ * @date 2018/3/22 16:00
+ * @see com.licc.sim.web.SimExchangeController
+ */
+@SpringBootApplication(exclude = { DataSourceAutoConfiguration.class, DataSourceTransactionManagerAutoConfiguration.class,
+        HibernateJpaAutoConfiguration.class })
+public class SimApplication {
+    public static void main(String[] args) throws Exception {
+        SpringApplication.run(SimApplication.class, args);
+    }
+
+}
@@ -0,0 +1,83 @@
+package com.licc.sim.config;
+
+import java.io.File;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.licc.btc.chbtcapi.enums.ETradeCurrency;
+import com.licc.sim.engine.MatchingEngine;
+import com.licc.sim.engine.PricePath;
+import com.licc.sim.engine.RandomWalkPricePath;
+import com.licc.sim.engine.ReplayPricePath;
+import com.licc.sim.web.FaultInjector;
+import com.licc.sim.web.SignatureVerifier;
+
+/**
+ * 撮合引擎和调度线程
+ *
+ * @author lichangchao
+ * @version 1.0.0
+ * @date 2018/3/22 14:20
+ * @see SimProperties
+ */
+@Configuration
+@EnableConfigurationProperties(SimProperties.class)
+public class SimConfig {
+
+    @Bean(destroyMethod = "shutdownNow")
+    public ScheduledExecutorService simScheduler(SimProperties properties) {
+        return Executors.newScheduledThreadPool(properties.getFault().getThreads(), runnable -> {
+            Thread thread = new Thread(runnable, "chbtc-sim");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Bean
+    public MatchingEngine matchingEngine(SimProperties properties, ScheduledExecutorService simScheduler) throws IOException {
+        Map<ETradeCurrency, PricePath> paths = new EnumMap<>(ETradeCurrency.class);
+        for (ETradeCurrency currency : ETradeCurrency.values()) {
+            paths.put(currency, pricePath(properties, currency));
+        }
+        MatchingEngine engine = new MatchingEngine(paths, BigDecimal.valueOf(properties.getFeeRate()));
+        simScheduler.scheduleAtFixedRate(() -> {
+            try {
+                engine.tick();
+            } catch (Exception e) {
+                e.printStackTrace();
+            }
+        }, properties.getTickMillis(), properties.getTickMillis(), TimeUnit.MILLISECONDS);
+        return engine;
+    }
+
+    @Bean
+    public SignatureVerifier signatureVerifier(SimProperties properties) {
+        return new SignatureVerifier(properties);
+    }
+
+    @Bean
+    public FaultInjector faultInjector(SimProperties properties, ScheduledExecutorService simScheduler) {
+        return new FaultInjector(properties.getFault(), simScheduler);
+    }
+
+    private PricePath pricePath(SimProperties properties, ETradeCurrency currency) throws IOException {
+        if (properties.getReplayFile() != null && !properties.getReplayFile().isEmpty()) {
+            PricePath replay = ReplayPricePath.fromTrafficLog(new File(properties.getReplayFile()), currency);
+            if (replay != null) {
+                return replay;
+            }
+        }
+        SimProperties.Market market = properties.getMarkets().getOrDefault(currency.getValue(), new SimProperties.Market());
+        return new RandomWalkPricePath(market.getStartPrice(), market.getVolatility(), market.getSpread(), market.getScale(),
+                properties.getSeed() + currency.ordinal());
+    }
+}
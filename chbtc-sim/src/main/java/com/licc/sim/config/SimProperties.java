@@ -0,0 +1,196 @@
+package com.licc.sim.config;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 模拟交易所配置
+ * <p>
+ * accounts为accessKey到secretKey的映射，不在其中的accessKey使用defaultSecretKey验签，
+ * 压测时可以让所有用户使用同一个私钥；defaultSecretKey为空时只接受accounts中的用户。
+ *
+ * @author lichangchao
+ * @version 1.0.0
+ * @date 2018/3/22 14:00
+ * @see SimConfig
+ */
+@ConfigurationProperties(prefix = "sim")
+public class SimProperties {
+    private Map<String, String> accounts   = new HashMap<>();
+    private String              defaultSecretKey;
+    private long                reqTimeWindowMillis;         // 0表示不校验reqTime
+    private double              feeRate    = 0.002;
+    private long                tickMillis = 1000;           // 外部报价的更新周期
+    private String              replayFile;                  // 录制的请求日志，有该市场的行情时回放，否则随机游走
+    private long                seed       = 20180322;
+    private Map<String, Market> markets    = new HashMap<>();
+    private Fault               fault      = new Fault();
+
+    public Map<String, String> getAccounts() {
+        return accounts;
+    }
+
+    public void setAccounts(Map<String, String> accounts) {
+        this.accounts = accounts;
+    }
+
+    public String getDefaultSecretKey() {
+        return defaultSecretKey;
+    }
+
+    public void setDefaultSecretKey(String defaultSecretKey) {
+        this.defaultSecretKey = defaultSecretKey;
+    }
+
+    public long getReqTimeWindowMillis() {
+        return reqTimeWindowMillis;
+    }
+
+    public void setReqTimeWindowMillis(long reqTimeWindowMillis) {
+        this.reqTimeWindowMillis = reqTimeWindowMillis;
+    }
+
+    public double getFeeRate() {
+        return feeRate;
+    }
+
+    public void setFeeRate(double feeRate) {
+        this.feeRate = feeRate;
+    }
+
+    public long getTickMillis() {
+        return tickMillis;
+    }
+
+    public void setTickMillis(long tickMillis) {
+        this.tickMillis = tickMillis;
+    }
+
+    public String getReplayFile() {
+        return replayFile;
+    }
+
+    public void setReplayFile(String replayFile) {
+        this.replayFile = replayFile;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+
+    public Map<String, Market> getMarkets() {
+        return markets;
+    }
+
+    public void setMarkets(Map<String, Market> markets) {
+        this.markets = markets;
+    }
+
+    public Fault getFault() {
+        return fault;
+    }
+
+    public void setFault(Fault fault) {
+        this.fault = fault;
+    }
+
+    /**
+     * 单个市场的随机游走参数，key为市场名如zb_qc
+     */
+    public static class Market {
+        private double startPrice = 1;
+        private int    scale      = 4;     // 价格小数位数
+        private double volatility = 0.001; // 每个周期收益率的标准差
+        private double spread     = 0.001; // 买一卖一的相对价差
+
+        public double getStartPrice() {
+            return startPrice;
+        }
+
+        public void setStartPrice(double startPrice) {
+            this.startPrice = startPrice;
+        }
+
+        public int getScale() {
+            return scale;
+        }
+
+        public void setScale(int scale) {
+            this.scale = scale;
+        }
+
+        public double getVolatility() {
+            return volatility;
+        }
+
+        public void setVolatility(double volatility) {
+            this.volatility = volatility;
+        }
+
+        public double getSpread() {
+            return spread;
+        }
+
+        public void setSpread(double spread) {
+            this.spread = spread;
+        }
+    }
+
+    /**
+     * 延迟和错误注入，每个请求在[minLatencyMillis, maxLatencyMillis]内随机延迟，
+     * 按errorRate返回http 503，按maintenanceRate返回1009接口维护中
+     */
+    public static class Fault {
+        private long   minLatencyMillis;
+        private long   maxLatencyMillis;
+        private double errorRate;
+        private double maintenanceRate;
+        private int    threads = 4;
+
+        public long getMinLatencyMillis() {
+            return minLatencyMillis;
+        }
+
+        public void setMinLatencyMillis(long minLatencyMillis) {
+            this.minLatencyMillis = minLatencyMillis;
+        }
+
+        public long getMaxLatencyMillis() {
+            return maxLatencyMillis;
+        }
+
+        public void setMaxLatencyMillis(long maxLatencyMillis) {
+            this.maxLatencyMillis = maxLatencyMillis;
+        }
+
+        public double getErrorRate() {
+            return errorRate;
+        }
+
+        public void setErrorRate(double errorRate) {
+            this.errorRate = errorRate;
+        }
+
+        public double getMaintenanceRate() {
+            return maintenanceRate;
+        }
+
+        public void setMaintenanceRate(double maintenanceRate) {
+            this.maintenanceRate = maintenanceRate;
+        }
+
+        public int getThreads() {
+            return threads;
+        }
+
+        public void setThreads(int threads) {
+            this.threads = threads;
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package com.licc.sim.engine;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+
+import com.licc.btc.chbtcapi.enums.ETradeCurrency;
+import com.licc.btc.chbtcapi.enums.ETradeOrderType;
+
+/**
+ * 模拟交易所的内存撮合引擎
+ * <p>
+ * 每个市场一个{@link OrderBook}，委托按id和accessKey索引。委托不会被清理，压测结束后重启即可。
+ *
+ * @author lichangchao
+ * @version 1.0.0
+ * @date 2018/3/22 11:30
+ * @see OrderBook
+ */
+public class MatchingEngine {
+    private final Map<ETradeCurrency, OrderBook>        books  = new EnumMap<>(ETradeCurrency.class);
+    private final ConcurrentMap<Long, SimOrder>         orders = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, List<SimOrder>> users  = new ConcurrentHashMap<>();
+    private final AtomicLong                            ids    = new AtomicLong(System.currentTimeMillis());
+
+    /**
+     * @param paths 各市场的价格路径，没有价格路径的市场不支持
+     * @param feeRate 手续费率
+     */
+    public MatchingEngine(Map<ETradeCurrency, PricePath> paths, BigDecimal feeRate) {
+        paths.forEach((currency, path) -> books.put(currency, new OrderBook(currency, path, feeRate)));
+    }
+
+    public boolean supports(ETradeCurrency currency) {
+        return books.containsKey(currency);
+    }
+
+    /**
+     * 当前外部报价
+     */
+    public Quote quote(ETradeCurrency currency) {
+        OrderBook book = books.get(currency);
+        return book == null ? null : book.getQuote();
+    }
+
+    /**
+     * 所有市场取下一个外部报价
+     */
+    public void tick() {
+        long now = System.currentTimeMillis();
+        for (OrderBook book : books.values()) {
+            book.tick(now);
+        }
+    }
+
+    /**
+     * 委托下单
+     *
+     * @return 撮合后的委托快照
+     */
+    public SimOrder place(String accessKey, ETradeCurrency currency, ETradeOrderType type, BigDecimal price, BigDecimal amount) {
+        OrderBook book = book(currency);
+        long now = System.currentTimeMillis();
+        SimOrder order = new SimOrder(ids.incrementAndGet(), accessKey, currency, type, price, amount, now);
+        orders.put(order.getId(), order);
+        users.computeIfAbsent(accessKey, key -> Collections.synchronizedList(new ArrayList<>())).add(order);
+        book.place(order, now);
+        return book.snapshot(Collections.singletonList(order)).get(0);
+    }
+
+    /**
+     * 撤单
+     *
+     * @return 委托不存在、不属于该用户或已经结束时返回false
+     */
+    public boolean cancel(String accessKey, ETradeCurrency currency, long id) {
+        SimOrder order = owned(accessKey, currency, id);
+        return order != null && book(currency).cancel(order, System.currentTimeMillis());
+    }
+
+    /**
+     * 查询单个委托
+     *
+     * @return 委托快照，不存在或不属于该用户时返回null
+     */
+    public SimOrder find(String accessKey, ETradeCurrency currency, long id) {
+        SimOrder order = owned(accessKey, currency, id);
+        return order == null ? null : book(currency).snapshot(Collections.singletonList(order)).get(0);
+    }
+
+    /**
+     * 未成交或部分成交的买单和卖单，新的在前
+     *
+     * @param pageIndex 从1开始
+     */
+    public List<SimOrder> unfinished(String accessKey, ETradeCurrency currency, int pageIndex, int pageSize) {
+        return page(accessKey, currency, SimOrder::isOpen, pageIndex, pageSize);
+    }
+
+    /**
+     * 某一方向的所有委托，新的在前
+     *
+     * @param pageIndex 从1开始
+     */
+    public List<SimOrder> orders(String accessKey, ETradeCurrency currency, ETradeOrderType type, int pageIndex, int pageSize) {
+        return page(accessKey, currency, order -> order.getType() == type, pageIndex, pageSize);
+    }
+
+    /**
+     * 挂单总数
+     */
+    public int depth() {
+        int depth = 0;
+        for (OrderBook book : books.values()) {
+            depth += book.depth();
+        }
+        return depth;
+    }
+
+    private List<SimOrder> page(String accessKey, ETradeCurrency currency, Predicate<SimOrder> filter, int pageIndex, int pageSize) {
+        List<SimOrder> owned = users.get(accessKey);
+        if (owned == null || pageIndex < 1 || pageSize < 1) {
+            return Collections.emptyList();
+        }
+        List<SimOrder> candidates;
+        synchronized (owned) {
+            candidates = new ArrayList<>(owned);
+        }
+        OrderBook book = book(currency);
+        List<SimOrder> snapshots = new ArrayList<>();
+        for (SimOrder order : book.snapshot(filter(candidates, currency))) {
+            if (filter.test(order)) {
+                snapshots.add(order);
+            }
+        }
+        Collections.reverse(snapshots);
+        int from = (pageIndex - 1) * pageSize;
+        if (from >= snapshots.size()) {
+            return Collections.emptyList();
+        }
+        return new ArrayList<>(snapshots.subList(from, Math.min(snapshots.size(), from + pageSize)));
+    }
+
+    private static List<SimOrder> filter(List<SimOrder> orders, ETradeCurrency currency) {
+        List<SimOrder> filtered = new ArrayList<>();
+        for (SimOrder order : orders) {
+            if (order.getCurrency() == currency) {
+                filtered.add(order);
+            }
+        }
+        return filtered;
+    }
+
+    private SimOrder owned(String accessKey, ETradeCurrency currency, long id) {
+        SimOrder order = orders.get(id);
+        if (order == null || order.getCurrency() != currency || !order.getAccessKey().equals(accessKey)) {
+            return null;
+        }
+        return order;
+    }
+
+    private OrderBook book(ETradeCurrency currency) {
+        OrderBook book = books.get(currency);
+        if (book == null) {
+            throw new IllegalArgumentException("不支持的市场: " + currency.getValue());
+        }
+        return book;
+    }
+}
@@ -0,0 +1,171 @@
+package com.licc.sim.engine;
+
+import java.math.BigDecimal;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import com.licc.btc.chbtcapi.enums.ETradeCurrency;
+
+/**
+ * 单个市场的价格优先、时间优先撮合
+ * <p>
+ * 用户委托之间按价格优先、同价格先到先成交撮合，以挂单方价格成交。价格路径的买一卖一视为深度无限的外部流动性：
+ * 新委托能和外部报价成交且外部报价优于最优的用户挂单时，剩余数量全部按外部报价成交；
+ * 每个行情周期外部报价变动后，被穿越的用户挂单按挂单价格全部成交。
+ *
+ * @author lichangchao
+ * @version 1.0.0
+ * @date 2018/3/22 11:00
+ * @see MatchingEngine
+ */
+public class OrderBook {
+    private final ETradeCurrency                        currency;
+    private final PricePath                             path;
+    private final BigDecimal                            feeRate;
+    private final TreeMap<BigDecimal, Deque<SimOrder>> bids = new TreeMap<>(Collections.reverseOrder());
+    private final TreeMap<BigDecimal, Deque<SimOrder>> asks = new TreeMap<>();
+    private volatile Quote                              quote;
+
+    public OrderBook(ETradeCurrency currency, PricePath path, BigDecimal feeRate) {
+        this.currency = currency;
+        this.path = path;
+        this.feeRate = feeRate;
+        this.quote = path.next();
+    }
+
+    /**
+     * 撮合新委托，未成交部分挂单
+     */
+    public synchronized void place(SimOrder order, long now) {
+        TreeMap<BigDecimal, Deque<SimOrder>> book = order.isBuy() ? asks : bids;
+        while (order.remaining().signum() > 0) {
+            BigDecimal external = order.isBuy() ? quote.getSell() : quote.getBuy();
+            Map.Entry<BigDecimal, Deque<SimOrder>> best = book.firstEntry();
+            if (crosses(order, external) && (best == null || better(order, external, best.getKey()))) {
+                order.fill(order.remaining(), external, feeRate, now);
+                break;
+            }
+            if (best == null || !crosses(order, best.getKey())) {
+                break;
+            }
+            Deque<SimOrder> level = best.getValue();
+            SimOrder maker = level.peekFirst();
+            BigDecimal quantity = order.remaining().min(maker.remaining());
+            maker.fill(quantity, maker.getPrice(), feeRate, now);
+            order.fill(quantity, maker.getPrice(), feeRate, now);
+            if (maker.isFilled()) {
+                level.pollFirst();
+                if (level.isEmpty()) {
+                    book.remove(best.getKey());
+                }
+            }
+        }
+        if (order.isOpen()) {
+            (order.isBuy() ? bids : asks).computeIfAbsent(order.getPrice(), price -> new ArrayDeque<>()).addLast(order);
+        }
+    }
+
+    /**
+     * 撤销挂单
+     *
+     * @return 委托已经完全成交或已撤销时返回false
+     */
+    public synchronized boolean cancel(SimOrder order, long now) {
+        if (!order.isOpen()) {
+            return false;
+        }
+        TreeMap<BigDecimal, Deque<SimOrder>> book = order.isBuy() ? bids : asks;
+        Deque<SimOrder> level = book.get(order.getPrice());
+        if (level != null) {
+            level.remove(order);
+            if (level.isEmpty()) {
+                book.remove(order.getPrice());
+            }
+        }
+        order.cancel(now);
+        return true;
+    }
+
+    /**
+     * 取下一个外部报价，被穿越的挂单按挂单价成交
+     */
+    public synchronized void tick(long now) {
+        Quote next = path.next();
+        if (next == null) {
+            return;
+        }
+        quote = next;
+        sweep(bids, next.getSell(), now);
+        sweep(asks, next.getBuy(), now);
+    }
+
+    private void sweep(TreeMap<BigDecimal, Deque<SimOrder>> book, BigDecimal external, long now) {
+        Iterator<Map.Entry<BigDecimal, Deque<SimOrder>>> levels = book.entrySet().iterator();
+        while (levels.hasNext()) {
+            Map.Entry<BigDecimal, Deque<SimOrder>> level = levels.next();
+            SimOrder head = level.getValue().peekFirst();
+            if (!crosses(head, external)) {
+                break;
+            }
+            for (SimOrder order : level.getValue()) {
+                order.fill(order.remaining(), order.getPrice(), feeRate, now);
+            }
+            levels.remove();
+        }
+    }
+
+    /**
+     * 取委托的一致快照
+     */
+    public synchronized List<SimOrder> snapshot(List<SimOrder> orders) {
+        List<SimOrder> copies = new ArrayList<>(orders.size());
+        for (SimOrder order : orders) {
+            copies.add(order.copy());
+        }
+        return copies;
+    }
+
+    /**
+     * order能否以price成交
+     */
+    private static boolean crosses(SimOrder order, BigDecimal price) {
+        int c = order.getPrice().compareTo(price);
+        return order.isBuy() ? c >= 0 : c <= 0;
+    }
+
+    /**
+     * 对order来说a是否严格优于b
+     */
+    private static boolean better(SimOrder order, BigDecimal a, BigDecimal b) {
+        int c = a.compareTo(b);
+        return order.isBuy() ? c < 0 : c > 0;
+    }
+
+    /**
+     * 挂单数量
+     */
+    public synchronized int depth() {
+        int depth = 0;
+        for (Deque<SimOrder> level : bids.values()) {
+            depth += level.size();
+        }
+        for (Deque<SimOrder> level : asks.values()) {
+            depth += level.size();
+        }
+        return depth;
+    }
+
+    public ETradeCurrency getCurrency() {
+        return currency;
+    }
+
+    public Quote getQuote() {
+        return quote;
+    }
+}
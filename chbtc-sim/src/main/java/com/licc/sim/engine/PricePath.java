@@ -0,0 +1,18 @@
+package com.licc.sim.engine;
+
+/**
+ * 模拟交易所的外部价格来源，每个行情周期取一次下一个行情点
+ *
+ * @author lichangchao
+ * @version 1.0.0
+ * @date 2018/3/22 10:25
+ * @see RandomWalkPricePath
+ * @see ReplayPricePath
+ */
+public interface PricePath {
+
+    /**
+     * 下一个行情点
+     */
+    Quote next();
+}
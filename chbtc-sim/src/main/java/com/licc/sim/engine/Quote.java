@@ -0,0 +1,86 @@
+package com.licc.sim.engine;
+
+import java.math.BigDecimal;
+
+import com.licc.btc.chbtcapi.res.ticker.TickerApiRes;
+import com.licc.btc.chbtcapi.res.ticker.TickerRes;
+
+/**
+ * 价格路径上的一个行情点，买一卖一之间是外部流动性的报价
+ *
+ * @author lichangchao
+ * @version 1.0.0
+ * @date 2018/3/22 10:20
+ * @see PricePath
+ */
+public class Quote {
+    private final BigDecimal buy;
+    private final BigDecimal sell;
+    private final BigDecimal last;
+    private final BigDecimal high;
+    private final BigDecimal low;
+    private final BigDecimal vol;
+
+    public Quote(BigDecimal buy, BigDecimal sell, BigDecimal last, BigDecimal high, BigDecimal low, BigDecimal vol) {
+        this.buy = buy;
+        this.sell = sell;
+        this.last = last;
+        this.high = high;
+        this.low = low;
+        this.vol = vol;
+    }
+
+    /**
+     * 从行情接口的返回数据转换，缺少买一卖一时返回null
+     */
+    public static Quote of(TickerApiRes res) {
+        TickerRes t = res == null ? null : res.getTicker();
+        if (t == null || t.getBuy() == null || t.getSell() == null) {
+            return null;
+        }
+        BigDecimal buy = new BigDecimal(t.getBuy());
+        BigDecimal last = t.getLast() == null ? buy : new BigDecimal(t.getLast());
+        BigDecimal high = t.getHigh() == null ? last : new BigDecimal(t.getHigh());
+        BigDecimal low = t.getLow() == null ? last : new BigDecimal(t.getLow());
+        BigDecimal vol = t.getVol() == null ? BigDecimal.ZERO : new BigDecimal(t.getVol());
+        return new Quote(buy, new BigDecimal(t.getSell()), last, high, low, vol);
+    }
+
+    public TickerApiRes toTicker(long date) {
+        TickerRes ticker = new TickerRes();
+        ticker.setBuy(buy.toPlainString());
+        ticker.setSell(sell.toPlainString());
+        ticker.setLast(last.toPlainString());
+        ticker.setHigh(high.toPlainString());
+        ticker.setLow(low.toPlainString());
+        ticker.setVol(vol.toPlainString());
+        TickerApiRes res = new TickerApiRes();
+        res.setDate(date);
+        res.setTicker(ticker);
+        return res;
+    }
+
+    public BigDecimal getBuy() {
+        return buy;
+    }
+
+    public BigDecimal getSell() {
+        return sell;
+    }
+
+    public BigDecimal getLast() {
+        return last;
+    }
+
+    public BigDecimal getHigh() {
+        return high;
+    }
+
+    public BigDecimal getLow() {
+        return low;
+    }
+
+    public BigDecimal getVol() {
+        return vol;
+    }
+}
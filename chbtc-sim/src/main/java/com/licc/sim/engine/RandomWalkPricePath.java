@@ -0,0 +1,68 @@
+package com.licc.sim.engine;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Random;
+
+/**
+ * 几何随机游走生成的价格路径
+ * <p>
+ * 每个周期最新价按正态分布的收益率变动，买一卖一在最新价两侧各留半个价差。
+ * 使用固定的随机种子时每次启动生成的路径相同，便于对比压测结果。
+ *
+ * @author lichangchao
+ * @version 1.0.0
+ * @date 2018/3/22 10:30
+ * @see PricePath
+ */
+public class RandomWalkPricePath implements PricePath {
+    private final Random random;
+    private final double volatility;
+    private final double halfSpread;
+    private final int    scale;
+    private final double minPrice;
+    private double       last;
+    private double       high;
+    private double       low;
+    private double       vol;
+
+    /**
+     * @param startPrice 初始价格
+     * @param volatility 每个周期收益率的标准差，如0.001
+     * @param spread 买一卖一的相对价差，如0.001
+     * @param scale 价格的小数位数
+     * @param seed 随机种子
+     */
+    public RandomWalkPricePath(double startPrice, double volatility, double spread, int scale, long seed) {
+        if (startPrice <= 0 || volatility < 0 || spread < 0 || scale < 0) {
+            throw new IllegalArgumentException("价格路径参数不正确");
+        }
+        this.random = new Random(seed);
+        this.volatility = volatility;
+        this.halfSpread = spread / 2;
+        this.scale = scale;
+        this.minPrice = Math.pow(10, -scale);
+        this.last = startPrice;
+        this.high = startPrice;
+        this.low = startPrice;
+    }
+
+    @Override
+    public synchronized Quote next() {
+        last = Math.max(minPrice, last * Math.exp(random.nextGaussian() * volatility));
+        high = Math.max(high, last);
+        low = Math.min(low, last);
+        vol += random.nextDouble() * 10;
+        BigDecimal buy = price(last * (1 - halfSpread), RoundingMode.FLOOR);
+        BigDecimal sell = price(last * (1 + halfSpread), RoundingMode.CEILING);
+        if (sell.compareTo(buy) <= 0) {
+            sell = buy.add(BigDecimal.ONE.movePointLeft(scale));
+        }
+        return new Quote(buy, sell, price(last, RoundingMode.HALF_UP), price(high, RoundingMode.HALF_UP), price(low, RoundingMode.HALF_UP),
+                BigDecimal.valueOf(vol).setScale(4, RoundingMode.HALF_UP));
+    }
+
+    private BigDecimal price(double value, RoundingMode mode) {
+        return BigDecimal.valueOf(value).setScale(scale, mode);
+    }
+}
@@ -0,0 +1,64 @@
+package com.licc.sim.engine;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.licc.btc.chbtcapi.Consts;
+import com.licc.btc.chbtcapi.enums.ETradeCurrency;
+import com.licc.btc.chbtcapi.res.ticker.TickerApiRes;
+import com.licc.btc.chbtcapi.transport.TrafficLog;
+
+/**
+ * 回放录制行情的价格路径，放完后从头循环
+ *
+ * @author lichangchao
+ * @version 1.0.0
+ * @date 2018/3/22 10:40
+ * @see TrafficLog
+ */
+public class ReplayPricePath implements PricePath {
+    private static final ObjectMapper mapper = new ObjectMapper().configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    private final List<Quote> quotes;
+    private int               index;
+
+    public ReplayPricePath(List<Quote> quotes) {
+        if (quotes.isEmpty()) {
+            throw new IllegalArgumentException("没有可回放的行情");
+        }
+        this.quotes = new ArrayList<>(quotes);
+    }
+
+    /**
+     * 从{@link com.licc.btc.chbtcapi.transport.RecordingTransport}录制的请求日志中取出该市场成功的行情响应
+     *
+     * @param file 请求日志
+     * @param currency 市场
+     * @return 日志里没有该市场的行情时返回null
+     */
+    public static ReplayPricePath fromTrafficLog(File file, ETradeCurrency currency) throws IOException {
+        String suffix = Consts.Chbtc_Data_Tticker + "?market=" + currency.getValue();
+        List<Quote> quotes = new ArrayList<>();
+        for (TrafficLog.Exchange exchange : TrafficLog.read(file)) {
+            if (exchange.isFailure() || exchange.getCode() / 100 != 2 || !exchange.getUrl().endsWith(suffix)) {
+                continue;
+            }
+            Quote quote = Quote.of(mapper.readValue(exchange.getBody(), TickerApiRes.class));
+            if (quote != null) {
+                quotes.add(quote);
+            }
+        }
+        return quotes.isEmpty() ? null : new ReplayPricePath(quotes);
+    }
+
+    @Override
+    public synchronized Quote next() {
+        Quote quote = quotes.get(index);
+        index = (index + 1) % quotes.size();
+        return quote;
+    }
+}
@@ -0,0 +1,148 @@
+package com.licc.sim.engine;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+import com.licc.btc.chbtcapi.enums.ETradeCurrency;
+import com.licc.btc.chbtcapi.enums.ETradeOrderStatus;
+import com.licc.btc.chbtcapi.enums.ETradeOrderType;
+
+/**
+ * 模拟交易所的委托单
+ * <p>
+ * 成交、撤单等状态变化只在所属{@link OrderBook}的锁内进行，其它线程读取时应使用{@link MatchingEngine#snapshot(SimOrder)}。
+ *
+ * @author lichangchao
+ * @version 1.0.0
+ * @date 2018/3/22 10:10
+ * @see OrderBook
+ */
+public class SimOrder {
+    private final long            id;
+    private final String          accessKey;
+    private final ETradeCurrency  currency;
+    private final ETradeOrderType type;
+    private final BigDecimal      price;
+    private final BigDecimal      amount;
+    private final long            createMillis;
+    private BigDecimal            tradeAmount = BigDecimal.ZERO;
+    private BigDecimal            tradeMoney  = BigDecimal.ZERO;
+    private BigDecimal            fees        = BigDecimal.ZERO;
+    private int                   status      = ETradeOrderStatus.WAIT.getKey();
+    private long                  tradeMillis;
+
+    public SimOrder(long id, String accessKey, ETradeCurrency currency, ETradeOrderType type, BigDecimal price, BigDecimal amount,
+            long createMillis) {
+        this.id = id;
+        this.accessKey = accessKey;
+        this.currency = currency;
+        this.type = type;
+        this.price = price;
+        this.amount = amount;
+        this.createMillis = createMillis;
+    }
+
+    private SimOrder(SimOrder o) {
+        this(o.id, o.accessKey, o.currency, o.type, o.price, o.amount, o.createMillis);
+        this.tradeAmount = o.tradeAmount;
+        this.tradeMoney = o.tradeMoney;
+        this.fees = o.fees;
+        this.status = o.status;
+        this.tradeMillis = o.tradeMillis;
+    }
+
+    SimOrder copy() {
+        return new SimOrder(this);
+    }
+
+    /**
+     * 按fillPrice成交quantity，手续费按成交额乘以feeRate计算
+     */
+    void fill(BigDecimal quantity, BigDecimal fillPrice, BigDecimal feeRate, long now) {
+        BigDecimal money = quantity.multiply(fillPrice);
+        tradeAmount = tradeAmount.add(quantity);
+        tradeMoney = tradeMoney.add(money);
+        fees = fees.add(money.multiply(feeRate));
+        tradeMillis = now;
+        status = isFilled() ? ETradeOrderStatus.SUCCESS.getKey() : ETradeOrderStatus.WAIT_NO.getKey();
+    }
+
+    void cancel(long now) {
+        status = ETradeOrderStatus.CANCEL.getKey();
+        tradeMillis = now;
+    }
+
+    public boolean isOpen() {
+        return status == ETradeOrderStatus.WAIT.getKey() || status == ETradeOrderStatus.WAIT_NO.getKey();
+    }
+
+    boolean isFilled() {
+        return tradeAmount.compareTo(amount) >= 0;
+    }
+
+    BigDecimal remaining() {
+        return amount.subtract(tradeAmount);
+    }
+
+    public boolean isBuy() {
+        return type == ETradeOrderType.ORDER_BUY;
+    }
+
+    /**
+     * 成交均价，未成交时为0
+     */
+    public BigDecimal getTradePrice() {
+        if (tradeAmount.signum() == 0) {
+            return BigDecimal.ZERO;
+        }
+        return tradeMoney.divide(tradeAmount, Math.max(price.scale(), 8), RoundingMode.HALF_UP).stripTrailingZeros();
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public String getAccessKey() {
+        return accessKey;
+    }
+
+    public ETradeCurrency getCurrency() {
+        return currency;
+    }
+
+    public ETradeOrderType getType() {
+        return type;
+    }
+
+    public BigDecimal getPrice() {
+        return price;
+    }
+
+    public BigDecimal getAmount() {
+        return amount;
+    }
+
+    public long getCreateMillis() {
+        return createMillis;
+    }
+
+    public BigDecimal getTradeAmount() {
+        return tradeAmount;
+    }
+
+    public BigDecimal getTradeMoney() {
+        return tradeMoney;
+    }
+
+    public BigDecimal getFees() {
+        return fees;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public long getTradeMillis() {
+        return tradeMillis;
+    }
+}
@@ -0,0 +1,62 @@
+package com.licc.sim.web;
+
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import com.licc.btc.chbtcapi.enums.ETradeResStatus;
+import com.licc.sim.config.SimProperties;
+
+/**
+ * 请求的延迟和错误注入
+ * <p>
+ * 响应在调度线程上延迟生成，不占用servlet线程，几千个用户同时请求时延迟也不会叠加。
+ *
+ * @author lichangchao
+ * @version 1.0.0
+ * @date 2018/3/22 15:20
+ * @see SimProperties.Fault
+ */
+public class FaultInjector {
+    private final SimProperties.Fault      fault;
+    private final ScheduledExecutorService scheduler;
+
+    public FaultInjector(SimProperties.Fault fault, ScheduledExecutorService scheduler) {
+        this.fault = fault;
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * 延迟后执行handler，或按配置的概率返回错误
+     */
+    public DeferredResult<ResponseEntity<String>> respond(Supplier<ResponseEntity<String>> handler) {
+        DeferredResult<ResponseEntity<String>> result = new DeferredResult<>();
+        long min = fault.getMinLatencyMillis();
+        long max = Math.max(min, fault.getMaxLatencyMillis());
+        long delay = min == max ? min : ThreadLocalRandom.current().nextLong(min, max + 1);
+        scheduler.schedule(() -> result.setResult(inject(handler)), delay, TimeUnit.MILLISECONDS);
+        return result;
+    }
+
+    private ResponseEntity<String> inject(Supplier<ResponseEntity<String>> handler) {
+        double roll = ThreadLocalRandom.current().nextDouble();
+        if (roll < fault.getErrorRate()) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).contentType(MediaType.TEXT_PLAIN).body("Service Unavailable");
+        }
+        if (roll < fault.getErrorRate() + fault.getMaintenanceRate()) {
+            return SimExchangeController.error(ETradeResStatus.API_IN_MAINTENANCE);
+        }
+        try {
+            return handler.get();
+        } catch (Exception e) {
+            e.printStackTrace();
+            return SimExchangeController.error(ETradeResStatus.INTERNAL_ERROR);
+        }
+    }
+}
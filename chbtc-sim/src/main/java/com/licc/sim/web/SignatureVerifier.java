@@ -0,0 +1,73 @@
+package com.licc.sim.web;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import com.licc.btc.chbtcapi.enums.ETradeResStatus;
+import com.licc.btc.chbtcapi.util.ChbtcSigner;
+import com.licc.sim.config.SimProperties;
+
+/**
+ * 按交易所的规则验签：sign为"&amp;sign="之前的原始查询串用私钥的SHA摘要做HmacMD5的结果
+ *
+ * @author lichangchao
+ * @version 1.0.0
+ * @date 2018/3/22 15:00
+ * @see com.licc.btc.chbtcapi.util.EncryDigestUtil#hmacSign(String, String)
+ */
+public class SignatureVerifier {
+    private static final String SIGN     = "&sign=";
+    private static final String REQ_TIME = "reqTime=";
+
+    private final SimProperties                      properties;
+    private final ConcurrentMap<String, ChbtcSigner> signers = new ConcurrentHashMap<>();
+
+    public SignatureVerifier(SimProperties properties) {
+        this.properties = properties;
+    }
+
+    /**
+     * 验证请求签名
+     *
+     * @param accessKey 请求参数中的accesskey
+     * @param query 未解码的原始查询串
+     * @return 验证通过返回null，否则返回错误码
+     */
+    public ETradeResStatus verify(String accessKey, String query) {
+        int index = query == null ? -1 : query.indexOf(SIGN);
+        if (accessKey == null || index < 0) {
+            return ETradeResStatus.VERIFICATION_NOT_PASS;
+        }
+        String secretKey = properties.getAccounts().getOrDefault(accessKey, properties.getDefaultSecretKey());
+        if (secretKey == null) {
+            return ETradeResStatus.USER_NOT_EXISTS;
+        }
+        String tail = query.substring(index + SIGN.length());
+        int end = tail.indexOf('&');
+        String sign = end < 0 ? tail : tail.substring(0, end);
+        String expected = signers.computeIfAbsent(secretKey, ChbtcSigner::new).sign(query.substring(0, index));
+        if (!MessageDigest.isEqual(expected.getBytes(StandardCharsets.US_ASCII), sign.getBytes(StandardCharsets.US_ASCII))) {
+            return ETradeResStatus.VERIFICATION_NOT_PASS;
+        }
+        if (properties.getReqTimeWindowMillis() > 0 && !fresh(end < 0 ? "" : tail.substring(end + 1))) {
+            return ETradeResStatus.INVALID_REQ_TIME;
+        }
+        return null;
+    }
+
+    private boolean fresh(String params) {
+        for (String param : params.split("&")) {
+            if (param.startsWith(REQ_TIME)) {
+                try {
+                    long reqTime = Long.parseLong(param.substring(REQ_TIME.length()));
+                    return Math.abs(System.currentTimeMillis() - reqTime) <= properties.getReqTimeWindowMillis();
+                } catch (NumberFormatException e) {
+                    return false;
+                }
+            }
+        }
+        return false;
+    }
+}
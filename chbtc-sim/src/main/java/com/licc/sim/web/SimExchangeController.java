@@ -0,0 +1,237 @@
+package com.licc.sim.web;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.servlet.http.HttpServletRequest;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.licc.btc.chbtcapi.Consts;
+import com.licc.btc.chbtcapi.enums.ETradeCurrency;
+import com.licc.btc.chbtcapi.enums.ETradeOrderType;
+import com.licc.btc.chbtcapi.enums.ETradeResStatus;
+import com.licc.btc.chbtcapi.res.order.GetOrderRes;
+import com.licc.btc.chbtcapi.res.order.GetOrdersRes;
+import com.licc.sim.engine.MatchingEngine;
+import com.licc.sim.engine.Quote;
+import com.licc.sim.engine.SimOrder;
+
+/**
+ * 模拟交易所的http接口，路径和参数与交易所一致
+ * <p>
+ * 交易接口为/api/{method}，行情接口为/data/v1/ticker，chbtc-trade把chbtc.client.trade.base-url和
+ * chbtc.client.data.base-url指向本服务即可。
+ *
+ * @author lichangchao
+ * @version 1.0.0
+ * @date 2018/3/22 15:40
+ * @see MatchingEngine
+ */
+@RestController
+public class SimExchangeController {
+    private static final ObjectMapper mapper   = new ObjectMapper();
+    private static final int          MAX_PAGE = 100;
+
+    @Autowired
+    MatchingEngine                    engine;
+    @Autowired
+    SignatureVerifier                 verifier;
+    @Autowired
+    FaultInjector                     faults;
+
+    @GetMapping("/data/v1/" + Consts.Chbtc_Data_Tticker)
+    public DeferredResult<ResponseEntity<String>> ticker(@RequestParam("market") String market) {
+        return faults.respond(() -> {
+            ETradeCurrency currency = currency(market);
+            Quote quote = currency == null ? null : engine.quote(currency);
+            if (quote == null) {
+                return json(HttpStatus.BAD_REQUEST, error("市场错误: " + market));
+            }
+            return json(HttpStatus.OK, quote.toTicker(System.currentTimeMillis()));
+        });
+    }
+
+    @GetMapping("/api/{method}")
+    public DeferredResult<ResponseEntity<String>> trade(@PathVariable("method") String method, HttpServletRequest request) {
+        // 请求在调度线程上处理，先取出参数
+        String query = request.getQueryString();
+        Map<String, String> params = new LinkedHashMap<>();
+        request.getParameterMap().forEach((name, values) -> params.put(name, values[0]));
+        return faults.respond(() -> handle(method, query, params));
+    }
+
+    private ResponseEntity<String> handle(String method, String query, Map<String, String> params) {
+        String accessKey = params.get("accesskey");
+        ETradeResStatus status = verifier.verify(accessKey, query);
+        if (status != null) {
+            return error(status);
+        }
+        ETradeCurrency currency = currency(params.get("currency"));
+        if (currency == null || !engine.supports(currency)) {
+            return error(ETradeResStatus.INVALID_PARAM);
+        }
+        try {
+            switch (method) {
+            case Consts.Chbtc_Trade_Order:
+                return order(accessKey, currency, params);
+            case Consts.Chbtc_Trade_CancelOrder:
+                return engine.cancel(accessKey, currency, Long.parseLong(params.get("id"))) ? success(null)
+                        : error(ETradeResStatus.ORDER_NOT_FOUND);
+            case Consts.Chbtc_Trade_GetOrder:
+                SimOrder order = engine.find(accessKey, currency, Long.parseLong(params.get("id")));
+                return order == null ? error(ETradeResStatus.ORDER_NOT_FOUND) : json(HttpStatus.OK, toOrder(order));
+            case Consts.Chbtc_Unfinished_Orders:
+                return orders(engine.unfinished(accessKey, currency, page(params.get("pageIndex"), 1), pageSize(params)));
+            case Consts.Chbtc_Get_Orders_New:
+                return orders(engine.orders(accessKey, currency, type(params.get("tradeType")), page(params.get("pageIndex"), 1),
+                        pageSize(params)));
+            default:
+                return json(HttpStatus.NOT_FOUND, error("不支持的接口: " + method));
+            }
+        } catch (NumberFormatException | NullPointerException e) {
+            return error(ETradeResStatus.INVALID_PARAM);
+        }
+    }
+
+    private ResponseEntity<String> order(String accessKey, ETradeCurrency currency, Map<String, String> params) {
+        BigDecimal price = decimal(params.get("price"));
+        if (price == null || price.signum() <= 0) {
+            return error(ETradeResStatus.INVALID_MONEY);
+        }
+        BigDecimal amount = decimal(params.get("amount"));
+        if (amount == null || amount.signum() <= 0) {
+            return error(ETradeResStatus.INVALID_QUANTITY);
+        }
+        ETradeOrderType type = type(params.get("tradeType"));
+        if (type == null) {
+            return error(ETradeResStatus.INVALID_PARAM);
+        }
+        SimOrder order = engine.place(accessKey, currency, type, price, amount);
+        return success(String.valueOf(order.getId()));
+    }
+
+    private ResponseEntity<String> orders(List<SimOrder> orders) {
+        if (orders.isEmpty()) {
+            return error(ETradeResStatus.ORDER_NOT_FOUND);
+        }
+        List<GetOrdersRes> res = new ArrayList<>(orders.size());
+        for (SimOrder order : orders) {
+            res.add(toOrders(order));
+        }
+        return json(HttpStatus.OK, res);
+    }
+
+    static GetOrderRes toOrder(SimOrder order) {
+        GetOrderRes res = new GetOrderRes();
+        res.setCurrency(order.getCurrency().getValue());
+        res.setFees(order.getFees().stripTrailingZeros().toPlainString());
+        res.setId(String.valueOf(order.getId()));
+        res.setPrice(order.getPrice().toPlainString());
+        res.setStatus(order.getStatus());
+        res.setTotal_amount(order.getAmount().toPlainString());
+        res.setTrade_amount(order.getTradeAmount().toPlainString());
+        res.setTrade_price(order.getTradePrice().toPlainString());
+        res.setTrade_date(order.getCreateMillis());
+        res.setTrade_money(order.getTradeMoney().stripTrailingZeros().toPlainString());
+        res.setType(String.valueOf(order.getType().getValue()));
+        return res;
+    }
+
+    static GetOrdersRes toOrders(SimOrder order) {
+        GetOrdersRes res = new GetOrdersRes();
+        res.setCurrency(order.getCurrency().getValue());
+        res.setFees(order.getFees().stripTrailingZeros().toPlainString());
+        res.setId(String.valueOf(order.getId()));
+        res.setPrice(order.getPrice().toPlainString());
+        res.setStatus(order.getStatus());
+        res.setTotal_amount(order.getAmount().toPlainString());
+        res.setTrade_amount(order.getTradeAmount().toPlainString());
+        res.setTrade_price(order.getTradePrice().toPlainString());
+        res.setTrade_date(String.valueOf(order.getCreateMillis()));
+        res.setTrade_money(order.getTradeMoney().stripTrailingZeros().toPlainString());
+        res.setType(String.valueOf(order.getType().getValue()));
+        return res;
+    }
+
+    private static ResponseEntity<String> success(String id) {
+        Map<String, String> res = new LinkedHashMap<>();
+        res.put("code", ETradeResStatus.SUCCESS.getKey());
+        res.put("message", "操作成功");
+        if (id != null) {
+            res.put("id", id);
+        }
+        return json(HttpStatus.OK, res);
+    }
+
+    /**
+     * 交易所的业务错误都是http 200加错误码
+     */
+    static ResponseEntity<String> error(ETradeResStatus status) {
+        Map<String, String> res = new LinkedHashMap<>();
+        res.put("code", status.getKey());
+        res.put("message", status.getValue());
+        return json(HttpStatus.OK, res);
+    }
+
+    private static Map<String, String> error(String message) {
+        Map<String, String> res = new LinkedHashMap<>();
+        res.put("error", message);
+        return res;
+    }
+
+    private static ResponseEntity<String> json(HttpStatus status, Object body) {
+        try {
+            return ResponseEntity.status(status).contentType(MediaType.APPLICATION_JSON_UTF8).body(mapper.writeValueAsString(body));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static ETradeCurrency currency(String value) {
+        for (ETradeCurrency currency : ETradeCurrency.values()) {
+            if (currency.getValue().equals(value)) {
+                return currency;
+            }
+        }
+        return null;
+    }
+
+    private static ETradeOrderType type(String value) {
+        for (ETradeOrderType type : ETradeOrderType.values()) {
+            if (String.valueOf(type.getValue()).equals(value)) {
+                return type;
+            }
+        }
+        return null;
+    }
+
+    private static BigDecimal decimal(String value) {
+        try {
+            return value == null ? null : new BigDecimal(value);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static int page(String value, int defaultValue) {
+        return value == null ? defaultValue : Integer.parseInt(value);
+    }
+
+    private static int pageSize(Map<String, String> params) {
+        return Math.min(MAX_PAGE, page(params.get("pageSize"), 10));
+    }
+}
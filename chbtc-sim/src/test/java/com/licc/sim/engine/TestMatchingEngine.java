@@ -0,0 +1,136 @@
+package com.licc.sim.engine;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.math.BigDecimal;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.licc.btc.chbtcapi.enums.ETradeCurrency;
+import com.licc.btc.chbtcapi.enums.ETradeOrderStatus;
+import com.licc.btc.chbtcapi.enums.ETradeOrderType;
+
+/**
+ *
+ * @author lichangchao
+ * @version 1.0.0
+ * @date 2018/3/22 16:30
+ * @see
+ */
+public class TestMatchingEngine {
+    private final Deque<Quote> quotes = new ArrayDeque<>();
+    private MatchingEngine     engine;
+
+    @Before
+    public void setUp() {
+        quotes.add(quote("2.00", "2.10"));
+        Map<ETradeCurrency, PricePath> paths = new EnumMap<>(ETradeCurrency.class);
+        paths.put(ETradeCurrency.ZB_QC, () -> {
+            if (quotes.size() > 1) {
+                quotes.poll();
+            }
+            return quotes.peek();
+        });
+        engine = new MatchingEngine(paths, BigDecimal.ZERO);
+    }
+
+    /**
+     * 穿越外部报价的委托立即按外部报价成交，否则挂单
+     */
+    @Test
+    public void testTakeExternalQuote() {
+        SimOrder buy = place("a", ETradeOrderType.ORDER_BUY, "2.20", "5");
+        assertEquals(ETradeOrderStatus.SUCCESS.getKey(), buy.getStatus());
+        assertEquals(0, new BigDecimal("2.10").compareTo(buy.getTradePrice()));
+
+        SimOrder rest = place("a", ETradeOrderType.ORDER_BUY, "2.05", "5");
+        assertEquals(ETradeOrderStatus.WAIT.getKey(), rest.getStatus());
+        assertEquals(1, engine.depth());
+    }
+
+    /**
+     * 用户委托之间价格优先、时间优先，以挂单价成交，外部报价更差时不参与
+     */
+    @Test
+    public void testPriceTimePriority() {
+        SimOrder first = place("a", ETradeOrderType.ORDER_SELL, "2.06", "3");
+        SimOrder second = place("b", ETradeOrderType.ORDER_SELL, "2.06", "3");
+        SimOrder better = place("c", ETradeOrderType.ORDER_SELL, "2.05", "1");
+
+        SimOrder buy = place("d", ETradeOrderType.ORDER_BUY, "2.08", "2");
+        assertEquals(ETradeOrderStatus.SUCCESS.getKey(), buy.getStatus());
+        assertEquals(0, new BigDecimal("4.11").compareTo(buy.getTradeMoney()));
+
+        assertEquals(ETradeOrderStatus.SUCCESS.getKey(), find(better).getStatus());
+        assertEquals(ETradeOrderStatus.WAIT_NO.getKey(), find(first).getStatus());
+        assertEquals(0, BigDecimal.ONE.compareTo(find(first).getTradeAmount()));
+        assertEquals(ETradeOrderStatus.WAIT.getKey(), find(second).getStatus());
+    }
+
+    /**
+     * 外部报价变动后，被穿越的挂单按挂单价成交
+     */
+    @Test
+    public void testTickSweepsCrossedOrders() {
+        SimOrder buy = place("a", ETradeOrderType.ORDER_BUY, "2.05", "5");
+        SimOrder sell = place("a", ETradeOrderType.ORDER_SELL, "2.30", "5");
+        quotes.add(quote("1.95", "2.04"));
+        engine.tick();
+
+        assertEquals(ETradeOrderStatus.SUCCESS.getKey(), find(buy).getStatus());
+        assertEquals(0, new BigDecimal("2.05").compareTo(find(buy).getTradePrice()));
+        assertEquals(ETradeOrderStatus.WAIT.getKey(), find(sell).getStatus());
+        assertEquals(1, engine.unfinished("a", ETradeCurrency.ZB_QC, 1, 10).size());
+    }
+
+    /**
+     * 只能撤自己的未完成委托，撤单后从挂单中移除
+     */
+    @Test
+    public void testCancel() {
+        SimOrder order = place("a", ETradeOrderType.ORDER_BUY, "1.50", "1");
+        assertFalse(engine.cancel("b", ETradeCurrency.ZB_QC, order.getId()));
+        assertNull(engine.find("b", ETradeCurrency.ZB_QC, order.getId()));
+        assertTrue(engine.cancel("a", ETradeCurrency.ZB_QC, order.getId()));
+        assertFalse(engine.cancel("a", ETradeCurrency.ZB_QC, order.getId()));
+        assertEquals(ETradeOrderStatus.CANCEL.getKey(), find(order).getStatus());
+        assertEquals(0, engine.depth());
+    }
+
+    /**
+     * 分页新的在前，页码从1开始
+     */
+    @Test
+    public void testPaging() {
+        for (int i = 0; i < 5; i++) {
+            place("a", ETradeOrderType.ORDER_BUY, "1.5" + i, "1");
+        }
+        List<SimOrder> page = engine.orders("a", ETradeCurrency.ZB_QC, ETradeOrderType.ORDER_BUY, 2, 2);
+        assertEquals(2, page.size());
+        assertEquals(0, new BigDecimal("1.52").compareTo(page.get(0).getPrice()));
+        assertEquals(1, engine.orders("a", ETradeCurrency.ZB_QC, ETradeOrderType.ORDER_BUY, 3, 2).size());
+        assertTrue(engine.orders("a", ETradeCurrency.ZB_QC, ETradeOrderType.ORDER_SELL, 1, 2).isEmpty());
+    }
+
+    private SimOrder place(String accessKey, ETradeOrderType type, String price, String amount) {
+        return engine.place(accessKey, ETradeCurrency.ZB_QC, type, new BigDecimal(price), new BigDecimal(amount));
+    }
+
+    private SimOrder find(SimOrder order) {
+        return engine.find(order.getAccessKey(), ETradeCurrency.ZB_QC, order.getId());
+    }
+
+    private static Quote quote(String buy, String sell) {
+        return new Quote(new BigDecimal(buy), new BigDecimal(sell), new BigDecimal(buy), new BigDecimal(sell), new BigDecimal(buy),
+                BigDecimal.ZERO);
+    }
+}
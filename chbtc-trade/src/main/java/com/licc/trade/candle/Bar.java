@@ -0,0 +1,84 @@
+package com.licc.trade.candle;
+
+import com.licc.btc.chbtcapi.enums.ETradeCurrency;
+import com.licc.btc.chbtcapi.util.FixedPoint;
+import com.licc.trade.domain.Candle;
+
+/**
+ * 一根K线，价格为市场priceScale的定点小数，成交量为amountScale的定点小数
+ *
+ * @author lichangchao
+ * @version 1.0.0
+ * @date 2018/3/25 10:10
+ * @see CandleSeries
+ */
+public final class Bar {
+    private final ETradeCurrency currency;
+    private final ECandlePeriod  period;
+    private final long           openTime;
+    private final long           open;
+    private final long           high;
+    private final long           low;
+    private final long           close;
+    private final long           volume;
+
+    public Bar(ETradeCurrency currency, ECandlePeriod period, long openTime, long open, long high, long low, long close, long volume) {
+        this.currency = currency;
+        this.period = period;
+        this.openTime = openTime;
+        this.open = open;
+        this.high = high;
+        this.low = low;
+        this.close = close;
+        this.volume = volume;
+    }
+
+    /**
+     * 转换成用于保存和接口输出的记录
+     */
+    public Candle toCandle() {
+        int scale = currency.getPriceScale();
+        Candle candle = new Candle();
+        candle.setCurrency(currency.getValue());
+        candle.setPeriod(period.getValue());
+        candle.setOpenTime(openTime);
+        candle.setOpen(FixedPoint.format(open, scale));
+        candle.setHigh(FixedPoint.format(high, scale));
+        candle.setLow(FixedPoint.format(low, scale));
+        candle.setClose(FixedPoint.format(close, scale));
+        candle.setVolume(FixedPoint.format(volume, currency.getAmountScale()));
+        return candle;
+    }
+
+    public ETradeCurrency getCurrency() {
+        return currency;
+    }
+
+    public ECandlePeriod getPeriod() {
+        return period;
+    }
+
+    public long getOpenTime() {
+        return openTime;
+    }
+
+    public long getOpen() {
+        return open;
+    }
+
+    public long getHigh() {
+        return high;
+    }
+
+    public long getLow() {
+        return low;
+    }
+
+    public long getClose() {
+        return close;
+    }
+
+    public long getVolume() {
+        return volume;
+    }
+}
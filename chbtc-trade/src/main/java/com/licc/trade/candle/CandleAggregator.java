@@ -0,0 +1,96 @@
+package com.licc.trade.candle;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.Resource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.licc.btc.chbtcapi.enums.ETradeCurrency;
+import com.licc.trade.store.Tick;
+
+/**
+ * 由实时行情增量生成各周期的K线
+ * <p>
+ * 每个币种每个周期一个{@link CandleSeries}，最近的K线直接从内存读取；结束的K线交给{@link CandleWriter}异步保存。
+ * 行情和结束的K线同时转发给{@link CandleListener}，例如指标计算。
+ * 行情中的vol是24小时滚动成交量，K线成交量取相邻两条行情vol的增量，减少时(窗口滚出)按0计，是近似值。
+ *
+ * @author lichangchao
+ * @version 1.0.0
+ * @date 2018/3/25 11:00
+ * @see com.licc.trade.service.TickerService
+ */
+@Service
+public class CandleAggregator {
+    @Resource
+    CandleWriter                                      candleWriter;
+    // 每个周期在内存中保留的K线数量
+    @Value("${trade.candle.capacity:1440}")
+    int                                               capacity;
+
+    private final Map<ETradeCurrency, CandleSeries[]> series    = new EnumMap<>(ETradeCurrency.class);
+    private final Map<ETradeCurrency, long[]>         lastVol   = new EnumMap<>(ETradeCurrency.class);
+    private final List<CandleListener>                listeners = new CopyOnWriteArrayList<>();
+
+    @PostConstruct
+    public void init() {
+        ECandlePeriod[] periods = ECandlePeriod.values();
+        for (ETradeCurrency currency : ETradeCurrency.values()) {
+            CandleSeries[] array = new CandleSeries[periods.length];
+            for (ECandlePeriod period : periods) {
+                array[period.ordinal()] = new CandleSeries(currency, period, capacity);
+            }
+            series.put(currency, array);
+            lastVol.put(currency, new long[] { -1 });
+        }
+    }
+
+    /**
+     * 用一条行情更新该币种所有周期的K线
+     */
+    public void onTick(ETradeCurrency currency, Tick tick) {
+        long volume;
+        long[] last = lastVol.get(currency);
+        synchronized (last) {
+            volume = last[0] < 0 ? 0 : Math.max(0, tick.getVol() - last[0]);
+            last[0] = tick.getVol();
+        }
+        for (CandleListener listener : listeners) {
+            listener.onTick(currency, tick.getTime(), tick.getLast(), volume);
+        }
+        for (CandleSeries s : series.get(currency)) {
+            Bar closed = s.update(tick.getTime(), tick.getLast(), volume);
+            if (closed != null) {
+                candleWriter.offer(closed);
+                for (CandleListener listener : listeners) {
+                    listener.onBar(closed);
+                }
+            }
+        }
+    }
+
+    public void addListener(CandleListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * 最近的n根K线，按时间从早到晚，最后一根为当前未结束的K线
+     */
+    public List<Bar> latest(ETradeCurrency currency, ECandlePeriod period, int n) {
+        if (n <= 0) {
+            return Collections.emptyList();
+        }
+        return series.get(currency)[period.ordinal()].latest(n);
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+}
@@ -0,0 +1,22 @@
+package com.licc.trade.candle;
+
+import com.licc.btc.chbtcapi.enums.ETradeCurrency;
+
+/**
+ * 接收{@link CandleAggregator}处理过的行情和结束的K线，在行情回调线程中调用，实现不能阻塞
+ *
+ * @author lichangchao
+ * @version 1.0.0
+ * @date 2018/3/26 11:20
+ * @see CandleAggregator#addListener(CandleListener)
+ */
+public interface CandleListener {
+
+    /**
+     * @param price 成交价
+     * @param volume 距离上一条行情新增的成交量
+     */
+    void onTick(ETradeCurrency currency, long time, long price, long volume);
+
+    void onBar(Bar bar);
+}
@@ -0,0 +1,96 @@
+package com.licc.trade.candle;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.licc.btc.chbtcapi.enums.ETradeCurrency;
+
+/**
+ * 一个币种一个周期的K线环形缓冲区，保留最近{@code capacity}根，最后一根为当前未结束的K线
+ * <p>
+ * 每条行情O(1)更新，不分配对象；只有K线结束时才生成{@link Bar}。没有行情的周期不补K线。
+ * 方法都加锁，行情回调线程写、接口线程读。
+ *
+ * @author lichangchao
+ * @version 1.0.0
+ * @date 2018/3/25 10:20
+ * @see CandleAggregator
+ */
+public class CandleSeries {
+    private final ETradeCurrency currency;
+    private final ECandlePeriod  period;
+    private final long[]         openTimes;
+    private final long[]         opens;
+    private final long[]         highs;
+    private final long[]         lows;
+    private final long[]         closes;
+    private final long[]         volumes;
+    private int                  head = -1; // 当前K线的位置
+    private int                  size;
+
+    public CandleSeries(ETradeCurrency currency, ECandlePeriod period, int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity必须大于0");
+        }
+        this.currency = currency;
+        this.period = period;
+        this.openTimes = new long[capacity];
+        this.opens = new long[capacity];
+        this.highs = new long[capacity];
+        this.lows = new long[capacity];
+        this.closes = new long[capacity];
+        this.volumes = new long[capacity];
+    }
+
+    /**
+     * 用一条行情更新K线
+     *
+     * @param time 行情时间
+     * @param price 成交价
+     * @param volume 距离上一条行情新增的成交量
+     * @return 这条行情进入新的周期时返回刚结束的K线，否则返回null；早于当前K线的行情忽略
+     */
+    public synchronized Bar update(long time, long price, long volume) {
+        long openTime = period.openTime(time);
+        if (head >= 0 && openTime == openTimes[head]) {
+            highs[head] = Math.max(highs[head], price);
+            lows[head] = Math.min(lows[head], price);
+            closes[head] = price;
+            volumes[head] += volume;
+            return null;
+        }
+        if (head >= 0 && openTime < openTimes[head]) {
+            return null;
+        }
+        Bar closed = head >= 0 ? bar(head) : null;
+        head = (head + 1) % openTimes.length;
+        size = Math.min(size + 1, openTimes.length);
+        openTimes[head] = openTime;
+        opens[head] = price;
+        highs[head] = price;
+        lows[head] = price;
+        closes[head] = price;
+        volumes[head] = volume;
+        return closed;
+    }
+
+    /**
+     * 最近的n根K线，按时间从早到晚，包括当前未结束的一根
+     */
+    public synchronized List<Bar> latest(int n) {
+        int count = Math.min(n, size);
+        List<Bar> bars = new ArrayList<>(count);
+        for (int i = count - 1; i >= 0; i--) {
+            bars.add(bar(Math.floorMod(head - i, openTimes.length)));
+        }
+        return bars;
+    }
+
+    public ECandlePeriod getPeriod() {
+        return period;
+    }
+
+    private Bar bar(int i) {
+        return new Bar(currency, period, openTimes[i], opens[i], highs[i], lows[i], closes[i], volumes[i]);
+    }
+}
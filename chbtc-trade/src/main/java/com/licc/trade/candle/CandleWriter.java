@@ -0,0 +1,99 @@
+package com.licc.trade.candle;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.annotation.Resource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.stereotype.Service;
+
+import com.licc.trade.config.IdBlockSeeder;
+import com.licc.trade.domain.Candle;
+import com.licc.trade.repostiory.CandleRepostiory;
+
+/**
+ * 已结束K线的异步保存
+ * <p>
+ * 行情回调只把K线放进有界队列，队列满时丢弃并计数；单独的线程每隔{@code flushMillis}把队列中的K线在一个事务内批量保存。
+ *
+ * @author lichangchao
+ * @version 1.0.0
+ * @date 2018/3/25 11:20
+ * @see CandleAggregator
+ */
+@Service
+@DependsOn(IdBlockSeeder.NAME)
+public class CandleWriter {
+    Logger                           logger  = LoggerFactory.getLogger(this.getClass());
+    @Resource
+    CandleRepostiory                 repostiory;
+    @Value("${trade.candle.queue-capacity:10000}")
+    int                              queueCapacity;
+    @Value("${trade.candle.flush-millis:5000}")
+    long                             flushMillis;
+
+    private final AtomicLong         dropped = new AtomicLong();
+    private BlockingQueue<Bar>       queue;
+    private ScheduledExecutorService executor;
+
+    @PostConstruct
+    public void start() {
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "candle-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(this::flush, flushMillis, flushMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        executor.shutdown();
+        executor.awaitTermination(5, TimeUnit.SECONDS);
+        flush();
+    }
+
+    /**
+     * @return 队列已满被丢弃时返回false
+     */
+    public boolean offer(Bar bar) {
+        if (queue.offer(bar)) {
+            return true;
+        }
+        dropped.incrementAndGet();
+        return false;
+    }
+
+    public long getDropped() {
+        return dropped.get();
+    }
+
+    private synchronized void flush() {
+        List<Bar> bars = new ArrayList<>();
+        queue.drainTo(bars);
+        if (bars.isEmpty()) {
+            return;
+        }
+        List<Candle> candles = new ArrayList<>(bars.size());
+        bars.forEach(bar -> candles.add(bar.toCandle()));
+        try {
+            repostiory.save(candles);
+        } catch (RuntimeException e) {
+            dropped.addAndGet(candles.size());
+            logger.error("保存K线失败，丢弃" + candles.size() + "条", e);
+        }
+    }
+}
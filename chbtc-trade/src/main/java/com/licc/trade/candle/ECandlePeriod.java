@@ -0,0 +1,56 @@
+package com.licc.trade.candle;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * K线周期
+ *
+ * @author lichangchao
+ * @version 1.0.0
+ * @date 2018/3/25 10:00
+ * @see CandleAggregator
+ */
+public enum ECandlePeriod {
+    M1("1m", TimeUnit.MINUTES.toMillis(1)),
+    M5("5m", TimeUnit.MINUTES.toMillis(5)),
+    M15("15m", TimeUnit.MINUTES.toMillis(15)),
+    H1("1h", TimeUnit.HOURS.toMillis(1)),
+    D1("1d", TimeUnit.DAYS.toMillis(1));
+
+    private static final ECandlePeriod[] VALUES = values();
+
+    private final String                 value;
+    private final long                   millis;
+
+    ECandlePeriod(String value, long millis) {
+        this.value = value;
+        this.millis = millis;
+    }
+
+    /**
+     * @return 没有对应周期时返回null
+     */
+    public static ECandlePeriod of(String value) {
+        for (ECandlePeriod period : VALUES) {
+            if (period.value.equals(value)) {
+                return period;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * time所在周期的开始时间，按UTC对齐
+     */
+    public long openTime(long time) {
+        return Math.floorDiv(time, millis) * millis;
+    }
+
+    public String getValue() {
+        return value;
+    }
+
+    public long getMillis() {
+        return millis;
+    }
+}
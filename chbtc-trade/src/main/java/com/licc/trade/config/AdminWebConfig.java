@@ -0,0 +1,27 @@
+package com.licc.trade.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurerAdapter;
+
+import com.licc.trade.web.AdminTokenInterceptor;
+
+/**
+ * /admin下的管理接口需要访问令牌
+ *
+ * @author lichangchao
+ * @version 1.0.0
+ * @date 2018/3/28 16:10
+ * @see AdminTokenInterceptor
+ */
+@Configuration
+public class AdminWebConfig extends WebMvcConfigurerAdapter {
+    @Value("${trade.admin.token:}")
+    String token;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new AdminTokenInterceptor(token)).addPathPatterns("/admin/**");
+    }
+}
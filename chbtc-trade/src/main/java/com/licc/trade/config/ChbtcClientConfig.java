@@ -0,0 +1,42 @@
+package com.licc.trade.config;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.licc.btc.chbtcapi.ChbtcClient;
+import com.licc.btc.chbtcapi.transport.TransportFactory;
+
+/**
+ * 交易所客户端
+ *
+ * @author lichangchao
+ * @version 1.0.0
+ * @date 2018/3/7 16:18
+ * @see ChbtcClientProperties
+ */
+@Configuration
+@EnableConfigurationProperties(ChbtcClientProperties.class)
+public class ChbtcClientConfig {
+
+    @Bean(destroyMethod = "shutdown")
+    public ChbtcClient chbtcClient(ChbtcClientProperties properties) throws IOException {
+        return new ChbtcClient(properties.getTrade(), properties.getData(), transportFactory(properties.getTransport()));
+    }
+
+    private TransportFactory transportFactory(ChbtcClientProperties.Transport transport) throws IOException {
+        switch (transport.getMode()) {
+        case "live":
+            return TransportFactory.live();
+        case "record":
+            return TransportFactory.recording(new File(transport.getFile()));
+        case "replay":
+            return TransportFactory.replay(new File(transport.getFile()), transport.getSpeed());
+        default:
+            throw new IllegalArgumentException("chbtc.client.transport.mode只能是live、record或replay: " + transport.getMode());
+        }
+    }
+}
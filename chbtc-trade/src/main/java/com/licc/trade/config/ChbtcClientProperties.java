@@ -0,0 +1,77 @@
+package com.licc.trade.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import com.licc.btc.chbtcapi.ChbtcHostConfig;
+
+/**
+ * 交易所客户端配置，trade为交易接口，data为行情接口，transport为传输层
+ *
+ * @author lichangchao
+ * @version 1.0.0
+ * @date 2018/3/7 16:10
+ * @see
+ */
+@ConfigurationProperties(prefix = "chbtc.client")
+public class ChbtcClientProperties {
+    private ChbtcHostConfig trade     = ChbtcHostConfig.trade();
+    private ChbtcHostConfig data      = ChbtcHostConfig.data();
+    private Transport       transport = new Transport();
+
+    public ChbtcHostConfig getTrade() {
+        return trade;
+    }
+
+    public void setTrade(ChbtcHostConfig trade) {
+        this.trade = trade;
+    }
+
+    public ChbtcHostConfig getData() {
+        return data;
+    }
+
+    public void setData(ChbtcHostConfig data) {
+        this.data = data;
+    }
+
+    public Transport getTransport() {
+        return transport;
+    }
+
+    public void setTransport(Transport transport) {
+        this.transport = transport;
+    }
+
+    /**
+     * 传输层，live直接访问交易所，record访问交易所并录制到file，replay回放file不访问网络
+     */
+    public static class Transport {
+        private String mode  = "live";
+        private String file;
+        private double speed = 1; // 回放速度倍数，0表示不等待
+
+        public String getMode() {
+            return mode;
+        }
+
+        public void setMode(String mode) {
+            this.mode = mode;
+        }
+
+        public String getFile() {
+            return file;
+        }
+
+        public void setFile(String file) {
+            this.file = file;
+        }
+
+        public double getSpeed() {
+            return speed;
+        }
+
+        public void setSpeed(double speed) {
+            this.speed = speed;
+        }
+    }
+}
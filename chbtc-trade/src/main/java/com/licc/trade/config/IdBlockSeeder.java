@@ -0,0 +1,59 @@
+package com.licc.trade.config;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.Resource;
+import javax.persistence.EntityManagerFactory;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import com.licc.trade.domain.BlockIdGenerator;
+
+/**
+ * 初始化按块分配主键的起始值
+ * <p>
+ * 原来的表使用数据库自增主键，切换到{@link BlockIdGenerator}后，id_generator中还没有该表的行时
+ * 按表中现有的max(id)+1写入起始值，避免新分配的主键和已有数据冲突；已经有行的表不做修改。
+ * <p>
+ * 必须在第一次分配主键之前执行，否则hibernate会从1开始建行。启动时就会插入数据的bean(订单簿、委托意图、
+ * 行情和K线写入、配置)都声明{@code @DependsOn(IdBlockSeeder.NAME)}。
+ *
+ * @author lichangchao
+ * @version 1.0.0
+ * @date 2018/3/23 16:40
+ * @see BlockIdGenerator
+ */
+@Component(IdBlockSeeder.NAME)
+public class IdBlockSeeder {
+    public static final String    NAME   = "idBlockSeeder";
+    // 使用BlockIdGenerator的表
+    static final String[]         TABLES = { "user", "ticker", "trade_order", "param_config", "order_number", "candle", "order_intent" };
+
+    Logger                        logger = LoggerFactory.getLogger(this.getClass());
+    @Resource
+    JdbcTemplate                  jdbcTemplate;
+    // 依赖EntityManagerFactory，保证id_generator表已经由hibernate建好
+    @Resource
+    EntityManagerFactory          entityManagerFactory;
+
+    @PostConstruct
+    public void seed() {
+        for (String table : TABLES) {
+            if (jdbcTemplate.update(seedSql(table), table, table) > 0) {
+                logger.info("主键分配表初始化：" + table);
+            }
+        }
+    }
+
+    /**
+     * 表还没有行时按max(id)+1插入，两个参数都是表名
+     */
+    static String seedSql(String table) {
+        String segment = BlockIdGenerator.SEGMENT_COLUMN;
+        return "insert into " + BlockIdGenerator.TABLE + " (" + segment + ", " + BlockIdGenerator.VALUE_COLUMN + ")"
+                + " select ?, t.next_id from (select coalesce(max(id), 0) + 1 as next_id from " + table + ") t"
+                + " where not exists (select 1 from " + BlockIdGenerator.TABLE + " where " + segment + " = ?)";
+    }
+}
@@ -0,0 +1,27 @@
+package com.licc.trade.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.licc.btc.chbtcapi.Consts;
+import com.licc.btc.chbtcapi.ws.MarketDataClient;
+
+/**
+ * 行情推送客户端，chbtc.market-data.enabled=true 时启用
+ *
+ * @author lichangchao
+ * @version 1.0.0
+ * @date 2018/3/16 17:20
+ * @see com.licc.trade.service.TickerPushHandler
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "chbtc.market-data", name = "enabled", havingValue = "true")
+public class MarketDataConfig {
+
+    @Bean(destroyMethod = "close")
+    public MarketDataClient marketDataClient(@Value("${chbtc.market-data.url:" + Consts.Chbtc_WebSocket + "}") String url) {
+        return new MarketDataClient(url);
+    }
+}
@@ -0,0 +1,30 @@
+package com.licc.trade.config;
+
+import java.nio.file.Paths;
+import java.time.ZoneId;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.licc.trade.store.TickStore;
+
+/**
+ * 本地行情存储，trade.tick-store.enabled=true 时启用
+ *
+ * @author lichangchao
+ * @version 1.0.0
+ * @date 2018/3/24 14:00
+ * @see com.licc.trade.service.TickerService
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "trade.tick-store", name = "enabled", havingValue = "true")
+public class TickStoreConfig {
+
+    @Bean(destroyMethod = "close")
+    public TickStore tickStore(@Value("${trade.tick-store.dir:data/ticks}") String dir,
+            @Value("${trade.tick-store.initial-records:131072}") int initialRecords) {
+        return new TickStore(Paths.get(dir), ZoneId.systemDefault(), initialRecords);
+    }
+}
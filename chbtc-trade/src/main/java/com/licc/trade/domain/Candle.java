@@ -0,0 +1,121 @@
+package com.licc.trade.domain;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.GeneratedValue;
+import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.Table;
+
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+
+/**
+ * K线表，保存已经结束的K线
+ *
+ * @author lichangchao
+ * @version 1.0.0
+ * @date 2018/3/25 10:40
+ * @see com.licc.trade.candle.CandleAggregator
+ */
+@Entity
+@Table(name = "candle", indexes = @Index(name = "idx_candle_currency_period_time", columnList = "currency,period,open_time"))
+public class Candle {
+    @Id
+    @GeneratedValue(generator = BlockIdGenerator.NAME)
+    @GenericGenerator(name = BlockIdGenerator.NAME, strategy = BlockIdGenerator.STRATEGY,
+            parameters = @Parameter(name = BlockIdGenerator.INCREMENT_PARAM, value = "200"))
+    private Long   id;
+
+    @Column(name = "currency")
+    private String currency;
+
+    @Column(name = "period")
+    private String period;
+
+    @Column(name = "open_time")
+    private Long   openTime;
+
+    @Column(name = "open")
+    private String open;
+    @Column(name = "high")
+    private String high;
+    @Column(name = "low")
+    private String low;
+    @Column(name = "close")
+    private String close;
+    @Column(name = "volume")
+    private String volume;
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getCurrency() {
+        return currency;
+    }
+
+    public void setCurrency(String currency) {
+        this.currency = currency;
+    }
+
+    public String getPeriod() {
+        return period;
+    }
+
+    public void setPeriod(String period) {
+        this.period = period;
+    }
+
+    public Long getOpenTime() {
+        return openTime;
+    }
+
+    public void setOpenTime(Long openTime) {
+        this.openTime = openTime;
+    }
+
+    public String getOpen() {
+        return open;
+    }
+
+    public void setOpen(String open) {
+        this.open = open;
+    }
+
+    public String getHigh() {
+        return high;
+    }
+
+    public void setHigh(String high) {
+        this.high = high;
+    }
+
+    public String getLow() {
+        return low;
+    }
+
+    public void setLow(String low) {
+        this.low = low;
+    }
+
+    public String getClose() {
+        return close;
+    }
+
+    public void setClose(String close) {
+        this.close = close;
+    }
+
+    public String getVolume() {
+        return volume;
+    }
+
+    public void setVolume(String volume) {
+        this.volume = volume;
+    }
+}
@@ -0,0 +1,44 @@
+package com.licc.trade.domain;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+
+/**
+ * 交易配置的版本号，只有一行
+ * <p>
+ * user、param_config、order_number表修改后加一，各节点轮询到版本变化时重新加载配置。
+ * 直接改库时需要同时执行 {@code update config_version set version = version + 1 where id = 1}。
+ *
+ * @author lichangchao
+ * @version 1.0.0
+ * @date 2018/3/28 10:35
+ * @see com.licc.trade.service.ConfigSnapshotService
+ */
+@Entity
+@Table(name = "config_version")
+public class ConfigVersion {
+    public static final long ID = 1L;
+
+    @Id
+    private Long             id;
+    @Column(name = "version")
+    private Long             version;
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+}
@@ -0,0 +1,36 @@
+package com.licc.trade.domain;
+
+/**
+ * 委托意图状态
+ *
+ * @author lichangchao
+ * @version 1.0.0
+ * @date 2018/3/31 10:10
+ * @see OrderIntent
+ */
+public enum EOrderIntentStatus {
+    PENDING(0, "已记录未确认"), ACCEPTED(1, "交易所已受理"), APPLIED(2, "已写入订单表"), FAILED(3, "委托失败");
+    private int    key;
+    private String value;
+
+    EOrderIntentStatus(int key, String value) {
+        this.key = key;
+        this.value = value;
+    }
+
+    public int getKey() {
+        return key;
+    }
+
+    public void setKey(int key) {
+        this.key = key;
+    }
+
+    public String getValue() {
+        return value;
+    }
+
+    public void setValue(String value) {
+        this.value = value;
+    }
+}
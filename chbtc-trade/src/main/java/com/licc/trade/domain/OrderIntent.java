@@ -0,0 +1,157 @@
+package com.licc.trade.domain;
+
+import java.util.Date;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.GeneratedValue;
+import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.Table;
+
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+
+/**
+ * 委托意图表，调用交易所下单接口之前同步写入一行
+ * <p>
+ * trade_order表由{@link com.licc.trade.service.TradeOrderBook}异步写入，交易所受理委托到订单写入之间进程退出时，
+ * 依靠这里的记录在启动后补回订单，或者在交易所的未成交委托中找回没有收到响应的委托。
+ *
+ * @author lichangchao
+ * @version 1.0.0
+ * @date 2018/3/31 10:00
+ * @see com.licc.trade.service.OrderIntentService
+ */
+@Entity
+@Table(name = "order_intent", indexes = @Index(name = "idx_order_intent_status", columnList = "status"))
+public class OrderIntent {
+    @Id
+    @GeneratedValue(generator = BlockIdGenerator.NAME)
+    @GenericGenerator(name = BlockIdGenerator.NAME, strategy = BlockIdGenerator.STRATEGY,
+            parameters = @Parameter(name = BlockIdGenerator.INCREMENT_PARAM, value = "50"))
+    private Long    id;
+    @Column(name = "create_time")
+    private Date    createTime;
+    @Column(name = "user_id")
+    private Long    userId;
+    @Column(name = "currency")
+    private String  currency;
+    // 委托类型：1买入，0卖出，同ETradeOrderType
+    @Column(name = "type")
+    private Integer type;
+    @Column(name = "price")
+    private String  price;
+    @Column(name = "amount")
+    private String  amount;
+    // 买单的差价配置，补回订单时使用
+    @Column(name = "subtract_price")
+    private String  subtractPrice;
+    // 卖单对应订单的买单号
+    @Column(name = "buy_order_id")
+    private String  buyOrderId;
+    // 交易所返回的委托单号
+    @Column(name = "order_id")
+    private String  orderId;
+    // 状态，见EOrderIntentStatus
+    @Column(name = "status")
+    private Integer status;
+    @Column(name = "message")
+    private String  message;
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Date getCreateTime() {
+        return createTime;
+    }
+
+    public void setCreateTime(Date createTime) {
+        this.createTime = createTime;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public String getCurrency() {
+        return currency;
+    }
+
+    public void setCurrency(String currency) {
+        this.currency = currency;
+    }
+
+    public Integer getType() {
+        return type;
+    }
+
+    public void setType(Integer type) {
+        this.type = type;
+    }
+
+    public String getPrice() {
+        return price;
+    }
+
+    public void setPrice(String price) {
+        this.price = price;
+    }
+
+    public String getAmount() {
+        return amount;
+    }
+
+    public void setAmount(String amount) {
+        this.amount = amount;
+    }
+
+    public String getSubtractPrice() {
+        return subtractPrice;
+    }
+
+    public void setSubtractPrice(String subtractPrice) {
+        this.subtractPrice = subtractPrice;
+    }
+
+    public String getBuyOrderId() {
+        return buyOrderId;
+    }
+
+    public void setBuyOrderId(String buyOrderId) {
+        this.buyOrderId = buyOrderId;
+    }
+
+    public String getOrderId() {
+        return orderId;
+    }
+
+    public void setOrderId(String orderId) {
+        this.orderId = orderId;
+    }
+
+    public Integer getStatus() {
+        return status;
+    }
+
+    public void setStatus(Integer status) {
+        this.status = status;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+}
@@ -3,15 +3,21 @@ package com.licc.trade.domain;
 import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
-import javax.persistence.GenerationType;
 import javax.persistence.Id;
 import javax.persistence.Table;
+import javax.persistence.Transient;
+
+import org.hibernate.annotations.GenericGenerator;
+
+import com.licc.btc.chbtcapi.enums.ETradeCurrency;
+import com.licc.btc.chbtcapi.util.FixedPoint;
 
 @Entity
 @Table(name = "order_number")
 public class OrderNumber {
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @GeneratedValue(generator = BlockIdGenerator.NAME)
+    @GenericGenerator(name = BlockIdGenerator.NAME, strategy = BlockIdGenerator.STRATEGY)
     private Long    id;
     @Column(name = "order_number")
     private Integer orderNumber;  // 币种
@@ -32,6 +38,13 @@ public class OrderNumber {
     @Column(name = "subtract_price")
     private String  subtractPrice;
 
+    @Transient
+    private long    fixedHightBuyStart = FixedPoint.UNPARSED;
+    @Transient
+    private long    fixedHightBuyEnd   = FixedPoint.UNPARSED;
+    @Transient
+    private long    fixedSubtractPrice = FixedPoint.UNPARSED;
+
     public Long getId() {
         return id;
     }
@@ -54,6 +67,9 @@ public class OrderNumber {
 
     public void setCurrency(String currency) {
         this.currency = currency;
+        this.fixedHightBuyStart = FixedPoint.UNPARSED;
+        this.fixedHightBuyEnd = FixedPoint.UNPARSED;
+        this.fixedSubtractPrice = FixedPoint.UNPARSED;
     }
 
     public Long getUserId() {
@@ -76,23 +92,64 @@ public class OrderNumber {
         return hightBuyStart;
     }
 
+    /**
+     * 最高价差区间下限(不含)，按市场价格精度解析的定点小数
+     */
+    public long getFixedHightBuyStart() {
+        if (fixedHightBuyStart == FixedPoint.UNPARSED) {
+            fixedHightBuyStart = FixedPoint.parse(hightBuyStart, priceScale());
+        }
+        return fixedHightBuyStart;
+    }
+
     public void setHightBuyStart(String hightBuyStart) {
         this.hightBuyStart = hightBuyStart;
+        this.fixedHightBuyStart = FixedPoint.UNPARSED;
     }
 
     public String getHightBuyEnd() {
         return hightBuyEnd;
     }
 
+    /**
+     * 最高价差区间上限(含)，按市场价格精度解析的定点小数
+     */
+    public long getFixedHightBuyEnd() {
+        if (fixedHightBuyEnd == FixedPoint.UNPARSED) {
+            fixedHightBuyEnd = FixedPoint.parse(hightBuyEnd, priceScale());
+        }
+        return fixedHightBuyEnd;
+    }
+
     public void setHightBuyEnd(String hightBuyEnd) {
         this.hightBuyEnd = hightBuyEnd;
+        this.fixedHightBuyEnd = FixedPoint.UNPARSED;
     }
 
     public String getSubtractPrice() {
         return subtractPrice;
     }
 
+    /**
+     * 卖出价相对买入价的加价，按市场价格精度解析的定点小数
+     */
+    public long getFixedSubtractPrice() {
+        if (fixedSubtractPrice == FixedPoint.UNPARSED) {
+            fixedSubtractPrice = FixedPoint.parse(subtractPrice, priceScale());
+        }
+        return fixedSubtractPrice;
+    }
+
     public void setSubtractPrice(String subtractPrice) {
         this.subtractPrice = subtractPrice;
+        this.fixedSubtractPrice = FixedPoint.UNPARSED;
+    }
+
+    private int priceScale() {
+        ETradeCurrency tradeCurrency = ETradeCurrency.of(currency);
+        if (tradeCurrency == null) {
+            throw new IllegalStateException("未知币种: " + currency);
+        }
+        return tradeCurrency.getPriceScale();
     }
 }
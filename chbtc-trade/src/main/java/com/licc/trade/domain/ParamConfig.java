@@ -3,15 +3,22 @@ package com.licc.trade.domain;
 import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
-import javax.persistence.GenerationType;
 import javax.persistence.Id;
 import javax.persistence.Table;
+import javax.persistence.Transient;
+
+import org.hibernate.annotations.GenericGenerator;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.licc.btc.chbtcapi.enums.ETradeCurrency;
+import com.licc.btc.chbtcapi.util.FixedPoint;
 
 @Entity
 @Table(name = "param_config")
 public class ParamConfig {
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @GeneratedValue(generator = BlockIdGenerator.NAME)
+    @GenericGenerator(name = BlockIdGenerator.NAME, strategy = BlockIdGenerator.STRATEGY)
     private Long    id;
 
     @Column(name = "currency")
@@ -42,9 +49,21 @@ public class ParamConfig {
     @Column(name = "max_buy_number")
     private Long    maxBuyNumber;  // 最大委托笔数
 
+    @Column(name = "buy_below")
+    private String  buyBelow;      // 买一价需低于该指标才买入，如 bolldn(20,2)@5m，为空不判断
+
     @Column(name = "delete_flag")
     private Integer deleteFlag;
 
+    @Transient
+    private long    fixedHightBuyDiff   = FixedPoint.UNPARSED;
+    @Transient
+    private long    fixedSellBuyDiff    = FixedPoint.UNPARSED;
+    @Transient
+    private long    fixedOrderSellPrice = FixedPoint.UNPARSED;
+    @Transient
+    private long    fixedDownBuy        = FixedPoint.UNPARSED;
+
     public Long getId() {
         return id;
     }
@@ -59,6 +78,10 @@ public class ParamConfig {
 
     public void setCurrency(String currency) {
         this.currency = currency;
+        this.fixedHightBuyDiff = FixedPoint.UNPARSED;
+        this.fixedSellBuyDiff = FixedPoint.UNPARSED;
+        this.fixedOrderSellPrice = FixedPoint.UNPARSED;
+        this.fixedDownBuy = FixedPoint.UNPARSED;
     }
 
     public Long getUserId() {
@@ -73,24 +96,60 @@ public class ParamConfig {
         return hightBuyDiff;
     }
 
+    /**
+     * 最高价与买入价格差，按市场价格精度解析的定点小数
+     */
+    @JsonIgnore
+    public long getFixedHightBuyDiff() {
+        if (fixedHightBuyDiff == FixedPoint.UNPARSED) {
+            fixedHightBuyDiff = FixedPoint.parse(hightBuyDiff, priceScale());
+        }
+        return fixedHightBuyDiff;
+    }
+
     public void setHightBuyDiff(String hightBuyDiff) {
         this.hightBuyDiff = hightBuyDiff;
+        this.fixedHightBuyDiff = FixedPoint.UNPARSED;
     }
 
     public String getSellBuyDiff() {
         return sellBuyDiff;
     }
 
+    /**
+     * 卖与买的价格差，按市场价格精度解析的定点小数
+     */
+    @JsonIgnore
+    public long getFixedSellBuyDiff() {
+        if (fixedSellBuyDiff == FixedPoint.UNPARSED) {
+            fixedSellBuyDiff = FixedPoint.parse(sellBuyDiff, priceScale());
+        }
+        return fixedSellBuyDiff;
+    }
+
     public void setSellBuyDiff(String sellBuyDiff) {
         this.sellBuyDiff = sellBuyDiff;
+        this.fixedSellBuyDiff = FixedPoint.UNPARSED;
     }
 
     public String getOrderSellPrice() {
         return orderSellPrice;
     }
 
+    /**
+     * 订单卖出价，按市场价格精度解析的定点小数，未配置时不能调用
+     */
+    @JsonIgnore
+    public long getFixedOrderSellPrice() {
+        if (fixedOrderSellPrice == FixedPoint.UNPARSED) {
+            fixedOrderSellPrice = FixedPoint.parse(orderSellPrice, priceScale());
+        }
+        return fixedOrderSellPrice;
+    }
+
     public void setOrderSellPrice(String orderSellPrice) {
         this.orderSellPrice = orderSellPrice;
+        this.fixedOrderSellPrice = FixedPoint.UNPARSED;
     }
 
     public Long getMaxBuyNumber() {
@@ -101,6 +160,14 @@ public class ParamConfig {
         this.maxBuyNumber = maxBuyNumber;
     }
 
+    public String getBuyBelow() {
+        return buyBelow;
+    }
+
+    public void setBuyBelow(String buyBelow) {
+        this.buyBelow = buyBelow;
+    }
+
     public Long getBuyOverTime() {
         return buyOverTime;
     }
@@ -113,8 +180,20 @@ public class ParamConfig {
         return downBuy;
     }
 
+    /**
+     * 价格降低参数，按市场价格精度解析的定点小数
+     */
+    @JsonIgnore
+    public long getFixedDownBuy() {
+        if (fixedDownBuy == FixedPoint.UNPARSED) {
+            fixedDownBuy = FixedPoint.parse(downBuy, priceScale());
+        }
+        return fixedDownBuy;
+    }
+
     public void setDownBuy(String downBuy) {
         this.downBuy = downBuy;
+        this.fixedDownBuy = FixedPoint.UNPARSED;
     }
 
     public Boolean getDownBuyEnable() {
@@ -132,4 +211,12 @@ public class ParamConfig {
     public void setDeleteFlag(Integer deleteFlag) {
         this.deleteFlag = deleteFlag;
     }
+
+    private int priceScale() {
+        ETradeCurrency tradeCurrency = ETradeCurrency.of(currency);
+        if (tradeCurrency == null) {
+            throw new IllegalStateException("未知币种: " + currency);
+        }
+        return tradeCurrency.getPriceScale();
+    }
 }
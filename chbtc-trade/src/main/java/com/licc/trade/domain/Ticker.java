@@ -5,10 +5,12 @@ import java.util.Date;
 import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
-import javax.persistence.GenerationType;
 import javax.persistence.Id;
 import javax.persistence.Table;
 
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+
 /**
  * 交易行情表
  *
@@ -21,7 +23,9 @@ import javax.persistence.Table;
 @Table(name = "ticker")
 public class Ticker {
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @GeneratedValue(generator = BlockIdGenerator.NAME)
+    @GenericGenerator(name = BlockIdGenerator.NAME, strategy = BlockIdGenerator.STRATEGY,
+            parameters = @Parameter(name = BlockIdGenerator.INCREMENT_PARAM, value = "500"))
     private Long   id;
 
     @Column(name = "currency")
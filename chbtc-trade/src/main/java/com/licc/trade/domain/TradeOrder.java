@@ -5,15 +5,23 @@ import java.util.Date;
 import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
-import javax.persistence.GenerationType;
 import javax.persistence.Id;
 import javax.persistence.Table;
+import javax.persistence.Transient;
+
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+
+import com.licc.btc.chbtcapi.enums.ETradeCurrency;
+import com.licc.btc.chbtcapi.util.FixedPoint;
 
 @Entity
 @Table(name = "trade_order")
 public class TradeOrder {
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @GeneratedValue(generator = BlockIdGenerator.NAME)
+    @GenericGenerator(name = BlockIdGenerator.NAME, strategy = BlockIdGenerator.STRATEGY,
+            parameters = @Parameter(name = BlockIdGenerator.INCREMENT_PARAM, value = "200"))
     private Long    id;
     @Column(name = "create_time")
     private Date    createTime;
@@ -46,6 +54,11 @@ public class TradeOrder {
     @Column(name = "subtract_price")
     private String  subtractPrice;
 
+    @Transient
+    private long    fixedBuyPrice      = FixedPoint.UNPARSED;
+    @Transient
+    private long    fixedSubtractPrice = FixedPoint.UNPARSED;
+
     public Long getId() {
         return id;
     }
@@ -68,6 +81,8 @@ public class TradeOrder {
 
     public void setCurrency(String currency) {
         this.currency = currency;
+        this.fixedBuyPrice = FixedPoint.UNPARSED;
+        this.fixedSubtractPrice = FixedPoint.UNPARSED;
     }
 
     public String getBuyNumber() {
@@ -90,8 +105,19 @@ public class TradeOrder {
         return buyPrice;
     }
 
+    /**
+     * 买入价，按市场价格精度解析的定点小数
+     */
+    public long getFixedBuyPrice() {
+        if (fixedBuyPrice == FixedPoint.UNPARSED) {
+            fixedBuyPrice = FixedPoint.parse(buyPrice, priceScale());
+        }
+        return fixedBuyPrice;
+    }
+
     public void setBuyPrice(String buyPrice) {
         this.buyPrice = buyPrice;
+        this.fixedBuyPrice = FixedPoint.UNPARSED;
     }
 
     public String getBuyFees() {
@@ -154,7 +180,26 @@ public class TradeOrder {
         return subtractPrice;
     }
 
+    /**
+     * 卖出价相对买入价的加价，按市场价格精度解析的定点小数
+     */
+    public long getFixedSubtractPrice() {
+        if (fixedSubtractPrice == FixedPoint.UNPARSED) {
+            fixedSubtractPrice = FixedPoint.parse(subtractPrice, priceScale());
+        }
+        return fixedSubtractPrice;
+    }
+
     public void setSubtractPrice(String subtractPrice) {
         this.subtractPrice = subtractPrice;
+        this.fixedSubtractPrice = FixedPoint.UNPARSED;
+    }
+
+    private int priceScale() {
+        ETradeCurrency tradeCurrency = ETradeCurrency.of(currency);
+        if (tradeCurrency == null) {
+            throw new IllegalStateException("未知币种: " + currency);
+        }
+        return tradeCurrency.getPriceScale();
     }
 }
@@ -0,0 +1,71 @@
+package com.licc.trade.engine;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 一个分片的执行统计，次数和总耗时从启动开始累计，最大耗时为上次统计之后的
+ *
+ * @author lichangchao
+ * @version 1.0.0
+ * @date 2018/3/29 11:10
+ * @see TradeEngine
+ */
+public class ShardStats {
+    private final String key;
+    private final long   runs;
+    private final long   failures;
+    private final long   overruns;
+    private final long   totalNanos;
+    private final long   lastNanos;
+    private final long   maxNanos;
+
+    ShardStats(String key, long runs, long failures, long overruns, long totalNanos, long lastNanos, long maxNanos) {
+        this.key = key;
+        this.runs = runs;
+        this.failures = failures;
+        this.overruns = overruns;
+        this.totalNanos = totalNanos;
+        this.lastNanos = lastNanos;
+        this.maxNanos = maxNanos;
+    }
+
+    /**
+     * userId:currency
+     */
+    public String getKey() {
+        return key;
+    }
+
+    public long getRuns() {
+        return runs;
+    }
+
+    public long getFailures() {
+        return failures;
+    }
+
+    /**
+     * 上一条行情还没执行完又到达新行情的次数
+     */
+    public long getOverruns() {
+        return overruns;
+    }
+
+    public long getAvgMillis() {
+        return runs == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(totalNanos / runs);
+    }
+
+    public long getLastMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(lastNanos);
+    }
+
+    public long getMaxMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(maxNanos);
+    }
+
+    @Override
+    public String toString() {
+        return key + "{runs=" + runs + ", failures=" + failures + ", overruns=" + overruns + ", avg=" + getAvgMillis() + "ms, last="
+                + getLastMillis() + "ms, max=" + getMaxMillis() + "ms}";
+    }
+}
@@ -0,0 +1,179 @@
+package com.licc.trade.engine;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.annotation.Resource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.licc.btc.chbtcapi.enums.ETradeCurrency;
+import com.licc.btc.chbtcapi.res.ticker.FixedTicker;
+import com.licc.btc.chbtcapi.res.ticker.TickerApiRes;
+import com.licc.trade.domain.User;
+import com.licc.trade.market.MarketDataHub;
+import com.licc.trade.market.MarketDataListener;
+import com.licc.trade.service.ConfigSnapshot;
+import com.licc.trade.service.ConfigSnapshotService;
+import com.licc.trade.service.TradeService;
+
+/**
+ * 按用户和币种分片并行执行交易逻辑
+ * <p>
+ * 每个用户每个币种是一个分片，分片在固定大小的线程池中执行，同一分片同一时间最多只在一个线程上运行，订单状态的变化仍然串行。
+ * 分片正在执行或排队时到达的行情只保留最新的一条并计为一次超时，执行完成后用最新的行情重新排队到队尾，慢的分片不会占住线程。
+ * 每个分片分别统计执行次数、耗时、超时和失败次数。
+ *
+ * @author lichangchao
+ * @version 1.0.0
+ * @date 2018/3/29 10:30
+ * @see TradeService
+ * @see MarketDataHub
+ */
+@Service
+public class TradeEngine implements MarketDataListener {
+    Logger                                     logger = LoggerFactory.getLogger(this.getClass());
+    @Resource
+    TradeService                               tradeService;
+    @Resource
+    ConfigSnapshotService                      configSnapshotService;
+    @Resource
+    MarketDataHub                              marketDataHub;
+    // 交易逻辑主要在等待交易所接口，线程数可以多于CPU核数；只有下单前后写委托意图时短暂占用数据库连接
+    @Value("${trade.engine.threads:8}")
+    int                                        threads;
+
+    // userId:currency -> 分片
+    private final ConcurrentMap<String, Shard> shards = new ConcurrentHashMap<>();
+    private ExecutorService                    executor;
+
+    @PostConstruct
+    public void start() {
+        AtomicInteger count = new AtomicInteger();
+        // 每个分片最多排队一次，队列长度不会超过分片数
+        executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(), r -> {
+            Thread thread = new Thread(r, "trade-engine-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        marketDataHub.addListener(this);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        executor.shutdown();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    @Override
+    public void onTicker(ETradeCurrency currency, TickerApiRes tickerApiRes, FixedTicker ticker) {
+        submitAll(currency, ticker);
+    }
+
+    /**
+     * 用同一条行情执行该币种下所有配置了参数的用户
+     *
+     * @param ticker 解析好的行情，所有用户共用
+     */
+    public void submitAll(ETradeCurrency currency, FixedTicker ticker) {
+        ConfigSnapshot snapshot = configSnapshotService.current();
+        for (User user : snapshot.getUsers()) {
+            if (snapshot.getParamConfig(user.getId(), currency) != null) {
+                submit(currency, user, ticker);
+            }
+        }
+    }
+
+    /**
+     * 提交一个分片的执行，分片正在执行或排队时只替换成最新的行情
+     */
+    public void submit(ETradeCurrency currency, User user, FixedTicker ticker) {
+        Shard shard = shards.computeIfAbsent(user.getId() + ":" + currency.getValue(), k -> new Shard(currency));
+        if (shard.latest.getAndSet(new Work(user, ticker)) != null) {
+            shard.overruns.incrementAndGet();
+        }
+        schedule(shard);
+    }
+
+    /**
+     * 各分片的统计，返回后清零每个分片的最大耗时
+     */
+    public List<ShardStats> drainStats() {
+        List<ShardStats> stats = new ArrayList<>(shards.size());
+        shards.forEach((key, shard) -> stats.add(new ShardStats(key, shard.runs.get(), shard.failures.get(), shard.overruns.get(),
+                shard.totalNanos.get(), shard.lastNanos, shard.maxNanos.getAndSet(0))));
+        return stats;
+    }
+
+    private void schedule(Shard shard) {
+        if (shard.latest.get() != null && shard.scheduled.compareAndSet(false, true)) {
+            executor.execute(() -> run(shard));
+        }
+    }
+
+    private void run(Shard shard) {
+        try {
+            Work work = shard.latest.getAndSet(null);
+            if (work != null) {
+                long start = System.nanoTime();
+                try {
+                    tradeService.execute(shard.currency, work.user, work.ticker);
+                } catch (RuntimeException e) {
+                    shard.failures.incrementAndGet();
+                    logger.error("用户：" + work.user.getUserName() + " 币种：" + shard.currency.getValue() + "执行交易逻辑失败", e);
+                }
+                long nanos = System.nanoTime() - start;
+                shard.runs.incrementAndGet();
+                shard.totalNanos.addAndGet(nanos);
+                shard.lastNanos = nanos;
+                shard.maxNanos.accumulateAndGet(nanos, Math::max);
+            }
+        } finally {
+            shard.scheduled.set(false);
+        }
+        // 执行期间到达的新行情排到队尾，让其他分片先执行
+        schedule(shard);
+    }
+
+    private static class Work {
+        final User        user;
+        final FixedTicker ticker;
+
+        Work(User user, FixedTicker ticker) {
+            this.user = user;
+            this.ticker = ticker;
+        }
+    }
+
+    private static class Shard {
+        final ETradeCurrency        currency;
+        // 等待执行的最新行情，为空表示没有新的行情
+        final AtomicReference<Work> latest     = new AtomicReference<>();
+        final AtomicBoolean         scheduled  = new AtomicBoolean();
+        final AtomicLong            runs       = new AtomicLong();
+        final AtomicLong            failures   = new AtomicLong();
+        final AtomicLong            overruns   = new AtomicLong();
+        final AtomicLong            totalNanos = new AtomicLong();
+        final AtomicLong            maxNanos   = new AtomicLong();
+        volatile long               lastNanos;
+
+        Shard(ETradeCurrency currency) {
+            this.currency = currency;
+        }
+    }
+}
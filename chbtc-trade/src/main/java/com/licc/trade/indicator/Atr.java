@@ -0,0 +1,50 @@
+package com.licc.trade.indicator;
+
+/**
+ * 平均真实波幅，Wilder平滑，前period个真实波幅用简单平均作为初值
+ * <p>
+ * 按行情计算时高低收相同，真实波幅退化为相邻成交价之差，通常按K线注册。
+ *
+ * @author lichangchao
+ * @version 1.0.0
+ * @date 2018/3/26 10:40
+ * @see Indicator
+ */
+public class Atr implements Indicator {
+    private final int period;
+    private int       count;
+    private long      prevClose;
+    private double    value = Double.NaN;
+
+    public Atr(int period) {
+        if (period < 1) {
+            throw new IllegalArgumentException("period必须大于0");
+        }
+        this.period = period;
+    }
+
+    @Override
+    public void update(long high, long low, long close, long volume) {
+        long trueRange = high - low;
+        if (count > 0) {
+            trueRange = Math.max(trueRange, Math.max(Math.abs(high - prevClose), Math.abs(low - prevClose)));
+        }
+        prevClose = close;
+        if (count < period) {
+            count++;
+            value = count == 1 ? trueRange : value + (trueRange - value) / count;
+        } else {
+            value = (value * (period - 1) + trueRange) / period;
+        }
+    }
+
+    @Override
+    public boolean isReady() {
+        return count >= period;
+    }
+
+    @Override
+    public double value() {
+        return value;
+    }
+}
@@ -0,0 +1,78 @@
+package com.licc.trade.indicator;
+
+/**
+ * 布林带，中轨为period个收盘价的简单平均，上下轨为中轨加减k倍标准差
+ * <p>
+ * 窗口内的和与平方和随样本增量维护；{@link #value()}按构造时选择的轨道返回。
+ *
+ * @author lichangchao
+ * @version 1.0.0
+ * @date 2018/3/26 10:50
+ * @see Indicator
+ */
+public class Bollinger implements Indicator {
+    /** 上轨 */
+    public static final int UPPER  = 1;
+    /** 中轨 */
+    public static final int MIDDLE = 0;
+    /** 下轨 */
+    public static final int LOWER  = -1;
+
+    private final long[]    window;
+    private final double    k;
+    private final int       band;
+    private int             next;
+    private int             count;
+    private double          sum;
+    private double          sumSquares;
+
+    /**
+     * @param band {@link #UPPER}、{@link #MIDDLE}或{@link #LOWER}
+     */
+    public Bollinger(int period, double k, int band) {
+        if (period < 1) {
+            throw new IllegalArgumentException("period必须大于0");
+        }
+        this.window = new long[period];
+        this.k = k;
+        this.band = band;
+    }
+
+    @Override
+    public void update(long high, long low, long close, long volume) {
+        if (count == window.length) {
+            long old = window[next];
+            sum -= old;
+            sumSquares -= (double) old * old;
+        } else {
+            count++;
+        }
+        window[next] = close;
+        sum += close;
+        sumSquares += (double) close * close;
+        next = (next + 1) % window.length;
+    }
+
+    @Override
+    public boolean isReady() {
+        return count == window.length;
+    }
+
+    @Override
+    public double value() {
+        return middle() + band * k * deviation();
+    }
+
+    public double middle() {
+        return count == 0 ? Double.NaN : sum / count;
+    }
+
+    public double deviation() {
+        if (count == 0) {
+            return Double.NaN;
+        }
+        double mean = sum / count;
+        // 浮点误差可能使方差略小于0
+        return Math.sqrt(Math.max(0, sumSquares / count - mean * mean));
+    }
+}
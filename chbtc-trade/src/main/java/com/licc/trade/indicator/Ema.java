@@ -0,0 +1,44 @@
+package com.licc.trade.indicator;
+
+/**
+ * 指数移动平均，前period个样本用简单平均作为初值
+ *
+ * @author lichangchao
+ * @version 1.0.0
+ * @date 2018/3/26 10:15
+ * @see Indicator
+ */
+public class Ema implements Indicator {
+    private final int    period;
+    private final double alpha;
+    private int          count;
+    private double       value = Double.NaN;
+
+    public Ema(int period) {
+        if (period < 1) {
+            throw new IllegalArgumentException("period必须大于0");
+        }
+        this.period = period;
+        this.alpha = 2.0 / (period + 1);
+    }
+
+    @Override
+    public void update(long high, long low, long close, long volume) {
+        if (count < period) {
+            count++;
+            value = count == 1 ? close : value + (close - value) / count;
+        } else {
+            value += alpha * (close - value);
+        }
+    }
+
+    @Override
+    public boolean isReady() {
+        return count >= period;
+    }
+
+    @Override
+    public double value() {
+        return value;
+    }
+}
@@ -0,0 +1,33 @@
+package com.licc.trade.indicator;
+
+/**
+ * 流式指标，每个样本O(1)更新
+ * <p>
+ * 样本为行情(高低收都是成交价)或者结束的K线；价格是市场priceScale的定点小数，指标值与价格同一单位，可以直接和定点小数价格比较。
+ * 实现不是线程安全的，由{@link IndicatorEngine}按币种加锁调用。
+ *
+ * @author lichangchao
+ * @version 1.0.0
+ * @date 2018/3/26 10:00
+ * @see IndicatorEngine
+ */
+public interface Indicator {
+
+    /**
+     * @param high 最高价
+     * @param low 最低价
+     * @param close 收盘价或成交价
+     * @param volume 成交量，amountScale的定点小数
+     */
+    void update(long high, long low, long close, long volume);
+
+    /**
+     * 样本数量是否已经达到窗口长度
+     */
+    boolean isReady();
+
+    /**
+     * 当前值，没有样本时为NaN
+     */
+    double value();
+}
@@ -0,0 +1,155 @@
+package com.licc.trade.indicator;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.Resource;
+
+import org.springframework.stereotype.Service;
+
+import com.licc.btc.chbtcapi.enums.ETradeCurrency;
+import com.licc.trade.candle.Bar;
+import com.licc.trade.candle.CandleAggregator;
+import com.licc.trade.candle.CandleListener;
+import com.licc.trade.candle.ECandlePeriod;
+
+/**
+ * 按币种维护的流式指标
+ * <p>
+ * 指标按{@link IndicatorSpec}注册，同一币种同一指标只有一个实例，所有交易该币种的用户共用；
+ * 按行情更新的指标在每条行情时更新，按K线注册的指标在该周期K线结束时更新，注册时用内存中已结束的K线预热。
+ * 更新和读取按币种加锁，每条行情的开销只与注册的指标数量有关。
+ *
+ * @author lichangchao
+ * @version 1.0.0
+ * @date 2018/3/26 11:30
+ * @see IndicatorSpec
+ * @see CandleAggregator
+ */
+@Service
+public class IndicatorEngine implements CandleListener {
+    @Resource
+    CandleAggregator                         candleAggregator;
+
+    private final Map<ETradeCurrency, Group> groups = new EnumMap<>(ETradeCurrency.class);
+
+    @PostConstruct
+    public void init() {
+        for (ETradeCurrency currency : ETradeCurrency.values()) {
+            groups.put(currency, new Group());
+        }
+        candleAggregator.addListener(this);
+    }
+
+    /**
+     * 注册指标，已经注册过时直接返回
+     *
+     * @return 规范化的指标描述
+     * @throws IllegalArgumentException 指标格式错误
+     */
+    public String register(ETradeCurrency currency, String spec) {
+        return entry(currency, spec).spec.toString();
+    }
+
+    /**
+     * 指标当前值，与价格同为priceScale的定点小数单位；没有注册时先注册
+     *
+     * @return 样本数量还不足窗口长度时返回NaN
+     * @throws IllegalArgumentException 指标格式错误
+     */
+    public double value(ETradeCurrency currency, String spec) {
+        Group group = groups.get(currency);
+        synchronized (group) {
+            Entry entry = entry(currency, spec);
+            return entry.indicator.isReady() ? entry.indicator.value() : Double.NaN;
+        }
+    }
+
+    @Override
+    public void onTick(ETradeCurrency currency, long time, long price, long volume) {
+        Group group = groups.get(currency);
+        synchronized (group) {
+            List<Entry> entries = group.tickEntries;
+            for (int i = 0, size = entries.size(); i < size; i++) {
+                entries.get(i).indicator.update(price, price, price, volume);
+            }
+        }
+    }
+
+    @Override
+    public void onBar(Bar bar) {
+        Group group = groups.get(bar.getCurrency());
+        synchronized (group) {
+            List<Entry> entries = group.barEntries.get(bar.getPeriod());
+            for (int i = 0, size = entries.size(); i < size; i++) {
+                entries.get(i).update(bar);
+            }
+        }
+    }
+
+    private Entry entry(ETradeCurrency currency, String spec) {
+        Group group = groups.get(currency);
+        synchronized (group) {
+            Entry entry = group.bySpec.get(spec);
+            if (entry != null) {
+                return entry;
+            }
+            IndicatorSpec parsed = IndicatorSpec.parse(spec);
+            String key = parsed.toString();
+            entry = group.bySpec.get(key);
+            if (entry == null) {
+                entry = new Entry(parsed);
+                ECandlePeriod source = parsed.getSource();
+                if (source == null) {
+                    group.tickEntries.add(entry);
+                } else {
+                    // 用已经结束的K线预热，最后一根未结束的不算
+                    List<Bar> bars = candleAggregator.latest(currency, source, candleAggregator.getCapacity());
+                    for (int i = 0; i < bars.size() - 1; i++) {
+                        entry.update(bars.get(i));
+                    }
+                    group.barEntries.get(source).add(entry);
+                }
+                group.bySpec.put(key, entry);
+            }
+            group.bySpec.put(spec, entry);
+            return entry;
+        }
+    }
+
+    private static class Group {
+        final Map<String, Entry>              bySpec      = new HashMap<>();
+        final List<Entry>                     tickEntries = new ArrayList<>();
+        final Map<ECandlePeriod, List<Entry>> barEntries  = new EnumMap<>(ECandlePeriod.class);
+
+        Group() {
+            for (ECandlePeriod period : ECandlePeriod.values()) {
+                barEntries.put(period, new ArrayList<>());
+            }
+        }
+    }
+
+    private static class Entry {
+        final IndicatorSpec spec;
+        final Indicator     indicator;
+        long                lastBarTime = Long.MIN_VALUE;
+
+        Entry(IndicatorSpec spec) {
+            this.spec = spec;
+            this.indicator = spec.create();
+        }
+
+        void update(Bar bar) {
+            // 预热和K线结束通知可能重复同一根K线
+            if (bar.getOpenTime() <= lastBarTime) {
+                return;
+            }
+            lastBarTime = bar.getOpenTime();
+            indicator.update(bar.getHigh(), bar.getLow(), bar.getClose(), bar.getVolume());
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.licc.trade.indicator;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import com.licc.trade.candle.ECandlePeriod;
+
+/**
+ * 指标描述，格式为{@code 名称(参数[,参数])[@K线周期]}，没有周期时按每条行情更新
+ * <p>
+ * 支持sma(n)、ema(n)、vwap(n)、high(n)、low(n)、atr(n)、boll(n,k)、bollup(n,k)、bolldn(n,k)，
+ * 例如{@code ema(20)}、{@code low(60)@1m}、{@code bolldn(20,2)@5m}。
+ *
+ * @author lichangchao
+ * @version 1.0.0
+ * @date 2018/3/26 11:00
+ * @see IndicatorEngine
+ */
+public final class IndicatorSpec {
+    private static final Pattern PATTERN = Pattern.compile("(\\w+)\\((\\d+)(?:,([\\d.]+))?\\)(?:@(\\w+))?");
+
+    private final String         name;
+    private final int            period;
+    private final double         k;
+    private final ECandlePeriod  source;
+
+    private IndicatorSpec(String name, int period, double k, ECandlePeriod source) {
+        this.name = name;
+        this.period = period;
+        this.k = k;
+        this.source = source;
+    }
+
+    /**
+     * @throws IllegalArgumentException 格式错误或者不支持的指标
+     */
+    public static IndicatorSpec parse(String spec) {
+        Matcher matcher = PATTERN.matcher(spec == null ? "" : spec.replace(" ", "").toLowerCase());
+        if (!matcher.matches()) {
+            throw new IllegalArgumentException("指标格式错误: " + spec);
+        }
+        String name = matcher.group(1);
+        int period = Integer.parseInt(matcher.group(2));
+        boolean bands = name.startsWith("boll");
+        if (bands != (matcher.group(3) != null)) {
+            throw new IllegalArgumentException("指标参数个数错误: " + spec);
+        }
+        ECandlePeriod source = null;
+        if (matcher.group(4) != null) {
+            source = ECandlePeriod.of(matcher.group(4));
+            if (source == null) {
+                throw new IllegalArgumentException("K线周期不支持: " + spec);
+            }
+        }
+        IndicatorSpec result = new IndicatorSpec(name, period, bands ? Double.parseDouble(matcher.group(3)) : 0, source);
+        // 提前校验名称和参数
+        result.create();
+        return result;
+    }
+
+    /**
+     * 创建一个新的指标实例
+     */
+    public Indicator create() {
+        switch (name) {
+        case "sma":
+            return new Sma(period);
+        case "ema":
+            return new Ema(period);
+        case "vwap":
+            return new Vwap(period);
+        case "high":
+            return new RollingExtreme(period, true);
+        case "low":
+            return new RollingExtreme(period, false);
+        case "atr":
+            return new Atr(period);
+        case "boll":
+            return new Bollinger(period, k, Bollinger.MIDDLE);
+        case "bollup":
+            return new Bollinger(period, k, Bollinger.UPPER);
+        case "bolldn":
+            return new Bollinger(period, k, Bollinger.LOWER);
+        default:
+            throw new IllegalArgumentException("不支持的指标: " + name);
+        }
+    }
+
+    /**
+     * 更新指标的K线周期，按行情更新时为null
+     */
+    public ECandlePeriod getSource() {
+        return source;
+    }
+
+    /**
+     * 规范化的描述，同一指标只注册一次
+     */
+    @Override
+    public String toString() {
+        String args = name.startsWith("boll") ? period + "," + k : String.valueOf(period);
+        return name + "(" + args + ")" + (source == null ? "" : "@" + source.getValue());
+    }
+}
@@ -0,0 +1,67 @@
+package com.licc.trade.indicator;
+
+/**
+ * 最近period个样本的最高价或最低价
+ * <p>
+ * 单调队列保存在两个环形数组中，队首为当前极值；每个样本最多入队出队一次，均摊O(1)。
+ *
+ * @author lichangchao
+ * @version 1.0.0
+ * @date 2018/3/26 10:30
+ * @see Indicator
+ */
+public class RollingExtreme implements Indicator {
+    private final boolean max;
+    private final int     period;
+    private final long[]  values;
+    private final long[]  positions;
+    private int           head;
+    private int           size;
+    private long          count;
+
+    /**
+     * @param max true为最高价，false为最低价
+     */
+    public RollingExtreme(int period, boolean max) {
+        if (period < 1) {
+            throw new IllegalArgumentException("period必须大于0");
+        }
+        this.max = max;
+        this.period = period;
+        this.values = new long[period];
+        this.positions = new long[period];
+    }
+
+    @Override
+    public void update(long high, long low, long close, long volume) {
+        long value = max ? high : low;
+        // 移出窗口外的队首
+        if (size > 0 && positions[head] <= count - period) {
+            head = (head + 1) % period;
+            size--;
+        }
+        // 从队尾移除不可能再成为极值的样本
+        while (size > 0) {
+            int tail = (head + size - 1) % period;
+            if (max ? values[tail] > value : values[tail] < value) {
+                break;
+            }
+            size--;
+        }
+        int tail = (head + size) % period;
+        values[tail] = value;
+        positions[tail] = count;
+        size++;
+        count++;
+    }
+
+    @Override
+    public boolean isReady() {
+        return count >= period;
+    }
+
+    @Override
+    public double value() {
+        return size == 0 ? Double.NaN : values[head];
+    }
+}
@@ -0,0 +1,45 @@
+package com.licc.trade.indicator;
+
+/**
+ * 简单移动平均，窗口内收盘价保存在环形缓冲区中
+ *
+ * @author lichangchao
+ * @version 1.0.0
+ * @date 2018/3/26 10:10
+ * @see Indicator
+ */
+public class Sma implements Indicator {
+    private final long[] window;
+    private int          next;
+    private int          count;
+    private long         sum;
+
+    public Sma(int period) {
+        if (period < 1) {
+            throw new IllegalArgumentException("period必须大于0");
+        }
+        this.window = new long[period];
+    }
+
+    @Override
+    public void update(long high, long low, long close, long volume) {
+        if (count == window.length) {
+            sum -= window[next];
+        } else {
+            count++;
+        }
+        window[next] = close;
+        sum += close;
+        next = (next + 1) % window.length;
+    }
+
+    @Override
+    public boolean isReady() {
+        return count == window.length;
+    }
+
+    @Override
+    public double value() {
+        return count == 0 ? Double.NaN : (double) sum / count;
+    }
+}
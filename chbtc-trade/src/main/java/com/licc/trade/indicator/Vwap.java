@@ -0,0 +1,56 @@
+package com.licc.trade.indicator;
+
+/**
+ * 最近period个样本的成交量加权平均价，窗口内没有成交量时取最后的收盘价
+ *
+ * @author lichangchao
+ * @version 1.0.0
+ * @date 2018/3/26 10:20
+ * @see Indicator
+ */
+public class Vwap implements Indicator {
+    private final double[] amounts;
+    private final long[]   volumes;
+    private int            next;
+    private int            count;
+    private double         sumAmount;
+    private long           sumVolume;
+    private long           lastClose;
+
+    public Vwap(int period) {
+        if (period < 1) {
+            throw new IllegalArgumentException("period必须大于0");
+        }
+        this.amounts = new double[period];
+        this.volumes = new long[period];
+    }
+
+    @Override
+    public void update(long high, long low, long close, long volume) {
+        if (count == volumes.length) {
+            sumAmount -= amounts[next];
+            sumVolume -= volumes[next];
+        } else {
+            count++;
+        }
+        amounts[next] = (double) close * volume;
+        volumes[next] = volume;
+        sumAmount += amounts[next];
+        sumVolume += volume;
+        lastClose = close;
+        next = (next + 1) % volumes.length;
+    }
+
+    @Override
+    public boolean isReady() {
+        return count == volumes.length;
+    }
+
+    @Override
+    public double value() {
+        if (count == 0) {
+            return Double.NaN;
+        }
+        return sumVolume == 0 ? lastClose : sumAmount / sumVolume;
+    }
+}
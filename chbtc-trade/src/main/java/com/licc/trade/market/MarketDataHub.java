@@ -0,0 +1,159 @@
+package com.licc.trade.market;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import javax.annotation.Resource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import com.licc.btc.chbtcapi.ChbtcClient;
+import com.licc.btc.chbtcapi.enums.ETradeCurrency;
+import com.licc.btc.chbtcapi.res.ticker.FixedTicker;
+import com.licc.btc.chbtcapi.res.ticker.TickerApiRes;
+
+/**
+ * 所有币种的行情汇总，每个币种每轮只请求一次，所有用户共用
+ * <p>
+ * 定时任务和行情推送都把行情交给这里：同一币种已有请求未返回，或者最新行情比要求的更新时不再请求；
+ * 每条行情只解析一次，替换成新的{@link MarketSnapshot}后通知监听者。早于已发布行情的迟到结果直接丢弃，
+ * 推送和轮询先后收到的同一条行情只发布一次。每个币种各自加锁发布和通知，一个币种的监听者处理慢不影响其他币种。
+ * 交易所的公共行情请求数只与币种数有关，与用户数无关。
+ *
+ * @author lichangchao
+ * @version 1.0.0
+ * @date 2018/3/30 10:50
+ * @see MarketDataListener
+ */
+@Service
+public class MarketDataHub {
+    Logger                                        logger    = LoggerFactory.getLogger(this.getClass());
+    @Resource
+    ChbtcClient                                   chbtcClient;
+
+    // 请求已发出还没有返回的币种
+    private final Set<ETradeCurrency>             inFlight  = ConcurrentHashMap.newKeySet();
+    private final List<MarketDataListener>        listeners = new CopyOnWriteArrayList<>();
+    private final AtomicLong                      requests  = new AtomicLong();
+    private final AtomicLong                      coalesced = new AtomicLong();
+    private final AtomicLong                      late      = new AtomicLong();
+    private final AtomicLong                      duplicate = new AtomicLong();
+    // 每个币种一把发布锁，监听者只阻塞同一币种的发布
+    private final Map<ETradeCurrency, Object>     locks     = new EnumMap<>(ETradeCurrency.class);
+    // 不同币种并发发布，快照用比较并交换替换
+    private final AtomicReference<MarketSnapshot> snapshot  = new AtomicReference<>(MarketSnapshot.EMPTY);
+
+    public MarketDataHub() {
+        for (ETradeCurrency currency : ETradeCurrency.values()) {
+            locks.put(currency, new Object());
+        }
+    }
+
+    public void addListener(MarketDataListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * 当前所有币种的最新行情，读取不加锁
+     */
+    public MarketSnapshot current() {
+        return snapshot.get();
+    }
+
+    /**
+     * 最新行情早于{@code maxAgeMillis}时异步请求一次，已有请求未返回时不再请求
+     *
+     * @return 是否发出了请求
+     */
+    public boolean refresh(ETradeCurrency currency, long maxAgeMillis) {
+        if (System.currentTimeMillis() - snapshot.get().getReceivedMillis(currency) < maxAgeMillis) {
+            return false;
+        }
+        if (!inFlight.add(currency)) {
+            coalesced.incrementAndGet();
+            return false;
+        }
+        requests.incrementAndGet();
+        try {
+            chbtcClient.tickerAsync(currency).whenComplete((tickerApiRes, e) -> {
+                inFlight.remove(currency);
+                if (e == null) {
+                    publish(currency, tickerApiRes);
+                }
+            });
+        } catch (RuntimeException e) {
+            inFlight.remove(currency);
+            throw e;
+        }
+        return true;
+    }
+
+    /**
+     * 发布一条行情，接口轮询和推送共用
+     *
+     * @return 格式错误、早于或等于已发布的行情时返回false
+     */
+    public boolean publish(ETradeCurrency currency, TickerApiRes tickerApiRes) {
+        FixedTicker ticker = FixedTicker.of(currency, tickerApiRes);
+        if (ticker == null) {
+            return false;
+        }
+        long time = tickerApiRes.getDate() == null ? 0 : tickerApiRes.getDate();
+        // 按币种顺序发布和通知，监听者收到的同一币种行情不会倒序
+        synchronized (locks.get(currency)) {
+            long published = snapshot.get().getTime(currency);
+            if (time < published) {
+                late.incrementAndGet();
+                return false;
+            }
+            // 没有时间的行情无法判断是否重复，只在还没有发布过带时间的行情时发布
+            if (time == published && time != 0) {
+                duplicate.incrementAndGet();
+                return false;
+            }
+            long receivedMillis = System.currentTimeMillis();
+            snapshot.updateAndGet(current -> current.with(currency, ticker, time, receivedMillis));
+            for (MarketDataListener listener : listeners) {
+                try {
+                    listener.onTicker(currency, tickerApiRes, ticker);
+                } catch (RuntimeException e) {
+                    logger.error("币种：" + currency.getValue() + "行情监听处理失败", e);
+                }
+            }
+        }
+        return true;
+    }
+
+    public long getRequests() {
+        return requests.get();
+    }
+
+    /**
+     * 已有请求未返回而合并的次数
+     */
+    public long getCoalesced() {
+        return coalesced.get();
+    }
+
+    /**
+     * 早于已发布行情被丢弃的次数
+     */
+    public long getLate() {
+        return late.get();
+    }
+
+    /**
+     * 与已发布行情时间相同被丢弃的次数，推送和轮询收到同一条行情时发生
+     */
+    public long getDuplicate() {
+        return duplicate.get();
+    }
+}
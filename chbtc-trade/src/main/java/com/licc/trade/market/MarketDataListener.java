@@ -0,0 +1,22 @@
+package com.licc.trade.market;
+
+import com.licc.btc.chbtcapi.enums.ETradeCurrency;
+import com.licc.btc.chbtcapi.res.ticker.FixedTicker;
+import com.licc.btc.chbtcapi.res.ticker.TickerApiRes;
+
+/**
+ * 接收{@link MarketDataHub}发布的行情，在行情回调或推送线程中调用，实现不能阻塞
+ *
+ * @author lichangchao
+ * @version 1.0.0
+ * @date 2018/3/30 10:20
+ * @see MarketDataHub#addListener(MarketDataListener)
+ */
+public interface MarketDataListener {
+
+    /**
+     * @param tickerApiRes 接口或推送返回的原始数据
+     * @param ticker 解析好的行情，所有监听者共用
+     */
+    void onTicker(ETradeCurrency currency, TickerApiRes tickerApiRes, FixedTicker ticker);
+}
@@ -0,0 +1,75 @@
+package com.licc.trade.market;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+import com.licc.btc.chbtcapi.enums.ETradeCurrency;
+import com.licc.btc.chbtcapi.res.ticker.FixedTicker;
+
+/**
+ * 某一时刻所有币种的最新行情，创建后不再修改，有新行情时整体替换
+ *
+ * @author lichangchao
+ * @version 1.0.0
+ * @date 2018/3/30 10:30
+ * @see MarketDataHub
+ */
+public class MarketSnapshot {
+    public static final MarketSnapshot       EMPTY = new MarketSnapshot(new EnumMap<>(ETradeCurrency.class));
+
+    private final Map<ETradeCurrency, Entry> entries;
+
+    private MarketSnapshot(Map<ETradeCurrency, Entry> entries) {
+        this.entries = entries;
+    }
+
+    /**
+     * @return 还没有收到该币种的行情时返回null
+     */
+    public FixedTicker get(ETradeCurrency currency) {
+        Entry entry = entries.get(currency);
+        return entry == null ? null : entry.ticker;
+    }
+
+    /**
+     * 交易所返回的行情时间
+     *
+     * @return 还没有收到该币种的行情时返回0
+     */
+    public long getTime(ETradeCurrency currency) {
+        Entry entry = entries.get(currency);
+        return entry == null ? 0 : entry.time;
+    }
+
+    /**
+     * 本地收到行情的时间
+     *
+     * @return 还没有收到该币种的行情时返回0
+     */
+    public long getReceivedMillis(ETradeCurrency currency) {
+        Entry entry = entries.get(currency);
+        return entry == null ? 0 : entry.receivedMillis;
+    }
+
+    /**
+     * 复制一份并替换一个币种的行情
+     */
+    MarketSnapshot with(ETradeCurrency currency, FixedTicker ticker, long time, long receivedMillis) {
+        Map<ETradeCurrency, Entry> copy = new EnumMap<>(ETradeCurrency.class);
+        copy.putAll(entries);
+        copy.put(currency, new Entry(ticker, time, receivedMillis));
+        return new MarketSnapshot(copy);
+    }
+
+    private static class Entry {
+        final FixedTicker ticker;
+        final long        time;
+        final long        receivedMillis;
+
+        Entry(FixedTicker ticker, long time, long receivedMillis) {
+            this.ticker = ticker;
+            this.time = time;
+            this.receivedMillis = receivedMillis;
+        }
+    }
+}
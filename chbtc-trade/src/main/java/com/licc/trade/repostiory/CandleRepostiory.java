@@ -0,0 +1,14 @@
+package com.licc.trade.repostiory;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import com.licc.trade.domain.Candle;
+
+/**
+ * @author lichangchao
+ * @version 1.0.0
+ * @date 2018/3/25 10:45
+ * @see
+ */
+public interface CandleRepostiory extends JpaRepository<Candle, Long> {
+}
@@ -0,0 +1,19 @@
+package com.licc.trade.repostiory;
+
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import com.licc.trade.domain.OrderIntent;
+
+/**
+ * @author lichangchao
+ * @version 1.0.0
+ * @date 2018/3/31 10:05
+ * @see
+ */
+public interface OrderIntentRepostiory extends JpaRepository<OrderIntent, Long> {
+    List<OrderIntent> findByStatusInOrderByIdAsc(List<Integer> status);
+
+    List<OrderIntent> findTop200ByStatusOrderByIdAsc(Integer status);
+}
@@ -11,6 +11,4 @@ import com.licc.trade.domain.Ticker;
  * @see
  */
 public interface TickerRepostiory extends JpaRepository<Ticker, Long> {
-    Long countByCurrencyAndBuyAndSellAndHighAndLowAndLastAndVol(String currency, String buy, String sell, String high, String low,
-            String last, String vol);
 }
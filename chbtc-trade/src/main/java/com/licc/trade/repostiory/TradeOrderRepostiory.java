@@ -1,5 +1,6 @@
 package com.licc.trade.repostiory;
 
+import java.util.Collection;
 import java.util.List;
 
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -22,6 +23,10 @@ public interface TradeOrderRepostiory extends JpaRepository<TradeOrder, Long> {
      * TradeOrder findBySellOrderIdAndUserId(String sellOrderId,Long userId);
      */
 
+    List<TradeOrder> findByBuyStatusNotInAndSellStatusNotIn(List<Integer> buyStatus, List<Integer> sellStatus);
+
+    List<TradeOrder> findByBuyOrderIdInOrSellOrderIdIn(Collection<String> buyOrderIds, Collection<String> sellOrderIds);
+
     List<TradeOrder> findByUserIdAndCurrencyAndBuyStatusIn(Long userId, String currency, List<Integer> buyStatus);
 
     @Query(value = "select  buy_price from trade_order where buy_status not in(1) and  sell_status not in(2) and user_id = ?1 and currency = ?2 order by id desc limit 0,1 ", nativeQuery = true)
@@ -0,0 +1,92 @@
+package com.licc.trade.service;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.licc.btc.chbtcapi.enums.ETradeCurrency;
+import com.licc.trade.domain.ParamConfig;
+import com.licc.trade.domain.User;
+import com.licc.trade.util.OrderNumberIndex;
+
+/**
+ * 某一版本的交易配置：有效用户、每个用户每个币种的参数配置和买单数量区间索引
+ * <p>
+ * 创建后不再修改，配置变化时整体替换成新的快照，交易循环读到的始终是同一版本的完整配置。
+ * 其中的实体只用于读取，不能修改后保存。
+ *
+ * @author lichangchao
+ * @version 1.0.0
+ * @date 2018/3/28 10:10
+ * @see ConfigSnapshotService
+ */
+public class ConfigSnapshot {
+    public static final ConfigSnapshot          EMPTY = new ConfigSnapshot(Long.MIN_VALUE, Collections.emptyList(),
+            Collections.emptyMap(), Collections.emptyMap());
+
+    private final long                          version;
+    private final List<User>                    users;
+    // userId:currency -> 参数配置
+    private final Map<String, ParamConfig>      configs;
+    // userId:currency -> 买单数量区间索引，配置不合法时不放入
+    private final Map<String, OrderNumberIndex> orderNumberIndexes;
+    // 至少有一个用户配置了参数的币种
+    private final Set<ETradeCurrency>           currencies;
+
+    ConfigSnapshot(long version, List<User> users, Map<String, ParamConfig> configs, Map<String, OrderNumberIndex> orderNumberIndexes) {
+        this.version = version;
+        this.users = Collections.unmodifiableList(users);
+        this.configs = Collections.unmodifiableMap(configs);
+        this.orderNumberIndexes = Collections.unmodifiableMap(orderNumberIndexes);
+        Set<ETradeCurrency> currencies = EnumSet.noneOf(ETradeCurrency.class);
+        configs.values().forEach(config -> {
+            ETradeCurrency currency = ETradeCurrency.of(config.getCurrency());
+            if (currency != null) {
+                currencies.add(currency);
+            }
+        });
+        this.currencies = Collections.unmodifiableSet(currencies);
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * 没有删除的用户
+     */
+    public List<User> getUsers() {
+        return users;
+    }
+
+    /**
+     * @return 没有配置或已删除时返回null
+     */
+    public ParamConfig getParamConfig(Long userId, ETradeCurrency currency) {
+        return configs.get(key(userId, currency.getValue()));
+    }
+
+    /**
+     * @return 没有配置或配置不合法时返回null
+     */
+    public OrderNumberIndex getOrderNumberIndex(Long userId, ETradeCurrency currency) {
+        return orderNumberIndexes.get(key(userId, currency.getValue()));
+    }
+
+    /**
+     * 至少有一个用户配置了参数的币种，可能包括已删除用户的配置
+     */
+    public Set<ETradeCurrency> getCurrencies() {
+        return currencies;
+    }
+
+    public int getConfigCount() {
+        return configs.size();
+    }
+
+    static String key(Long userId, String currency) {
+        return userId + ":" + currency;
+    }
+}
@@ -0,0 +1,199 @@
+package com.licc.trade.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.Resource;
+import javax.persistence.EntityManagerFactory;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
+
+import com.licc.btc.chbtcapi.enums.EDeleteFlag;
+import com.licc.btc.chbtcapi.enums.ETradeCurrency;
+import com.licc.btc.chbtcapi.util.FixedPoint;
+import com.licc.trade.config.IdBlockSeeder;
+import com.licc.trade.domain.ConfigVersion;
+import com.licc.trade.domain.OrderNumber;
+import com.licc.trade.domain.ParamConfig;
+import com.licc.trade.domain.User;
+import com.licc.trade.indicator.IndicatorSpec;
+import com.licc.trade.repostiory.OrderNumberRepostiory;
+import com.licc.trade.repostiory.ParamConfigRepostiory;
+import com.licc.trade.repostiory.UserRepostiory;
+import com.licc.trade.util.OrderNumberIndex;
+
+/**
+ * 交易配置快照
+ * <p>
+ * 启动时加载user、param_config、order_number表生成{@link ConfigSnapshot}，交易循环只读取内存中的快照，不访问数据库。
+ * 定时轮询config_version表的版本号，变化后重新加载并整体替换快照；通过管理接口修改配置时在同一事务内把版本号加一，
+ * 提交后立即重新加载，其他节点在下一次轮询时加载。
+ *
+ * @author lichangchao
+ * @version 1.0.0
+ * @date 2018/3/28 10:40
+ * @see ConfigSnapshot
+ * @see ConfigVersion
+ */
+@Service
+@DependsOn(IdBlockSeeder.NAME)
+public class ConfigSnapshotService {
+    private static final String     SELECT_VERSION = "select version from config_version where id = ?";
+
+    Logger                          logger         = LoggerFactory.getLogger(this.getClass());
+    @Resource
+    UserRepostiory                  userRepostiory;
+    @Resource
+    ParamConfigRepostiory           configRepostiory;
+    @Resource
+    OrderNumberRepostiory           orderNumberRepostiory;
+    @Resource
+    OrderNumberService              orderNumberService;
+    @Resource
+    JdbcTemplate                    jdbcTemplate;
+    // 依赖EntityManagerFactory，保证config_version表已经由hibernate建好
+    @Resource
+    EntityManagerFactory            entityManagerFactory;
+
+    private volatile ConfigSnapshot snapshot       = ConfigSnapshot.EMPTY;
+
+    @PostConstruct
+    public void init() {
+        jdbcTemplate.update("insert into config_version (id, version) select ?, 0 from dual"
+                + " where not exists (select 1 from config_version where id = ?)", ConfigVersion.ID, ConfigVersion.ID);
+        reload();
+    }
+
+    /**
+     * 当前快照，读取不加锁
+     */
+    public ConfigSnapshot current() {
+        return snapshot;
+    }
+
+    /**
+     * 版本号变化时重新加载
+     *
+     * @return 是否重新加载
+     */
+    @Transactional(readOnly = true)
+    public boolean poll() {
+        Long version = jdbcTemplate.queryForObject(SELECT_VERSION, Long.class, ConfigVersion.ID);
+        if (version == null || version == snapshot.getVersion()) {
+            return false;
+        }
+        reload();
+        return true;
+    }
+
+    /**
+     * 重新加载全部配置并替换快照
+     */
+    @Transactional(readOnly = true)
+    public synchronized ConfigSnapshot reload() {
+        // 先读版本号再读数据，期间又有修改时下一次轮询会再加载一次
+        Long version = jdbcTemplate.queryForObject(SELECT_VERSION, Long.class, ConfigVersion.ID);
+        List<User> users = userRepostiory.findByDeleteFlag(EDeleteFlag.NORMAL.getIntegerCode());
+        Map<String, ParamConfig> configs = new HashMap<>();
+        for (ParamConfig config : configRepostiory.findAll()) {
+            if (EDeleteFlag.NORMAL.getIntegerCode().equals(config.getDeleteFlag())) {
+                configs.put(ConfigSnapshot.key(config.getUserId(), config.getCurrency()), config);
+            }
+        }
+        Map<String, OrderNumberIndex> indexes = orderNumberService.compileAll(orderNumberRepostiory.findAll());
+        ConfigSnapshot loaded = new ConfigSnapshot(version == null ? 0 : version, new ArrayList<>(users), configs, indexes);
+        snapshot = loaded;
+        logger.info("交易配置已加载，版本：" + loaded.getVersion() + " 用户：" + users.size() + " 参数配置：" + configs.size());
+        return loaded;
+    }
+
+    /**
+     * 新增或修改用户在某个币种上的参数配置，提交后需要调用{@link #reload()}
+     *
+     * @throws IllegalArgumentException 参数格式错误，见{@link #validate}
+     */
+    @Transactional
+    public ParamConfig saveParamConfig(Long userId, ETradeCurrency currency, ParamConfig config) {
+        validate(config, currency);
+        ParamConfig old = configRepostiory.findOneByUserIdAndCurrencyAndDeleteFlag(userId, currency.getValue(),
+                EDeleteFlag.NORMAL.getIntegerCode());
+        config.setId(old == null ? null : old.getId());
+        config.setUserId(userId);
+        config.setCurrency(currency.getValue());
+        config.setDeleteFlag(EDeleteFlag.NORMAL.getIntegerCode());
+        ParamConfig saved = configRepostiory.save(config);
+        bumpVersion();
+        return saved;
+    }
+
+    /**
+     * 交易循环每轮都会解析的参数，保存前按同样的方式解析一遍，格式错误的配置不写库
+     *
+     * @throws IllegalArgumentException 必填项为空、数值无法解析或指标格式错误
+     */
+    static void validate(ParamConfig config, ETradeCurrency currency) {
+        int scale = currency.getPriceScale();
+        FixedPoint.parse(required(config.getHightBuyDiff(), "hightBuyDiff"), scale);
+        FixedPoint.parse(required(config.getSellBuyDiff(), "sellBuyDiff"), scale);
+        if (!StringUtils.isEmpty(config.getOrderSellPrice())) {
+            FixedPoint.parse(config.getOrderSellPrice(), scale);
+        }
+        if (required(config.getDownBuyEnable(), "downBuyEnable")) {
+            FixedPoint.parse(required(config.getDownBuy(), "downBuy"), scale);
+        } else if (!StringUtils.isEmpty(config.getDownBuy())) {
+            FixedPoint.parse(config.getDownBuy(), scale);
+        }
+        if (required(config.getBuyOverTime(), "buyOverTime") < 0) {
+            throw new IllegalArgumentException("buyOverTime不能小于0");
+        }
+        if (config.getMaxBuyNumber() != null && config.getMaxBuyNumber() < 0) {
+            throw new IllegalArgumentException("maxBuyNumber不能小于0");
+        }
+        if (!StringUtils.isEmpty(config.getBuyBelow())) {
+            IndicatorSpec.parse(config.getBuyBelow());
+        }
+    }
+
+    private static <T> T required(T value, String name) {
+        if (value == null || "".equals(value)) {
+            throw new IllegalArgumentException(name + "不能为空");
+        }
+        return value;
+    }
+
+    /**
+     * 整组替换用户在某个币种上的买单数量配置，提交后需要调用{@link #reload()}
+     *
+     * @throws IllegalArgumentException 区间为空、重叠、不连续或者数值无法解析
+     */
+    @Transactional
+    public List<OrderNumber> saveOrderNumbers(Long userId, ETradeCurrency currency, List<OrderNumber> orderNumbers) {
+        orderNumbers.forEach(orderNumber -> {
+            orderNumber.setId(null);
+            orderNumber.setUserId(userId);
+            orderNumber.setCurrency(currency.getValue());
+        });
+        OrderNumberIndex.compile(orderNumbers);
+        orderNumberRepostiory.delete(orderNumberRepostiory.findByUserIdAndCurrency(userId, currency.getValue()));
+        List<OrderNumber> saved = orderNumberRepostiory.save(orderNumbers);
+        bumpVersion();
+        return saved;
+    }
+
+    /**
+     * 直接改库后通知各节点重新加载
+     */
+    @Transactional
+    public void bumpVersion() {
+        jdbcTemplate.update("update config_version set version = version + 1 where id = ?", ConfigVersion.ID);
+    }
+}
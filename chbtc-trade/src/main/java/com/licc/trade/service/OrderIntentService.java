@@ -0,0 +1,381 @@
+package com.licc.trade.service;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.Resource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.stereotype.Service;
+
+import com.google.common.collect.Lists;
+import com.licc.btc.chbtcapi.enums.ETradeCurrency;
+import com.licc.btc.chbtcapi.enums.ETradeOrderStatus;
+import com.licc.btc.chbtcapi.enums.ETradeOrderType;
+import com.licc.btc.chbtcapi.res.order.GetOrdersRes;
+import com.licc.trade.config.IdBlockSeeder;
+import com.licc.trade.domain.EOrderIntentStatus;
+import com.licc.trade.domain.OrderIntent;
+import com.licc.trade.domain.TradeOrder;
+import com.licc.trade.repostiory.OrderIntentRepostiory;
+import com.licc.trade.repostiory.TradeOrderRepostiory;
+
+/**
+ * 委托意图，保证交易所受理的委托不会因为进程退出而丢失
+ * <p>
+ * 下单前调用{@link #begin}同步写入一行，交易所受理后{@link #accept}记下委托单号并更新订单簿，拒绝时{@link #fail}。
+ * 每次只写一行，各自一个很短的事务，调用交易所接口时不持有任何数据库事务和锁。
+ * <p>
+ * 没有收到响应的委托交易所是否受理未知，由该用户该币种的交易分片在{@link #resolve}中按类型、价格和数量找回：
+ * 先找未成交委托，找不到再找委托时间在意图之后的最近委托，已经全部成交的委托也能找回；两处都找不到的按失败处理。核对前这些委托视为在途：同一用户同一币种不再委托买单，
+ * 同一订单不再委托卖单，见{@link #hasUnresolvedBuy}和{@link #hasUnresolvedSell}。启动时已受理但订单表里还没有的委托补回订单簿，
+ * 订单写入后由{@link #settle()}标记为已完成。撤单和订单状态可以从交易所重新对账，不需要意图记录。
+ *
+ * @author lichangchao
+ * @version 1.0.0
+ * @date 2018/3/31 10:20
+ * @see OrderIntent
+ * @see TradeOrderBook
+ */
+@Service
+@DependsOn(IdBlockSeeder.NAME)
+public class OrderIntentService {
+    private static final int                                MAX_MESSAGE = 255;
+
+    Logger                                                  logger      = LoggerFactory.getLogger(this.getClass());
+    @Resource
+    OrderIntentRepostiory                                   repostiory;
+    @Resource
+    TradeOrderRepostiory                                    tradeOrderRepostiory;
+    @Resource
+    TradeOrderBook                                          tradeOrderBook;
+    // 交易所的未成交委托列表可能稍有延迟，下单后超过这个时间才按列表判断
+    @Value("${trade.order-intent.resolve-after-millis:10000}")
+    long                                                    resolveAfterMillis;
+    // 交易所与本机的时钟误差，在最近委托中找回时委托时间允许比意图早这么多
+    @Value("${trade.order-intent.clock-skew-millis:2000}")
+    long                                                    clockSkewMillis;
+
+    // userId:currency -> 没有收到响应的委托
+    private final ConcurrentMap<String, Queue<OrderIntent>> unresolved  = new ConcurrentHashMap<>();
+
+    /**
+     * 启动时在订单簿加载之后执行，交易分片开始执行之前完成
+     */
+    @PostConstruct
+    public void recover() {
+        List<OrderIntent> intents = repostiory.findByStatusInOrderByIdAsc(
+                Lists.newArrayList(EOrderIntentStatus.PENDING.getKey(), EOrderIntentStatus.ACCEPTED.getKey()));
+        List<String> orderIds = new ArrayList<>();
+        intents.forEach(intent -> {
+            if (intent.getOrderId() != null) {
+                orderIds.add(intent.getOrderId());
+            }
+        });
+        Set<String> persisted = persistedOrderIds(orderIds);
+        List<OrderIntent> settled = new ArrayList<>();
+        int pending = 0;
+        int restored = 0;
+        for (OrderIntent intent : intents) {
+            if (EOrderIntentStatus.PENDING.getKey() == intent.getStatus()) {
+                queue(intent);
+                pending++;
+            } else if (persisted.contains(intent.getOrderId())) {
+                intent.setStatus(EOrderIntentStatus.APPLIED.getKey());
+                settled.add(intent);
+            } else {
+                apply(intent);
+                restored++;
+            }
+        }
+        repostiory.save(settled);
+        logger.info("委托意图恢复：补回订单" + restored + "笔，待核对" + pending + "笔");
+    }
+
+    /**
+     * 下单前同步写入
+     *
+     * @param subtractPrice 买单的差价配置，卖单为null
+     * @param buyOrderId 卖单对应订单的买单号，买单为null
+     */
+    public OrderIntent begin(Long userId, ETradeCurrency currency, ETradeOrderType type, String price, String amount,
+            String subtractPrice, String buyOrderId) {
+        OrderIntent intent = new OrderIntent();
+        intent.setCreateTime(new Date());
+        intent.setUserId(userId);
+        intent.setCurrency(currency.getValue());
+        intent.setType(type.getValue());
+        intent.setPrice(price);
+        intent.setAmount(amount);
+        intent.setSubtractPrice(subtractPrice);
+        intent.setBuyOrderId(buyOrderId);
+        intent.setStatus(EOrderIntentStatus.PENDING.getKey());
+        return repostiory.save(intent);
+    }
+
+    /**
+     * 交易所受理委托，先更新订单簿再记下委托单号
+     * <p>
+     * 记录失败时订单仍由订单簿写入，意图留在待核对状态，下次启动时按未找到处理
+     *
+     * @return 新增或修改的订单，卖单对应的订单已不在订单簿中时返回null
+     */
+    public TradeOrder accept(OrderIntent intent, String orderId) {
+        intent.setOrderId(orderId);
+        intent.setStatus(EOrderIntentStatus.ACCEPTED.getKey());
+        TradeOrder order = apply(intent);
+        try {
+            repostiory.save(intent);
+        } catch (RuntimeException e) {
+            logger.error("委托意图" + intent.getId() + "记录委托单号" + orderId + "失败", e);
+        }
+        return order;
+    }
+
+    /**
+     * 交易所拒绝委托
+     */
+    public void fail(OrderIntent intent, String message) {
+        intent.setStatus(EOrderIntentStatus.FAILED.getKey());
+        intent.setMessage(message != null && message.length() > MAX_MESSAGE ? message.substring(0, MAX_MESSAGE) : message);
+        repostiory.save(intent);
+    }
+
+    /**
+     * 没有收到交易所的响应，留给{@link #resolve}核对
+     */
+    public void unknown(OrderIntent intent) {
+        queue(intent);
+    }
+
+    public boolean hasUnresolved(Long userId, ETradeCurrency currency) {
+        Queue<OrderIntent> queue = unresolved.get(key(userId, currency.getValue()));
+        return queue != null && !queue.isEmpty();
+    }
+
+    /**
+     * 该用户该币种有没有结果未知的买单，有的话交易所可能已经受理，核对前不能再委托买单
+     */
+    public boolean hasUnresolvedBuy(Long userId, ETradeCurrency currency) {
+        Queue<OrderIntent> queue = unresolved.get(key(userId, currency.getValue()));
+        if (queue != null) {
+            for (OrderIntent intent : queue) {
+                if (ETradeOrderType.ORDER_BUY.getValue() == intent.getType()) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 该订单有没有结果未知的卖单，有的话核对前不能再委托卖单
+     *
+     * @param buyOrderId 订单的买单号
+     */
+    public boolean hasUnresolvedSell(Long userId, ETradeCurrency currency, String buyOrderId) {
+        Queue<OrderIntent> queue = unresolved.get(key(userId, currency.getValue()));
+        if (queue != null) {
+            for (OrderIntent intent : queue) {
+                if (ETradeOrderType.ORDER_SELL.getValue() == intent.getType() && buyOrderId.equals(intent.getBuyOrderId())) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 用交易所的未成交委托和最近委托核对没有收到响应的委托，由该用户该币种的交易分片调用
+     *
+     * @param unfinished 委托单号到未成交委托的映射
+     * @param recent 按类型查询最近的委托，未成交委托中找不到时才调用，每种类型最多一次；查询失败返回null，意图留到下次核对
+     */
+    public void resolve(Long userId, ETradeCurrency currency, Map<String, GetOrdersRes> unfinished,
+            Function<ETradeOrderType, List<GetOrdersRes>> recent) {
+        Queue<OrderIntent> queue = unresolved.get(key(userId, currency.getValue()));
+        if (queue == null || queue.isEmpty()) {
+            return;
+        }
+        // 订单簿里已有的委托不能再认领
+        Set<String> known = new HashSet<>();
+        tradeOrderBook.listOpen(userId, currency).forEach(order -> {
+            known.add(order.getBuyOrderId());
+            known.add(order.getSellOrderId());
+        });
+        Map<ETradeOrderType, List<GetOrdersRes>> recentOrders = new EnumMap<>(ETradeOrderType.class);
+        long now = System.currentTimeMillis();
+        Iterator<OrderIntent> it = queue.iterator();
+        while (it.hasNext()) {
+            OrderIntent intent = it.next();
+            if (now - intent.getCreateTime().getTime() < resolveAfterMillis) {
+                continue;
+            }
+            GetOrdersRes match = match(intent, unfinished.values(), known, Long.MIN_VALUE);
+            if (match == null) {
+                // 下单后很快全部成交的委托已经不在未成交委托中
+                ETradeOrderType type = ETradeOrderType.ORDER_BUY.getValue() == intent.getType() ? ETradeOrderType.ORDER_BUY
+                        : ETradeOrderType.ORDER_SELL;
+                if (!recentOrders.containsKey(type)) {
+                    recentOrders.put(type, recent.apply(type));
+                }
+                List<GetOrdersRes> orders = recentOrders.get(type);
+                if (orders == null) {
+                    continue;
+                }
+                match = match(intent, orders, known, intent.getCreateTime().getTime() - clockSkewMillis);
+            }
+            it.remove();
+            if (match != null) {
+                known.add(match.getId());
+                accept(intent, match.getId());
+                logger.warn("委托意图" + intent.getId() + "已找回，委托单号：" + match.getId());
+            } else {
+                fail(intent, "未成交和最近委托中都未找到");
+                logger.warn("委托意图" + intent.getId() + "在未成交和最近委托中都未找到，按委托失败处理：" + describe(intent));
+            }
+        }
+    }
+
+    /**
+     * 订单表里已经有的已受理委托标记为已完成
+     *
+     * @return 本次标记的数量
+     */
+    public int settle() {
+        List<OrderIntent> accepted = repostiory.findTop200ByStatusOrderByIdAsc(EOrderIntentStatus.ACCEPTED.getKey());
+        if (accepted.isEmpty()) {
+            return 0;
+        }
+        List<String> orderIds = new ArrayList<>(accepted.size());
+        accepted.forEach(intent -> orderIds.add(intent.getOrderId()));
+        Set<String> persisted = persistedOrderIds(orderIds);
+        List<OrderIntent> settled = new ArrayList<>();
+        for (OrderIntent intent : accepted) {
+            if (persisted.contains(intent.getOrderId())) {
+                intent.setStatus(EOrderIntentStatus.APPLIED.getKey());
+                settled.add(intent);
+            }
+        }
+        repostiory.save(settled);
+        return settled.size();
+    }
+
+    /**
+     * 把已受理的委托写入订单簿，重复执行结果相同
+     */
+    TradeOrder apply(OrderIntent intent) {
+        List<TradeOrder> open = tradeOrderBook.listOpen(intent.getUserId(), ETradeCurrency.of(intent.getCurrency()));
+        if (ETradeOrderType.ORDER_BUY.getValue() == intent.getType()) {
+            for (TradeOrder order : open) {
+                if (intent.getOrderId().equals(order.getBuyOrderId())) {
+                    return order;
+                }
+            }
+            TradeOrder order = new TradeOrder();
+            order.setBuyNumber(intent.getAmount());
+            order.setBuyPrice(intent.getPrice());
+            order.setBuyOrderId(intent.getOrderId());
+            order.setBuyStatus(ETradeOrderStatus.WAIT.getKey());
+            order.setUserId(intent.getUserId());
+            order.setCreateTime(intent.getCreateTime());
+            order.setBuyFees("0");
+            order.setSubtractPrice(intent.getSubtractPrice());
+            order.setCurrency(intent.getCurrency());
+            order.setSellStatus(ETradeOrderStatus.BUY_SUCCESS_NO_SELL.getKey());
+            tradeOrderBook.save(order);
+            return order;
+        }
+        for (TradeOrder order : open) {
+            if (intent.getBuyOrderId().equals(order.getBuyOrderId())) {
+                if (!intent.getOrderId().equals(order.getSellOrderId())) {
+                    order.setSellOrderId(intent.getOrderId());
+                    order.setSellStatus(ETradeOrderStatus.WAIT.getKey());
+                    order.setSellPrice(intent.getPrice());
+                    order.setBuyFees("0");
+                    tradeOrderBook.save(order);
+                }
+                return order;
+            }
+        }
+        logger.warn("委托意图" + intent.getId() + "对应的订单已不在订单簿中：" + describe(intent));
+        return null;
+    }
+
+    /**
+     * @param after 委托时间不早于这个时间，不限制时为Long.MIN_VALUE
+     */
+    private GetOrdersRes match(OrderIntent intent, Iterable<GetOrdersRes> orders, Set<String> known, long after) {
+        for (GetOrdersRes res : orders) {
+            if (!known.contains(res.getId()) && String.valueOf(intent.getType()).equals(res.getType())
+                    && sameNumber(intent.getPrice(), res.getPrice()) && sameNumber(intent.getAmount(), res.getTotal_amount())
+                    && (after == Long.MIN_VALUE || tradeDate(res) >= after)) {
+                return res;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 委托时间，毫秒；格式错误时返回Long.MIN_VALUE
+     */
+    private static long tradeDate(GetOrdersRes res) {
+        try {
+            return Long.parseLong(res.getTrade_date());
+        } catch (NumberFormatException e) {
+            return Long.MIN_VALUE;
+        }
+    }
+
+    private Set<String> persistedOrderIds(List<String> orderIds) {
+        Set<String> persisted = new HashSet<>();
+        if (orderIds.isEmpty()) {
+            return persisted;
+        }
+        for (TradeOrder order : tradeOrderRepostiory.findByBuyOrderIdInOrSellOrderIdIn(orderIds, orderIds)) {
+            persisted.add(order.getBuyOrderId());
+            persisted.add(order.getSellOrderId());
+        }
+        return persisted;
+    }
+
+    private void queue(OrderIntent intent) {
+        unresolved.computeIfAbsent(key(intent.getUserId(), intent.getCurrency()), k -> new ConcurrentLinkedQueue<>()).add(intent);
+    }
+
+    private static String key(Long userId, String currency) {
+        return userId + ":" + currency;
+    }
+
+    private static boolean sameNumber(String a, String b) {
+        if (a == null || b == null) {
+            return false;
+        }
+        try {
+            return new BigDecimal(a).compareTo(new BigDecimal(b)) == 0;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    private static String describe(OrderIntent intent) {
+        return "用户" + intent.getUserId() + " 币种" + intent.getCurrency() + " 类型" + intent.getType() + " 价格" + intent.getPrice()
+                + " 数量" + intent.getAmount();
+    }
+}
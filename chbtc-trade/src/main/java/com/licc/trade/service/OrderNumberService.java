@@ -1,22 +1,96 @@
 package com.licc.trade.service;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 
 import javax.annotation.Resource;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.licc.trade.domain.OrderNumber;
 import com.licc.trade.repostiory.OrderNumberRepostiory;
+import com.licc.trade.util.OrderNumberIndex;
 
 @Service
 @Transactional
 public class OrderNumberService {
+    Logger                                     logger  = LoggerFactory.getLogger(this.getClass());
     @Resource
-    OrderNumberRepostiory repostiory;
+    OrderNumberRepostiory                      repostiory;
+
+    // userId:currency -> 上次编译的区间索引和配置签名
+    private final Map<String, Entry>           indexes = new HashMap<>();
 
     public List<OrderNumber> listByUserIdAndCurrency(Long userId, String currency) {
         return repostiory.findByUserIdAndCurrency(userId, currency);
     }
+
+    /**
+     * 按userId:currency分组编译全部买单数量配置，内容没有变化的组沿用上次编译的结果
+     *
+     * @param all order_number表的全部记录
+     * @return 配置不合法的组不放入
+     */
+    public synchronized Map<String, OrderNumberIndex> compileAll(List<OrderNumber> all) {
+        Map<String, List<OrderNumber>> groups = new HashMap<>();
+        for (OrderNumber orderNumber : all) {
+            groups.computeIfAbsent(key(orderNumber.getUserId(), orderNumber.getCurrency()), k -> new ArrayList<>()).add(orderNumber);
+        }
+        // 配置被删光的组不再保留
+        indexes.keySet().retainAll(groups.keySet());
+        Map<String, OrderNumberIndex> compiled = new HashMap<>();
+        groups.forEach((key, list) -> {
+            Entry entry = indexes.get(key);
+            if (entry == null || entry.signature != signature(list)) {
+                entry = compile(key, list);
+                indexes.put(key, entry);
+            }
+            if (entry.index != null) {
+                compiled.put(key, entry.index);
+            }
+        });
+        return compiled;
+    }
+
+    private Entry compile(String key, List<OrderNumber> list) {
+        OrderNumberIndex index = null;
+        try {
+            index = OrderNumberIndex.compile(list);
+            logger.info("买单数量配置 " + key + " 已重建，区间数：" + index.size());
+        } catch (RuntimeException e) {
+            // 区间重叠、不连续或者数值无法解析，这组配置不参与买入，修正后下次刷新自动恢复
+            logger.error("买单数量配置 " + key + " 不合法：" + e.getMessage());
+        }
+        return new Entry(index, signature(list));
+    }
+
+    private static long signature(List<OrderNumber> list) {
+        long signature = list.size();
+        for (OrderNumber o : list) {
+            // 与顺序无关，同一组配置查出来的顺序可能不同
+            signature += Objects.hash(o.getId(), o.getOrderNumber(), o.getHightBuyStart(), o.getHightBuyEnd(), o.getSubtractPrice())
+                    * 0x9E3779B97F4A7C15L;
+        }
+        return signature;
+    }
+
+    private static String key(Long userId, String currency) {
+        return userId + ":" + currency;
+    }
+
+    private static class Entry {
+        final OrderNumberIndex index;
+        final long             signature;
+
+        Entry(OrderNumberIndex index, long signature) {
+            this.index = index;
+            this.signature = signature;
+        }
+    }
 }
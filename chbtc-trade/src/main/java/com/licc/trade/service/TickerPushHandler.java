@@ -0,0 +1,87 @@
+package com.licc.trade.service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.annotation.Resource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.licc.btc.chbtcapi.enums.ETradeCurrency;
+import com.licc.btc.chbtcapi.res.ticker.TickerApiRes;
+import com.licc.btc.chbtcapi.ws.MarketDataClient;
+import com.licc.trade.market.MarketDataHub;
+
+/**
+ * 收到行情推送后立即发布到{@link MarketDataHub}，由行情监听者执行交易逻辑和记录行情
+ * <p>
+ * 推送在单独的线程中处理，处理期间到达的行情只保留每个币种最新的一条。
+ * 推送连接可用时定时任务不再轮询行情，连接断开或该币种的推送中断超过{@code staleMillis}后恢复轮询该币种，
+ * 各币种分别判断，一个活跃的币种不会让其它已经没有推送的币种停止轮询。
+ *
+ * @author lichangchao
+ * @version 1.0.0
+ * @date 2018/3/16 17:20
+ * @see MarketDataClient
+ */
+@Service
+public class TickerPushHandler {
+    Logger                                          logger   = LoggerFactory.getLogger(this.getClass());
+    @Autowired(required = false)
+    MarketDataClient                                marketDataClient;
+    @Resource
+    MarketDataHub                                   marketDataHub;
+    // 超过该时间没有收到推送时认为推送已中断
+    @Value("${chbtc.market-data.stale-millis:5000}")
+    long                                            staleMillis;
+
+    private final Map<ETradeCurrency, TickerApiRes> latest   = new ConcurrentHashMap<>();
+    private final ExecutorService                   executor = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "ticker-push");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @PostConstruct
+    public void start() {
+        if (marketDataClient == null) {
+            return;
+        }
+        marketDataClient.addListener((tradeCurrency, tickerApiRes) -> {
+            // 已有待处理的行情时只替换为最新的，不重复提交
+            if (latest.put(tradeCurrency, tickerApiRes) == null) {
+                executor.execute(() -> onTicker(tradeCurrency));
+            }
+        });
+        for (ETradeCurrency tradeCurrency : ETradeCurrency.values()) {
+            marketDataClient.subscribe(tradeCurrency);
+        }
+        marketDataClient.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * 该币种的行情推送是否可用，按该币种频道最后一次推送的时间判断
+     */
+    public boolean isLive(ETradeCurrency tradeCurrency) {
+        return marketDataClient != null && marketDataClient.isConnected()
+                && System.currentTimeMillis() - marketDataClient.getLastMessageMillis(tradeCurrency) < staleMillis;
+    }
+
+    private void onTicker(ETradeCurrency tradeCurrency) {
+        // 推送和轮询发布到同一个汇总，比已发布行情早的丢弃
+        marketDataHub.publish(tradeCurrency, latest.remove(tradeCurrency));
+    }
+}
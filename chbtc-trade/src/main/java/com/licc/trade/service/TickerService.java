@@ -1,48 +1,96 @@
 package com.licc.trade.service;
 
-import com.licc.btc.chbtcapi.ChbtcApi;
+import com.licc.btc.chbtcapi.ChbtcClient;
 import com.licc.btc.chbtcapi.enums.ETradeCurrency;
 import com.licc.btc.chbtcapi.res.ticker.TickerApiRes;
+import com.licc.btc.chbtcapi.res.ticker.TickerRes;
 import com.licc.btc.chbtcapi.util.BeanMapper;
+import com.licc.trade.candle.CandleAggregator;
 import com.licc.trade.domain.Ticker;
+import com.licc.trade.store.Tick;
+import com.licc.trade.store.TickStore;
 import com.licc.trade.util.TimeUtil;
+import java.io.IOException;
 import java.util.Date;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 import javax.annotation.Resource;
-import javax.transaction.Transactional;
 
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
-import com.licc.trade.repostiory.TickerRepostiory;
-
 /**
  *
  *获取交易行情记录
+ * <p>
+ * 每个币种只和内存中上一次记录的行情比较，有变化才交给{@link TickerWriter}异步批量写入，采集过程不访问数据库。
+ * 同时更新内存中的K线{@link CandleAggregator}，启用本地行情存储时追加到{@link TickStore}。
  * @author lichangchao
  * @version 1.0.0
  * @date 2017/6/19 9:44
  * @see
  */
 @Service
-@Transactional
 public class TickerService {
   @Resource
-  TickerRepostiory repostiory;
+  TickerWriter tickerWriter;
+  @Resource
+  ChbtcClient chbtcClient;
+  @Autowired(required = false)
+  TickStore tickStore;
+  @Resource
+  CandleAggregator candleAggregator;
 
+  // 每个币种上一次记录的行情
+  private final Map<ETradeCurrency, TickerRes> lastSeen = new ConcurrentHashMap<>();
 
   public void excute(ETradeCurrency tradeCurrency){
     // 查询当前行情数据
-    TickerApiRes tickerApiRes = ChbtcApi.ticker(tradeCurrency);
-    if(tickerApiRes!=null) {
-     Ticker ticker = BeanMapper.map(tickerApiRes.getTicker(),Ticker.class);
-      ticker.setCurrency(tradeCurrency.getValue());
-      ticker.setCreateTime(new Date());
-      ticker.setTimeLong(tickerApiRes.getDate());
-      ticker.setTimeDate(TimeUtil.longToTime(tickerApiRes.getDate()));
-      Long count = repostiory.countByCurrencyAndBuyAndSellAndHighAndLowAndLastAndVol(tradeCurrency.getValue(),ticker.getBuy(),ticker.getSell(),ticker.getHigh(),ticker.getLow(),ticker.getLast(),ticker.getVol());
-      if(count==0) {
-        repostiory.save(ticker);
+    record(tradeCurrency, chbtcClient.ticker(tradeCurrency));
+  }
+
+  /**
+   * 记录一条行情，与该币种上一次记录的相同时忽略
+   *
+   * @return 是否提交写入
+   */
+  public boolean record(ETradeCurrency tradeCurrency, TickerApiRes tickerApiRes){
+    if(tickerApiRes==null || tickerApiRes.getTicker()==null) {
+      return false;
+    }
+    TickerRes current = tickerApiRes.getTicker();
+    boolean[] changed = new boolean[1];
+    // 同一币种的请求可能并发返回，比较和替换需要原子进行
+    lastSeen.compute(tradeCurrency, (currency, last) -> {
+      changed[0] = last == null || !same(last, current);
+      return changed[0] ? current : last;
+    });
+    if(!changed[0]) {
+      return false;
+    }
+    // 定点小数的行情只解析一次，K线和本地存储共用
+    Tick tick = tickerApiRes.getDate()==null ? null : Tick.of(tradeCurrency, tickerApiRes.getDate(), current);
+    if(tick!=null) {
+      candleAggregator.onTick(tradeCurrency, tick);
+      if(tickStore!=null) {
+        try {
+          tickStore.append(tradeCurrency, tick);
+        } catch (IOException e) {
+          e.printStackTrace();
+        }
       }
     }
+    Ticker ticker = BeanMapper.map(current,Ticker.class);
+    ticker.setCurrency(tradeCurrency.getValue());
+    ticker.setCreateTime(new Date());
+    ticker.setTimeLong(tickerApiRes.getDate());
+    ticker.setTimeDate(TimeUtil.longToTime(tickerApiRes.getDate()));
+    return tickerWriter.offer(ticker);
+  }
 
+  private static boolean same(TickerRes a, TickerRes b) {
+    return Objects.equals(a.getBuy(), b.getBuy()) && Objects.equals(a.getSell(), b.getSell()) && Objects.equals(a.getLast(), b.getLast())
+        && Objects.equals(a.getHigh(), b.getHigh()) && Objects.equals(a.getLow(), b.getLow()) && Objects.equals(a.getVol(), b.getVol());
   }
 }
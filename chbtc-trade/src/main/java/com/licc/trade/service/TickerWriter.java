@@ -0,0 +1,125 @@
+package com.licc.trade.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.annotation.Resource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.stereotype.Service;
+
+import com.licc.trade.config.IdBlockSeeder;
+import com.licc.trade.domain.Ticker;
+import com.licc.trade.repostiory.TickerRepostiory;
+
+/**
+ * 行情记录的异步批量写入
+ * <p>
+ * 采集线程只把行情放进有界队列，队列满时直接丢弃并计数，不会阻塞交易循环；
+ * 单独的写线程每次取出最多{@code batchSize}条，在一个事务内批量插入ticker表。
+ *
+ * @author lichangchao
+ * @version 1.0.0
+ * @date 2018/3/23 14:30
+ * @see TickerService
+ */
+@Service
+@DependsOn(IdBlockSeeder.NAME)
+public class TickerWriter {
+    Logger                        logger  = LoggerFactory.getLogger(this.getClass());
+    @Resource
+    TickerRepostiory              repostiory;
+    @Value("${trade.ticker.queue-capacity:10000}")
+    int                           queueCapacity;
+    @Value("${trade.ticker.batch-size:200}")
+    int                           batchSize;
+
+    private final AtomicLong      dropped = new AtomicLong();
+    private final AtomicLong      written = new AtomicLong();
+    private BlockingQueue<Ticker> queue;
+    private Thread                thread;
+    private volatile boolean      running;
+
+    @PostConstruct
+    public void start() {
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        running = true;
+        thread = new Thread(this::run, "ticker-writer");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        thread.interrupt();
+        thread.join(TimeUnit.SECONDS.toMillis(5));
+    }
+
+    /**
+     * 提交一条行情等待写入
+     *
+     * @return 队列已满被丢弃时返回false
+     */
+    public boolean offer(Ticker ticker) {
+        if (queue.offer(ticker)) {
+            return true;
+        }
+        dropped.incrementAndGet();
+        return false;
+    }
+
+    public long getDropped() {
+        return dropped.get();
+    }
+
+    public long getWritten() {
+        return written.get();
+    }
+
+    public int getPending() {
+        return queue.size();
+    }
+
+    private void run() {
+        List<Ticker> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                Ticker first = queue.poll(1, TimeUnit.SECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+            } catch (InterruptedException e) {
+                // 停止时把队列里剩下的写完再退出
+                queue.drainTo(batch, batchSize);
+            }
+            if (!batch.isEmpty()) {
+                write(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    private void write(List<Ticker> batch) {
+        try {
+            // 一个事务内保存整批，主键按块预先分配，hibernate按jdbc.batch_size合并成批量插入
+            repostiory.save(batch);
+            written.addAndGet(batch.size());
+        } catch (RuntimeException e) {
+            // 行情记录只用于分析，写失败丢弃这一批，不重试
+            dropped.addAndGet(batch.size());
+            logger.error("批量写入行情失败，丢弃" + batch.size() + "条", e);
+        }
+    }
+}
@@ -0,0 +1,299 @@
+package com.licc.trade.service;
+
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.annotation.Resource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.stereotype.Service;
+
+import com.google.common.collect.Lists;
+import com.licc.btc.chbtcapi.enums.ETradeCurrency;
+import com.licc.btc.chbtcapi.enums.ETradeOrderStatus;
+import com.licc.trade.config.IdBlockSeeder;
+import com.licc.trade.domain.TradeOrder;
+import com.licc.trade.repostiory.TradeOrderRepostiory;
+
+/**
+ * 内存中的未完成订单簿，按用户和币种分组
+ * <p>
+ * 启动时从trade_order表加载全部未完成订单，之后以内存为准：交易循环读取未完成订单、待成交买单、买入成功未卖出的订单、
+ * 未完成数量和最后委托价都不访问数据库。订单变化后调用{@link #save(TradeOrder)}，在调用线程上复制一份快照，
+ * 同一订单未写入的快照只保留最新的一份，写线程每隔{@code flushMillis}批量保存；写失败的快照放回队列下次重试。
+ * <p>
+ * 买单取消或委托失败、卖单成交或取消后订单从簿中移除。同一用户同一币种的订单只应由一个线程修改。
+ *
+ * @author lichangchao
+ * @version 1.0.0
+ * @date 2018/3/27 10:20
+ * @see TradeService
+ */
+@Service
+@DependsOn(IdBlockSeeder.NAME)
+public class TradeOrderBook {
+    Logger                                     logger  = LoggerFactory.getLogger(this.getClass());
+    @Resource
+    TradeOrderRepostiory                       repostiory;
+    @Value("${trade.order-book.flush-millis:500}")
+    long                                       flushMillis;
+    @Value("${trade.order-book.batch-size:200}")
+    int                                        batchSize;
+
+    // userId:currency -> 该用户该币种的未完成订单
+    private final ConcurrentMap<String, Group> groups  = new ConcurrentHashMap<>();
+    // 原订单 -> 等待写入的最新快照，按提交顺序写入
+    private final Map<TradeOrder, TradeOrder>  dirty   = new LinkedHashMap<>();
+    private final AtomicLong                   written = new AtomicLong();
+    private final AtomicLong                   failed  = new AtomicLong();
+    private Thread                             thread;
+    private volatile boolean                   running;
+
+    @PostConstruct
+    public void start() {
+        load(repostiory.findByBuyStatusNotInAndSellStatusNotIn(
+                Lists.newArrayList(ETradeOrderStatus.CANCEL.getKey(), ETradeOrderStatus.FAIL.getKey()),
+                Lists.newArrayList(ETradeOrderStatus.SUCCESS.getKey(), ETradeOrderStatus.CANCEL.getKey())));
+        running = true;
+        thread = new Thread(this::run, "order-book-writer");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        thread.interrupt();
+        thread.join(TimeUnit.SECONDS.toMillis(10));
+    }
+
+    void load(List<TradeOrder> orders) {
+        // 主键按块分配，同一用户同一币种内按主键大致就是下单顺序
+        orders.sort(Comparator.comparing(TradeOrder::getId));
+        for (TradeOrder order : orders) {
+            if (!isOpen(order)) {
+                continue;
+            }
+            group(order.getUserId(), order.getCurrency()).open.add(order);
+        }
+        groups.values().forEach(Group::reindex);
+        logger.info("加载未完成订单" + orders.size() + "笔，用户币种" + groups.size() + "组");
+    }
+
+    /**
+     * 新增或修改订单后调用，更新内存索引并提交异步写入
+     */
+    public void save(TradeOrder order) {
+        Group group = group(order.getUserId(), order.getCurrency());
+        synchronized (group) {
+            group.update(order);
+            // 原订单的主键由写线程回填，快照在同一把锁下复制
+            synchronized (dirty) {
+                dirty.put(order, snapshot(order));
+            }
+        }
+    }
+
+    /**
+     * 未完成订单，按下单顺序
+     */
+    public List<TradeOrder> listOpen(Long userId, ETradeCurrency currency) {
+        Group group = group(userId, currency.getValue());
+        synchronized (group) {
+            return new ArrayList<>(group.open);
+        }
+    }
+
+    /**
+     * 买单待成交的订单
+     */
+    public List<TradeOrder> listBuying(Long userId, ETradeCurrency currency) {
+        Group group = group(userId, currency.getValue());
+        synchronized (group) {
+            return new ArrayList<>(group.buying);
+        }
+    }
+
+    /**
+     * 买单成交但还没有委托卖单的订单
+     */
+    public List<TradeOrder> listBoughtNotSold(Long userId, ETradeCurrency currency) {
+        Group group = group(userId, currency.getValue());
+        synchronized (group) {
+            return new ArrayList<>(group.boughtNotSold);
+        }
+    }
+
+    public int countOpen(Long userId, ETradeCurrency currency) {
+        Group group = group(userId, currency.getValue());
+        synchronized (group) {
+            return group.open.size();
+        }
+    }
+
+    /**
+     * 最后一笔未完成订单的买入价
+     *
+     * @return 没有未完成订单时返回null
+     */
+    public String getLastBuyPrice(Long userId, ETradeCurrency currency) {
+        Group group = group(userId, currency.getValue());
+        synchronized (group) {
+            return group.open.isEmpty() ? null : group.open.get(group.open.size() - 1).getBuyPrice();
+        }
+    }
+
+    public long getWritten() {
+        return written.get();
+    }
+
+    public long getFailed() {
+        return failed.get();
+    }
+
+    public int getPending() {
+        synchronized (dirty) {
+            return dirty.size();
+        }
+    }
+
+    private void run() {
+        while (running) {
+            try {
+                Thread.sleep(flushMillis);
+            } catch (InterruptedException e) {
+                // 停止时把剩下的写完再退出
+            }
+            flush();
+        }
+    }
+
+    /**
+     * 把等待写入的快照全部写入，失败的留到下次
+     */
+    void flush() {
+        while (true) {
+            List<Map.Entry<TradeOrder, TradeOrder>> batch = new ArrayList<>(batchSize);
+            synchronized (dirty) {
+                Iterator<Map.Entry<TradeOrder, TradeOrder>> it = dirty.entrySet().iterator();
+                while (it.hasNext() && batch.size() < batchSize) {
+                    batch.add(new AbstractMap.SimpleEntry<>(it.next()));
+                    it.remove();
+                }
+            }
+            if (batch.isEmpty() || !write(batch)) {
+                return;
+            }
+        }
+    }
+
+    private boolean write(List<Map.Entry<TradeOrder, TradeOrder>> batch) {
+        List<TradeOrder> snapshots = new ArrayList<>(batch.size());
+        batch.forEach(entry -> snapshots.add(entry.getValue()));
+        List<TradeOrder> saved;
+        try {
+            // 一个事务内保存整批，新订单的主键按块预先分配，hibernate按jdbc.batch_size合并成批量语句
+            saved = repostiory.save(snapshots);
+        } catch (RuntimeException e) {
+            failed.addAndGet(batch.size());
+            logger.error("批量保存订单失败，" + batch.size() + "笔留待重试", e);
+            synchronized (dirty) {
+                // 期间又有修改的以新快照为准
+                batch.forEach(entry -> dirty.putIfAbsent(entry.getKey(), entry.getValue()));
+            }
+            return false;
+        }
+        written.addAndGet(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            TradeOrder order = batch.get(i).getKey();
+            Long id = saved.get(i).getId();
+            Group group = group(order.getUserId(), order.getCurrency());
+            synchronized (group) {
+                order.setId(id);
+                synchronized (dirty) {
+                    // 新订单插入期间又有修改，后续快照按更新写入，不能再插入一次
+                    TradeOrder newer = dirty.get(order);
+                    if (newer != null) {
+                        newer.setId(id);
+                    }
+                }
+            }
+        }
+        return true;
+    }
+
+    private Group group(Long userId, String currency) {
+        return groups.computeIfAbsent(userId + ":" + currency, k -> new Group());
+    }
+
+    static boolean isOpen(TradeOrder order) {
+        int buyStatus = order.getBuyStatus();
+        int sellStatus = order.getSellStatus();
+        return buyStatus != ETradeOrderStatus.CANCEL.getKey() && buyStatus != ETradeOrderStatus.FAIL.getKey()
+                && sellStatus != ETradeOrderStatus.SUCCESS.getKey()
+                && sellStatus != ETradeOrderStatus.CANCEL.getKey();
+    }
+
+    private static TradeOrder snapshot(TradeOrder order) {
+        TradeOrder copy = new TradeOrder();
+        copy.setId(order.getId());
+        copy.setCreateTime(order.getCreateTime());
+        copy.setCurrency(order.getCurrency());
+        copy.setBuyNumber(order.getBuyNumber());
+        copy.setBuyOrderId(order.getBuyOrderId());
+        copy.setBuyPrice(order.getBuyPrice());
+        copy.setBuyFees(order.getBuyFees());
+        copy.setBuyStatus(order.getBuyStatus());
+        copy.setSellOrderId(order.getSellOrderId());
+        copy.setSellPrice(order.getSellPrice());
+        copy.setSellFees(order.getSellFees());
+        copy.setSellStatus(order.getSellStatus());
+        copy.setUserId(order.getUserId());
+        copy.setSubtractPrice(order.getSubtractPrice());
+        return copy;
+    }
+
+    private static class Group {
+        // 未完成订单按下单顺序，每组最多为最大委托笔数，线性查找和重建即可
+        final List<TradeOrder> open          = new ArrayList<>();
+        final List<TradeOrder> buying        = new ArrayList<>();
+        final List<TradeOrder> boughtNotSold = new ArrayList<>();
+
+        void update(TradeOrder order) {
+            if (!isOpen(order)) {
+                open.remove(order);
+            } else if (!open.contains(order)) {
+                open.add(order);
+            }
+            reindex();
+        }
+
+        void reindex() {
+            buying.clear();
+            boughtNotSold.clear();
+            for (TradeOrder order : open) {
+                int buyStatus = order.getBuyStatus();
+                if (buyStatus == ETradeOrderStatus.WAIT.getKey() || buyStatus == ETradeOrderStatus.WAIT_NO.getKey()) {
+                    buying.add(order);
+                } else if (buyStatus == ETradeOrderStatus.SUCCESS.getKey()
+                        && order.getSellStatus() == ETradeOrderStatus.BUY_SUCCESS_NO_SELL.getKey()) {
+                    boughtNotSold.add(order);
+                }
+            }
+        }
+    }
+}
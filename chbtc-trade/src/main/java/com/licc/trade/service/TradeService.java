@@ -1,41 +1,53 @@
 package com.licc.trade.service;
 
-import com.licc.btc.chbtcapi.ChbtcApi;
-import java.util.Date;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import javax.annotation.Resource;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Isolation;
-import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.CollectionUtils;
 import org.springframework.util.StringUtils;
 
-import com.google.common.collect.Lists;
-import com.licc.btc.chbtcapi.enums.EDeleteFlag;
+import com.licc.btc.chbtcapi.ChbtcClient;
+import com.licc.btc.chbtcapi.Consts;
+import com.licc.btc.chbtcapi.RequestNotSentException;
+import com.licc.btc.chbtcapi.enums.ERequestPriority;
 import com.licc.btc.chbtcapi.enums.ETradeCurrency;
 import com.licc.btc.chbtcapi.enums.ETradeOrderStatus;
 import com.licc.btc.chbtcapi.enums.ETradeOrderType;
 import com.licc.btc.chbtcapi.enums.ETradeResStatus;
 import com.licc.btc.chbtcapi.req.CancelOrderReq;
 import com.licc.btc.chbtcapi.req.GetOrderReq;
+import com.licc.btc.chbtcapi.req.GetOrdersNewReq;
+import com.licc.btc.chbtcapi.req.GetUnfinishedOrdersReq;
 import com.licc.btc.chbtcapi.req.OrderReq;
+import com.licc.btc.chbtcapi.res.order.CancelOrderRes;
 import com.licc.btc.chbtcapi.res.order.GetOrderRes;
+import com.licc.btc.chbtcapi.res.order.GetOrdersRes;
 import com.licc.btc.chbtcapi.res.order.OrderRes;
-import com.licc.btc.chbtcapi.res.ticker.TickerApiRes;
-import com.licc.trade.domain.OrderNumber;
+import com.licc.btc.chbtcapi.res.ticker.FixedTicker;
+import com.licc.btc.chbtcapi.util.FixedPoint;
+import com.licc.trade.domain.OrderIntent;
 import com.licc.trade.domain.ParamConfig;
 import com.licc.trade.domain.TradeOrder;
 import com.licc.trade.domain.User;
-import com.licc.trade.repostiory.ParamConfigRepostiory;
-import com.licc.trade.repostiory.TradeOrderRepostiory;
+import com.licc.trade.indicator.IndicatorEngine;
+import com.licc.trade.market.MarketDataHub;
+import com.licc.trade.util.OrderNumberIndex;
 import com.licc.trade.util.TradeUtil;
 
 /**
  * 自动买卖订单主逻辑
+ * <p>
+ * 不开启数据库事务：订单和配置都从内存读取，订单变化由{@link TradeOrderBook}异步写入，只有下单前后的委托意图同步写库，
+ * 各自一个短事务，调用交易所接口期间不持有数据库连接和锁。
  *
  * @author lichangchao
  * @version 1.0.0
@@ -43,19 +55,26 @@ import com.licc.trade.util.TradeUtil;
  * @see
  */
 @Service
-@Transactional(isolation = Isolation.SERIALIZABLE)
 public class TradeService {
-    Logger                logger = LoggerFactory.getLogger(this.getClass());
+    // 找回没有收到响应的委托时查询的最近委托数量，一页
+    private static final int RECENT_ORDERS = 100;
+
+    Logger                   logger        = LoggerFactory.getLogger(this.getClass());
     @Resource
-    ParamConfigRepostiory configRepostiory;
+    ChbtcClient              chbtcClient;
     @Resource
-    TradeOrderRepostiory  tradeOrderRepostiory;
-
-
+    ConfigSnapshotService    configSnapshotService;
+    @Resource
+    TradeOrderBook           tradeOrderBook;
+    @Resource
+    OrderIntentService       orderIntentService;
     @Resource
-    OrderNumberService    orderNumberService;
+    IndicatorEngine          indicatorEngine;
     @Resource
-    TradeOrderService     tradeOrderService;
+    MarketDataHub            marketDataHub;
+    // 更新订单状态时先批量拉取未成交订单对账，关闭后逐笔查询
+    @Value("${trade.order-status.sweep:true}")
+    boolean                  orderStatusSweep;
 
     /**
      * @param tradeCurrency 币种类型
@@ -64,32 +83,67 @@ public class TradeService {
 
     public void execute(ETradeCurrency tradeCurrency, User user) {
         // 根据币种和用户查询配置信息
-        ParamConfig config = configRepostiory.findOneByUserIdAndCurrencyAndDeleteFlag(user.getId(), tradeCurrency.getValue(),
-                EDeleteFlag.NORMAL.getIntegerCode());
+        ParamConfig config = configSnapshotService.current().getParamConfig(user.getId(), tradeCurrency);
         if (config == null) {
             logger.info("用户：" + user.getUserName() + " 币种：" + tradeCurrency.getValue() + "当前配置为空 请检查配置 ");
             return;
         }
-        // 查询当前行情数据
-        TickerApiRes tickerApiRes = ChbtcApi.ticker(tradeCurrency);
-        if (tickerApiRes == null)
+        // 读取所有用户共用的最新行情，不再逐个用户请求行情接口
+        FixedTicker ticker = marketDataHub.current().get(tradeCurrency);
+        if (ticker == null) {
+            logger.info("币种：" + tradeCurrency.getValue() + "还没有收到行情");
             return;
+        }
+        execute(tradeCurrency, user, config, ticker);
+    }
 
-        // 更新当前订单状态
-        updateOrderStatus(tradeCurrency, user);
-        // 买入委托订单
-        buyOrder(tradeCurrency, user, config, tickerApiRes);
-        // 卖出委托订单
-        sellOrder(tradeCurrency, user, config, tickerApiRes);
-        // 取消超时订单
-        cancelOverTimeOrder(tradeCurrency, user, config);
+    /**
+     * 使用推送的行情执行，不再查询行情接口
+     *
+     * @param tradeCurrency 币种类型
+     * @param user 用户
+     * @param ticker 解析好的行情数据
+     */
+    public void execute(ETradeCurrency tradeCurrency, User user, FixedTicker ticker) {
+        ParamConfig config = configSnapshotService.current().getParamConfig(user.getId(), tradeCurrency);
+        if (config == null) {
+            logger.info("用户：" + user.getUserName() + " 币种：" + tradeCurrency.getValue() + "当前配置为空 请检查配置 ");
+            return;
+        }
+        execute(tradeCurrency, user, config, ticker);
+    }
+
+    void execute(ETradeCurrency tradeCurrency, User user, ParamConfig config, FixedTicker ticker) {
+        // 更新当前订单状态，请求配额紧张时跳过本轮对账，留给卖单和撤单
+        String statusEndpoint = orderStatusSweep ? Consts.Chbtc_Unfinished_Orders : Consts.Chbtc_Trade_GetOrder;
+        if (chbtcClient.isCircuitOpen(statusEndpoint)) {
+            logger.info("用户：" + user.getUserName() + " 币种：" + tradeCurrency.getValue() + statusEndpoint + "接口熔断中，跳过订单状态更新");
+        } else if (chbtcClient.hasBudget(user.getAccessKey(), ERequestPriority.QUERY)) {
+            updateOrderStatus(tradeCurrency, user);
+        } else {
+            logger.info("用户：" + user.getUserName() + " 币种：" + tradeCurrency.getValue() + "请求配额不足，跳过订单状态更新");
+        }
+        if (chbtcClient.isCircuitOpen(Consts.Chbtc_Trade_Order)) {
+            logger.info("用户：" + user.getUserName() + " 币种：" + tradeCurrency.getValue() + "下单接口熔断中，跳过买卖委托");
+        } else {
+            // 买入委托订单
+            if (chbtcClient.hasBudget(user.getAccessKey(), ERequestPriority.BUY)) {
+                buyOrder(tradeCurrency, user, config, ticker);
+            } else {
+                logger.info("用户：" + user.getUserName() + " 币种：" + tradeCurrency.getValue() + "请求配额不足，跳过买入委托");
+            }
+            // 卖出委托订单
+            sellOrder(tradeCurrency, user, config, ticker);
+        }
+        // 取消超时订单，撤单接口熔断时不能把订单标记为已取消
+        if (!chbtcClient.isCircuitOpen(Consts.Chbtc_Trade_CancelOrder)) {
+            cancelOverTimeOrder(tradeCurrency, user, config);
+        }
     }
 
     // 取消超时买入订单
     void cancelOverTimeOrder(ETradeCurrency tradeCurrency, User user, ParamConfig config) {
-        List<Integer> buyStatusList = Lists.newArrayList(ETradeOrderStatus.WAIT.getKey(), ETradeOrderStatus.WAIT_NO.getKey());
-        List<TradeOrder> tradeOrderList = tradeOrderRepostiory.findByUserIdAndCurrencyAndBuyStatusIn(user.getId(), tradeCurrency.getValue(),
-                buyStatusList);
+        List<TradeOrder> tradeOrderList = tradeOrderBook.listBuying(user.getId(), tradeCurrency);
         if (CollectionUtils.isEmpty(tradeOrderList))
             return;
         tradeOrderList.forEach(tradeOrder -> {
@@ -102,10 +156,16 @@ public class TradeService {
                 cancelOrderReq.setTradeCurrency(tradeCurrency);
                 cancelOrderReq.setAccessKey(user.getAccessKey());
                 cancelOrderReq.setSecretKey(user.getSecretKey());
-                ChbtcApi.cancelOrder(cancelOrderReq);
+                CancelOrderRes cancelOrderRes = chbtcClient.cancelOrder(cancelOrderReq);
+                // 请求失败、等待配额超时或熔断时交易所的委托可能还在，留给下一轮撤单或对账
+                if (cancelOrderRes == null || !ETradeResStatus.SUCCESS.getKey().equals(cancelOrderRes.getCode())) {
+                    logger.info("买单" + tradeOrder.getBuyOrderId() + "撤单失败："
+                            + (cancelOrderRes == null ? "无响应" : cancelOrderRes.getMessage()));
+                    return;
+                }
                 tradeOrder.setBuyStatus(ETradeOrderStatus.CANCEL.getKey());
                 tradeOrder.setSellStatus(ETradeOrderStatus.CANCEL.getKey());
-                tradeOrderService.save(tradeOrder);
+                tradeOrderBook.save(tradeOrder);
             }
 
         });
@@ -113,17 +173,30 @@ public class TradeService {
     }
 
     void updateOrderStatus(ETradeCurrency tradeCurrency, User user) {
-
-        List<Integer> buyStatus = Lists.newArrayList(ETradeOrderStatus.SUCCESS.getKey(), ETradeOrderStatus.WAIT.getKey(),
-                ETradeOrderStatus.WAIT_NO.getKey());
-        List<Integer> sellStatus = Lists.newArrayList(ETradeOrderStatus.WAIT.getKey(), ETradeOrderStatus.BUY_SUCCESS_NO_SELL.getKey(),
-                ETradeOrderStatus.WAIT_NO.getKey());
-        List<TradeOrder> tradeOrders = tradeOrderService.findByUserIdAndCurrencyAndBuyStatusInOrUserIdAndCurrencyAndSellStatusIn(
-                user.getId(), tradeCurrency.getValue(), buyStatus, user.getId(), tradeCurrency.getValue(), sellStatus);
+        // 没有收到响应的委托先到未成交委托中找回，找回的订单本轮一起更新状态，未成交委托列表每轮只拉取一次
+        Map<String, GetOrdersRes> unfinished = null;
+        boolean fetched = false;
+        if (orderIntentService.hasUnresolved(user.getId(), tradeCurrency)) {
+            unfinished = listUnfinishedOrders(tradeCurrency, user);
+            fetched = true;
+            if (unfinished != null) {
+                orderIntentService.resolve(user.getId(), tradeCurrency, unfinished, type -> listRecentOrders(tradeCurrency, user, type));
+            }
+        }
+        List<TradeOrder> tradeOrders = tradeOrderBook.listOpen(user.getId(), tradeCurrency);
         if (CollectionUtils.isEmpty(tradeOrders)) {
             logger.info("用户：" + user.getUserName() + " 币种：" + tradeCurrency.getValue() + "更新订单状态 》》未完成或者未取消的订单为空 ");
             return;
         }
+        if (orderStatusSweep) {
+            if (!fetched) {
+                unfinished = listUnfinishedOrders(tradeCurrency, user);
+            }
+            if (unfinished != null) {
+                reconcileOrderStatus(tradeCurrency, user, tradeOrders, unfinished);
+                return;
+            }
+        }
         tradeOrders.forEach(tradeOrder -> {
             GetOrderReq getOrderReq = new GetOrderReq();
             getOrderReq.setTradeCurrency(tradeCurrency);
@@ -134,10 +207,10 @@ public class TradeService {
                 getOrderReq.setId(tradeOrder.getBuyOrderId());
                 if (ETradeOrderStatus.SUCCESS.getKey() != tradeOrder.getBuyStatus().intValue()
                         && ETradeOrderStatus.CANCEL.getKey() != tradeOrder.getBuyStatus().intValue()) {
-                    GetOrderRes orderRes = ChbtcApi.getOrder(getOrderReq);
+                    GetOrderRes orderRes = chbtcClient.getOrder(getOrderReq);
                     if (orderRes != null) {
                         tradeOrder.setBuyStatus(orderRes.getStatus());
-                        tradeOrderService.save(tradeOrder);
+                        tradeOrderBook.save(tradeOrder);
                     }
                 }
             }
@@ -146,48 +219,136 @@ public class TradeService {
                 if (ETradeOrderStatus.SUCCESS.getKey() != tradeOrder.getSellStatus().intValue()
                         && ETradeOrderStatus.CANCEL.getKey() != tradeOrder.getSellStatus().intValue()) {
                     getOrderReq.setId(tradeOrder.getSellOrderId());
-                    GetOrderRes orderRes = ChbtcApi.getOrder(getOrderReq);
+                    GetOrderRes orderRes = chbtcClient.getOrder(getOrderReq);
                     if (orderRes != null) {
                         tradeOrder.setSellStatus(orderRes.getStatus());
                     }
-                    tradeOrderService.save(tradeOrder);
+                    tradeOrderBook.save(tradeOrder);
+                }
+            }
+        });
+    }
+
+    /**
+     * 分页拉取用户在交易所的全部未成交订单
+     *
+     * @return 订单号到订单的映射，请求失败时返回null
+     */
+    Map<String, GetOrdersRes> listUnfinishedOrders(ETradeCurrency tradeCurrency, User user) {
+        GetUnfinishedOrdersReq req = new GetUnfinishedOrdersReq();
+        req.setCurrency(tradeCurrency);
+        req.setAccessKey(user.getAccessKey());
+        req.setSecretKey(user.getSecretKey());
+        try (Stream<GetOrdersRes> orders = chbtcClient.streamUnfinishedOrders(req)) {
+            return orders.collect(Collectors.toMap(GetOrdersRes::getId, Function.identity(), (o1, o2) -> o1));
+        } catch (RuntimeException e) {
+            logger.warn("用户：" + user.getUserName() + " 币种：" + tradeCurrency.getValue() + "获取未成交订单失败，逐笔查询订单状态", e);
+            return null;
+        }
+    }
+
+    /**
+     * 最近的一页委托，用于找回没有收到响应、已经不在未成交委托中的委托
+     *
+     * @return 查询失败时返回null
+     */
+    List<GetOrdersRes> listRecentOrders(ETradeCurrency tradeCurrency, User user, ETradeOrderType type) {
+        GetOrdersNewReq req = new GetOrdersNewReq();
+        req.setCurrency(tradeCurrency);
+        req.setOrderType(type);
+        req.setAccessKey(user.getAccessKey());
+        req.setSecretKey(user.getSecretKey());
+        try (Stream<GetOrdersRes> orders = chbtcClient.streamOrdersNew(req)) {
+            return orders.limit(RECENT_ORDERS).collect(Collectors.toList());
+        } catch (RuntimeException e) {
+            logger.warn("用户：" + user.getUserName() + " 币种：" + tradeCurrency.getValue() + "获取最近委托失败，下次再核对", e);
+            return null;
+        }
+    }
+
+    /**
+     * 用未成交订单列表对账：仍在列表中的订单直接取列表里的状态，
+     * 只有从列表中消失的订单才逐笔查询，确认是已成交还是已取消
+     */
+    void reconcileOrderStatus(ETradeCurrency tradeCurrency, User user, List<TradeOrder> tradeOrders,
+            Map<String, GetOrdersRes> unfinished) {
+        GetOrderReq getOrderReq = new GetOrderReq();
+        getOrderReq.setTradeCurrency(tradeCurrency);
+        getOrderReq.setAccessKey(user.getAccessKey());
+        getOrderReq.setSecretKey(user.getSecretKey());
+        tradeOrders.forEach(tradeOrder -> {
+            boolean changed = false;
+            // 委托买单
+            if (tradeOrder.getBuyOrderId() != null && isOpen(tradeOrder.getBuyStatus())) {
+                Integer status = exchangeStatus(tradeOrder.getBuyOrderId(), unfinished, getOrderReq);
+                if (status != null && !status.equals(tradeOrder.getBuyStatus())) {
+                    tradeOrder.setBuyStatus(status);
+                    changed = true;
                 }
             }
+            // 委托卖单
+            if (tradeOrder.getSellOrderId() != null && isOpen(tradeOrder.getSellStatus())) {
+                Integer status = exchangeStatus(tradeOrder.getSellOrderId(), unfinished, getOrderReq);
+                if (status != null && !status.equals(tradeOrder.getSellStatus())) {
+                    tradeOrder.setSellStatus(status);
+                    changed = true;
+                }
+            }
+            if (changed) {
+                tradeOrderBook.save(tradeOrder);
+            }
         });
     }
 
+    private boolean isOpen(Integer status) {
+        return ETradeOrderStatus.SUCCESS.getKey() != status.intValue() && ETradeOrderStatus.CANCEL.getKey() != status.intValue();
+    }
+
+    private Integer exchangeStatus(String orderId, Map<String, GetOrdersRes> unfinished, GetOrderReq getOrderReq) {
+        GetOrdersRes open = unfinished.get(orderId);
+        if (open != null) {
+            return open.getStatus();
+        }
+        getOrderReq.setId(orderId);
+        GetOrderRes orderRes = chbtcClient.getOrder(getOrderReq);
+        return orderRes == null ? null : orderRes.getStatus();
+    }
+
     /**
      * 委托卖单
      *
      * @param tradeCurrency
      * @param user
      * @param config
-     * @param tickerApiRes
+     * @param ticker
      */
-    public void sellOrder(ETradeCurrency tradeCurrency, User user, ParamConfig config, TickerApiRes tickerApiRes) {
+    public void sellOrder(ETradeCurrency tradeCurrency, User user, ParamConfig config, FixedTicker ticker) {
 
         // 查询委托买入成功 但是未卖出的订单
-        List<TradeOrder> tradeOrders = tradeOrderRepostiory.findByUserIdAndCurrencyAndBuyStatusAndSellStatus(user.getId(),
-                tradeCurrency.getValue(), ETradeOrderStatus.SUCCESS.getKey(), ETradeOrderStatus.BUY_SUCCESS_NO_SELL.getKey());
+        List<TradeOrder> tradeOrders = tradeOrderBook.listBoughtNotSold(user.getId(), tradeCurrency);
 
         if (CollectionUtils.isEmpty(tradeOrders)) {
             logger.info("用户：" + user.getUserName() + " 币种：" + tradeCurrency.getValue() + "委托卖单:买单完成且没有卖单的订单为空 ");
             return;
         }
 
-        tradeOrders.forEach(tradeOrder -> {
+        for (TradeOrder tradeOrder : tradeOrders) {
+            // 上次委托卖单没有收到响应，交易所可能已经受理，核对前不再委托
+            if (orderIntentService.hasUnresolvedSell(user.getId(), tradeCurrency, tradeOrder.getBuyOrderId())) {
+                logger.info("用户：" + user.getUserName() + " 币种：" + tradeCurrency.getValue() + "买单" + tradeOrder.getBuyOrderId()
+                        + "的卖单等待核对");
+                continue;
+            }
 
-            // 当前卖出价格-随机数
-            String  sellPrice = config.getOrderSellPrice();
-            if(StringUtils.isEmpty(sellPrice)) {
-                sellPrice = TradeUtil
-                    .getSellPriceByBuy(tradeOrder.getBuyPrice(), tradeOrder.getSubtractPrice());
-            }else{
-                 if(TradeUtil.diffString(tradeOrder.getBuyPrice(),sellPrice,"0")){
-                     sellPrice = TradeUtil
-                         .getSellPriceByBuy(tradeOrder.getBuyPrice(), tradeOrder.getSubtractPrice());
-                 }
+            // 配置了卖出价且不低于买入价时按配置卖出，否则按买入价加价卖出
+            long buyPrice = tradeOrder.getFixedBuyPrice();
+            long fixedSellPrice;
+            if (!StringUtils.isEmpty(config.getOrderSellPrice()) && !TradeUtil.diff(buyPrice, config.getFixedOrderSellPrice(), 0)) {
+                fixedSellPrice = config.getFixedOrderSellPrice();
+            } else {
+                fixedSellPrice = TradeUtil.getSellPriceByBuy(buyPrice, tradeOrder.getFixedSubtractPrice());
             }
+            String sellPrice = ticker.format(fixedSellPrice);
             OrderReq orderReq = new OrderReq();
             orderReq.setPrice(sellPrice);
             orderReq.setAmount(tradeOrder.getBuyNumber());
@@ -195,16 +356,27 @@ public class TradeService {
             orderReq.setTradeOrderType(ETradeOrderType.ORDER_SELL);
             orderReq.setAccessKey(user.getAccessKey());
             orderReq.setSecretKey(user.getSecretKey());
-            OrderRes orderRes = ChbtcApi.order(orderReq);
-            if (ETradeResStatus.SUCCESS.getKey().equals(orderRes.getCode())) {// 卖出委托成功
-                tradeOrder.setSellOrderId(orderRes.getId());
-                tradeOrder.setSellStatus(ETradeOrderStatus.WAIT.getKey());
-                tradeOrder.setSellPrice(sellPrice);
-                tradeOrder.setBuyFees("0");
-                tradeOrderService.save(tradeOrder);
+            // 先记下委托意图，交易所受理后进程退出也不会重复卖出
+            OrderIntent intent = orderIntentService.begin(user.getId(), tradeCurrency, ETradeOrderType.ORDER_SELL, sellPrice,
+                    tradeOrder.getBuyNumber(), null, tradeOrder.getBuyOrderId());
+            OrderRes orderRes;
+            try {
+                orderRes = chbtcClient.submitOrder(orderReq);
+            } catch (RequestNotSentException e) {
+                // 熔断或请求配额不足，请求没有发出，剩下的订单本轮也不再委托
+                orderIntentService.fail(intent, e.getMessage());
+                logger.info("用户：" + user.getUserName() + " 币种：" + tradeCurrency.getValue() + "委托卖单没有发出：" + e.getMessage());
+                return;
             }
-
-        });
+            if (orderRes == null) {
+                // 请求发出后失败或超时，交易所是否受理未知，之后在未成交委托中核对
+                orderIntentService.unknown(intent);
+            } else if (ETradeResStatus.SUCCESS.getKey().equals(orderRes.getCode())) {// 卖出委托成功
+                orderIntentService.accept(intent, orderRes.getId());
+            } else {
+                orderIntentService.fail(intent, orderRes.getMessage());
+            }
+        }
 
     }
 
@@ -214,58 +386,78 @@ public class TradeService {
      * @param tradeCurrency
      * @param user
      * @param config
-     * @param tickerApiRes
+     * @param ticker
      */
-    public void buyOrder(ETradeCurrency tradeCurrency, User user, ParamConfig config, TickerApiRes tickerApiRes) {
+    public void buyOrder(ETradeCurrency tradeCurrency, User user, ParamConfig config, FixedTicker ticker) {
+        // 没有收到响应的买单可能已被交易所受理，不在订单簿中也不计入委托笔数，核对前不再委托
+        if (orderIntentService.hasUnresolvedBuy(user.getId(), tradeCurrency)) {
+            logger.info("用户：" + user.getUserName() + " 币种：" + tradeCurrency.getValue() + "有等待核对的买单");
+            return;
+        }
         // 根据币种和用户查询待成交的委托订单数量
-        List<Integer> buyStatus = Lists.newArrayList(ETradeOrderStatus.SUCCESS.getKey(), ETradeOrderStatus.WAIT.getKey(),
-                ETradeOrderStatus.WAIT_NO.getKey());
-        List<Integer> sellStatus = Lists.newArrayList(ETradeOrderStatus.SUCCESS.getKey(), ETradeOrderStatus.CANCEL.getKey());
-        Long sellNum = tradeOrderRepostiory.countByUserIdAndCurrencyAndBuyStatusInAndSellStatusNotIn(user.getId(), tradeCurrency.getValue(),
-                buyStatus, sellStatus);
-        // 如果待完成的委托卖出订单数量等于设置的最大委托笔数则不进行买卖交易
-        if (sellNum == config.getMaxBuyNumber()) {
+        int sellNum = tradeOrderBook.countOpen(user.getId(), tradeCurrency);
+        // 如果待完成的委托卖出订单数量达到设置的最大委托笔数则不进行买卖交易
+        if (config.getMaxBuyNumber() != null && sellNum >= config.getMaxBuyNumber()) {
             logger.info("用户：" + user.getUserName() + " 币种：" + tradeCurrency.getValue() + "达到了最大卖出委托笔数");
             return;
         }
 
         // 判断最高值和当前买一价是不是小于设定的值 如果是则不进行买卖交易
-        String high = tickerApiRes.getTicker().getHigh();
-        String buy = tickerApiRes.getTicker().getBuy();
-        Boolean flag = TradeUtil.diffString(high, buy, config.getHightBuyDiff());
-        if (!flag) {
-            logger.info("用户：" + user.getUserName() + " 币种：" + tradeCurrency.getValue() + "最高价(" + high + ")与买入价(" + buy + ")差值需要大于"
-                    + config.getHightBuyDiff());
+        long high = ticker.getHigh();
+        long buy = ticker.getBuy();
+        if (!TradeUtil.diff(high, buy, config.getFixedHightBuyDiff())) {
+            logger.info("用户：" + user.getUserName() + " 币种：" + tradeCurrency.getValue() + "最高价(" + ticker.format(high) + ")与买入价("
+                    + ticker.format(buy) + ")差值需要大于" + config.getHightBuyDiff());
             return;
         }
         // 判断当前价格与上一个委托价格差是不是小于设定值 如果是则不进行买卖交易
 
-        String lastPrice = tradeOrderService.getLastPriceByUserIdAndCurrency(user.getId(), tradeCurrency.getValue());
+        String lastPrice = tradeOrderBook.getLastBuyPrice(user.getId(), tradeCurrency);
         if (!StringUtils.isEmpty(lastPrice)) {
             if (config.getDownBuyEnable()) {// 开关
-                flag = TradeUtil.diffString(lastPrice, tickerApiRes.getTicker().getBuy(), config.getDownBuy());
-                if (!flag) {
+                if (!TradeUtil.diff(FixedPoint.parse(lastPrice, ticker.getScale()), buy, config.getFixedDownBuy())) {
                     logger.info("用户：" + user.getUserName() + " 币种：" + tradeCurrency.getValue() + "最后委托价格(" + lastPrice + ")与买入价("
-                            + tickerApiRes.getTicker().getBuy() + ")差值需要大于" + config.getDownBuy());
+                            + ticker.format(buy) + ")差值需要大于" + config.getDownBuy());
                     return;
                 }
             }
         }
 
         // 判断卖一价和买一价差值
-        String ticker_sell = tickerApiRes.getTicker().getSell();
-        String ticker_buy = tickerApiRes.getTicker().getBuy();
-        flag = TradeUtil.diffString(ticker_sell, ticker_buy, config.getSellBuyDiff());
-        if (!flag) {
-            logger.info("用户：" + user.getUserName() + " 币种：" + tradeCurrency.getValue() + "卖一价(" + ticker_sell + ")和买一价(" + ticker_buy
-                    + ")差值需要大于" + config.getSellBuyDiff());
+        long sell = ticker.getSell();
+        if (!TradeUtil.diff(sell, buy, config.getFixedSellBuyDiff())) {
+            logger.info("用户：" + user.getUserName() + " 币种：" + tradeCurrency.getValue() + "卖一价(" + ticker.format(sell) + ")和买一价("
+                    + ticker.format(buy) + ")差值需要大于" + config.getSellBuyDiff());
             return;
         }
+        // 判断买一价是否低于配置的指标，指标所有用户共用，按币种只计算一次
+        if (!StringUtils.isEmpty(config.getBuyBelow())) {
+            double limit;
+            try {
+                limit = indicatorEngine.value(tradeCurrency, config.getBuyBelow());
+            } catch (IllegalArgumentException e) {
+                logger.info("用户：" + user.getUserName() + " 币种：" + tradeCurrency.getValue() + "指标配置错误：" + e.getMessage());
+                return;
+            }
+            if (Double.isNaN(limit) || buy >= limit) {
+                logger.info("用户：" + user.getUserName() + " 币种：" + tradeCurrency.getValue() + "买一价(" + ticker.format(buy) + ")需要低于"
+                        + config.getBuyBelow() + (Double.isNaN(limit) ? "(指标数据不足)" : "(" + ticker.format((long) limit) + ")"));
+                return;
+            }
+        }
         // 获取买单数量
-        List<OrderNumber> orderNumbers = orderNumberService.listByUserIdAndCurrency(user.getId(), tradeCurrency.getValue());
-        OrderNumber orderNumber = TradeUtil.getBuyNumber(tickerApiRes.getTicker().getHigh(), ticker_buy, orderNumbers);
+        OrderNumberIndex orderNumberIndex = configSnapshotService.current().getOrderNumberIndex(user.getId(), tradeCurrency);
+        if (orderNumberIndex == null) {
+            logger.info("用户：" + user.getUserName() + " 币种：" + tradeCurrency.getValue() + "买单数量配置不合法");
+            return;
+        }
+        OrderNumberIndex.Band orderNumber = orderNumberIndex.find(high - buy);
+        if (orderNumber == null) {
+            logger.info("用户：" + user.getUserName() + " 币种：" + tradeCurrency.getValue() + "最高价与买入价差值没有对应的买单数量配置");
+            return;
+        }
         // 委托买单
-        String buyPrice = TradeUtil.getBuyPrice(tickerApiRes.getTicker().getBuy());
+        String buyPrice = ticker.format(TradeUtil.getBuyPrice(buy, ticker.getScale()));
         String subtractPrice = orderNumber.getSubtractPrice();
         Integer buyNumber = orderNumber.getOrderNumber();
         logger.info("用户：" + user.getUserName() + " 币种：" + tradeCurrency.getValue() + "买单数量：" + buyNumber);
@@ -277,21 +469,27 @@ public class TradeService {
             orderReq.setTradeOrderType(ETradeOrderType.ORDER_BUY);
             orderReq.setAccessKey(user.getAccessKey());
             orderReq.setSecretKey(user.getSecretKey());
-            OrderRes orderRes = ChbtcApi.order(orderReq);
-            if (ETradeResStatus.SUCCESS.getKey().equals(orderRes.getCode())) {// 卖出委托成功
-                TradeOrder tradeOrder = new TradeOrder();
-                tradeOrder.setBuyNumber(String.valueOf(buyNumber));
-                tradeOrder.setBuyPrice(buyPrice);
-                tradeOrder.setBuyOrderId(orderRes.getId());
-                tradeOrder.setBuyStatus(ETradeOrderStatus.WAIT.getKey());
-                tradeOrder.setUserId(user.getId());
-                tradeOrder.setCreateTime(new Date());
-                tradeOrder.setBuyFees("0");
-                tradeOrder.setSubtractPrice(subtractPrice);
-                tradeOrder.setCurrency(tradeCurrency.getValue());
-                tradeOrder.setSellStatus(ETradeOrderStatus.BUY_SUCCESS_NO_SELL.getKey());
-                tradeOrderService.save(tradeOrder);
+            // 先记下委托意图，交易所受理后进程退出也能补回订单
+            OrderIntent intent = orderIntentService.begin(user.getId(), tradeCurrency, ETradeOrderType.ORDER_BUY, buyPrice,
+                    String.valueOf(buyNumber), subtractPrice, null);
+            OrderRes orderRes;
+            try {
+                orderRes = chbtcClient.submitOrder(orderReq);
+            } catch (RequestNotSentException e) {
+                // 熔断或请求配额不足，请求没有发出，不需要核对
+                orderIntentService.fail(intent, e.getMessage());
+                logger.info("用户：" + user.getUserName() + " 币种：" + tradeCurrency.getValue() + "委托买单没有发出：" + e.getMessage());
+                return;
+            }
+            if (orderRes == null) {
+                // 请求发出后失败或超时，交易所是否受理未知，之后在未成交委托中核对
+                orderIntentService.unknown(intent);
+                return;
+            }
+            if (ETradeResStatus.SUCCESS.getKey().equals(orderRes.getCode())) {// 买入委托成功
+                orderIntentService.accept(intent, orderRes.getId());
             } else {
+                orderIntentService.fail(intent, orderRes.getMessage());
                 logger.info("用户：" + user.getUserName() + " 币种：" + tradeCurrency.getValue() + "数量：" + buyNumber + orderRes.getMessage());
             }
         }
@@ -0,0 +1,113 @@
+package com.licc.trade.store;
+
+import java.nio.ByteBuffer;
+
+import com.licc.btc.chbtcapi.enums.ETradeCurrency;
+import com.licc.btc.chbtcapi.res.ticker.TickerRes;
+import com.licc.btc.chbtcapi.util.FixedPoint;
+
+/**
+ * 行情存储中的一条记录，价格为市场priceScale的定点小数，成交量为amountScale的定点小数
+ * <p>
+ * 扫描时同一个实例会被反复填充，需要保留时调用{@link #copy()}。
+ *
+ * @author lichangchao
+ * @version 1.0.0
+ * @date 2018/3/24 10:10
+ * @see TickStore
+ */
+public class Tick {
+    /** 每条记录占用的字节数：时间戳加六个定点小数 */
+    public static final int BYTES = 7 * Long.BYTES;
+
+    private long            time;
+    private long            high;
+    private long            low;
+    private long            last;
+    private long            buy;
+    private long            sell;
+    private long            vol;
+
+    public Tick() {
+    }
+
+    public Tick(long time, long high, long low, long last, long buy, long sell, long vol) {
+        set(time, high, low, last, buy, sell, vol);
+    }
+
+    /**
+     * 解析行情接口返回的数据
+     *
+     * @param time 行情时间
+     * @return 价格或成交量格式错误时返回null
+     */
+    public static Tick of(ETradeCurrency currency, long time, TickerRes ticker) {
+        int scale = currency.getPriceScale();
+        try {
+            return new Tick(time, FixedPoint.parse(ticker.getHigh(), scale), FixedPoint.parse(ticker.getLow(), scale),
+                    FixedPoint.parse(ticker.getLast(), scale), FixedPoint.parse(ticker.getBuy(), scale),
+                    FixedPoint.parse(ticker.getSell(), scale), FixedPoint.parse(ticker.getVol(), currency.getAmountScale()));
+        } catch (NumberFormatException e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    public Tick set(long time, long high, long low, long last, long buy, long sell, long vol) {
+        this.time = time;
+        this.high = high;
+        this.low = low;
+        this.last = last;
+        this.buy = buy;
+        this.sell = sell;
+        this.vol = vol;
+        return this;
+    }
+
+    public Tick copy() {
+        return new Tick(time, high, low, last, buy, sell, vol);
+    }
+
+    void write(ByteBuffer buffer, int position) {
+        buffer.putLong(position, time);
+        buffer.putLong(position + 8, high);
+        buffer.putLong(position + 16, low);
+        buffer.putLong(position + 24, last);
+        buffer.putLong(position + 32, buy);
+        buffer.putLong(position + 40, sell);
+        buffer.putLong(position + 48, vol);
+    }
+
+    Tick read(ByteBuffer buffer, int position) {
+        return set(buffer.getLong(position), buffer.getLong(position + 8), buffer.getLong(position + 16), buffer.getLong(position + 24),
+                buffer.getLong(position + 32), buffer.getLong(position + 40), buffer.getLong(position + 48));
+    }
+
+    public long getTime() {
+        return time;
+    }
+
+    public long getHigh() {
+        return high;
+    }
+
+    public long getLow() {
+        return low;
+    }
+
+    public long getLast() {
+        return last;
+    }
+
+    public long getBuy() {
+        return buy;
+    }
+
+    public long getSell() {
+        return sell;
+    }
+
+    public long getVol() {
+        return vol;
+    }
+}
@@ -0,0 +1,213 @@
+package com.licc.trade.store;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * 一个币种一天的行情文件，内存映射、只追加、定长记录
+ * <p>
+ * 文件头64字节：magic、版本、priceScale、amountScale、当天零点的时间戳、记录数；之后是按时间非递减的{@link Tick}记录。
+ * 每{@value #INDEX_INTERVAL}条记录在内存中保留一个稀疏索引项(该条记录的时间)，范围扫描先二分索引再顺序读。
+ * <p>
+ * 写入只有一个线程(调用方加锁)，先写记录再更新记录数；读取先读记录数再读映射，不需要加锁。
+ *
+ * @author lichangchao
+ * @version 1.0.0
+ * @date 2018/3/24 10:30
+ * @see TickStore
+ */
+final class TickFile implements Closeable {
+    static final int                  MAGIC          = 0x5449434B; // "TICK"
+    static final int                  VERSION        = 1;
+    static final int                  HEADER         = 64;
+    static final int                  INDEX_INTERVAL = 256;
+    private static final int          COUNT_OFFSET   = 24;
+
+    private final Path                path;
+    private final FileChannel         channel;
+    private final boolean             writable;
+    private final int                 priceScale;
+    private final int                 amountScale;
+    private final long                day;
+    private volatile MappedByteBuffer buffer;
+    private volatile long[]           index;
+    private volatile int              count;
+    private long                      lastTime       = Long.MIN_VALUE;
+
+    private TickFile(Path path, FileChannel channel, boolean writable, MappedByteBuffer buffer) throws IOException {
+        this.path = path;
+        this.channel = channel;
+        this.writable = writable;
+        this.buffer = buffer;
+        if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+            throw new IOException("不是行情文件或版本不支持: " + path);
+        }
+        this.priceScale = buffer.getInt(8);
+        this.amountScale = buffer.getInt(12);
+        this.day = buffer.getLong(16);
+        int n = (int) buffer.getLong(COUNT_OFFSET);
+        long[] index = new long[Math.max(16, n / INDEX_INTERVAL + 1)];
+        for (int i = 0; i < n; i += INDEX_INTERVAL) {
+            index[i / INDEX_INTERVAL] = buffer.getLong(position(i));
+        }
+        if (n > 0) {
+            lastTime = buffer.getLong(position(n - 1));
+        }
+        this.index = index;
+        this.count = n;
+    }
+
+    /**
+     * 打开或创建用于追加的文件
+     *
+     * @param initialRecords 新建文件时预先映射的记录数，写满后按两倍扩大
+     */
+    static TickFile openForAppend(Path path, int priceScale, int amountScale, long day, int initialRecords) throws IOException {
+        Files.createDirectories(path.getParent());
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            boolean created = channel.size() == 0;
+            long size = Math.max(channel.size(), HEADER + (long) initialRecords * Tick.BYTES);
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            if (created) {
+                buffer.putInt(0, MAGIC);
+                buffer.putInt(4, VERSION);
+                buffer.putInt(8, priceScale);
+                buffer.putInt(12, amountScale);
+                buffer.putLong(16, day);
+                buffer.putLong(COUNT_OFFSET, 0);
+            }
+            TickFile file = new TickFile(path, channel, true, buffer);
+            if (file.priceScale != priceScale || file.amountScale != amountScale) {
+                throw new IOException("行情文件精度与市场配置不一致: " + path);
+            }
+            return file;
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * 只读打开已有文件，只能看到打开时已经写入的记录
+     */
+    static TickFile openReadOnly(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            return new TickFile(path, channel, false, channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * 追加一条记录，调用方保证同一时间只有一个线程写
+     *
+     * @return 时间早于最后一条记录时不写入，返回false
+     */
+    boolean append(Tick tick) throws IOException {
+        if (!writable) {
+            throw new IllegalStateException("行情文件为只读: " + path);
+        }
+        if (tick.getTime() < lastTime) {
+            return false;
+        }
+        int n = count;
+        long end = (long) position(n) + Tick.BYTES;
+        if (end > buffer.capacity()) {
+            long size = Math.max(end, HEADER + (long) (buffer.capacity() - HEADER) * 2);
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("行情文件超过2G: " + path);
+            }
+            buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        }
+        tick.write(buffer, position(n));
+        if (n % INDEX_INTERVAL == 0) {
+            int slot = n / INDEX_INTERVAL;
+            long[] current = index;
+            if (slot == current.length) {
+                current = Arrays.copyOf(current, current.length * 2);
+            }
+            current[slot] = tick.getTime();
+            index = current;
+        }
+        lastTime = tick.getTime();
+        buffer.putLong(COUNT_OFFSET, n + 1);
+        count = n + 1;
+        return true;
+    }
+
+    /**
+     * 按时间顺序读取[from, to]内的记录
+     *
+     * @param reuse 反复填充后交给consumer的实例
+     * @return 读取的记录数
+     */
+    long scan(long from, long to, Tick reuse, Consumer<Tick> consumer) {
+        // 先读记录数，保证映射和索引至少覆盖这些记录
+        int n = count;
+        ByteBuffer buffer = this.buffer;
+        long[] index = this.index;
+        if (n == 0 || from > to) {
+            return 0;
+        }
+        // 最后一个起始时间早于from的索引块
+        int low = 0;
+        int high = (n - 1) / INDEX_INTERVAL;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (index[mid] < from) {
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        int i = Math.max(0, high) * INDEX_INTERVAL;
+        while (i < n && buffer.getLong(position(i)) < from) {
+            i++;
+        }
+        long visited = 0;
+        for (; i < n; i++) {
+            reuse.read(buffer, position(i));
+            if (reuse.getTime() > to) {
+                break;
+            }
+            consumer.accept(reuse);
+            visited++;
+        }
+        return visited;
+    }
+
+    int size() {
+        return count;
+    }
+
+    long getDay() {
+        return day;
+    }
+
+    Path getPath() {
+        return path;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (writable) {
+            buffer.force();
+        }
+        channel.close();
+    }
+
+    private static int position(int record) {
+        return HEADER + record * Tick.BYTES;
+    }
+}
@@ -0,0 +1,193 @@
+package com.licc.trade.store;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import com.licc.btc.chbtcapi.enums.ETradeCurrency;
+import com.licc.btc.chbtcapi.res.ticker.TickerRes;
+
+/**
+ * 本地行情存储
+ * <p>
+ * 每个币种每天一个{@link TickFile}：{@code <dir>/<currency>/yyyyMMdd.tick}，按行情时间所在的日期滚动。
+ * 追加按币种加锁；范围扫描按天依次读取，已经结束的日期只读打开后缓存映射，回测和指标预热可以直接顺序读取大量记录。
+ *
+ * @author lichangchao
+ * @version 1.0.0
+ * @date 2018/3/24 11:20
+ * @see TickFile
+ */
+public class TickStore implements Closeable {
+    private static final DateTimeFormatter      DAY_FORMAT  = DateTimeFormatter.ofPattern("yyyyMMdd");
+    private static final int                    CACHED_DAYS = 64;
+
+    private final Path                          dir;
+    private final ZoneId                        zone;
+    private final int                           initialRecords;
+    private final Map<ETradeCurrency, TickFile> writers     = new EnumMap<>(ETradeCurrency.class);
+    private final Map<ETradeCurrency, Object>   locks       = new EnumMap<>(ETradeCurrency.class);
+    // 已结束日期的只读文件，最近使用的在后
+    private final Map<Path, TickFile>           readers     = Collections.synchronizedMap(new ReaderCache());
+
+    /**
+     * @param dir 存储目录
+     * @param zone 按该时区的日期滚动文件
+     * @param initialRecords 每个新文件预先映射的记录数
+     */
+    public TickStore(Path dir, ZoneId zone, int initialRecords) {
+        this.dir = dir;
+        this.zone = zone;
+        this.initialRecords = initialRecords;
+        for (ETradeCurrency currency : ETradeCurrency.values()) {
+            locks.put(currency, new Object());
+        }
+    }
+
+    /**
+     * 解析行情接口返回的数据后追加
+     *
+     * @param time 行情时间
+     * @return 格式错误或时间早于已写入的记录时返回false
+     */
+    public boolean append(ETradeCurrency currency, long time, TickerRes ticker) throws IOException {
+        Tick tick = Tick.of(currency, time, ticker);
+        return tick != null && append(currency, tick);
+    }
+
+    /**
+     * 追加一条记录，时间必须不早于该币种已写入的最后一条
+     *
+     * @return 时间早于已写入的记录时返回false
+     */
+    public boolean append(ETradeCurrency currency, Tick tick) throws IOException {
+        LocalDate date = date(tick.getTime());
+        long day = startOfDay(date);
+        synchronized (locks.get(currency)) {
+            TickFile writer = writers.get(currency);
+            if (writer != null && writer.getDay() != day) {
+                if (day < writer.getDay()) {
+                    return false;
+                }
+                // 跨天滚动到新文件
+                writer.close();
+                writers.remove(currency);
+                writer = null;
+            }
+            if (writer == null) {
+                Path path = path(currency, date);
+                // 重启后迟到的行情可能追加到已经缓存只读映射的文件
+                TickFile stale = readers.remove(path);
+                if (stale != null) {
+                    closeQuietly(stale);
+                }
+                writer = TickFile.openForAppend(path, currency.getPriceScale(), currency.getAmountScale(), day, initialRecords);
+                writers.put(currency, writer);
+            }
+            return writer.append(tick);
+        }
+    }
+
+    /**
+     * 按时间顺序读取[from, to]内的行情，consumer收到的是同一个反复填充的实例
+     *
+     * @return 读取的记录数
+     */
+    public long scan(ETradeCurrency currency, long from, long to, Consumer<Tick> consumer) throws IOException {
+        Tick reuse = new Tick();
+        long visited = 0;
+        LocalDate today = LocalDate.now(zone);
+        for (LocalDate date = date(from), end = date(to); !date.isAfter(end); date = date.plusDays(1)) {
+            Path path = path(currency, date);
+            TickFile writer;
+            synchronized (locks.get(currency)) {
+                writer = writers.get(currency);
+            }
+            if (writer != null && writer.getPath().equals(path)) {
+                visited += writer.scan(from, to, reuse, consumer);
+            } else if (Files.exists(path)) {
+                if (date.isBefore(today)) {
+                    visited += reader(path).scan(from, to, reuse, consumer);
+                } else {
+                    // 当天的文件可能随后被打开追加，不缓存
+                    try (TickFile reader = TickFile.openReadOnly(path)) {
+                        visited += reader.scan(from, to, reuse, consumer);
+                    }
+                }
+            }
+        }
+        return visited;
+    }
+
+    @Override
+    public void close() throws IOException {
+        for (ETradeCurrency currency : ETradeCurrency.values()) {
+            synchronized (locks.get(currency)) {
+                TickFile writer = writers.remove(currency);
+                if (writer != null) {
+                    writer.close();
+                }
+            }
+        }
+        synchronized (readers) {
+            readers.values().forEach(TickStore::closeQuietly);
+            readers.clear();
+        }
+    }
+
+    private TickFile reader(Path path) throws IOException {
+        synchronized (readers) {
+            TickFile reader = readers.get(path);
+            if (reader == null) {
+                reader = TickFile.openReadOnly(path);
+                readers.put(path, reader);
+            }
+            return reader;
+        }
+    }
+
+    Path path(ETradeCurrency currency, LocalDate date) {
+        return dir.resolve(currency.getValue()).resolve(DAY_FORMAT.format(date) + ".tick");
+    }
+
+    private LocalDate date(long millis) {
+        return Instant.ofEpochMilli(millis).atZone(zone).toLocalDate();
+    }
+
+    private long startOfDay(LocalDate date) {
+        return date.atStartOfDay(zone).toInstant().toEpochMilli();
+    }
+
+    private static class ReaderCache extends LinkedHashMap<Path, TickFile> {
+        ReaderCache() {
+            super(16, 0.75f, true);
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Path, TickFile> eldest) {
+            if (size() > CACHED_DAYS) {
+                closeQuietly(eldest.getValue());
+                return true;
+            }
+            return false;
+        }
+    }
+
+    private static void closeQuietly(TickFile file) {
+        try {
+            file.close();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+}
@@ -1,35 +1,57 @@
 package com.licc.trade.task;
 
-import com.licc.btc.chbtcapi.enums.EDeleteFlag;
 import com.licc.btc.chbtcapi.enums.ETradeCurrency;
-import com.licc.trade.domain.Ticker;
-import com.licc.trade.domain.User;
+import com.licc.trade.market.MarketDataHub;
 import com.licc.trade.service.TickerService;
-import com.licc.trade.service.TradeService;
-import java.util.List;
+import com.licc.trade.service.TickerWriter;
+import javax.annotation.PostConstruct;
 import javax.annotation.Resource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
 /**
  * 交易行情定时任务
+ * <p>
+ * 所有币种的行情经{@link MarketDataHub}异步请求，交易轮询或推送刚发布过的币种不再重复请求；
+ * 发布后在回调里去重并入队，调度线程不等待网络和数据库，不影响交易定时任务。
  * @author lichangchao
  * @version 1.0.0
  * @date 2017/6/19 9:56
  * @see
  */
 @Component
+@ConditionalOnProperty(prefix = "trade.ticker", name = "enabled", havingValue = "true", matchIfMissing = true)
 public class TickerTask {
-
+  Logger logger = LoggerFactory.getLogger(this.getClass());
   @Resource
   TickerService tickerService;
-/*  @Scheduled(fixedDelay = 1000)
+  @Resource
+  TickerWriter tickerWriter;
+  @Resource
+  MarketDataHub marketDataHub;
+  @Value("${trade.ticker.poll-millis:1000}")
+  long pollMillis;
+
+  @PostConstruct
+  public void init() {
+    // 轮询和推送发布的行情都记录
+    marketDataHub.addListener((tradeCurrency, tickerApiRes, ticker) -> tickerService.record(tradeCurrency, tickerApiRes));
+  }
+
+  @Scheduled(fixedDelayString = "${trade.ticker.poll-millis:1000}")
   public void listTrade() {
-     tickerService.excute(ETradeCurrency.LTC_CNY);
-    tickerService.excute(ETradeCurrency.ETH_CNY);
-    tickerService.excute(ETradeCurrency.BTC_CNY);
-    tickerService.excute(ETradeCurrency.ETC_CNY);
-    tickerService.excute(ETradeCurrency.BTS_CNY);
+    for (ETradeCurrency tradeCurrency : ETradeCurrency.values()) {
+      marketDataHub.refresh(tradeCurrency, pollMillis / 2);
+    }
+  }
 
-  }*/
+  // 输出行情记录的写入统计
+  @Scheduled(fixedRate = 60000)
+  public void logWriterStats() {
+    logger.info("行情记录：已写入" + tickerWriter.getWritten() + " 待写入" + tickerWriter.getPending() + " 丢弃" + tickerWriter.getDropped());
+  }
 }
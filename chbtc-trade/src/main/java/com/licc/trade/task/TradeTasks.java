@@ -1,17 +1,24 @@
 package com.licc.trade.task;
 
+import java.util.Comparator;
 import java.util.List;
 
 import javax.annotation.Resource;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
-import com.licc.btc.chbtcapi.enums.EDeleteFlag;
+import com.licc.btc.chbtcapi.ChbtcClient;
 import com.licc.btc.chbtcapi.enums.ETradeCurrency;
-import com.licc.trade.domain.User;
-import com.licc.trade.repostiory.UserRepostiory;
-import com.licc.trade.service.TradeService;
+import com.licc.trade.engine.ShardStats;
+import com.licc.trade.engine.TradeEngine;
+import com.licc.trade.market.MarketDataHub;
+import com.licc.trade.service.ConfigSnapshotService;
+import com.licc.trade.service.OrderIntentService;
+import com.licc.trade.service.TickerPushHandler;
 
 /**
  * 定时获取中国比特币交易网数据
@@ -23,11 +30,21 @@ import com.licc.trade.service.TradeService;
  */
 @Component
 public class TradeTasks {
-
+    Logger                logger = LoggerFactory.getLogger(this.getClass());
+    @Resource
+    TradeEngine           tradeEngine;
+    @Resource
+    ConfigSnapshotService configSnapshotService;
     @Resource
-    TradeService   tradeService;
+    ChbtcClient           chbtcClient;
     @Resource
-    UserRepostiory userRepostiory;
+    TickerPushHandler     tickerPushHandler;
+    @Resource
+    MarketDataHub         marketDataHub;
+    @Resource
+    OrderIntentService    orderIntentService;
+    @Value("${trade.engine.poll-millis:500}")
+    long                  pollMillis;
 
 //  @Scheduled(fixedRate = 1000)
 //    public void listTrade_ETC() {
@@ -39,14 +56,45 @@ public class TradeTasks {
 //
 //    }
 
-    @Scheduled(fixedDelay = 500)
-    public void listTrade_ZB() {
-        List<User> userList = userRepostiory.findByDeleteFlag(EDeleteFlag.NORMAL.getIntegerCode());
-        userList.forEach(user -> {
-            tradeService.execute(ETradeCurrency.ZB_QC, user);
+    // 所有配置了参数的币种，每个币种请求一次行情，所有用户共用，由TradeEngine按用户和币种分片并行执行
+    @Scheduled(fixedDelayString = "${trade.engine.poll-millis:500}")
+    public void listTrade() {
+        for (ETradeCurrency tradeCurrency : configSnapshotService.current().getCurrencies()) {
+            // 行情推送可用时由推送驱动
+            if (tickerPushHandler.isLive(tradeCurrency))
+                continue;
+            marketDataHub.refresh(tradeCurrency, pollMillis / 2);
+        }
+    }
 
-        });
+    // 配置版本号变化后重新加载配置快照，交易循环本身不查配置表
+    @Scheduled(fixedDelayString = "${trade.config.poll-millis:5000}")
+    public void pollConfigVersion() {
+        configSnapshotService.poll();
+    }
+
+    // 订单已经写入trade_order表的委托意图标记为已完成
+    @Scheduled(fixedDelayString = "${trade.order-intent.settle-millis:60000}")
+    public void settleOrderIntents() {
+        int settled = orderIntentService.settle();
+        if (settled > 0) {
+            logger.info("委托意图已完成" + settled + "笔");
+        }
+    }
+
+    // 输出行情请求的对冲统计
+    @Scheduled(fixedRate = 60000)
+    public void logTickerHedgeStats() {
+        logger.info("行情请求对冲统计：" + chbtcClient.tickerHedgeStats());
+        logger.info("行情汇总：请求" + marketDataHub.getRequests() + " 合并" + marketDataHub.getCoalesced() + " 迟到丢弃" + marketDataHub.getLate());
+    }
 
+    // 输出最慢的分片，最大耗时为上一分钟内的
+    @Scheduled(fixedRate = 60000)
+    public void logEngineStats() {
+        List<ShardStats> stats = tradeEngine.drainStats();
+        stats.sort(Comparator.comparingLong(ShardStats::getMaxMillis).reversed());
+        logger.info("交易分片" + stats.size() + "个，最慢的：" + stats.subList(0, Math.min(10, stats.size())));
     }
 
 }
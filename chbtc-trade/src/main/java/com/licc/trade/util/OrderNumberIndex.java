@@ -0,0 +1,119 @@
+package com.licc.trade.util;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import com.licc.trade.domain.OrderNumber;
+
+/**
+ * 某个用户某个币种的买单数量配置编译后的区间索引，构建后不可变
+ * <p>
+ * 每条配置对应价差区间(hightBuyStart, hightBuyEnd]，按下限排序后必须首尾相接，既不能重叠也不能有空隙，
+ * 否则{@link #compile(List)}直接拒绝；查找按上限二分，每次O(log n)且不再解析字符串。
+ *
+ * @author lichangchao
+ * @version 1.0.0
+ * @date 2018/3/23 10:20
+ * @see OrderNumber
+ * @see TradeUtil#getBuyNumber(long, long, List)
+ */
+public final class OrderNumberIndex {
+    /** 没有任何配置时的索引，查找总是返回null */
+    public static final OrderNumberIndex EMPTY = new OrderNumberIndex(new long[0], new long[0], new Band[0]);
+
+    private final long[] starts;
+    private final long[] ends;
+    private final Band[] bands;
+
+    private OrderNumberIndex(long[] starts, long[] ends, Band[] bands) {
+        this.starts = starts;
+        this.ends = ends;
+        this.bands = bands;
+    }
+
+    /**
+     * 编译同一用户同一币种的配置
+     *
+     * @param list 同一币种的配置，区间按币种价格精度解析
+     * @throws IllegalArgumentException 区间为空、重叠或者不连续
+     */
+    public static OrderNumberIndex compile(List<OrderNumber> list) {
+        if (list == null || list.isEmpty()) {
+            return EMPTY;
+        }
+        List<OrderNumber> sorted = new ArrayList<>(list);
+        sorted.sort(Comparator.comparingLong(OrderNumber::getFixedHightBuyStart));
+        int size = sorted.size();
+        long[] starts = new long[size];
+        long[] ends = new long[size];
+        Band[] bands = new Band[size];
+        for (int i = 0; i < size; i++) {
+            OrderNumber orderNumber = sorted.get(i);
+            starts[i] = orderNumber.getFixedHightBuyStart();
+            ends[i] = orderNumber.getFixedHightBuyEnd();
+            if (starts[i] >= ends[i]) {
+                throw new IllegalArgumentException("买单数量区间为空: " + describe(orderNumber));
+            }
+            if (i > 0 && starts[i] < ends[i - 1]) {
+                throw new IllegalArgumentException("买单数量区间重叠: " + describe(sorted.get(i - 1)) + " 与 " + describe(orderNumber));
+            }
+            if (i > 0 && starts[i] > ends[i - 1]) {
+                throw new IllegalArgumentException("买单数量区间不连续: " + describe(sorted.get(i - 1)) + " 与 " + describe(orderNumber));
+            }
+            bands[i] = new Band(orderNumber.getOrderNumber(), orderNumber.getSubtractPrice());
+        }
+        return new OrderNumberIndex(starts, ends, bands);
+    }
+
+    /**
+     * @param diff 最高价与买一价的差，小数位数为币种的价格小数位数
+     * @return diff落在(hightBuyStart, hightBuyEnd]的配置，没有时返回null
+     */
+    public Band find(long diff) {
+        int low = 0;
+        int high = ends.length - 1;
+        // 找第一个上限不小于diff的区间
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (ends[mid] < diff) {
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        if (low == ends.length || diff <= starts[low]) {
+            return null;
+        }
+        return bands[low];
+    }
+
+    public int size() {
+        return bands.length;
+    }
+
+    private static String describe(OrderNumber orderNumber) {
+        return "(" + orderNumber.getHightBuyStart() + ", " + orderNumber.getHightBuyEnd() + "]";
+    }
+
+    /**
+     * 命中区间的买单数量和加价
+     */
+    public static final class Band {
+        private final Integer orderNumber;
+        private final String  subtractPrice;
+
+        Band(Integer orderNumber, String subtractPrice) {
+            this.orderNumber = orderNumber;
+            this.subtractPrice = subtractPrice;
+        }
+
+        public Integer getOrderNumber() {
+            return orderNumber;
+        }
+
+        public String getSubtractPrice() {
+            return subtractPrice;
+        }
+    }
+}
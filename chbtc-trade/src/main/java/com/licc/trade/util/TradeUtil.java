@@ -4,6 +4,7 @@ import java.math.BigDecimal;
 import java.util.List;
 
 import com.google.common.collect.Lists;
+import com.licc.btc.chbtcapi.util.FixedPoint;
 import com.licc.trade.domain.OrderNumber;
 
 /**
@@ -69,6 +70,58 @@ public class TradeUtil {
 
     }
 
+    /**
+     * 定点小数版本的{@link #diffString(String, String, String)}，三个参数的小数位数必须相同
+     *
+     * @return a - b 是否大于 diff
+     */
+    public static boolean diff(long a, long b, long diff) {
+        return a - b > diff;
+    }
+
+    /**
+     * 卖一价减0.01
+     *
+     * @param sell 定点小数
+     * @param scale 价格小数位数，不小于2
+     */
+    public static long getSellPrice(long sell, int scale) {
+        return sell - FixedPoint.pow10(scale - 2);
+    }
+
+    /**
+     * 买一价加0.01
+     *
+     * @param buy 定点小数
+     * @param scale 价格小数位数，不小于2
+     */
+    public static long getBuyPrice(long buy, int scale) {
+        return buy + FixedPoint.pow10(scale - 2);
+    }
+
+    /**
+     * 买入价加上加价得到卖出价，两个参数的小数位数必须相同
+     */
+    public static long getSellPriceByBuy(long buyPrice, long subtractPrice) {
+        return buyPrice + subtractPrice;
+    }
+
+    /**
+     * 定点小数版本的{@link #getBuyNumber(String, String, List)}，high和buy的小数位数为list中币种的价格小数位数
+     *
+     * @return 最高价与买一价的差落在(hightBuyStart, hightBuyEnd]的配置，没有时返回null
+     */
+    public static OrderNumber getBuyNumber(long high, long buy, List<OrderNumber> list) {
+        long diff = high - buy;
+        for (int i = 0, size = list.size(); i < size; i++) {
+            OrderNumber orderNumber = list.get(i);
+            if (diff > orderNumber.getFixedHightBuyStart() && orderNumber.getFixedHightBuyEnd() >= diff) {
+                return orderNumber;
+            }
+        }
+        return null;
+    }
+
     public static void main(String arge[]) {
       /*  OrderNumber orderNumber1 = new OrderNumber();
         orderNumber1.setHightBuyStart("0");
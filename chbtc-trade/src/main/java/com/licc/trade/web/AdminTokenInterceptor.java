@@ -0,0 +1,50 @@
+package com.licc.trade.web;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.servlet.handler.HandlerInterceptorAdapter;
+
+/**
+ * 管理接口的访问令牌校验，请求头{@value #HEADER}与trade.admin.token一致才放行
+ * <p>
+ * 没有配置令牌时拒绝全部管理接口，不会因为漏配而开放修改配置。
+ *
+ * @author lichangchao
+ * @version 1.0.0
+ * @date 2018/3/28 16:10
+ * @see ConfigController
+ */
+public class AdminTokenInterceptor extends HandlerInterceptorAdapter {
+    public static final String HEADER = "X-Admin-Token";
+
+    Logger                     logger = LoggerFactory.getLogger(this.getClass());
+    private final byte[]       token;
+
+    public AdminTokenInterceptor(String token) {
+        this.token = token == null || token.isEmpty() ? null : token.getBytes(StandardCharsets.UTF_8);
+        if (this.token == null) {
+            logger.warn("没有配置trade.admin.token，管理接口全部拒绝");
+        }
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws Exception {
+        if (token == null) {
+            response.sendError(HttpServletResponse.SC_FORBIDDEN, "管理接口未启用");
+            return false;
+        }
+        String value = request.getHeader(HEADER);
+        // 按固定时间比较，不从耗时泄露令牌前缀
+        if (value == null || !MessageDigest.isEqual(token, value.getBytes(StandardCharsets.UTF_8))) {
+            response.sendError(HttpServletResponse.SC_UNAUTHORIZED, "令牌错误");
+            return false;
+        }
+        return true;
+    }
+}
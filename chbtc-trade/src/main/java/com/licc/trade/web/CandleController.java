@@ -0,0 +1,50 @@
+package com.licc.trade.web;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.annotation.Resource;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.licc.btc.chbtcapi.enums.ETradeCurrency;
+import com.licc.trade.candle.Bar;
+import com.licc.trade.candle.CandleAggregator;
+import com.licc.trade.candle.ECandlePeriod;
+import com.licc.trade.domain.Candle;
+
+/**
+ * 最近K线查询，直接读取内存中的K线，不访问数据库
+ * <p>
+ * GET /candles/{currency}?period=1m&amp;limit=100，按时间从早到晚，最后一根为当前未结束的K线。
+ *
+ * @author lichangchao
+ * @version 1.0.0
+ * @date 2018/3/25 11:40
+ * @see CandleAggregator
+ */
+@RestController
+public class CandleController {
+    @Resource
+    CandleAggregator candleAggregator;
+
+    @GetMapping("/candles/{currency}")
+    public ResponseEntity<List<Candle>> latest(@PathVariable("currency") String currency,
+            @RequestParam(value = "period", defaultValue = "1m") String period,
+            @RequestParam(value = "limit", defaultValue = "100") int limit) {
+        ETradeCurrency tradeCurrency = ETradeCurrency.of(currency);
+        ECandlePeriod candlePeriod = ECandlePeriod.of(period);
+        if (tradeCurrency == null || candlePeriod == null) {
+            return ResponseEntity.notFound().build();
+        }
+        int n = Math.max(0, Math.min(limit, candleAggregator.getCapacity()));
+        List<Bar> bars = candleAggregator.latest(tradeCurrency, candlePeriod, n);
+        List<Candle> candles = new ArrayList<>(bars.size());
+        bars.forEach(bar -> candles.add(bar.toCandle()));
+        return ResponseEntity.ok(candles);
+    }
+}
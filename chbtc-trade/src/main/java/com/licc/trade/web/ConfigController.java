@@ -0,0 +1,92 @@
+package com.licc.trade.web;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.annotation.Resource;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.licc.btc.chbtcapi.enums.ETradeCurrency;
+import com.licc.trade.domain.OrderNumber;
+import com.licc.trade.domain.ParamConfig;
+import com.licc.trade.service.ConfigSnapshot;
+import com.licc.trade.service.ConfigSnapshotService;
+
+/**
+ * 交易配置管理接口，修改提交后立即替换本节点的配置快照
+ * <p>
+ * GET /admin/config 查看当前版本；PUT /admin/config/{userId}/{currency} 修改参数配置；
+ * PUT /admin/order-numbers/{userId}/{currency} 整组替换买单数量配置；POST /admin/config/reload 直接改库后通知各节点重新加载。
+ * 全部接口需要请求头{@value AdminTokenInterceptor#HEADER}，见{@link AdminTokenInterceptor}。
+ *
+ * @author lichangchao
+ * @version 1.0.0
+ * @date 2018/3/28 14:20
+ * @see ConfigSnapshotService
+ */
+@RestController
+public class ConfigController {
+    @Resource
+    ConfigSnapshotService configSnapshotService;
+
+    @GetMapping("/admin/config")
+    public ResponseEntity<Map<String, Object>> current() {
+        return ResponseEntity.ok(summary(configSnapshotService.current()));
+    }
+
+    @PostMapping("/admin/config/reload")
+    public ResponseEntity<Map<String, Object>> reload() {
+        configSnapshotService.bumpVersion();
+        return ResponseEntity.ok(summary(configSnapshotService.reload()));
+    }
+
+    @PutMapping("/admin/config/{userId}/{currency}")
+    public ResponseEntity<?> saveParamConfig(@PathVariable("userId") Long userId, @PathVariable("currency") String currency,
+            @RequestBody ParamConfig config) {
+        ETradeCurrency tradeCurrency = ETradeCurrency.of(currency);
+        if (tradeCurrency == null) {
+            return ResponseEntity.notFound().build();
+        }
+        ParamConfig saved;
+        try {
+            saved = configSnapshotService.saveParamConfig(userId, tradeCurrency, config);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+        configSnapshotService.reload();
+        return ResponseEntity.ok(saved);
+    }
+
+    @PutMapping("/admin/order-numbers/{userId}/{currency}")
+    public ResponseEntity<?> saveOrderNumbers(@PathVariable("userId") Long userId, @PathVariable("currency") String currency,
+            @RequestBody List<OrderNumber> orderNumbers) {
+        ETradeCurrency tradeCurrency = ETradeCurrency.of(currency);
+        if (tradeCurrency == null) {
+            return ResponseEntity.notFound().build();
+        }
+        List<OrderNumber> saved;
+        try {
+            saved = configSnapshotService.saveOrderNumbers(userId, tradeCurrency, orderNumbers);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+        configSnapshotService.reload();
+        return ResponseEntity.ok(saved);
+    }
+
+    private static Map<String, Object> summary(ConfigSnapshot snapshot) {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("version", snapshot.getVersion());
+        summary.put("users", snapshot.getUsers().size());
+        summary.put("configs", snapshot.getConfigCount());
+        return summary;
+    }
+}
@@ -0,0 +1,66 @@
+package com.licc.trade.candle;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.List;
+
+import org.junit.Test;
+
+import com.licc.btc.chbtcapi.enums.ETradeCurrency;
+
+/**
+ *
+ * @author lichangchao
+ * @version 1.0.0
+ * @date 2018/3/25 14:00
+ * @see
+ */
+public class TestCandleSeries {
+    private static final long MINUTE = 60000L;
+
+    /**
+     * 同一周期内更新高低收和成交量，进入新周期时返回结束的K线
+     */
+    @Test
+    public void testUpdate() {
+        CandleSeries series = new CandleSeries(ETradeCurrency.ZB_QC, ECandlePeriod.M1, 10);
+        assertNull(series.update(10 * MINUTE + 1000, 100, 1));
+        assertNull(series.update(10 * MINUTE + 2000, 120, 2));
+        assertNull(series.update(10 * MINUTE + 3000, 90, 3));
+        assertNull(series.update(10 * MINUTE + 4000, 110, 4));
+        // 早于当前K线的行情忽略
+        assertNull(series.update(9 * MINUTE, 500, 5));
+
+        Bar closed = series.update(12 * MINUTE, 130, 6);
+        assertEquals(10 * MINUTE, closed.getOpenTime());
+        assertEquals(100, closed.getOpen());
+        assertEquals(120, closed.getHigh());
+        assertEquals(90, closed.getLow());
+        assertEquals(110, closed.getClose());
+        assertEquals(10, closed.getVolume());
+
+        // 没有行情的周期不补K线
+        List<Bar> bars = series.latest(5);
+        assertEquals(2, bars.size());
+        assertEquals(12 * MINUTE, bars.get(1).getOpenTime());
+        assertEquals(130, bars.get(1).getClose());
+    }
+
+    /**
+     * 环形缓冲区只保留最近capacity根
+     */
+    @Test
+    public void testRing() {
+        CandleSeries series = new CandleSeries(ETradeCurrency.ZB_QC, ECandlePeriod.M5, 3);
+        for (int i = 0; i < 10; i++) {
+            series.update(i * 5 * MINUTE, i, 0);
+        }
+        List<Bar> bars = series.latest(100);
+        assertEquals(3, bars.size());
+        assertEquals(7, bars.get(0).getOpen());
+        assertEquals(9, bars.get(2).getOpen());
+        assertEquals(1, series.latest(1).size());
+        assertEquals(9, series.latest(1).get(0).getOpen());
+    }
+}
@@ -0,0 +1,105 @@
+package com.licc.trade.config;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import javax.persistence.GeneratedValue;
+import javax.persistence.Id;
+import javax.persistence.Table;
+
+import org.hibernate.annotations.GenericGenerator;
+import org.junit.Test;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.licc.trade.candle.CandleWriter;
+import com.licc.trade.domain.BlockIdGenerator;
+import com.licc.trade.domain.Candle;
+import com.licc.trade.domain.OrderIntent;
+import com.licc.trade.domain.OrderNumber;
+import com.licc.trade.domain.ParamConfig;
+import com.licc.trade.domain.Ticker;
+import com.licc.trade.domain.TradeOrder;
+import com.licc.trade.domain.User;
+import com.licc.trade.service.ConfigSnapshotService;
+import com.licc.trade.service.OrderIntentService;
+import com.licc.trade.service.TickerWriter;
+import com.licc.trade.service.TradeOrderBook;
+
+/**
+ * 主键分配表的初始化语句，以及使用按块分配主键的实体和初始化的表一一对应
+ *
+ * @author lichangchao
+ * @version 1.0.0
+ * @date 2018/4/2 14:20
+ * @see IdBlockSeeder
+ */
+public class TestIdBlockSeeder {
+
+    /**
+     * 每张表一条语句，只在还没有行时按max(id)+1插入
+     */
+    @Test
+    public void testSeed() {
+        List<String> sqls = new ArrayList<>();
+        List<Object[]> args = new ArrayList<>();
+        IdBlockSeeder seeder = new IdBlockSeeder();
+        seeder.jdbcTemplate = new JdbcTemplate() {
+            @Override
+            public int update(String sql, Object... params) {
+                sqls.add(sql);
+                args.add(params);
+                return 1;
+            }
+        };
+        seeder.seed();
+
+        assertEquals(IdBlockSeeder.TABLES.length, sqls.size());
+        assertEquals("insert into id_generator (sequence_name, next_val) select ?, t.next_id"
+                + " from (select coalesce(max(id), 0) + 1 as next_id from trade_order) t"
+                + " where not exists (select 1 from id_generator where sequence_name = ?)", IdBlockSeeder.seedSql("trade_order"));
+        for (int i = 0; i < sqls.size(); i++) {
+            String table = IdBlockSeeder.TABLES[i];
+            assertEquals(IdBlockSeeder.seedSql(table), sqls.get(i));
+            assertEquals(Arrays.asList(table, table), Arrays.asList(args.get(i)));
+        }
+    }
+
+    /**
+     * 新增使用按块分配主键的实体时也要加入初始化的表
+     */
+    @Test
+    public void testEntitiesSeeded() throws Exception {
+        Set<String> tables = new HashSet<>();
+        for (Class<?> entity : Arrays.asList(User.class, Ticker.class, TradeOrder.class, ParamConfig.class, OrderNumber.class,
+                Candle.class, OrderIntent.class)) {
+            tables.add(entity.getAnnotation(Table.class).name());
+            Field id = entity.getDeclaredField("id");
+            assertNotNull(entity.getName(), id.getAnnotation(Id.class));
+            assertEquals(entity.getName(), BlockIdGenerator.NAME, id.getAnnotation(GeneratedValue.class).generator());
+            assertEquals(entity.getName(), BlockIdGenerator.STRATEGY, id.getAnnotation(GenericGenerator.class).strategy());
+        }
+        assertEquals(new HashSet<>(Arrays.asList(IdBlockSeeder.TABLES)), tables);
+    }
+
+    /**
+     * 启动时就会插入数据的bean在初始化之后创建
+     */
+    @Test
+    public void testInsertingBeansDependOnSeeder() {
+        for (Class<?> bean : Arrays.asList(TradeOrderBook.class, OrderIntentService.class, TickerWriter.class, CandleWriter.class,
+                ConfigSnapshotService.class)) {
+            DependsOn dependsOn = bean.getAnnotation(DependsOn.class);
+            assertNotNull(bean.getName(), dependsOn);
+            assertTrue(bean.getName(), Arrays.asList(dependsOn.value()).contains(IdBlockSeeder.NAME));
+        }
+    }
+}
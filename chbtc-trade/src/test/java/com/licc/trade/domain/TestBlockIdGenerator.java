@@ -0,0 +1,39 @@
+package com.licc.trade.domain;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Properties;
+
+import org.hibernate.id.enhanced.TableGenerator;
+import org.junit.Test;
+
+/**
+ * 生成器参数：共用id_generator表，以表名为行的键，pooled-lo，实体上的increment_size优先
+ *
+ * @author lichangchao
+ * @version 1.0.0
+ * @date 2018/4/2 14:40
+ * @see BlockIdGenerator
+ */
+public class TestBlockIdGenerator {
+
+    @Test
+    public void testDefaults() {
+        Properties params = new Properties();
+        BlockIdGenerator.applyDefaults(params);
+        assertEquals("id_generator", params.getProperty(TableGenerator.TABLE_PARAM));
+        assertEquals(BlockIdGenerator.SEGMENT_COLUMN, params.getProperty(TableGenerator.SEGMENT_COLUMN_PARAM));
+        assertEquals(BlockIdGenerator.VALUE_COLUMN, params.getProperty(TableGenerator.VALUE_COLUMN_PARAM));
+        assertEquals("true", params.getProperty(TableGenerator.CONFIG_PREFER_SEGMENT_PER_ENTITY));
+        assertEquals("pooled-lo", params.getProperty(TableGenerator.OPT_PARAM));
+        assertEquals("50", params.getProperty(TableGenerator.INCREMENT_PARAM));
+    }
+
+    @Test
+    public void testIncrementFromEntity() {
+        Properties params = new Properties();
+        params.setProperty(TableGenerator.INCREMENT_PARAM, "1000");
+        BlockIdGenerator.applyDefaults(params);
+        assertEquals("1000", params.getProperty(TableGenerator.INCREMENT_PARAM));
+    }
+}
@@ -0,0 +1,101 @@
+package com.licc.trade.engine;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.licc.btc.chbtcapi.enums.ETradeCurrency;
+import com.licc.btc.chbtcapi.res.ticker.FixedTicker;
+import com.licc.trade.domain.User;
+import com.licc.trade.market.MarketDataHub;
+import com.licc.trade.service.TradeService;
+
+/**
+ *
+ * @author lichangchao
+ * @version 1.0.0
+ * @date 2018/3/29 15:30
+ * @see
+ */
+public class TestTradeEngine {
+    private TradeEngine                engine;
+    // userId:currency -> 正在执行的线程数
+    private Map<String, AtomicInteger> running;
+    // userId:currency -> 最后执行的行情
+    private Map<String, Long>          lastExecuted;
+    private AtomicInteger              maxRunning;
+
+    @Before
+    public void setUp() {
+        running = new ConcurrentHashMap<>();
+        lastExecuted = new ConcurrentHashMap<>();
+        maxRunning = new AtomicInteger();
+        engine = new TradeEngine();
+        engine.threads = 4;
+        engine.marketDataHub = new MarketDataHub();
+        engine.tradeService = new TradeService() {
+            @Override
+            public void execute(ETradeCurrency tradeCurrency, User user, FixedTicker ticker) {
+                String key = user.getId() + ":" + tradeCurrency.getValue();
+                AtomicInteger count = running.computeIfAbsent(key, k -> new AtomicInteger());
+                maxRunning.accumulateAndGet(count.incrementAndGet(), Math::max);
+                try {
+                    Thread.sleep(1);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                lastExecuted.put(key, ticker.getLast());
+                count.decrementAndGet();
+            }
+        };
+        engine.start();
+    }
+
+    @After
+    public void tearDown() throws InterruptedException {
+        engine.stop();
+    }
+
+    /**
+     * 同一分片不并发执行，执行期间到达的行情合并为最新的一条，最后一条一定会执行
+     */
+    @Test
+    public void testShardSerialAndLatestWins() throws InterruptedException {
+        for (long tick = 1; tick <= 200; tick++) {
+            for (long userId = 1; userId <= 3; userId++) {
+                for (ETradeCurrency currency : new ETradeCurrency[] { ETradeCurrency.ZB_QC, ETradeCurrency.BTC_QC }) {
+                    engine.submit(currency, user(userId), new FixedTicker(currency, 0, 0, 0, 0, tick));
+                }
+            }
+        }
+        // 统计在执行返回后才更新，等到所有分片都处理完
+        long deadline = System.currentTimeMillis() + 5000;
+        while (System.currentTimeMillis() < deadline
+                && !engine.drainStats().stream().allMatch(s -> s.getRuns() + s.getOverruns() == 200)) {
+            Thread.sleep(10);
+        }
+        assertEquals(1, maxRunning.get());
+        assertEquals(6, lastExecuted.size());
+        lastExecuted.values().forEach(last -> assertEquals(Long.valueOf(200), last));
+
+        List<ShardStats> stats = engine.drainStats();
+        assertEquals(6, stats.size());
+        stats.forEach(s -> assertEquals(200, s.getRuns() + s.getOverruns()));
+        assertTrue(stats.stream().mapToLong(ShardStats::getOverruns).sum() > 0);
+    }
+
+    private static User user(long id) {
+        User user = new User();
+        user.setId(id);
+        user.setUserName("u" + id);
+        return user;
+    }
+}
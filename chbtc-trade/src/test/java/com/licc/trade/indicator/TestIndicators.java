@@ -0,0 +1,107 @@
+package com.licc.trade.indicator;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.licc.trade.candle.ECandlePeriod;
+
+/**
+ *
+ * @author lichangchao
+ * @version 1.0.0
+ * @date 2018/3/26 14:00
+ * @see
+ */
+public class TestIndicators {
+
+    /**
+     * 增量计算的结果与按窗口直接计算的一致
+     */
+    @Test
+    public void testAgainstWindow() {
+        int period = 20;
+        Random random = new Random(7);
+        long[] prices = new long[500];
+        long[] volumes = new long[prices.length];
+        long price = 25000;
+        for (int i = 0; i < prices.length; i++) {
+            price += random.nextInt(201) - 100;
+            prices[i] = price;
+            volumes[i] = random.nextInt(1000);
+        }
+        Sma sma = new Sma(period);
+        RollingExtreme high = new RollingExtreme(period, true);
+        RollingExtreme low = new RollingExtreme(period, false);
+        Bollinger upper = new Bollinger(period, 2, Bollinger.UPPER);
+        Vwap vwap = new Vwap(period);
+        for (int i = 0; i < prices.length; i++) {
+            for (Indicator indicator : new Indicator[] { sma, high, low, upper, vwap }) {
+                indicator.update(prices[i], prices[i], prices[i], volumes[i]);
+            }
+            assertEquals(i >= period - 1, sma.isReady());
+            int from = Math.max(0, i - period + 1);
+            long sum = 0;
+            long max = Long.MIN_VALUE;
+            long min = Long.MAX_VALUE;
+            double amount = 0;
+            long volume = 0;
+            for (int j = from; j <= i; j++) {
+                sum += prices[j];
+                max = Math.max(max, prices[j]);
+                min = Math.min(min, prices[j]);
+                amount += (double) prices[j] * volumes[j];
+                volume += volumes[j];
+            }
+            int n = i - from + 1;
+            double mean = (double) sum / n;
+            double squares = 0;
+            for (int j = from; j <= i; j++) {
+                squares += (prices[j] - mean) * (prices[j] - mean);
+            }
+            assertEquals(mean, sma.value(), 1e-6);
+            assertEquals(max, high.value(), 0);
+            assertEquals(min, low.value(), 0);
+            assertEquals(mean + 2 * Math.sqrt(squares / n), upper.value(), 1e-3);
+            assertEquals(volume == 0 ? prices[i] : amount / volume, vwap.value(), 1e-6);
+        }
+    }
+
+    @Test
+    public void testEmaAndAtr() {
+        Ema ema = new Ema(3);
+        ema.update(10, 10, 10, 0);
+        ema.update(20, 20, 20, 0);
+        assertFalse(ema.isReady());
+        ema.update(30, 30, 30, 0);
+        assertTrue(ema.isReady());
+        assertEquals(20, ema.value(), 1e-9);
+        ema.update(40, 40, 40, 0);
+        assertEquals(30, ema.value(), 1e-9);
+
+        Atr atr = new Atr(2);
+        atr.update(12, 8, 10, 0);
+        atr.update(15, 11, 14, 0);
+        assertEquals(4.5, atr.value(), 1e-9);
+        atr.update(14, 13, 13, 0);
+        assertEquals(2.75, atr.value(), 1e-9);
+    }
+
+    @Test
+    public void testSpec() {
+        assertEquals("bolldn(20,2.0)@5m", IndicatorSpec.parse("BollDn(20, 2)@5m").toString());
+        assertEquals(ECandlePeriod.M1, IndicatorSpec.parse("low(60)@1m").getSource());
+        assertEquals(null, IndicatorSpec.parse("ema(20)").getSource());
+        for (String bad : new String[] { "ema", "ema(20,2)", "boll(20)", "foo(3)", "sma(0)", "ema(20)@2m" }) {
+            try {
+                IndicatorSpec.parse(bad);
+                throw new AssertionError(bad);
+            } catch (IllegalArgumentException expected) {
+            }
+        }
+    }
+}
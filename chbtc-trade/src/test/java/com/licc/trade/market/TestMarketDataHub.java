@@ -0,0 +1,119 @@
+package com.licc.trade.market;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import com.licc.btc.chbtcapi.enums.ETradeCurrency;
+import com.licc.btc.chbtcapi.res.ticker.FixedTicker;
+import com.licc.btc.chbtcapi.res.ticker.TickerApiRes;
+import com.licc.btc.chbtcapi.res.ticker.TickerRes;
+
+/**
+ *
+ * @author lichangchao
+ * @version 1.0.0
+ * @date 2018/3/30 15:20
+ * @see
+ */
+public class TestMarketDataHub {
+
+    /**
+     * 每条行情只解析一次发布给所有监听者，迟到的旧行情和格式错误的行情不发布
+     */
+    @Test
+    public void testPublish() {
+        MarketDataHub hub = new MarketDataHub();
+        List<FixedTicker> received = new ArrayList<>();
+        hub.addListener((currency, tickerApiRes, ticker) -> received.add(ticker));
+        hub.addListener((currency, tickerApiRes, ticker) -> received.add(ticker));
+
+        assertTrue(hub.publish(ETradeCurrency.ZB_QC, ticker(2000L, "1.25")));
+        assertEquals(2, received.size());
+        assertTrue(received.get(0) == received.get(1));
+        assertEquals(12500, hub.current().get(ETradeCurrency.ZB_QC).getLast());
+
+        assertFalse(hub.publish(ETradeCurrency.ZB_QC, ticker(1000L, "1.20")));
+        // 推送和轮询收到的同一条行情只发布一次
+        assertFalse(hub.publish(ETradeCurrency.ZB_QC, ticker(2000L, "1.25")));
+        assertEquals(2, received.size());
+        assertEquals(1, hub.getDuplicate());
+        assertFalse(hub.publish(ETradeCurrency.ZB_QC, ticker(3000L, "abc")));
+        assertEquals(12500, hub.current().get(ETradeCurrency.ZB_QC).getLast());
+        assertEquals(2000L, hub.current().getTime(ETradeCurrency.ZB_QC));
+        assertEquals(1, hub.getLate());
+        assertNull(hub.current().get(ETradeCurrency.BTC_QC));
+
+        // 发布前取到的快照不受影响
+        MarketSnapshot before = hub.current();
+        assertTrue(hub.publish(ETradeCurrency.ZB_QC, ticker(3000L, "1.30")));
+        assertEquals(12500, before.get(ETradeCurrency.ZB_QC).getLast());
+        assertEquals(13000, hub.current().get(ETradeCurrency.ZB_QC).getLast());
+        assertEquals(4, received.size());
+    }
+
+    /**
+     * 一个币种的监听者处理慢时，其他币种照常发布
+     */
+    @Test
+    public void testPublishPerCurrency() throws Exception {
+        MarketDataHub hub = new MarketDataHub();
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        hub.addListener((currency, tickerApiRes, ticker) -> {
+            if (currency == ETradeCurrency.ZB_QC) {
+                entered.countDown();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        });
+
+        long btcLast = FixedTicker.of(ETradeCurrency.BTC_QC, ticker(2000L, "50000")).getLast();
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<Boolean> slow = executor.submit(() -> hub.publish(ETradeCurrency.ZB_QC, ticker(2000L, "1.25")));
+            assertTrue(entered.await(5, TimeUnit.SECONDS));
+
+            assertTrue(hub.publish(ETradeCurrency.BTC_QC, ticker(2000L, "50000")));
+            assertEquals(btcLast, hub.current().get(ETradeCurrency.BTC_QC).getLast());
+            assertEquals(1, release.getCount());
+
+            release.countDown();
+            assertTrue(slow.get(5, TimeUnit.SECONDS));
+            // 两个币种并发替换快照，谁也不覆盖谁
+            assertEquals(12500, hub.current().get(ETradeCurrency.ZB_QC).getLast());
+            assertEquals(btcLast, hub.current().get(ETradeCurrency.BTC_QC).getLast());
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    private static TickerApiRes ticker(long date, String last) {
+        TickerRes ticker = new TickerRes();
+        ticker.setBuy(last);
+        ticker.setSell(last);
+        ticker.setHigh(last);
+        ticker.setLow(last);
+        ticker.setLast(last);
+        ticker.setVol("1");
+        TickerApiRes tickerApiRes = new TickerApiRes();
+        tickerApiRes.setDate(date);
+        tickerApiRes.setTicker(ticker);
+        return tickerApiRes;
+    }
+}
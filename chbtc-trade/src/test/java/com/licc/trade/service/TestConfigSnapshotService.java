@@ -0,0 +1,82 @@
+package com.licc.trade.service;
+
+import static org.junit.Assert.fail;
+
+import org.junit.Test;
+
+import com.licc.btc.chbtcapi.enums.ETradeCurrency;
+import com.licc.trade.domain.ParamConfig;
+
+/**
+ * 保存参数配置前的校验，交易循环会解析的参数格式错误时不能写库
+ *
+ * @author lichangchao
+ * @version 1.0.0
+ * @date 2018/4/2 11:30
+ * @see
+ */
+public class TestConfigSnapshotService {
+
+    @Test
+    public void testValidate() {
+        ConfigSnapshotService.validate(config(), ETradeCurrency.ZB_QC);
+
+        // 未配置的可选项不需要解析
+        ParamConfig optional = config();
+        optional.setOrderSellPrice(null);
+        optional.setDownBuy(null);
+        optional.setDownBuyEnable(false);
+        optional.setBuyBelow("");
+        optional.setMaxBuyNumber(null);
+        ConfigSnapshotService.validate(optional, ETradeCurrency.ZB_QC);
+    }
+
+    @Test
+    public void testInvalid() {
+        ParamConfig config = config();
+        config.setHightBuyDiff("abc");
+        assertInvalid(config);
+
+        config = config();
+        config.setSellBuyDiff(null);
+        assertInvalid(config);
+
+        config = config();
+        config.setDownBuy(null);
+        assertInvalid(config);
+
+        config = config();
+        config.setDownBuyEnable(null);
+        assertInvalid(config);
+
+        config = config();
+        config.setBuyOverTime(null);
+        assertInvalid(config);
+
+        config = config();
+        config.setBuyBelow("bolldn(20");
+        assertInvalid(config);
+    }
+
+    private static void assertInvalid(ParamConfig config) {
+        try {
+            ConfigSnapshotService.validate(config, ETradeCurrency.ZB_QC);
+            fail("应该校验失败");
+        } catch (IllegalArgumentException e) {
+            // 控制器返回400
+        }
+    }
+
+    private static ParamConfig config() {
+        ParamConfig config = new ParamConfig();
+        config.setHightBuyDiff("0.05");
+        config.setSellBuyDiff("0.001");
+        config.setOrderSellPrice("1.30");
+        config.setDownBuy("0.01");
+        config.setDownBuyEnable(true);
+        config.setBuyOverTime(600000L);
+        config.setMaxBuyNumber(10L);
+        config.setBuyBelow("bolldn(20,2)@5m");
+        return config;
+    }
+}
@@ -0,0 +1,165 @@
+package com.licc.trade.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.collect.Lists;
+import com.licc.btc.chbtcapi.enums.ETradeCurrency;
+import com.licc.btc.chbtcapi.enums.ETradeOrderStatus;
+import com.licc.btc.chbtcapi.enums.ETradeOrderType;
+import com.licc.btc.chbtcapi.res.order.GetOrdersRes;
+import com.licc.trade.domain.EOrderIntentStatus;
+import com.licc.trade.domain.OrderIntent;
+import com.licc.trade.domain.TradeOrder;
+import com.licc.trade.repostiory.OrderIntentRepostiory;
+import com.licc.trade.repostiory.TradeOrderRepostiory;
+
+/**
+ *
+ * @author lichangchao
+ * @version 1.0.0
+ * @date 2018/3/31 15:10
+ * @see
+ */
+public class TestOrderIntentService {
+    private OrderIntentService service;
+    private TradeOrderBook     book;
+    // 启动时从order_intent表读出的意图
+    private List<OrderIntent>  stored;
+    private long               nextId;
+
+    @Before
+    public void setUp() {
+        stored = new ArrayList<>();
+        nextId = 1;
+        book = new TradeOrderBook();
+        book.repostiory = (TradeOrderRepostiory) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[] { TradeOrderRepostiory.class }, (proxy, method, args) -> new ArrayList<>());
+        service = new OrderIntentService();
+        service.tradeOrderBook = book;
+        service.tradeOrderRepostiory = book.repostiory;
+        service.resolveAfterMillis = 10000;
+        service.clockSkewMillis = 2000;
+        service.repostiory = (OrderIntentRepostiory) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[] { OrderIntentRepostiory.class }, (proxy, method, args) -> {
+                    if (method.getName().startsWith("find")) {
+                        return stored;
+                    }
+                    if (args[0] instanceof OrderIntent && ((OrderIntent) args[0]).getId() == null) {
+                        ((OrderIntent) args[0]).setId(nextId++);
+                    }
+                    return args[0];
+                });
+    }
+
+    /**
+     * 没有收到响应的委托超过等待时间后按类型、价格和数量认领未成交委托，再到最近委托中找回已经成交的，都找不到的按失败处理
+     */
+    @Test
+    public void testResolve() {
+        long created = System.currentTimeMillis() - 20000;
+        OrderIntent found = service.begin(1L, ETradeCurrency.ZB_QC, ETradeOrderType.ORDER_BUY, "1.25", "100", "0.01", null);
+        OrderIntent filled = service.begin(1L, ETradeCurrency.ZB_QC, ETradeOrderType.ORDER_BUY, "1.30", "100", "0.01", null);
+        OrderIntent missing = service.begin(1L, ETradeCurrency.ZB_QC, ETradeOrderType.ORDER_BUY, "1.35", "100", "0.01", null);
+        OrderIntent recent = service.begin(1L, ETradeCurrency.ZB_QC, ETradeOrderType.ORDER_BUY, "1.25", "100", "0.01", null);
+        found.setCreateTime(new Date(created));
+        filled.setCreateTime(new Date(created));
+        missing.setCreateTime(new Date(created));
+        service.unknown(found);
+        service.unknown(filled);
+        service.unknown(missing);
+        service.unknown(recent);
+        assertTrue(service.hasUnresolved(1L, ETradeCurrency.ZB_QC));
+        assertFalse(service.hasUnresolved(1L, ETradeCurrency.ZB_BTC));
+
+        Map<String, GetOrdersRes> unfinished = new HashMap<>();
+        unfinished.put("900", order("900", "1", "1.2500", "100.0", created));
+        unfinished.put("901", order("901", "0", "1.25", "100", created));
+        // 已经全部成交的委托只在最近委托中，意图之前的同价同量委托不能认领
+        List<GetOrdersRes> history = Lists.newArrayList(order("899", "1", "1.35", "100", created - 60000),
+                order("902", "1", "1.30", "100", created + 500));
+        List<ETradeOrderType> queried = new ArrayList<>();
+        service.resolve(1L, ETradeCurrency.ZB_QC, unfinished, type -> {
+            queried.add(type);
+            return history;
+        });
+
+        assertEquals("900", found.getOrderId());
+        assertEquals(Integer.valueOf(EOrderIntentStatus.ACCEPTED.getKey()), found.getStatus());
+        assertEquals("902", filled.getOrderId());
+        assertEquals(Integer.valueOf(EOrderIntentStatus.ACCEPTED.getKey()), filled.getStatus());
+        assertEquals(Integer.valueOf(EOrderIntentStatus.FAILED.getKey()), missing.getStatus());
+        assertEquals(Integer.valueOf(EOrderIntentStatus.PENDING.getKey()), recent.getStatus());
+        assertEquals(Lists.newArrayList(ETradeOrderType.ORDER_BUY), queried);
+        List<TradeOrder> open = book.listOpen(1L, ETradeCurrency.ZB_QC);
+        assertEquals(2, open.size());
+        assertEquals("900", open.get(0).getBuyOrderId());
+        assertEquals("0.01", open.get(0).getSubtractPrice());
+        assertEquals("902", open.get(1).getBuyOrderId());
+        assertTrue(service.hasUnresolved(1L, ETradeCurrency.ZB_QC));
+    }
+
+    /**
+     * 最近委托查询失败时不能按失败处理，留到下次核对
+     */
+    @Test
+    public void testResolveRecentFailed() {
+        OrderIntent intent = service.begin(1L, ETradeCurrency.ZB_QC, ETradeOrderType.ORDER_SELL, "1.30", "100", null, "800");
+        intent.setCreateTime(new Date(System.currentTimeMillis() - 20000));
+        service.unknown(intent);
+        service.resolve(1L, ETradeCurrency.ZB_QC, new HashMap<>(), type -> null);
+        assertEquals(Integer.valueOf(EOrderIntentStatus.PENDING.getKey()), intent.getStatus());
+        assertTrue(service.hasUnresolvedSell(1L, ETradeCurrency.ZB_QC, "800"));
+    }
+
+    /**
+     * 启动时已受理但订单表里没有的卖单补回订单簿，重复补回结果相同
+     */
+    @Test
+    public void testRecoverSell() {
+        TradeOrder order = new TradeOrder();
+        order.setId(5L);
+        order.setUserId(1L);
+        order.setCurrency(ETradeCurrency.ZB_QC.getValue());
+        order.setBuyOrderId("800");
+        order.setBuyPrice("1.20");
+        order.setBuyNumber("100");
+        order.setBuyStatus(ETradeOrderStatus.SUCCESS.getKey());
+        order.setSellStatus(ETradeOrderStatus.BUY_SUCCESS_NO_SELL.getKey());
+        book.load(Lists.newArrayList(order));
+
+        OrderIntent sell = service.begin(1L, ETradeCurrency.ZB_QC, ETradeOrderType.ORDER_SELL, "1.22", "100", null, "800");
+        sell.setOrderId("801");
+        sell.setStatus(EOrderIntentStatus.ACCEPTED.getKey());
+        stored.add(sell);
+        service.recover();
+        service.recover();
+
+        assertEquals("801", order.getSellOrderId());
+        assertEquals("1.22", order.getSellPrice());
+        assertEquals(Integer.valueOf(ETradeOrderStatus.WAIT.getKey()), order.getSellStatus());
+        assertEquals(0, book.listBoughtNotSold(1L, ETradeCurrency.ZB_QC).size());
+        assertEquals(1, book.getPending());
+    }
+
+    private static GetOrdersRes order(String id, String type, String price, String amount, long tradeDate) {
+        GetOrdersRes res = new GetOrdersRes();
+        res.setTrade_date(String.valueOf(tradeDate));
+        res.setId(id);
+        res.setType(type);
+        res.setPrice(price);
+        res.setTotal_amount(amount);
+        return res;
+    }
+}
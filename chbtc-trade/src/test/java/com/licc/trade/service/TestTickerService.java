@@ -0,0 +1,92 @@
+package com.licc.trade.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.licc.btc.chbtcapi.enums.ETradeCurrency;
+import com.licc.btc.chbtcapi.res.ticker.TickerApiRes;
+import com.licc.btc.chbtcapi.res.ticker.TickerRes;
+import com.licc.trade.candle.CandleAggregator;
+import com.licc.trade.domain.Ticker;
+import com.licc.trade.store.Tick;
+
+/**
+ *
+ * @author lichangchao
+ * @version 1.0.0
+ * @date 2018/3/31 11:00
+ * @see
+ */
+public class TestTickerService {
+    private TickerService tickerService;
+    // 提交给写线程的行情
+    private List<Ticker>  offered;
+    // 交给K线的行情
+    private List<Tick>    ticks;
+
+    @Before
+    public void setUp() {
+        offered = new ArrayList<>();
+        ticks = new ArrayList<>();
+        tickerService = new TickerService();
+        tickerService.tickerWriter = new TickerWriter() {
+            @Override
+            public boolean offer(Ticker ticker) {
+                offered.add(ticker);
+                return true;
+            }
+        };
+        tickerService.candleAggregator = new CandleAggregator() {
+            @Override
+            public void onTick(ETradeCurrency currency, Tick tick) {
+                ticks.add(tick);
+            }
+        };
+    }
+
+    /**
+     * 与该币种上一次记录的行情相同时不再写入，有变化或者其他币种的行情照常写入
+     */
+    @Test
+    public void testRecordChanged() {
+        assertTrue(tickerService.record(ETradeCurrency.ZB_QC, ticker(1000L, "1.25", "100")));
+        assertEquals(ETradeCurrency.ZB_QC.getValue(), offered.get(0).getCurrency());
+        assertEquals(Long.valueOf(1000L), offered.get(0).getTimeLong());
+
+        // 时间变了但行情没变
+        assertFalse(tickerService.record(ETradeCurrency.ZB_QC, ticker(2000L, "1.25", "100")));
+        assertEquals(1, offered.size());
+        assertEquals(1, ticks.size());
+
+        assertTrue(tickerService.record(ETradeCurrency.ZB_QC, ticker(3000L, "1.25", "101")));
+        assertTrue(tickerService.record(ETradeCurrency.ZB_QC, ticker(4000L, "1.26", "101")));
+        assertTrue(tickerService.record(ETradeCurrency.ZB_BTC, ticker(4000L, "1.26", "101")));
+        assertEquals(4, offered.size());
+        assertEquals(4, ticks.size());
+
+        assertFalse(tickerService.record(ETradeCurrency.ZB_QC, new TickerApiRes()));
+        assertFalse(tickerService.record(ETradeCurrency.ZB_QC, null));
+        assertEquals(4, offered.size());
+    }
+
+    private static TickerApiRes ticker(long date, String last, String vol) {
+        TickerRes ticker = new TickerRes();
+        ticker.setBuy(last);
+        ticker.setSell(last);
+        ticker.setHigh(last);
+        ticker.setLow(last);
+        ticker.setLast(last);
+        ticker.setVol(vol);
+        TickerApiRes tickerApiRes = new TickerApiRes();
+        tickerApiRes.setDate(date);
+        tickerApiRes.setTicker(ticker);
+        return tickerApiRes;
+    }
+}
@@ -0,0 +1,142 @@
+package com.licc.trade.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.licc.trade.domain.Ticker;
+import com.licc.trade.repostiory.TickerRepostiory;
+
+/**
+ *
+ * @author lichangchao
+ * @version 1.0.0
+ * @date 2018/3/31 10:20
+ * @see
+ */
+public class TestTickerWriter {
+    private TickerWriter     writer;
+    // 每次批量保存的行情时间
+    private List<List<Long>> batches;
+    // 写线程进入保存后计数，用来确认写线程正卡在第一批
+    private CountDownLatch   saving;
+    // 放行被卡住的保存
+    private CountDownLatch   release;
+    // 写线程等待放行时被中断
+    private CountDownLatch   interrupted;
+
+    @Before
+    public void setUp() {
+        batches = new CopyOnWriteArrayList<>();
+        saving = new CountDownLatch(1);
+        release = new CountDownLatch(1);
+        interrupted = new CountDownLatch(1);
+        writer = new TickerWriter();
+        writer.queueCapacity = 2;
+        writer.batchSize = 10;
+        writer.repostiory = (TickerRepostiory) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[] { TickerRepostiory.class }, (proxy, method, args) -> {
+                    @SuppressWarnings("unchecked")
+                    List<Ticker> batch = (List<Ticker>) args[0];
+                    List<Long> times = new ArrayList<>();
+                    batch.forEach(ticker -> times.add(ticker.getTimeLong()));
+                    batches.add(times);
+                    saving.countDown();
+                    awaitRelease();
+                    return batch;
+                });
+        writer.start();
+    }
+
+    @After
+    public void tearDown() throws InterruptedException {
+        release.countDown();
+        writer.stop();
+    }
+
+    /**
+     * 写线程卡住时队列满了直接丢弃并计数，放行后排队的行情一批写入
+     */
+    @Test
+    public void testDropWhenFull() throws InterruptedException {
+        assertTrue(writer.offer(ticker(1L)));
+        assertTrue(saving.await(5, TimeUnit.SECONDS));
+
+        assertTrue(writer.offer(ticker(2L)));
+        assertTrue(writer.offer(ticker(3L)));
+        assertFalse(writer.offer(ticker(4L)));
+        assertEquals(1, writer.getDropped());
+        assertEquals(2, writer.getPending());
+
+        release.countDown();
+        writer.stop();
+        assertEquals(Arrays.asList(Arrays.asList(1L), Arrays.asList(2L, 3L)), batches);
+        assertEquals(3, writer.getWritten());
+        assertEquals(1, writer.getDropped());
+    }
+
+    /**
+     * 停止时队列里剩下的行情写完再退出
+     */
+    @Test
+    public void testDrainOnStop() throws InterruptedException {
+        assertTrue(writer.offer(ticker(1L)));
+        assertTrue(saving.await(5, TimeUnit.SECONDS));
+        assertTrue(writer.offer(ticker(2L)));
+        assertTrue(writer.offer(ticker(3L)));
+
+        Thread stopper = new Thread(() -> {
+            try {
+                writer.stop();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        stopper.start();
+        // 写线程已被中断，说明停止标志已经设置，再放行第一批
+        assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+        release.countDown();
+        stopper.join(TimeUnit.SECONDS.toMillis(10));
+
+        assertEquals(Arrays.asList(Arrays.asList(1L), Arrays.asList(2L, 3L)), batches);
+        assertEquals(3, writer.getWritten());
+        assertEquals(0, writer.getPending());
+    }
+
+    /**
+     * 等待放行，期间的中断记下后保留给写线程处理
+     */
+    private void awaitRelease() {
+        boolean wasInterrupted = false;
+        while (true) {
+            try {
+                release.await();
+                break;
+            } catch (InterruptedException e) {
+                wasInterrupted = true;
+                interrupted.countDown();
+            }
+        }
+        if (wasInterrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static Ticker ticker(Long time) {
+        Ticker ticker = new Ticker();
+        ticker.setTimeLong(time);
+        return ticker;
+    }
+}
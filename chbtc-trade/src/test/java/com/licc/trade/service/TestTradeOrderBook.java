@@ -0,0 +1,131 @@
+package com.licc.trade.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.collect.Lists;
+import com.licc.btc.chbtcapi.enums.ETradeCurrency;
+import com.licc.btc.chbtcapi.enums.ETradeOrderStatus;
+import com.licc.trade.domain.TradeOrder;
+import com.licc.trade.repostiory.TradeOrderRepostiory;
+
+/**
+ *
+ * @author lichangchao
+ * @version 1.0.0
+ * @date 2018/3/27 15:40
+ * @see
+ */
+public class TestTradeOrderBook {
+    private TradeOrderBook         book;
+    // 每次批量保存的快照
+    private List<List<TradeOrder>> batches;
+    private long                   nextId;
+
+    @Before
+    public void setUp() {
+        batches = new ArrayList<>();
+        nextId = 1000;
+        book = new TradeOrderBook();
+        book.batchSize = 200;
+        book.repostiory = (TradeOrderRepostiory) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[] { TradeOrderRepostiory.class }, (proxy, method, args) -> {
+                    @SuppressWarnings("unchecked")
+                    List<TradeOrder> batch = (List<TradeOrder>) args[0];
+                    batch.forEach(order -> {
+                        if (order.getId() == null) {
+                            order.setId(nextId++);
+                        }
+                    });
+                    batches.add(batch);
+                    return batch;
+                });
+    }
+
+    /**
+     * 状态变化后按状态重新索引，完成的订单移出
+     */
+    @Test
+    public void testIndexByStatus() {
+        book.load(Lists.newArrayList(order(5L, "1.2", ETradeOrderStatus.SUCCESS.getKey()),
+                order(3L, "1.5", ETradeOrderStatus.WAIT.getKey())));
+        assertEquals(2, book.countOpen(1L, ETradeCurrency.ZB_QC));
+        assertEquals("1.2", book.getLastBuyPrice(1L, ETradeCurrency.ZB_QC));
+        assertEquals(1, book.listBuying(1L, ETradeCurrency.ZB_QC).size());
+        assertEquals(1, book.listBoughtNotSold(1L, ETradeCurrency.ZB_QC).size());
+
+        TradeOrder buying = book.listBuying(1L, ETradeCurrency.ZB_QC).get(0);
+        buying.setBuyStatus(ETradeOrderStatus.SUCCESS.getKey());
+        book.save(buying);
+        assertEquals(0, book.listBuying(1L, ETradeCurrency.ZB_QC).size());
+        assertEquals(2, book.listBoughtNotSold(1L, ETradeCurrency.ZB_QC).size());
+
+        TradeOrder sold = book.listBoughtNotSold(1L, ETradeCurrency.ZB_QC).get(1);
+        sold.setSellStatus(ETradeOrderStatus.SUCCESS.getKey());
+        book.save(sold);
+        assertEquals(1, book.countOpen(1L, ETradeCurrency.ZB_QC));
+        assertEquals("1.5", book.getLastBuyPrice(1L, ETradeCurrency.ZB_QC));
+        assertEquals(0, book.countOpen(1L, ETradeCurrency.ZB_BTC));
+        assertNull(book.getLastBuyPrice(1L, ETradeCurrency.ZB_BTC));
+    }
+
+    /**
+     * 委托失败的买单和取消一样不算未完成，不占委托笔数
+     */
+    @Test
+    public void testFailedBuyClosed() {
+        book.load(Lists.newArrayList(order(5L, "1.2", ETradeOrderStatus.FAIL.getKey()),
+                order(6L, "1.3", ETradeOrderStatus.WAIT.getKey())));
+        assertEquals(1, book.countOpen(1L, ETradeCurrency.ZB_QC));
+        assertEquals("1.3", book.getLastBuyPrice(1L, ETradeCurrency.ZB_QC));
+
+        TradeOrder failed = book.listBuying(1L, ETradeCurrency.ZB_QC).get(0);
+        failed.setBuyStatus(ETradeOrderStatus.FAIL.getKey());
+        book.save(failed);
+        assertEquals(0, book.countOpen(1L, ETradeCurrency.ZB_QC));
+        assertEquals(0, book.listBuying(1L, ETradeCurrency.ZB_QC).size());
+        assertNull(book.getLastBuyPrice(1L, ETradeCurrency.ZB_QC));
+    }
+
+    /**
+     * 同一订单未写入的修改只写最新一份，新订单插入后回填主键，之后按更新写入
+     */
+    @Test
+    public void testWriteBehind() {
+        TradeOrder order = order(null, "2.0", ETradeOrderStatus.WAIT.getKey());
+        book.save(order);
+        order.setBuyStatus(ETradeOrderStatus.SUCCESS.getKey());
+        book.save(order);
+        assertEquals(1, book.getPending());
+
+        book.flush();
+        assertEquals(1, batches.size());
+        assertEquals(Long.valueOf(1000), order.getId());
+        assertEquals(Integer.valueOf(ETradeOrderStatus.SUCCESS.getKey()), batches.get(0).get(0).getBuyStatus());
+
+        order.setSellStatus(ETradeOrderStatus.WAIT.getKey());
+        book.save(order);
+        book.flush();
+        assertEquals(Long.valueOf(1000), batches.get(1).get(0).getId());
+        assertEquals(0, book.getPending());
+        assertEquals(2, book.getWritten());
+    }
+
+    private static TradeOrder order(Long id, String buyPrice, int buyStatus) {
+        TradeOrder order = new TradeOrder();
+        order.setId(id);
+        order.setUserId(1L);
+        order.setCurrency(ETradeCurrency.ZB_QC.getValue());
+        order.setBuyPrice(buyPrice);
+        order.setBuyStatus(buyStatus);
+        order.setSellStatus(ETradeOrderStatus.BUY_SUCCESS_NO_SELL.getKey());
+        return order;
+    }
+}
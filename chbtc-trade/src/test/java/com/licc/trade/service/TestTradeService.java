@@ -0,0 +1,194 @@
+package com.licc.trade.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.stream.Stream;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.collect.Lists;
+import com.licc.btc.chbtcapi.ChbtcClient;
+import com.licc.btc.chbtcapi.RequestNotSentException;
+import com.licc.btc.chbtcapi.enums.ETradeCurrency;
+import com.licc.btc.chbtcapi.enums.ETradeOrderStatus;
+import com.licc.btc.chbtcapi.enums.ETradeOrderType;
+import com.licc.btc.chbtcapi.req.GetOrderReq;
+import com.licc.btc.chbtcapi.req.GetOrdersNewReq;
+import com.licc.btc.chbtcapi.req.GetUnfinishedOrdersReq;
+import com.licc.btc.chbtcapi.req.OrderReq;
+import com.licc.btc.chbtcapi.res.order.GetOrderRes;
+import com.licc.btc.chbtcapi.res.order.GetOrdersRes;
+import com.licc.btc.chbtcapi.res.order.OrderRes;
+import com.licc.btc.chbtcapi.res.ticker.FixedTicker;
+import com.licc.trade.domain.OrderIntent;
+import com.licc.trade.domain.ParamConfig;
+import com.licc.trade.domain.TradeOrder;
+import com.licc.trade.domain.User;
+import com.licc.trade.repostiory.OrderIntentRepostiory;
+import com.licc.trade.repostiory.TradeOrderRepostiory;
+
+/**
+ * 委托没有收到响应时下一轮不重复委托
+ *
+ * @author lichangchao
+ * @version 1.0.0
+ * @date 2018/3/31 16:40
+ * @see
+ */
+public class TestTradeService {
+    private TradeService       service;
+    private OrderIntentService orderIntentService;
+    private TradeOrderBook     book;
+    // 调用下单接口的次数，全部按无响应返回
+    private int                orders;
+    // 为true时按请求没有发出处理
+    private boolean            notSent;
+    // 拉取未成交委托列表的次数
+    private int                unfinishedFetches;
+
+    @Before
+    public void setUp() {
+        book = new TradeOrderBook();
+        book.repostiory = (TradeOrderRepostiory) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[] { TradeOrderRepostiory.class }, (proxy, method, args) -> new ArrayList<>());
+        orderIntentService = new OrderIntentService();
+        orderIntentService.tradeOrderBook = book;
+        orderIntentService.tradeOrderRepostiory = book.repostiory;
+        orderIntentService.resolveAfterMillis = 10000;
+        orderIntentService.repostiory = (OrderIntentRepostiory) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[] { OrderIntentRepostiory.class }, (proxy, method, args) -> args[0]);
+        service = new TradeService();
+        service.tradeOrderBook = book;
+        service.orderIntentService = orderIntentService;
+        service.chbtcClient = new ChbtcClient() {
+            @Override
+            public OrderRes submitOrder(OrderReq orderReq) throws RequestNotSentException {
+                orders++;
+                if (notSent) {
+                    throw new RequestNotSentException("熔断器已打开");
+                }
+                return null;
+            }
+
+            @Override
+            public Stream<GetOrdersRes> streamUnfinishedOrders(GetUnfinishedOrdersReq req) {
+                unfinishedFetches++;
+                return Stream.empty();
+            }
+
+            @Override
+            public Stream<GetOrdersRes> streamOrdersNew(GetOrdersNewReq req) {
+                return Stream.empty();
+            }
+
+            @Override
+            public GetOrderRes getOrder(GetOrderReq getOrderReq) {
+                return null;
+            }
+        };
+    }
+
+    @After
+    public void shutdown() {
+        service.chbtcClient.shutdown();
+    }
+
+    /**
+     * 卖单无响应后同一订单不再委托卖单，其他订单照常委托
+     */
+    @Test
+    public void testUnknownSellNotResubmitted() {
+        book.load(Lists.newArrayList(bought(5L, "800"), bought(6L, "801")));
+        User user = user();
+        ParamConfig config = new ParamConfig();
+        config.setCurrency(ETradeCurrency.ZB_QC.getValue());
+        FixedTicker ticker = new FixedTicker(ETradeCurrency.ZB_QC, 0, 0, 0, 0, 0);
+
+        service.sellOrder(ETradeCurrency.ZB_QC, user, config, ticker);
+        assertEquals(2, orders);
+        assertTrue(orderIntentService.hasUnresolvedSell(1L, ETradeCurrency.ZB_QC, "800"));
+        // 第二轮两笔都在等待核对
+        service.sellOrder(ETradeCurrency.ZB_QC, user, config, ticker);
+        assertEquals(2, orders);
+        assertEquals(2, book.listBoughtNotSold(1L, ETradeCurrency.ZB_QC).size());
+    }
+
+    /**
+     * 买单无响应后该用户该币种不再委托买单，其他币种不受影响
+     */
+    @Test
+    public void testUnknownBuyNotResubmitted() {
+        OrderIntent intent = orderIntentService.begin(1L, ETradeCurrency.ZB_QC, ETradeOrderType.ORDER_BUY, "1.25", "100", "0.01", null);
+        orderIntentService.unknown(intent);
+        assertTrue(orderIntentService.hasUnresolvedBuy(1L, ETradeCurrency.ZB_QC));
+        assertFalse(orderIntentService.hasUnresolvedBuy(1L, ETradeCurrency.ZB_BTC));
+        assertFalse(orderIntentService.hasUnresolvedSell(1L, ETradeCurrency.ZB_QC, "800"));
+
+        service.buyOrder(ETradeCurrency.ZB_QC, user(), new ParamConfig(), new FixedTicker(ETradeCurrency.ZB_QC, 0, 0, 0, 0, 0));
+        assertEquals(0, orders);
+    }
+
+    /**
+     * 请求没有发出时意图直接失败，不等待核对，下一轮照常委托；剩下的订单本轮不再委托
+     */
+    @Test
+    public void testNotSentFailsImmediately() {
+        book.load(Lists.newArrayList(bought(5L, "800"), bought(6L, "801")));
+        ParamConfig config = new ParamConfig();
+        config.setCurrency(ETradeCurrency.ZB_QC.getValue());
+        FixedTicker ticker = new FixedTicker(ETradeCurrency.ZB_QC, 0, 0, 0, 0, 0);
+        notSent = true;
+
+        service.sellOrder(ETradeCurrency.ZB_QC, user(), config, ticker);
+        assertEquals(1, orders);
+        assertFalse(orderIntentService.hasUnresolved(1L, ETradeCurrency.ZB_QC));
+        service.sellOrder(ETradeCurrency.ZB_QC, user(), config, ticker);
+        assertEquals(2, orders);
+    }
+
+    /**
+     * 有等待核对的委托时，核对和对账共用一次拉取的未成交委托列表
+     */
+    @Test
+    public void testUnfinishedFetchedOnce() {
+        service.orderStatusSweep = true;
+        book.load(Lists.newArrayList(bought(5L, "800")));
+        OrderIntent intent = orderIntentService.begin(1L, ETradeCurrency.ZB_QC, ETradeOrderType.ORDER_BUY, "1.25", "100", "0.01", null);
+        intent.setCreateTime(new Date(System.currentTimeMillis() - 20000));
+        orderIntentService.unknown(intent);
+
+        service.updateOrderStatus(ETradeCurrency.ZB_QC, user());
+        assertEquals(1, unfinishedFetches);
+        assertFalse(orderIntentService.hasUnresolved(1L, ETradeCurrency.ZB_QC));
+        service.updateOrderStatus(ETradeCurrency.ZB_QC, user());
+        assertEquals(2, unfinishedFetches);
+    }
+
+    private static TradeOrder bought(Long id, String buyOrderId) {
+        TradeOrder order = new TradeOrder();
+        order.setId(id);
+        order.setUserId(1L);
+        order.setCurrency(ETradeCurrency.ZB_QC.getValue());
+        order.setBuyOrderId(buyOrderId);
+        order.setBuyPrice("1.20");
+        order.setBuyNumber("100");
+        order.setSubtractPrice("0.01");
+        order.setBuyStatus(ETradeOrderStatus.SUCCESS.getKey());
+        order.setSellStatus(ETradeOrderStatus.BUY_SUCCESS_NO_SELL.getKey());
+        return order;
+    }
+
+    private static User user() {
+        User user = new User();
+        user.setId(1L);
+        user.setUserName("test");
+        return user;
+    }
+}
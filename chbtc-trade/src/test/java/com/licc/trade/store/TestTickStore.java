@@ -0,0 +1,107 @@
+package com.licc.trade.store;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.licc.btc.chbtcapi.enums.ETradeCurrency;
+
+/**
+ *
+ * @author lichangchao
+ * @version 1.0.0
+ * @date 2018/3/24 15:10
+ * @see
+ */
+public class TestTickStore {
+    private static final long DAY   = 24 * 3600 * 1000L;
+    private static final long START = LocalDate.of(2018, 3, 1).atStartOfDay(ZoneOffset.UTC).toInstant().toEpochMilli();
+
+    private Path              dir;
+    private TickStore         store;
+
+    @Before
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("ticks");
+        // 预先映射的记录很少，测试写满后扩大映射
+        store = new TickStore(dir, ZoneOffset.UTC, 100);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        store.close();
+        try (Stream<Path> paths = Files.walk(dir)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    /**
+     * 跨稀疏索引块和跨天的范围扫描
+     */
+    @Test
+    public void testScanAcrossDays() throws IOException {
+        // 每分钟一条，共三天
+        for (int i = 0; i < 3 * 1440; i++) {
+            assertTrue(store.append(ETradeCurrency.ZB_QC, tick(START + i * 60000L, i)));
+        }
+        assertTrue(Files.exists(store.path(ETradeCurrency.ZB_QC, LocalDate.of(2018, 3, 2))));
+
+        List<Long> values = new ArrayList<>();
+        long from = START + DAY - 30 * 60000L;
+        long to = START + DAY + 1000 * 60000L;
+        long visited = store.scan(ETradeCurrency.ZB_QC, from, to, tick -> values.add(tick.getLast()));
+        assertEquals(1031, visited);
+        assertEquals(Long.valueOf(1410), values.get(0));
+        assertEquals(Long.valueOf(2440), values.get(values.size() - 1));
+        assertEquals(0, store.scan(ETradeCurrency.ZB_BTC, from, to, tick -> values.add(tick.getLast())));
+    }
+
+    /**
+     * 时间早于已写入的记录时拒绝，同一时间允许重复
+     */
+    @Test
+    public void testRejectOlder() throws IOException {
+        assertTrue(store.append(ETradeCurrency.ZB_QC, tick(START + DAY, 1)));
+        assertTrue(store.append(ETradeCurrency.ZB_QC, tick(START + DAY, 2)));
+        assertFalse(store.append(ETradeCurrency.ZB_QC, tick(START + DAY - 1, 3)));
+        assertFalse(store.append(ETradeCurrency.ZB_QC, tick(START, 4)));
+        assertEquals(2, store.scan(ETradeCurrency.ZB_QC, START, START + 2 * DAY, tick -> {
+        }));
+    }
+
+    /**
+     * 重新打开后继续追加，之前写入的记录仍然可以读取
+     */
+    @Test
+    public void testReopen() throws IOException {
+        for (int i = 0; i < 500; i++) {
+            store.append(ETradeCurrency.BTC_QC, tick(START + i, i));
+        }
+        store.close();
+        store = new TickStore(dir, ZoneOffset.UTC, 100);
+        assertFalse(store.append(ETradeCurrency.BTC_QC, tick(START + 10, 0)));
+        assertTrue(store.append(ETradeCurrency.BTC_QC, tick(START + 500, 500)));
+
+        long[] sum = new long[1];
+        assertEquals(501, store.scan(ETradeCurrency.BTC_QC, START, START + 1000, tick -> sum[0] += tick.getLast()));
+        assertEquals(500L * 501 / 2, sum[0]);
+    }
+
+    private static Tick tick(long time, long value) {
+        return new Tick(time, value + 1, value - 1, value, value, value + 1, 100);
+    }
+}
@@ -0,0 +1,74 @@
+package com.licc.trade.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.Test;
+
+import com.licc.btc.chbtcapi.enums.ETradeCurrency;
+import com.licc.btc.chbtcapi.util.FixedPoint;
+import com.licc.trade.domain.OrderNumber;
+
+/**
+ *
+ * @author lichangchao
+ * @version 1.0.0
+ * @date 2018/3/23 11:05
+ * @see
+ */
+public class TestOrderNumberIndex {
+    private static final int SCALE = ETradeCurrency.ZB_QC.getPriceScale();
+
+    /**
+     * 区间左开右闭，与线性查找结果一致
+     */
+    @Test
+    public void testFind() {
+        OrderNumberIndex index = OrderNumberIndex.compile(Arrays.asList(band("10", "15", 15), band("0", "10", 10), band("15", "999", 16)));
+        assertEquals(3, index.size());
+        assertNull(index.find(price("0")));
+        assertEquals(Integer.valueOf(10), index.find(price("0.0001")).getOrderNumber());
+        assertEquals(Integer.valueOf(10), index.find(price("10")).getOrderNumber());
+        assertEquals(Integer.valueOf(15), index.find(price("10.01")).getOrderNumber());
+        assertEquals(Integer.valueOf(16), index.find(price("999")).getOrderNumber());
+        assertNull(index.find(price("999.0001")));
+    }
+
+    @Test
+    public void testEmpty() {
+        assertSame(OrderNumberIndex.EMPTY, OrderNumberIndex.compile(Collections.emptyList()));
+        assertNull(OrderNumberIndex.EMPTY.find(price("1")));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testOverlap() {
+        OrderNumberIndex.compile(Arrays.asList(band("0", "10", 10), band("9", "15", 15)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testGap() {
+        OrderNumberIndex.compile(Arrays.asList(band("0", "10", 10), band("16", "999", 16)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testEmptyBand() {
+        OrderNumberIndex.compile(Collections.singletonList(band("10", "10", 10)));
+    }
+
+    private static long price(String s) {
+        return FixedPoint.parse(s, SCALE);
+    }
+
+    private static OrderNumber band(String start, String end, int number) {
+        OrderNumber orderNumber = new OrderNumber();
+        orderNumber.setCurrency(ETradeCurrency.ZB_QC.getValue());
+        orderNumber.setHightBuyStart(start);
+        orderNumber.setHightBuyEnd(end);
+        orderNumber.setOrderNumber(number);
+        return orderNumber;
+    }
+}
@@ -0,0 +1,60 @@
+package com.licc.trade.web;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.junit.Test;
+
+/**
+ * 令牌一致才放行，没有配置令牌时全部拒绝
+ *
+ * @author lichangchao
+ * @version 1.0.0
+ * @date 2018/3/28 16:30
+ * @see
+ */
+public class TestAdminTokenInterceptor {
+    // 返回的错误状态码
+    private final List<Integer> errors = new ArrayList<>();
+
+    @Test
+    public void testToken() throws Exception {
+        AdminTokenInterceptor interceptor = new AdminTokenInterceptor("secret");
+        assertTrue(interceptor.preHandle(request("secret"), response(), null));
+        assertFalse(interceptor.preHandle(request("wrong"), response(), null));
+        assertFalse(interceptor.preHandle(request(null), response(), null));
+        assertEquals(2, errors.size());
+        assertEquals(Integer.valueOf(HttpServletResponse.SC_UNAUTHORIZED), errors.get(0));
+    }
+
+    @Test
+    public void testNotConfigured() throws Exception {
+        AdminTokenInterceptor interceptor = new AdminTokenInterceptor("");
+        assertFalse(interceptor.preHandle(request(""), response(), null));
+        assertEquals(Integer.valueOf(HttpServletResponse.SC_FORBIDDEN), errors.get(0));
+    }
+
+    private static HttpServletRequest request(String token) {
+        return (HttpServletRequest) Proxy.newProxyInstance(TestAdminTokenInterceptor.class.getClassLoader(),
+                new Class<?>[] { HttpServletRequest.class },
+                (proxy, method, args) -> AdminTokenInterceptor.HEADER.equals(args[0]) ? token : null);
+    }
+
+    private HttpServletResponse response() {
+        return (HttpServletResponse) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] { HttpServletResponse.class },
+                (proxy, method, args) -> {
+                    if ("sendError".equals(method.getName())) {
+                        errors.add((Integer) args[0]);
+                    }
+                    return null;
+                });
+    }
+}